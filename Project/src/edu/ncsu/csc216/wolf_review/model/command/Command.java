@@ -60,45 +60,53 @@ private String commandInformation;
 	this.command = command;
 	this.commandInformation = commandInformation;
 	
-	if (command == CommandValue.ACCEPT && commandInformation != null) {
-	    throw new IllegalArgumentException("Invalid information.");
+	if (!isValid(command, commandInformation)) {
+		throw new IllegalArgumentException("Invalid information.");
 	}
+	 
+}
+
+/**
+ * Checks whether a command and its information make sense together, using the same rules
+ * as the constructor but without throwing
+ * @param command the action the user will perform on a paper
+ * @param commandInformation the extra information needed for some commands
+ * @return true if a Command can be created from the values
+ */
+	public static boolean isValid(CommandValue command, String commandInformation) {
 	if (command == null) { 
-		throw new IllegalArgumentException("Invalid information.");
+		return false;
+	}
+	if (command == CommandValue.ACCEPT && commandInformation != null) {
+	    return false;
 	}
 	if ((command == CommandValue.ASSIGN || command == CommandValue.PROCESS || command == CommandValue.RECOMMEND
 			|| command == CommandValue.CLOSE) && (commandInformation == null || commandInformation.isEmpty())) {
-		    throw new IllegalArgumentException("Invalid information.");
+		    return false;
 		} 
 	
 	if ((command == CommandValue.MODIFY || command == CommandValue.SUBMIT || command == CommandValue.PROPOSE)
 			&& commandInformation != null && !commandInformation.isEmpty()) {
-		throw new IllegalArgumentException("Invalid information.");
+		return false;
 	}
 	
 	if (command == CommandValue.RECOMMEND) {
-		if (!commandInformation.equals(Paper.RECOMMEND_STRONG_ACCEPT) &&
-		    !commandInformation.equals(Paper.RECOMMEND_WEAK_ACCEPT) &&
-		    !commandInformation.equals(Paper.RECOMMEND_WEAK_REJECT) &&
-		    !commandInformation.equals(Paper.RECOMMEND_STRONG_REJECT) ) {
-					throw new IllegalArgumentException("Invalid information.");
-				}
+		return commandInformation.equals(Paper.RECOMMEND_STRONG_ACCEPT) ||
+		    commandInformation.equals(Paper.RECOMMEND_WEAK_ACCEPT) ||
+		    commandInformation.equals(Paper.RECOMMEND_WEAK_REJECT) ||
+		    commandInformation.equals(Paper.RECOMMEND_STRONG_REJECT);
 	}
 			
 	if (command == CommandValue.CLOSE) {
-		if (!commandInformation.equals(Paper.WITHDRAW_CLOSED) &&
-			!commandInformation.equals(Paper.REJECT_CLOSED) &&
-			!commandInformation.equals(Paper.DUPLICATE_CLOSED)) {
-				throw new IllegalArgumentException("Invalid information.");
+		return commandInformation.equals(Paper.WITHDRAW_CLOSED) ||
+			commandInformation.equals(Paper.REJECT_CLOSED) ||
+			commandInformation.equals(Paper.DUPLICATE_CLOSED);
 	}
-		}
 	
 	if (command == CommandValue.PROCESS) {
-		if (!commandInformation.equals(Paper.ACCEPT_CLOSED)) {
-		throw new IllegalArgumentException("Invalid information.");
-		} 
+		return commandInformation.equals(Paper.ACCEPT_CLOSED);
 	}
-	 
+	return true;
 }
 			
 	
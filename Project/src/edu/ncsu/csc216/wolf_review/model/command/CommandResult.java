@@ -0,0 +1,25 @@
+package edu.ncsu.csc216.wolf_review.model.command;
+
+/**
+ * The outcome of running a command on a paper without exceptions. Callers that check many
+ * commands, such as script replays and bulk actions, get one of these codes back instead
+ * of catching an exception for every command that does not apply
+ * @author Steven Saleeb
+ */
+public enum CommandResult {
+
+	/** The command was valid for the paper's state and was applied */
+	APPLIED,
+
+	/** The command and its information are valid but the command is not allowed in the paper's state */
+	INVALID_FOR_STATE,
+
+	/** The command information does not match the command, so no Command could be created */
+	INVALID_INFO,
+
+	/** There is no paper with the given id */
+	NOT_FOUND,
+
+	/** The paper changed since the version the caller expected, so the command was not run */
+	CONFLICT
+}
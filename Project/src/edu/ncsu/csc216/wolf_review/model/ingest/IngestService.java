@@ -0,0 +1,338 @@
+package edu.ncsu.csc216.wolf_review.model.ingest;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import edu.ncsu.csc216.wolf_review.model.io.PaperTrackReader;
+import edu.ncsu.csc216.wolf_review.model.manager.PaperTrack;
+import edu.ncsu.csc216.wolf_review.model.manager.ReloadSummary;
+import edu.ncsu.csc216.wolf_review.model.manager.WolfReview;
+
+/**
+ * Watches a drop directory for paper track files and merges them into WolfReview in the
+ * background. A watcher thread notes every new or modified file, and a file is only handed
+ * on once it has been quiet for the debounce time, so a file that is still being written is
+ * read once when it is complete. Files that are ready wait in a bounded queue for a worker
+ * thread that parses them and merges the tracks. When the queue is full, ready files stay
+ * pending and are offered again on the next pass, and repeated changes to a pending file are
+ * folded into one, so the service never holds more than one entry per file however fast
+ * files arrive. Hidden files and names ending in ".tmp" are ignored, so a writer can create
+ * a file under a temporary name and rename it when it is done
+ * @author Steven Saleeb
+ */
+public class IngestService {
+
+	/** Debounce time used when none is given, in milliseconds */
+	public static final long DEFAULT_DEBOUNCE_MILLIS = 500;
+
+	/** Queue capacity used when none is given */
+	public static final int DEFAULT_QUEUE_CAPACITY = 16;
+
+	/** The model the tracks are merged into */
+	private final WolfReview model;
+
+	/** The directory that is watched */
+	private final Path directory;
+
+	/** Time a file must be quiet before it is parsed, in milliseconds */
+	private final long debounceMillis;
+
+	/** Files that changed and are waiting to be quiet, with the time of their last change */
+	private final Map<Path, Long> pending = new ConcurrentHashMap<Path, Long>();
+
+	/** Files that are in the queue or being parsed */
+	private final Set<Path> queued = ConcurrentHashMap.newKeySet();
+
+	/** Files ready to be parsed */
+	private final BlockingQueue<Path> queue;
+
+	/** Number of files merged */
+	private final AtomicLong ingested = new AtomicLong();
+
+	/** Number of files that could not be read or had no valid tracks */
+	private final AtomicLong failed = new AtomicLong();
+
+	/** Number of times a ready file had to wait because the queue was full */
+	private final AtomicLong deferred = new AtomicLong();
+
+	/** The changes made by the most recent file that was merged */
+	private volatile ReloadSummary lastSummary;
+
+	/** The watch service, null until the service is started */
+	private WatchService watchService;
+
+	/** Thread that watches the directory and debounces changes */
+	private Thread watcher;
+
+	/** Thread that parses and merges files */
+	private Thread worker;
+
+	/** Whether the service is running */
+	private volatile boolean running;
+
+	/**
+	 * Creates a service for the given directory with the default debounce time and queue capacity
+	 * @param model the model to merge tracks into
+	 * @param directory the directory to watch
+	 * @throws IllegalArgumentException if the model is null or the directory does not exist
+	 */
+	public IngestService(WolfReview model, Path directory) {
+		this(model, directory, DEFAULT_DEBOUNCE_MILLIS, DEFAULT_QUEUE_CAPACITY);
+	}
+
+	/**
+	 * Creates a service for the given directory, the directory is not watched until start is called
+	 * @param model the model to merge tracks into
+	 * @param directory the directory to watch
+	 * @param debounceMillis time a file must be quiet before it is parsed, in milliseconds
+	 * @param queueCapacity largest number of files waiting to be parsed
+	 * @throws IllegalArgumentException if the model is null, the directory does not exist,
+	 * the debounce time is negative or the capacity is less than one
+	 */
+	public IngestService(WolfReview model, Path directory, long debounceMillis, int queueCapacity) {
+		if (model == null || directory == null || !Files.isDirectory(directory) || debounceMillis < 0
+				|| queueCapacity < 1) {
+			throw new IllegalArgumentException("Invalid information.");
+		}
+		this.model = model;
+		this.directory = directory;
+		this.debounceMillis = debounceMillis;
+		this.queue = new ArrayBlockingQueue<Path>(queueCapacity);
+	}
+
+	/**
+	 * Starts watching the directory. Files already in the directory are ingested as well
+	 * @throws IOException if the directory cannot be watched
+	 * @throws IllegalStateException if the service is already running
+	 */
+	public synchronized void start() throws IOException {
+		if (running) {
+			throw new IllegalStateException("Ingest service is already running.");
+		}
+		watchService = FileSystems.getDefault().newWatchService();
+		directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+		running = true;
+		scanDirectory();
+		watcher = Thread.ofPlatform().daemon().name("wolfreview-ingest-watcher").start(this::watch);
+		worker = Thread.ofPlatform().daemon().name("wolfreview-ingest-worker").start(this::work);
+	}
+
+	/**
+	 * Stops watching the directory and waits for the file being parsed, if any, to be merged.
+	 * Files still pending or queued are not ingested
+	 * @throws InterruptedException if interrupted while waiting for the threads to finish
+	 */
+	public synchronized void stop() throws InterruptedException {
+		if (!running) {
+			return;
+		}
+		running = false;
+		try {
+			watchService.close();
+		} catch (IOException e) {
+			// the watcher thread stops when the service is closed either way
+		}
+		watcher.interrupt();
+		worker.interrupt();
+		watcher.join();
+		worker.join();
+		pending.clear();
+		queue.clear();
+		queued.clear();
+	}
+
+	/**
+	 * Returns whether the service is running
+	 * @return true if the directory is being watched
+	 */
+	public boolean isRunning() {
+		return running;
+	}
+
+	/**
+	 * Returns the number of files merged
+	 * @return the number of files
+	 */
+	public long getIngestedCount() {
+		return ingested.get();
+	}
+
+	/**
+	 * Returns the number of files that could not be read or had no valid tracks
+	 * @return the number of files
+	 */
+	public long getFailedCount() {
+		return failed.get();
+	}
+
+	/**
+	 * Returns the number of times a ready file had to wait because the queue was full
+	 * @return the number of times
+	 */
+	public long getDeferredCount() {
+		return deferred.get();
+	}
+
+	/**
+	 * Returns the number of files waiting to be quiet or waiting for room in the queue
+	 * @return the number of files
+	 */
+	public int getPendingCount() {
+		return pending.size();
+	}
+
+	/**
+	 * Returns the changes made by the most recent file that was merged
+	 * @return the summary or null if no file has been merged
+	 */
+	public ReloadSummary getLastSummary() {
+		return lastSummary;
+	}
+
+	/**
+	 * Notes every file already in the directory as changed
+	 * @throws IOException if the directory cannot be listed
+	 */
+	private void scanDirectory() throws IOException {
+		long now = System.nanoTime();
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+			for (Path file : files) {
+				changed(file, now);
+			}
+		}
+	}
+
+	/**
+	 * Notes that a file changed, ignoring directories, hidden files and temporary files
+	 * @param file the file that changed
+	 * @param now the time of the change from System.nanoTime
+	 */
+	private void changed(Path file, long now) {
+		String name = file.getFileName().toString();
+		if (name.startsWith(".") || name.endsWith(".tmp") || Files.isDirectory(file)) {
+			return;
+		}
+		pending.put(file, now);
+	}
+
+	/**
+	 * Runs on the watcher thread: collects change events and hands quiet files to the queue
+	 */
+	private void watch() {
+		long tick = Math.max(1, debounceMillis / 2);
+		try {
+			while (running) {
+				WatchKey key = watchService.poll(tick, TimeUnit.MILLISECONDS);
+				if (key != null) {
+					long now = System.nanoTime();
+					for (WatchEvent<?> event : key.pollEvents()) {
+						if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+							scanDirectory();
+						} else {
+							changed(directory.resolve((Path) event.context()), now);
+						}
+					}
+					key.reset();
+				}
+				offerQuietFiles();
+			}
+		} catch (InterruptedException | ClosedWatchServiceException e) {
+			// stopped
+		} catch (IOException e) {
+			running = false;
+		}
+	}
+
+	/**
+	 * Moves every pending file that has been quiet for the debounce time into the queue,
+	 * leaving it pending if the queue is full or the file is already queued
+	 */
+	private void offerQuietFiles() {
+		long quietSince = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(debounceMillis);
+		Iterator<Map.Entry<Path, Long>> entries = pending.entrySet().iterator();
+		while (entries.hasNext()) {
+			Map.Entry<Path, Long> entry = entries.next();
+			Path file = entry.getKey();
+			if (entry.getValue() - quietSince > 0 || queued.contains(file)) {
+				continue;
+			}
+			if (queue.remainingCapacity() == 0) {
+				deferred.incrementAndGet();
+				return;
+			}
+			if (pending.remove(file, entry.getValue())) {
+				queued.add(file);
+				queue.add(file);
+			}
+		}
+	}
+
+	/**
+	 * Runs on the worker thread: parses queued files and merges their tracks. A file that
+	 * fails in any way is counted as failed, and the worker goes on with the next file
+	 */
+	private void work() {
+		try {
+			while (running) {
+				Path file = queue.take();
+				try {
+					ingest(file);
+				} catch (RuntimeException e) {
+					failed.incrementAndGet();
+				} finally {
+					queued.remove(file);
+				}
+			}
+		} catch (InterruptedException e) {
+			// stopped
+		}
+	}
+
+	/**
+	 * Parses one file and merges its tracks into the model. The file is parsed without
+	 * holding any lock, so only the merge itself is done under the model's lock. A merge can
+	 * fail when a track cannot be read from or written to its store, or a listener fails,
+	 * and is then counted as failed
+	 * @param file the file to ingest
+	 */
+	private void ingest(Path file) {
+		if (!Files.isRegularFile(file)) {
+			return;
+		}
+		ArrayList<PaperTrack> tracks;
+		try {
+			tracks = PaperTrackReader.readPaperTrackFile(file.toString());
+		} catch (IllegalArgumentException e) {
+			failed.incrementAndGet();
+			return;
+		}
+		if (tracks.isEmpty()) {
+			failed.incrementAndGet();
+			return;
+		}
+		try {
+			lastSummary = model.mergeTracks(tracks);
+		} catch (RuntimeException e) {
+			failed.incrementAndGet();
+			return;
+		}
+		ingested.incrementAndGet();
+	}
+}
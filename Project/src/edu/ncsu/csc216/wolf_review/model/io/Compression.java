@@ -0,0 +1,105 @@
+package edu.ncsu.csc216.wolf_review.model.io;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * The compression formats a paper track file can be stored in. Compressed files hold the
+ * same text as plain files and are read and written as streams, so a file is never held
+ * in memory whole. When reading, the format is found from the first bytes of the file, so
+ * a compressed file is read correctly whatever its name. When writing, the format is
+ * chosen from the extension of the file name
+ * @author Steven Saleeb
+ */
+public enum Compression {
+
+	/** Plain text */
+	NONE,
+
+	/** Gzip, written for names ending in ".gz" */
+	GZIP,
+
+	/** Deflate in the zlib format, written for names ending in ".zz" or ".deflate" */
+	DEFLATE;
+
+	/** Size of the buffers of the compressed streams */
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	/**
+	 * Returns the format to write for a file name
+	 * @param fileName the name of the file
+	 * @return the format for the extension of the name
+	 */
+	public static Compression forFileName(String fileName) {
+		String name = fileName.toLowerCase();
+		if (name.endsWith(".gz")) {
+			return GZIP;
+		}
+		if (name.endsWith(".zz") || name.endsWith(".deflate")) {
+			return DEFLATE;
+		}
+		return NONE;
+	}
+
+	/**
+	 * Finds the format of a stream from its first bytes without consuming them
+	 * @param in the stream, which must support mark and reset
+	 * @return the format of the stream
+	 * @throws IOException if the stream cannot be read
+	 */
+	public static Compression detect(BufferedInputStream in) throws IOException {
+		in.mark(2);
+		int first = in.read();
+		int second = in.read();
+		in.reset();
+		if (first == 0x1f && second == 0x8b) {
+			return GZIP;
+		}
+		if (first >= 0 && second >= 0 && (first & 0x0f) == 8 && ((first << 8) | second) % 31 == 0) {
+			return DEFLATE;
+		}
+		return NONE;
+	}
+
+	/**
+	 * Wraps a stream so the text of the file can be read from it, finding the format from
+	 * the first bytes of the stream
+	 * @param in the stream of the file
+	 * @return a stream of the text of the file
+	 * @throws IOException if the stream cannot be read
+	 */
+	public static InputStream decompress(InputStream in) throws IOException {
+		BufferedInputStream buffered = new BufferedInputStream(in, BUFFER_SIZE);
+		switch (detect(buffered)) {
+		case GZIP:
+			return new GZIPInputStream(buffered, BUFFER_SIZE);
+		case DEFLATE:
+			return new InflaterInputStream(buffered);
+		default:
+			return buffered;
+		}
+	}
+
+	/**
+	 * Wraps a stream so the text written to it is stored in this format
+	 * @param out the stream of the file
+	 * @return a stream to write the text of the file to, closing it finishes the file
+	 * @throws IOException if the stream cannot be written
+	 */
+	public OutputStream compress(OutputStream out) throws IOException {
+		switch (this) {
+		case GZIP:
+			return new GZIPOutputStream(out, BUFFER_SIZE);
+		case DEFLATE:
+			return new DeflaterOutputStream(out);
+		default:
+			return out;
+		}
+	}
+}
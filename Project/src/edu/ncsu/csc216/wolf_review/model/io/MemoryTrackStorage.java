@@ -0,0 +1,148 @@
+package edu.ncsu.csc216.wolf_review.model.io;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+
+import edu.ncsu.csc216.wolf_review.model.manager.PaperTrack;
+import edu.ncsu.csc216.wolf_review.model.paper.Paper;
+import edu.ncsu.csc216.wolf_review.model.paper.PaperView;
+
+/**
+ * Stores PaperTracks in memory, for tests and for measuring the other storages against.
+ * Each track is kept as its settings and the views of its papers, so loading always makes
+ * new tracks and later changes to a loaded track are not seen until it is saved or appended
+ * @author Steven Saleeb
+ */
+public class MemoryTrackStorage implements TrackStorage {
+
+	/** The settings and papers of each stored track, keyed by track name in stored order */
+	private final Map<String, StoredTrack> stored = new LinkedHashMap<String, StoredTrack>();
+
+	/** The version of each track when this storage last loaded or saved it */
+	private final Map<PaperTrack, Long> versions = new WeakHashMap<PaperTrack, Long>();
+
+	/**
+	 * The settings and papers of one stored track
+	 */
+	private static final class StoredTrack {
+
+		/** The page limit of the track */
+		private final int pageLimit;
+
+		/** The extra page pay rate of the track */
+		private final int payRate;
+
+		/** The papers of the track by id */
+		private final TreeMap<Integer, PaperView> papers = new TreeMap<Integer, PaperView>();
+
+		/**
+		 * Copies the settings and papers of a track
+		 * @param track the track to copy
+		 */
+		StoredTrack(PaperTrack track) {
+			pageLimit = track.getPageLimit();
+			payRate = track.getPayRateExtraPages();
+			for (PaperView paper : track.getSnapshot().getAllPapers()) {
+				papers.put(paper.getId(), paper);
+			}
+		}
+	}
+
+	/**
+	 * Makes a new track from every stored track
+	 * @return the tracks in stored order
+	 */
+	@Override
+	public synchronized ArrayList<PaperTrack> loadAll() {
+		ArrayList<PaperTrack> tracks = new ArrayList<PaperTrack>();
+		for (String trackName : stored.keySet()) {
+			tracks.add(loadTrack(trackName));
+		}
+		return tracks;
+	}
+
+	/**
+	 * Makes a new track from a stored track, adding its papers in one publish
+	 * @param trackName the name of the track
+	 * @return the track or null if no track with the name is stored
+	 */
+	@Override
+	public synchronized PaperTrack loadTrack(String trackName) {
+		StoredTrack track = stored.get(trackName);
+		if (track == null) {
+			return null;
+		}
+		PaperTrack loaded = new PaperTrack(trackName, track.pageLimit, track.payRate);
+		List<Paper> papers = new ArrayList<Paper>(track.papers.size());
+		for (PaperView p : track.papers.values()) {
+			papers.add(Paper.restore(p.getId(), p.getState(), p.getAuthorNames(), p.getPaperType(),
+					p.isProcessed(), p.getReviewer(), p.getNote()));
+		}
+		loaded.addPapers(papers);
+		versions.put(loaded, loaded.getSnapshot().getVersion());
+		return loaded;
+	}
+
+	/**
+	 * Replaces the stored tracks with copies of the given tracks
+	 * @param tracks the tracks to save
+	 */
+	@Override
+	public synchronized void saveAll(List<PaperTrack> tracks) {
+		stored.clear();
+		for (PaperTrack track : tracks) {
+			save(track);
+		}
+	}
+
+	/**
+	 * Stores copies of the tracks that are new or changed
+	 * @param tracks the tracks to save
+	 * @return the number of tracks that were new or changed
+	 */
+	@Override
+	public synchronized int saveDirty(List<PaperTrack> tracks) {
+		int dirty = 0;
+		for (PaperTrack track : tracks) {
+			Long version = versions.get(track);
+			if (version == null || version != track.getSnapshot().getVersion()) {
+				save(track);
+				dirty++;
+			}
+		}
+		return dirty;
+	}
+
+	/**
+	 * Applies one change to the stored copy of a track, storing the track first if it is new.
+	 * Papers removed by unloading or archiving the track are still stored, so they are kept
+	 * @param track the track of the paper
+	 * @param before the paper before the change, or null if it was added
+	 * @param after the paper after the change, or null if it was deleted
+	 */
+	@Override
+	public synchronized void append(PaperTrack track, PaperView before, PaperView after) {
+		StoredTrack copy = stored.get(track.getTrackName());
+		if (copy == null) {
+			save(track);
+		} else if (after != null) {
+			copy.papers.put(after.getId(), after);
+		} else if (track.isLoaded() && !track.getSnapshot().getArchive().contains(before.getId())) {
+			copy.papers.remove(before.getId());
+		}
+	}
+
+	/**
+	 * Stores a copy of a track and records its version
+	 * @param track the track to store
+	 */
+	private void save(PaperTrack track) {
+		long version = track.getSnapshot().getVersion();
+		stored.put(track.getTrackName(), new StoredTrack(track));
+		versions.put(track, version);
+	}
+}
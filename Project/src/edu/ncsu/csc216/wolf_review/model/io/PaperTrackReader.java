@@ -1,12 +1,22 @@
 
 package edu.ncsu.csc216.wolf_review.model.io;
 
+import java.io.BufferedReader;
+import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.util.ArrayList;
-import java.util.Scanner;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
+import edu.ncsu.csc216.wolf_review.model.io.ParseDiagnostics.Reason;
 import edu.ncsu.csc216.wolf_review.model.manager.PaperTrack;
+import edu.ncsu.csc216.wolf_review.model.metrics.LoadEvent;
+import edu.ncsu.csc216.wolf_review.model.metrics.Metrics;
 import edu.ncsu.csc216.wolf_review.model.paper.Paper;
 
 /**
@@ -27,103 +37,296 @@ public class PaperTrackReader {
 	 * @throws IllegalArgumentException if the file cannot be opened
 	 */
 	public static ArrayList<PaperTrack> readPaperTrackFile(String fileName) {
+		return readPaperTrackFile(fileName, null);
+	}
+
+	/**
+	 * Reads a file containing multiple paper tracks one line at a time and reports every line
+	 * that could not be loaded to the diagnostics. A file compressed with gzip or deflate is
+	 * found from its first bytes and read as a stream. A track with an invalid header or with no
+	 * valid papers is dropped, a paper with an invalid line or a duplicate id is skipped, and
+	 * nothing is loaded if the file does not start with a track header. While every track of
+	 * the file so far ended with a checksum line that matched, the lines of a track are held
+	 * until its checksum line, and if it matches the papers are restored without checking them
+	 * again, as they are exactly what the PaperTrackWriter wrote. Once a track ends without a
+	 * matching checksum, such as in a file written by hand, every later line is checked as a
+	 * paper as it arrives and only the valid papers are held until the track ends
+	 * @param fileName the name of the file to read
+	 * @param diagnostics the collector for rejected lines, or null to not collect them
+	 * @return a list of paper track objects
+	 * @throws IllegalArgumentException if the file cannot be opened or read
+	 */
+	public static ArrayList<PaperTrack> readPaperTrackFile(String fileName, ParseDiagnostics diagnostics) {
+		long start = System.nanoTime();
+		LoadEvent event = new LoadEvent();
+		event.begin();
 		ArrayList<PaperTrack> tracks = new ArrayList<PaperTrack>();
+		int paperLines = 0;
 		
-		String file = "";
-		try {
-			FileInputStream theReader = new FileInputStream(fileName);
-            Scanner in = new Scanner(theReader);
-            
-            while(in.hasNextLine()) {
-            	file += in.nextLine() + "\n";
-            }
-            in.close();
-            file = file.trim();
-            if (file.isEmpty() || file.charAt(0) != '#') {
-            	return tracks;
-            }
-            
-            Scanner scanner = new Scanner(file);
-            scanner.useDelimiter("\\r?\\n?[#]");
-            
-            while (scanner.hasNext()) {
-            	String string = scanner.next().trim();
-            	if (!string.isEmpty()) {
-            		PaperTrack track = processPaperTrack(string);
-            		if(track != null) {
-            			tracks.add(track);
-            		}
-            	}
-            }
-            scanner.close();
-            
-		} catch (FileNotFoundException e) {
+		try (InputStream file = new FileInputStream(fileName);
+				BufferedReader in = new BufferedReader(new InputStreamReader(Compression.decompress(file)))) {
+			Section section = null;
+			boolean verified = true;
+			int lineNumber = 0;
+			String text;
+			
+			while ((text = in.readLine()) != null) {
+				lineNumber++;
+				String line = text.trim();
+				if (line.isEmpty()) {
+					continue;
+				}
+				if (line.charAt(0) == '#') {
+					if (section != null) {
+						verified &= !section.isHolding();
+						paperLines += section.flush(diagnostics, false);
+						addTrack(tracks, section.track, diagnostics, section.headerLine, section.header);
+					}
+					section = new Section(processPaperTrackLine(line.substring(1).trim()), line, lineNumber, verified);
+					section.checksum.update(text);
+					if (section.track == null) {
+						reject(diagnostics, lineNumber, null, Reason.INVALID_HEADER, null, text);
+					}
+					continue;
+				}
+				if (section == null) {
+					reject(diagnostics, lineNumber, null, Reason.MISSING_HEADER, null, text);
+					break;
+				}
+				if (line.charAt(0) == SectionChecksum.MARKER) {
+					boolean matches = section.checksum.matches(line);
+					verified &= matches || !section.isHolding();
+					paperLines += section.flush(diagnostics, matches);
+					continue;
+				}
+				section.checksum.update(text);
+				section.add(diagnostics, lineNumber, text);
+			}
+			if (section != null) {
+				paperLines += section.flush(diagnostics, false);
+				addTrack(tracks, section.track, diagnostics, section.headerLine, section.header);
+			}
+		} catch (IOException e) {
 			throw new IllegalArgumentException("Unable to load file.");
 		}
+		Metrics.getInstance().recordLoad(System.nanoTime() - start);
+		commitLoadEvent(event, fileName, tracks, paperLines);
 		return tracks;
 	}
-	
+
 	/**
-	 * Processes the text of a single paper track and converting it into a PaperTrack object and 
-	 * it also reads all the papers that belong to that track and adds them
-	 * @param paperTrackText the text representing the paper track from the file
-	 * @return a paper track object 
+	 * The lines of one track of a file that have been read but not yet loaded
 	 */
-	private static PaperTrack processPaperTrack(String paperTrackText) {
-		
-		if (paperTrackText == null || paperTrackText.isEmpty()) {
-		    return null;
+	private static class Section {
+
+		/** The track, or null if its header was rejected */
+		private final PaperTrack track;
+
+		/** The text of the track's header */
+		private final String header;
+
+		/** The line number of the track's header */
+		private final int headerLine;
+
+		/** The checksum of the lines of the track read so far */
+		private final SectionChecksum checksum = new SectionChecksum();
+
+		/** Whether lines are held as text until the checksum line, or checked as they arrive */
+		private boolean holding;
+
+		/** The text of each line held so far */
+		private final List<String> lines = new ArrayList<String>();
+
+		/** The line number of each line held so far */
+		private int[] lineNumbers = new int[16];
+
+		/** The valid papers read so far */
+		private final List<Paper> papers = new ArrayList<Paper>();
+
+		/** The ids of the papers read so far */
+		private final Set<Integer> ids = new HashSet<Integer>();
+
+		/** The number of paper lines read so far */
+		private int paperLines;
+
+		/**
+		 * Starts a track section
+		 * @param track the track, or null if its header was rejected
+		 * @param header the text of the header
+		 * @param headerLine the line number of the header
+		 * @param holding whether lines are held until the checksum line
+		 */
+		Section(PaperTrack track, String header, int headerLine, boolean holding) {
+			this.track = track;
+			this.header = header;
+			this.headerLine = headerLine;
+			this.holding = holding;
 		}
-		
-		Scanner in = new Scanner(paperTrackText);
-		in.useDelimiter("\\r?\\n");
-		
-		if (!in.hasNext()) {
-	        in.close();
-	        return null;
-	    }
-		
-		PaperTrack paperTrack = processPaperTrackLine(in.next().trim());
-		
-		if (paperTrack == null) {
-		    in.close();
-		    return null;
+
+		/**
+		 * Returns whether lines are held as text until the checksum line
+		 * @return true if lines are held
+		 */
+		boolean isHolding() {
+			return holding;
+		}
+
+		/**
+		 * Holds a line of the track until its checksum line, or reads it as a paper now if
+		 * lines are not held
+		 * @param diagnostics the collector for rejected lines, or null
+		 * @param lineNumber the line number
+		 * @param text the text of the line
+		 */
+		void add(ParseDiagnostics diagnostics, int lineNumber, String text) {
+			if (!holding) {
+				read(diagnostics, lineNumber, text, false);
+				return;
+			}
+			if (lines.size() == lineNumbers.length) {
+				lineNumbers = Arrays.copyOf(lineNumbers, lineNumbers.length * 2);
+			}
+			lineNumbers[lines.size()] = lineNumber;
+			lines.add(text);
+		}
+
+		/**
+		 * Reads a line of the track as a paper, or reports it with its text as it is in the
+		 * file if it cannot be loaded
+		 * @param diagnostics the collector for rejected lines, or null
+		 * @param lineNumber the line number
+		 * @param text the text of the line
+		 * @param trusted true if the line matched its checksum, so the paper is not checked
+		 */
+		private void read(ParseDiagnostics diagnostics, int lineNumber, String text,
+				boolean trusted) {
+			String line = text.trim();
+			if (line.charAt(0) != '*') {
+				reject(diagnostics, lineNumber, trackName(track), Reason.NOT_A_PAPER, null, text);
+				return;
+			}
+			paperLines++;
+			if (track == null) {
+				reject(diagnostics, lineNumber, null, Reason.NO_TRACK, null, text);
+				return;
+			}
+			Paper paper;
+			try {
+				String paperLine = line.substring(1).trim();
+				paper = trusted ? restorePaper(paperLine) : processPaper(paperLine);
+			} catch (RuntimeException e) {
+				reject(diagnostics, lineNumber, track.getTrackName(), Reason.INVALID_PAPER, e.getMessage(), text);
+				return;
+			}
+			if (paper == null) {
+				reject(diagnostics, lineNumber, track.getTrackName(), Reason.INVALID_PAPER, null, text);
+			} else if (!ids.add(paper.getId()) || track.getSnapshot().getPaperById(paper.getId()) != null) {
+				reject(diagnostics, lineNumber, track.getTrackName(), Reason.DUPLICATE_ID,
+						"Paper " + paper.getId() + " already loaded.", text);
+			} else {
+				papers.add(paper);
+			}
+		}
+
+		/**
+		 * Reads the lines held so far, restoring the papers without checking them if the lines
+		 * matched their checksum and checking every paper otherwise, and loads the valid papers
+		 * into the track. The papers are added to the track together, so the track publishes one
+		 * snapshot for the whole section. Once lines did not match a checksum, later lines of the
+		 * section are no longer held
+		 * @param diagnostics the collector for rejected lines, or null
+		 * @param trusted true if the lines matched their checksum, so the papers are not checked
+		 * @return the number of paper lines loaded or rejected
+		 */
+		int flush(ParseDiagnostics diagnostics, boolean trusted) {
+			for (int i = 0; i < lines.size(); i++) {
+				read(diagnostics, lineNumbers[i], lines.get(i), trusted);
+			}
+			if (!trusted && !lines.isEmpty()) {
+				holding = false;
+			}
+			if (track != null) {
+				track.addPapers(papers);
+			}
+			int count = paperLines;
+			lines.clear();
+			papers.clear();
+			ids.clear();
+			paperLines = 0;
+			return count;
 		}
-		
-		boolean papers = false;
-	    
-		while (in.hasNext()) {
-			String line = in.next().trim();
-	        if (line.isEmpty()) {
-	            continue;
-	        }
-	        if (line.isEmpty() || !line.startsWith("*")) {
-	            continue;
-	        }
-	        line = line.substring(1).trim();
-	        
-	        try {
-	            Paper paper = processPaper(line);
-	            if (paper != null) {
-	            	 if (paperTrack.getPaperById(paper.getId()) != null) {
-	                     continue; 
-	                 }
-	            	 
-	            	paperTrack.addPaper(paper);
-	            	papers = true;
-	            }
-	        } catch (Exception e) {  
-	          continue;
-	        }
-	   }
-	    in.close();
-	    
-	    if (!papers) {
-	        return null;
-	    }
-	    return paperTrack;
 	}
-	
+	/**
+	 * Adds a finished track to the list if it has papers, a track without papers is dropped
+	 * @param tracks the tracks read so far
+	 * @param track the finished track, or null if its header was rejected
+	 * @param diagnostics the collector for rejected lines, or null
+	 * @param headerLine the line number of the track's header
+	 * @param header the text of the track's header
+	 */
+	private static void addTrack(ArrayList<PaperTrack> tracks, PaperTrack track, ParseDiagnostics diagnostics,
+			int headerLine, String header) {
+		if (track == null) {
+			return;
+		}
+		if (track.getSnapshot().size() == 0) {
+			if (diagnostics != null) {
+				diagnostics.reject(headerLine, track.getTrackName(), Reason.EMPTY_TRACK, null, header);
+			}
+			return;
+		}
+		tracks.add(track);
+	}
+
+	/**
+	 * Counts a rejected line and reports it to the diagnostics
+	 * @param diagnostics the collector for rejected lines, or null
+	 * @param lineNumber the line number
+	 * @param trackName the name of the line's track or null
+	 * @param reason why the line was rejected
+	 * @param message a description of the problem or null
+	 * @param text the text of the line
+	 */
+	private static void reject(ParseDiagnostics diagnostics, int lineNumber, String trackName,
+			Reason reason, String message, String text) {
+		Metrics.getInstance().recordParseError(reason);
+		if (diagnostics != null) {
+			diagnostics.reject(lineNumber, trackName, reason, message, text);
+		}
+	}
+
+	/**
+	 * Returns the name of a track
+	 * @param track the track or null
+	 * @return the name or null if there is no track
+	 */
+	private static String trackName(PaperTrack track) {
+		return track == null ? null : track.getTrackName();
+	}
+
+	/**
+	 * Fills in and commits the Flight Recorder event of a load if it is being recorded
+	 * @param event the event begun when the load started
+	 * @param fileName the name of the file read
+	 * @param tracks the tracks that were loaded
+	 * @param paperLines the number of paper lines in the file
+	 */
+	private static void commitLoadEvent(LoadEvent event, String fileName, ArrayList<PaperTrack> tracks,
+			int paperLines) {
+		if (!event.shouldCommit()) {
+			return;
+		}
+		int papers = 0;
+		for (PaperTrack track : tracks) {
+			papers += track.getSnapshot().size();
+		}
+		event.file = fileName;
+		event.bytes = new File(fileName).length();
+		event.tracks = tracks.size();
+		event.papers = papers;
+		event.rejectedLines = paperLines - papers;
+		event.commit();
+	}
 	
 	/**
 	 * Processes the first line of a paper track to create a PaperTrack object
@@ -159,46 +362,67 @@ public class PaperTrackReader {
 	}
 	
 	/**
-	 * Processes a single line of text representing a Paper and creates it 
+	 * Processes a single line of text representing a Paper and creates it, checking the
+	 * paper with the full constructor
 	 * @param paperLine the line of text representing one paper 
-	 * @return a paper object created from the line
+	 * @return a paper object created from the line, or null if the line is empty
 	 * @throws IllegalArgumentException if the format is incorrect
 	 */
-	private static Paper processPaper(String paperLine) {
+	static Paper processPaper(String paperLine) {
 		if (paperLine == null || paperLine.trim().isEmpty()) {
 			return null;
 		}
-		
-		Scanner in = new Scanner(paperLine);
-		in.useDelimiter(",");
-		
-		int id = in.nextInt();
-		
-		String state = in.next().trim();
-		
-		String authorNames = in.next().trim();
-		
-		String paperType = in.next().trim();
-		
-		boolean processed = in.nextBoolean();
-		
-		String reviewer = in.next().trim();
-		
-		String note = "";
-		
-		if(in.hasNext()) {
-			note = in.next();
+		String[] fields = splitPaper(paperLine);
+		return new Paper(Integer.parseInt(fields[0]), fields[1], fields[2], fields[3], Boolean.parseBoolean(fields[4]),
+				fields[5], fields[6]);
+	}
+
+	/**
+	 * Reads a single line of text representing a Paper that matched its checksum, so the
+	 * paper is restored without checking it again
+	 * @param paperLine the line of text representing one paper
+	 * @return a paper object read from the line, or null if the line is empty
+	 * @throws IllegalArgumentException if the format is incorrect
+	 */
+	private static Paper restorePaper(String paperLine) {
+		if (paperLine.isEmpty()) {
+			return null;
+		}
+		String[] fields = splitPaper(paperLine);
+		return Paper.restore(Integer.parseInt(fields[0]), fields[1], fields[2], fields[3],
+				Boolean.parseBoolean(fields[4]), fields[5], fields[6]);
+	}
+
+	/**
+	 * Splits the text of a paper line into its fields and checks its format. The line is
+	 * split on commas like a Scanner with a comma delimiter would split it, where a comma at
+	 * the end of the line does not start another field, without the cost of making a Scanner
+	 * for every line
+	 * @param paperLine the text of the paper line after its marker
+	 * @return the id, state, author names, paper type, processed flag, reviewer and note, with
+	 * the note empty if the line has none
+	 * @throws IllegalArgumentException if the line does not have six or seven fields or the
+	 * processed flag is not true or false
+	 */
+	private static String[] splitPaper(String paperLine) {
+		String[] fields = paperLine.split(",", -1);
+		int count = fields.length;
+		if (count > 1 && fields[count - 1].isEmpty()) {
+			count--;
 		}
-		if (in.hasNext()) {
-			in.close();
-			throw new IllegalArgumentException("");
+		if (count < 6 || count > 7) {
+			throw new IllegalArgumentException("Invalid information.");
 		}
-		
-		Paper paper = new Paper(id, state, authorNames, paperType, processed, reviewer, note);
-		in.close();
-		return paper;
-		
+		if (!"true".equalsIgnoreCase(fields[4]) && !"false".equalsIgnoreCase(fields[4])) {
+			throw new IllegalArgumentException("Invalid information.");
+		}
+		if (fields.length < 7) {
+			fields = Arrays.copyOf(fields, 7);
+		}
+		for (int i = 1; i <= 5; i++) {
+			fields[i] = fields[i].trim();
+		}
+		fields[6] = count == 7 ? fields[6] : "";
+		return fields;
 	}
-		
-	
 }
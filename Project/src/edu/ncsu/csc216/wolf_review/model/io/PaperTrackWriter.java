@@ -6,12 +6,20 @@ package edu.ncsu.csc216.wolf_review.model.io;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.io.File;
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 
 import edu.ncsu.csc216.wolf_review.model.manager.PaperTrack;
-import edu.ncsu.csc216.wolf_review.model.paper.Paper;
+import edu.ncsu.csc216.wolf_review.model.manager.TrackSnapshot;
+import edu.ncsu.csc216.wolf_review.model.metrics.Metrics;
+import edu.ncsu.csc216.wolf_review.model.metrics.SaveEvent;
+import edu.ncsu.csc216.wolf_review.model.paper.PaperView;
 
 
 /**
@@ -24,36 +32,162 @@ public class PaperTrackWriter {
 	
 	/**
 	 * Writes the given list of PaperTracks to the specified file.
-	 * Each PaperTrack and its Papers are written in the proper format that the PaperTrackReader can read later
+	 * Each PaperTrack and its Papers are written in the proper format that the PaperTrackReader can read later.
+	 * Each track is written from one snapshot, so a change made while saving is never half written.
+	 * A name ending in ".gz" is written with gzip and a name ending in ".zz" or ".deflate" with deflate
 	 * @param fileName the name of the file
 	 * @param paperTracks the list of paperTrack objects to write
 	 * @throws IllegalArgumentException if the file cannot be created or written to
 	 */
 	public static void writePaperTracksToFile(String fileName, ArrayList<PaperTrack> paperTracks ) {
+		writePaperTracksToFile(fileName, paperTracks, Compression.forFileName(fileName));
+	}
+
+	/**
+	 * Writes the given list of PaperTracks to the specified file in the given compression format.
+	 * The text is compressed as it is written, so the whole file is never held in memory
+	 * @param fileName the name of the file
+	 * @param paperTracks the list of paperTrack objects to write
+	 * @param compression the format to write the file in
+	 * @throws IllegalArgumentException if the file cannot be created or written to
+	 */
+	public static void writePaperTracksToFile(String fileName, ArrayList<PaperTrack> paperTracks,
+			Compression compression) {
+		writePaperTracksToFile(fileName, paperTracks, compression, false);
+	}
+
+	/**
+	 * Writes the given list of PaperTracks to the specified file in the given compression format,
+	 * optionally ending each track with a checksum line. The PaperTrackReader builds the papers
+	 * of a section whose checksum matches without checking them again, which makes loading a
+	 * file this class wrote faster. Files meant to be edited by hand should be written without checksums.
+	 * The file is written under a temporary name and moved into place once every line was
+	 * written, so a save that fails part way leaves the previous file as it was. Every save
+	 * gets its own temporary file, so two saves of the same file never write into each other
+	 * @param fileName the name of the file
+	 * @param paperTracks the list of paperTrack objects to write
+	 * @param compression the format to write the file in
+	 * @param checksums whether to write a checksum line after each track
+	 * @throws IllegalArgumentException if the file cannot be created or written to
+	 */
+	public static void writePaperTracksToFile(String fileName, ArrayList<PaperTrack> paperTracks,
+			Compression compression, boolean checksums) {
 		
+		long start = System.nanoTime();
+		SaveEvent event = new SaveEvent();
+		event.begin();
+		int tracks = 0;
+		int written = 0;
 		PrintStream write;
+		Path file = Paths.get(fileName);
+		Path temp;
 		
 		try {
-			write = new PrintStream(new File(fileName));
+			temp = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(), ".tmp");
 		} catch (IOException e) {
 			throw new IllegalArgumentException("Unable to save file.");
 		}
+		try {
+			write = new PrintStream(compression.compress(new BufferedOutputStream(new FileOutputStream(temp.toFile()))));
+		} catch (IOException e) {
+			deleteTemp(temp);
+			throw new IllegalArgumentException("Unable to save file.");
+		}
 		
 		ArrayList<PaperTrack> papers = paperTracks;
 		
 			for (int i = 0; i < papers.size(); i++) {
-				PaperTrack p = papers.get(i);
-				List<Paper> ps = p.getPapers();
-				if (ps.size() != 0) {
-					write.println("# " + p.toString());
-					for (int k = 0; k < ps.size(); k++) {
-						Paper paper = ps.get(k);
-						write.println("* " + paper.toString());
-					}
+				TrackSnapshot snapshot = papers.get(i).getSnapshot();
+				if (snapshot.getAllPapers().size() != 0) {
+					tracks++;
+					written += writeSection(write, snapshot, checksums);
 				}
-				
-				
 			} 
 			write.close();
+			try {
+				if (write.checkError()) {
+					throw new IOException("Unable to save file.");
+				}
+				Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} catch (IOException e) {
+				deleteTemp(temp);
+				throw new IllegalArgumentException("Unable to save file.");
+			}
+			Metrics.getInstance().recordSave(System.nanoTime() - start);
+			if (event.shouldCommit()) {
+				event.file = fileName;
+				event.tracks = tracks;
+				event.papers = written;
+				event.commit();
+			}
 	} 
+
+	/**
+	 * Writes one snapshot of a track to its own file with a checksum line, even if the track
+	 * has no papers, for a store that keeps each track in a file. The file is written under a
+	 * temporary name of its own and moved into place, like a save of every track
+	 * @param file the file to write
+	 * @param snapshot the snapshot to write
+	 * @throws IOException if the file cannot be written
+	 */
+	static void writeSnapshotToFile(Path file, TrackSnapshot snapshot) throws IOException {
+		Path temp = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(), ".tmp");
+		try {
+			PrintStream write = new PrintStream(new BufferedOutputStream(new FileOutputStream(temp.toFile())));
+			writeSection(write, snapshot, true);
+			write.close();
+			if (write.checkError()) {
+				throw new IOException("Unable to save file.");
+			}
+			Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			deleteTemp(temp);
+		}
+	}
+
+	/**
+	 * Writes the header and papers of one snapshot of a track, optionally followed by the
+	 * checksum line of the section
+	 * @param write the stream to write to
+	 * @param snapshot the snapshot to write
+	 * @param checksums whether to write a checksum line after the papers
+	 * @return the number of papers written
+	 */
+	private static int writeSection(PrintStream write, TrackSnapshot snapshot, boolean checksums) {
+		List<PaperView> ps = snapshot.getAllPapers();
+		SectionChecksum checksum = checksums ? new SectionChecksum() : null;
+		writeLine(write, checksum, "# " + snapshot.getTrackName() + "," + snapshot.getPageLimit() + ","
+				+ snapshot.getPayRateExtraPages());
+		for (int k = 0; k < ps.size(); k++) {
+			writeLine(write, checksum, "* " + ps.get(k).toString());
+		}
+		if (checksum != null) {
+			write.println(checksum.toLine());
+		}
+		return ps.size();
+	}
+	/**
+	 * Deletes the temporary file of a save that failed
+	 * @param temp the temporary file
+	 */
+	private static void deleteTemp(Path temp) {
+		try {
+			Files.deleteIfExists(temp);
+		} catch (IOException ignored) {
+			// the temporary file has a name of its own, so it never gets in the way of a save
+		}
+	}
+
+	/**
+	 * Writes a line of a track section and adds it to the section's checksum
+	 * @param write the stream to write to
+	 * @param checksum the checksum of the section, or null if none is written
+	 * @param line the line to write
+	 */
+	private static void writeLine(PrintStream write, SectionChecksum checksum, String line) {
+		write.println(line);
+		if (checksum != null) {
+			checksum.update(line);
+		}
+	}
 }
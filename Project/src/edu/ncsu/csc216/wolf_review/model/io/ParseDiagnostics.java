@@ -0,0 +1,213 @@
+package edu.ncsu.csc216.wolf_review.model.io;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Collects the lines of a paper track file that could not be loaded. Each rejected line is
+ * kept with its line number, track, reason and raw text, up to a cap, and every rejected
+ * line is counted by reason even after the cap is reached. The reader only touches the
+ * collector when a line is rejected, so valid lines cost nothing extra
+ * @author Steven Saleeb
+ */
+public class ParseDiagnostics {
+
+	/** Number of entries kept when no cap is given */
+	public static final int DEFAULT_CAP = 100;
+
+	/**
+	 * The reasons a line of a paper track file can be rejected
+	 */
+	public enum Reason {
+		/** The file does not start with a track header */
+		MISSING_HEADER,
+		/** A track header does not have a valid name, page limit and pay rate */
+		INVALID_HEADER,
+		/** A paper line belongs to a track whose header was rejected */
+		NO_TRACK,
+		/** A paper line does not have valid values */
+		INVALID_PAPER,
+		/** A paper line has the same id as an earlier paper in its track */
+		DUPLICATE_ID,
+		/** A line inside a track is neither a header nor a paper */
+		NOT_A_PAPER,
+		/** A track has no valid papers and was dropped */
+		EMPTY_TRACK
+	}
+
+	/**
+	 * One rejected line of a paper track file
+	 */
+	public static class Entry {
+
+		/** The line number, starting at 1 */
+		private final int lineNumber;
+
+		/** The name of the track the line belongs to, or null if it has none */
+		private final String trackName;
+
+		/** Why the line was rejected */
+		private final Reason reason;
+
+		/** A description of the problem, may be empty */
+		private final String message;
+
+		/** The text of the line */
+		private final String rawText;
+
+		/**
+		 * Creates an entry for a rejected line
+		 * @param lineNumber the line number
+		 * @param trackName the name of the track or null
+		 * @param reason why the line was rejected
+		 * @param message a description of the problem
+		 * @param rawText the text of the line
+		 */
+		Entry(int lineNumber, String trackName, Reason reason, String message, String rawText) {
+			this.lineNumber = lineNumber;
+			this.trackName = trackName;
+			this.reason = reason;
+			this.message = message == null ? "" : message;
+			this.rawText = rawText;
+		}
+
+		/**
+		 * Returns the line number
+		 * @return the line number, starting at 1
+		 */
+		public int getLineNumber() {
+			return lineNumber;
+		}
+
+		/**
+		 * Returns the name of the track the line belongs to
+		 * @return the track name or null
+		 */
+		public String getTrackName() {
+			return trackName;
+		}
+
+		/**
+		 * Returns why the line was rejected
+		 * @return the reason
+		 */
+		public Reason getReason() {
+			return reason;
+		}
+
+		/**
+		 * Returns a description of the problem
+		 * @return the message, may be empty
+		 */
+		public String getMessage() {
+			return message;
+		}
+
+		/**
+		 * Returns the text of the line
+		 * @return the raw text
+		 */
+		public String getRawText() {
+			return rawText;
+		}
+
+		/**
+		 * Returns the entry as "line N [track]: REASON message: text"
+		 * @return the entry as a string
+		 */
+		@Override
+		public String toString() {
+			return "line " + lineNumber + (trackName == null ? "" : " [" + trackName + "]") + ": " + reason
+					+ (message.isEmpty() ? "" : " " + message) + ": " + rawText;
+		}
+	}
+
+	/** Largest number of entries kept */
+	private final int cap;
+
+	/** The rejected lines kept, in file order */
+	private final List<Entry> entries = new ArrayList<Entry>();
+
+	/** Number of rejected lines for each reason, indexed by ordinal */
+	private final int[] counts = new int[Reason.values().length];
+
+	/**
+	 * Creates a collector that keeps up to DEFAULT_CAP entries
+	 */
+	public ParseDiagnostics() {
+		this(DEFAULT_CAP);
+	}
+
+	/**
+	 * Creates a collector that keeps up to the given number of entries
+	 * @param cap the largest number of entries kept
+	 * @throws IllegalArgumentException if the cap is negative
+	 */
+	public ParseDiagnostics(int cap) {
+		if (cap < 0) {
+			throw new IllegalArgumentException("Invalid cap.");
+		}
+		this.cap = cap;
+	}
+
+	/**
+	 * Records a rejected line
+	 * @param lineNumber the line number
+	 * @param trackName the name of the track or null
+	 * @param reason why the line was rejected
+	 * @param message a description of the problem
+	 * @param rawText the text of the line
+	 */
+	void reject(int lineNumber, String trackName, Reason reason, String message, String rawText) {
+		counts[reason.ordinal()]++;
+		if (entries.size() < cap) {
+			entries.add(new Entry(lineNumber, trackName, reason, message, rawText));
+		}
+	}
+
+	/**
+	 * Returns the rejected lines kept, in file order
+	 * @return the entries
+	 */
+	public List<Entry> getEntries() {
+		return Collections.unmodifiableList(entries);
+	}
+
+	/**
+	 * Returns the number of lines rejected for a reason
+	 * @param reason the reason
+	 * @return the number of lines
+	 */
+	public int getCount(Reason reason) {
+		return counts[reason.ordinal()];
+	}
+
+	/**
+	 * Returns the number of lines rejected for any reason
+	 * @return the number of lines
+	 */
+	public int getTotal() {
+		int total = 0;
+		for (int count : counts) {
+			total += count;
+		}
+		return total;
+	}
+
+	/**
+	 * Returns whether more lines were rejected than could be kept
+	 * @return true if some entries were not kept
+	 */
+	public boolean isTruncated() {
+		return getTotal() > entries.size();
+	}
+
+	/**
+	 * Returns whether no lines were rejected
+	 * @return true if every line was loaded
+	 */
+	public boolean isEmpty() {
+		return getTotal() == 0;
+	}
+}
@@ -0,0 +1,495 @@
+package edu.ncsu.csc216.wolf_review.model.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import edu.ncsu.csc216.wolf_review.model.manager.PaperTrack;
+import edu.ncsu.csc216.wolf_review.model.manager.PaperTrackListener;
+import edu.ncsu.csc216.wolf_review.model.manager.TrackSnapshot;
+import edu.ncsu.csc216.wolf_review.model.paper.Paper;
+import edu.ncsu.csc216.wolf_review.model.paper.PaperView;
+
+/**
+ * Stores one PaperTrack as a file of fixed size slots, one per paper, and a file of strings.
+ * The slot file is memory mapped, and each slot holds the id, state code, flags for the
+ * paper type and processed status, a note code, and the offsets of the reviewer, author
+ * names and any other note in the string file. Strings are only ever appended to the string
+ * file, and each distinct string is stored once, so a reviewer or author name is written the
+ * first time it is used and after that only its offset is. When the store is attached to a
+ * track it listens for changes, so a command on one paper rewrites only that paper's slot in
+ * place instead of rewriting the whole track. Papers hold the same fields as a line of a
+ * paper track file and are restored the same way
+ * @author Steven Saleeb
+ */
+public class RecordStore implements PaperTrackListener, Closeable {
+
+	/** The first four bytes of a slot file */
+	private static final int MAGIC = 0x57525253;
+
+	/** Size of the header of the slot file */
+	static final int HEADER_SIZE = 32;
+
+	/** Size of one slot */
+	static final int SLOT_SIZE = 20;
+
+	/** Number of slots the file is first made with */
+	private static final int INITIAL_SLOTS = 64;
+
+	/** Position of the number of slots in use in the header */
+	private static final int SLOT_COUNT = 8;
+
+	/** Position of the page limit in the header */
+	private static final int PAGE_LIMIT = 12;
+
+	/** Position of the pay rate in the header */
+	private static final int PAY_RATE = 16;
+
+	/** Position of the track name offset in the header */
+	private static final int TRACK_NAME = 20;
+
+	/** Position of the state code in a slot */
+	static final int STATE = 4;
+
+	/** Position of the flags in a slot */
+	private static final int FLAGS = 5;
+
+	/** Position of the note code in a slot */
+	static final int NOTE_CODE = 6;
+
+	/** Position of the reviewer offset in a slot */
+	private static final int REVIEWER = 8;
+
+	/** Position of the author names offset in a slot */
+	private static final int AUTHORS = 12;
+
+	/** Position of the other note offset in a slot */
+	private static final int NOTE = 16;
+
+	/** Flag set for a full paper */
+	private static final int FULL_PAPER = 1;
+
+	/** Flag set for a processed paper */
+	private static final int PROCESSED = 2;
+
+	/** Note code of a note stored in the string file */
+	private static final byte OTHER_NOTE = -1;
+
+	/** The state names in code order */
+	private static final String[] STATES = {Paper.SUBMITTED_NAME, Paper.REVIEWING_NAME, Paper.REVISING_NAME,
+		Paper.REGISTERING_NAME, Paper.CLOSED_NAME};
+
+	/** The notes stored as a code, code 0 is no note */
+	private static final String[] NOTES = {"", Paper.ACCEPT_CLOSED, Paper.REJECT_CLOSED, Paper.WITHDRAW_CLOSED,
+		Paper.DUPLICATE_CLOSED, Paper.RECOMMEND_STRONG_ACCEPT, Paper.RECOMMEND_WEAK_ACCEPT,
+		Paper.RECOMMEND_WEAK_REJECT, Paper.RECOMMEND_STRONG_REJECT};
+
+	/** The slot file */
+	private final FileChannel slotChannel;
+
+	/** The string file */
+	private final FileChannel stringChannel;
+
+	/** The mapped slot file */
+	private MappedByteBuffer slots;
+
+	/** The slot of each paper id */
+	private final Map<Integer, Integer> slotOfId = new HashMap<Integer, Integer>();
+
+	/** Slots that held a deleted paper and can be used again */
+	private final Deque<Integer> freeSlots = new ArrayDeque<Integer>();
+
+	/** The offset of each string in the string file */
+	private final Map<String, Integer> offsetOfString = new HashMap<String, Integer>();
+
+	/** The string at each offset of the string file */
+	private final Map<Integer, String> stringAtOffset = new HashMap<Integer, String>();
+
+	/** The name of the stored track */
+	private final String trackName;
+
+	/**
+	 * Opens the files of a store, making them if they do not exist
+	 * @param file the slot file
+	 * @param trackName the track name to write to a new store, or null to read it from the store
+	 * @throws IOException if the files cannot be opened or are not a store
+	 */
+	private RecordStore(Path file, String trackName) throws IOException {
+		slotChannel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE);
+		stringChannel = FileChannel.open(stringFile(file), StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE);
+		try {
+			if (trackName != null) {
+				slotChannel.truncate(0);
+				stringChannel.truncate(0);
+				slots = slotChannel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) INITIAL_SLOTS * SLOT_SIZE);
+				slots.putInt(0, MAGIC);
+				slots.putInt(4, SLOT_SIZE);
+				slots.putInt(TRACK_NAME, intern(trackName));
+				this.trackName = trackName;
+			} else {
+				long size = slotChannel.size();
+				if (size < HEADER_SIZE) {
+					throw new IOException("Not a record store.");
+				}
+				slots = slotChannel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+				if (slots.getInt(0) != MAGIC || slots.getInt(4) != SLOT_SIZE
+						|| HEADER_SIZE + (long) slots.getInt(SLOT_COUNT) * SLOT_SIZE > size) {
+					throw new IOException("Not a record store.");
+				}
+				readStrings();
+				this.trackName = string(slots.getInt(TRACK_NAME));
+				for (int slot = 0; slot < slots.getInt(SLOT_COUNT); slot++) {
+					int id = slots.getInt(position(slot));
+					if (id == 0) {
+						freeSlots.add(slot);
+					} else {
+						slotOfId.put(id, slot);
+					}
+				}
+			}
+		} catch (IOException | RuntimeException e) {
+			slotChannel.close();
+			stringChannel.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Makes a new store for a track, replacing any store in the file, and writes every paper
+	 * of the track to it
+	 * @param file the slot file, the string file is next to it
+	 * @param track the track to store
+	 * @return the store
+	 * @throws IllegalArgumentException if the files cannot be written
+	 */
+	public static RecordStore create(Path file, PaperTrack track) {
+		try {
+			TrackSnapshot snapshot = track.getSnapshot();
+			RecordStore store = new RecordStore(file, snapshot.getTrackName());
+			store.writeSettings(snapshot.getPageLimit(), snapshot.getPayRateExtraPages());
+			for (PaperView paper : snapshot.getAllPapers()) {
+				store.put(paper);
+			}
+			return store;
+		} catch (IOException e) {
+			throw new IllegalArgumentException("Unable to save file.");
+		}
+	}
+
+	/**
+	 * Opens an existing store
+	 * @param file the slot file, the string file is next to it
+	 * @return the store
+	 * @throws IllegalArgumentException if the files cannot be read or are not a store
+	 */
+	public static RecordStore open(Path file) {
+		try {
+			return new RecordStore(file, null);
+		} catch (IOException e) {
+			throw new IllegalArgumentException("Unable to load file.");
+		}
+	}
+
+	/**
+	 * Returns the string file of a slot file
+	 * @param file the slot file
+	 * @return the string file next to it
+	 */
+	public static Path stringFile(Path file) {
+		return file.resolveSibling(file.getFileName() + ".strings");
+	}
+
+	/**
+	 * Makes a track from the store. The papers were checked when they were stored, so they
+	 * are restored without checking them again, and they are added in one publish
+	 * @return a new track with the stored papers
+	 * @throws IllegalArgumentException if a slot holds a code that is not valid
+	 */
+	public synchronized PaperTrack readTrack() {
+		PaperTrack track = new PaperTrack(trackName, slots.getInt(PAGE_LIMIT), slots.getInt(PAY_RATE));
+		track.addPapers(readPapers());
+		return track;
+	}
+
+	/**
+	 * Makes the stored papers. The state and note codes are checked against the codes this
+	 * class writes, so a damaged slot is reported instead of read past the code tables
+	 * @return the papers in slot order
+	 * @throws IllegalArgumentException if a slot holds a code that is not valid
+	 */
+	public synchronized List<Paper> readPapers() {
+		List<Paper> papers = new ArrayList<Paper>(slotOfId.size());
+		for (int slot = 0; slot < slots.getInt(SLOT_COUNT); slot++) {
+			int p = position(slot);
+			int id = slots.getInt(p);
+			if (id == 0) {
+				continue;
+			}
+			int flags = slots.get(p + FLAGS);
+			byte state = slots.get(p + STATE);
+			byte noteCode = slots.get(p + NOTE_CODE);
+			if (state < 0 || state >= STATES.length || noteCode != OTHER_NOTE && (noteCode < 0 || noteCode >= NOTES.length)) {
+				throw new IllegalArgumentException("Unable to load file.");
+			}
+			papers.add(Paper.restore(id, STATES[state], string(slots.getInt(p + AUTHORS)),
+					(flags & FULL_PAPER) != 0 ? Paper.P_FULLPAPER : Paper.P_ABSTRACT, (flags & PROCESSED) != 0,
+					string(slots.getInt(p + REVIEWER)),
+					noteCode == OTHER_NOTE ? string(slots.getInt(p + NOTE)) : NOTES[noteCode]));
+		}
+		return papers;
+	}
+
+	/**
+	 * Returns the name of the stored track
+	 * @return the track name
+	 */
+	public String getTrackName() {
+		return trackName;
+	}
+
+	/**
+	 * Returns the number of stored papers
+	 * @return the number of papers
+	 */
+	public synchronized int size() {
+		return slotOfId.size();
+	}
+
+	/**
+	 * Returns the size of the string file
+	 * @return the number of bytes of strings stored
+	 * @throws IllegalArgumentException if the size cannot be read
+	 */
+	public synchronized long getStringBytes() {
+		try {
+			return stringChannel.size();
+		} catch (IOException e) {
+			throw new IllegalArgumentException("Unable to load file.");
+		}
+	}
+
+	/**
+	 * Starts writing every change to the papers of a track to this store
+	 * @param track the track to follow, which should be the track the store was made from
+	 */
+	public void attach(PaperTrack track) {
+		track.addListener(this);
+	}
+
+	/**
+	 * Stops writing the changes of a track to this store
+	 * @param track the track to stop following
+	 */
+	public void detach(PaperTrack track) {
+		track.removeListener(this);
+	}
+
+	/**
+	 * Writes a change to a paper of the followed track. A changed paper only rewrites its
+	 * own slot. Papers removed because the track was unloaded or because they were archived
+	 * still exist, so they are kept
+	 * @param track the track that changed
+	 * @param before the paper before the change, or null if it was added or loaded
+	 * @param after the paper after the change, or null if it was deleted, unloaded or archived
+	 */
+	@Override
+	public synchronized void paperChanged(PaperTrack track, PaperView before, PaperView after) {
+		try {
+			writeSettings(track.getPageLimit(), track.getPayRateExtraPages());
+			if (after != null) {
+				put(after);
+			} else if (track.isLoaded() && !track.getSnapshot().getArchive().contains(before.getId())) {
+				remove(before.getId());
+			}
+		} catch (IOException e) {
+			throw new IllegalArgumentException("Unable to save file.");
+		}
+	}
+
+	/**
+	 * Writes a paper to its slot, or to a new slot if it is not stored yet
+	 * @param paper the paper to write
+	 * @throws IOException if a new string cannot be written
+	 */
+	synchronized void put(PaperView paper) throws IOException {
+		int authors = intern(paper.getAuthorNames());
+		int reviewer = intern(paper.getReviewer());
+		byte noteCode = OTHER_NOTE;
+		for (int i = 0; i < NOTES.length; i++) {
+			if (NOTES[i].equals(paper.getNote())) {
+				noteCode = (byte) i;
+			}
+		}
+		int note = noteCode == OTHER_NOTE ? intern(paper.getNote()) : -1;
+
+		Integer slot = slotOfId.get(paper.getId());
+		if (slot == null) {
+			slot = freeSlots.isEmpty() ? newSlot() : freeSlots.poll();
+			slotOfId.put(paper.getId(), slot);
+		}
+		int p = position(slot);
+		slots.put(p + STATE, (byte) indexOf(STATES, paper.getState()));
+		slots.put(p + FLAGS, (byte) ((Paper.P_FULLPAPER.equals(paper.getPaperType()) ? FULL_PAPER : 0)
+				| (paper.isProcessed() ? PROCESSED : 0)));
+		slots.put(p + NOTE_CODE, noteCode);
+		slots.putInt(p + REVIEWER, reviewer);
+		slots.putInt(p + AUTHORS, authors);
+		slots.putInt(p + NOTE, note);
+		slots.putInt(p, paper.getId());
+	}
+
+	/**
+	 * Frees the slot of a paper
+	 * @param id the id of the paper
+	 */
+	synchronized void remove(int id) {
+		Integer slot = slotOfId.remove(id);
+		if (slot != null) {
+			slots.putInt(position(slot), 0);
+			freeSlots.add(slot);
+		}
+	}
+
+	/**
+	 * Writes the page limit and pay rate of the track to the header
+	 * @param pageLimit the page limit
+	 * @param payRate the extra page pay rate
+	 */
+	private void writeSettings(int pageLimit, int payRate) {
+		slots.putInt(PAGE_LIMIT, pageLimit);
+		slots.putInt(PAY_RATE, payRate);
+	}
+
+	/**
+	 * Takes the next unused slot, mapping a larger file when the file is full
+	 * @return the slot
+	 * @throws IOException if the file cannot be made larger
+	 */
+	private int newSlot() throws IOException {
+		int slot = slots.getInt(SLOT_COUNT);
+		if (position(slot + 1) > slots.capacity()) {
+			slots.force();
+			long size = HEADER_SIZE + 2L * (slots.capacity() - HEADER_SIZE);
+			slots = slotChannel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+		}
+		slots.putInt(SLOT_COUNT, slot + 1);
+		return slot;
+	}
+
+	/**
+	 * Returns the offset of a string in the string file, appending it if it is new
+	 * @param value the string
+	 * @return the offset of the string
+	 * @throws IOException if the string cannot be written
+	 */
+	private int intern(String value) throws IOException {
+		Integer offset = offsetOfString.get(value);
+		if (offset != null) {
+			return offset;
+		}
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		int at = (int) stringChannel.size();
+		ByteBuffer record = ByteBuffer.allocate(Integer.BYTES + bytes.length);
+		record.putInt(bytes.length).put(bytes).flip();
+		while (record.hasRemaining()) {
+			stringChannel.write(record, at + record.position());
+		}
+		offsetOfString.put(value, at);
+		stringAtOffset.put(at, value);
+		return at;
+	}
+
+	/**
+	 * Reads every string of the string file
+	 * @throws IOException if the file cannot be read or is cut short
+	 */
+	private void readStrings() throws IOException {
+		long size = stringChannel.size();
+		ByteBuffer text = stringChannel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+		while (text.hasRemaining()) {
+			int at = text.position();
+			if (text.remaining() < Integer.BYTES) {
+				throw new IOException("Not a record store.");
+			}
+			int length = text.getInt();
+			if (length < 0 || length > text.remaining()) {
+				throw new IOException("Not a record store.");
+			}
+			byte[] bytes = new byte[length];
+			text.get(bytes);
+			String value = new String(bytes, StandardCharsets.UTF_8);
+			offsetOfString.putIfAbsent(value, at);
+			stringAtOffset.put(at, value);
+		}
+	}
+
+	/**
+	 * Returns the string at an offset of the string file
+	 * @param offset the offset
+	 * @return the string
+	 * @throws IllegalArgumentException if there is no string at the offset
+	 */
+	private String string(int offset) {
+		String value = stringAtOffset.get(offset);
+		if (value == null) {
+			throw new IllegalArgumentException("Unable to load file.");
+		}
+		return value;
+	}
+
+	/**
+	 * Returns the position of a slot in the slot file
+	 * @param slot the slot
+	 * @return the position of its first byte
+	 */
+	private static int position(int slot) {
+		return HEADER_SIZE + slot * SLOT_SIZE;
+	}
+
+	/**
+	 * Returns the position of a string in a table
+	 * @param table the table
+	 * @param value the string to find
+	 * @return the position
+	 */
+	private static int indexOf(String[] table, String value) {
+		for (int i = 0; i < table.length; i++) {
+			if (table[i].equals(value)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Writes the changes to the mapped slot file out to the disk
+	 */
+	public synchronized void force() {
+		slots.force();
+	}
+
+	/**
+	 * Writes the changes out and closes the files of the store
+	 * @throws IOException if the files cannot be closed
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		slots.force();
+		stringChannel.force(false);
+		slotChannel.close();
+		stringChannel.close();
+	}
+}
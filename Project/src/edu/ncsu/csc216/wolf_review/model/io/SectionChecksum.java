@@ -0,0 +1,46 @@
+package edu.ncsu.csc216.wolf_review.model.io;
+
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+
+/**
+ * A running checksum of one track section of a paper track file. The checksum covers the
+ * header line and every paper line of the section, each followed by a newline, and is
+ * written after the last paper as a line of the form "! 1a2b3c4d". A reader that finds a
+ * matching checksum line knows the section is exactly what the writer wrote
+ * @author Steven Saleeb
+ */
+final class SectionChecksum {
+
+	/** The first character of a checksum line */
+	static final char MARKER = '!';
+
+	/** The checksum of the lines so far */
+	private final CRC32 crc = new CRC32();
+
+	/**
+	 * Adds a line of the section to the checksum
+	 * @param line the text of the line without its line separator
+	 */
+	void update(String line) {
+		crc.update(line.getBytes(StandardCharsets.UTF_8));
+		crc.update('\n');
+	}
+
+	/**
+	 * Returns the checksum line for the lines so far
+	 * @return the line to write after the section
+	 */
+	String toLine() {
+		return MARKER + " " + String.format("%08x", crc.getValue());
+	}
+
+	/**
+	 * Checks whether a checksum line matches the lines so far
+	 * @param line the checksum line as read, already trimmed
+	 * @return true if the line holds the checksum of the lines so far
+	 */
+	boolean matches(String line) {
+		return toLine().equals(line);
+	}
+}
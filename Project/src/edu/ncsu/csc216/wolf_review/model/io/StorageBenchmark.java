@@ -0,0 +1,232 @@
+package edu.ncsu.csc216.wolf_review.model.io;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import edu.ncsu.csc216.wolf_review.model.command.Command;
+import edu.ncsu.csc216.wolf_review.model.command.Command.CommandValue;
+import edu.ncsu.csc216.wolf_review.model.manager.PaperTrack;
+import edu.ncsu.csc216.wolf_review.model.manager.PaperTrackListener;
+
+/**
+ * Measures how fast a TrackStorage saves, loads and records changes, so a storage can be
+ * chosen for a deployment from measured numbers. The same work is run against any storage:
+ * tracks of new papers are saved with saveAll and loaded with loadAll, commands are run on
+ * one track with every change appended to the storage, and the changed track is written
+ * with saveDirty. Each appended change is timed on its own
+ * @author Steven Saleeb
+ */
+public final class StorageBenchmark {
+
+	/**
+	 * The measurements of one run
+	 */
+	public static final class Result {
+
+		/** Nanoseconds taken by saveAll */
+		private final long saveAllNanos;
+
+		/** Nanoseconds taken by loadAll */
+		private final long loadAllNanos;
+
+		/** Nanoseconds taken by saveDirty after the changes */
+		private final long saveDirtyNanos;
+
+		/** Nanoseconds taken by each appended change, sorted */
+		private final long[] appendNanos;
+
+		/** Number of papers saved and loaded */
+		private final int papers;
+
+		/**
+		 * Creates a result
+		 * @param saveAllNanos nanoseconds taken by saveAll
+		 * @param loadAllNanos nanoseconds taken by loadAll
+		 * @param saveDirtyNanos nanoseconds taken by saveDirty
+		 * @param appendNanos nanoseconds taken by each appended change
+		 * @param papers number of papers saved and loaded
+		 */
+		private Result(long saveAllNanos, long loadAllNanos, long saveDirtyNanos, long[] appendNanos, int papers) {
+			this.saveAllNanos = saveAllNanos;
+			this.loadAllNanos = loadAllNanos;
+			this.saveDirtyNanos = saveDirtyNanos;
+			this.appendNanos = appendNanos.clone();
+			Arrays.sort(this.appendNanos);
+			this.papers = papers;
+		}
+
+		/**
+		 * Returns the nanoseconds taken by saveAll
+		 * @return the time to save every track
+		 */
+		public long getSaveAllNanos() {
+			return saveAllNanos;
+		}
+
+		/**
+		 * Returns the nanoseconds taken by loadAll
+		 * @return the time to load every track
+		 */
+		public long getLoadAllNanos() {
+			return loadAllNanos;
+		}
+
+		/**
+		 * Returns the nanoseconds taken by saveDirty after the changes
+		 * @return the time to save the changed track
+		 */
+		public long getSaveDirtyNanos() {
+			return saveDirtyNanos;
+		}
+
+		/**
+		 * Returns the number of changes appended
+		 * @return the number of changes
+		 */
+		public int getAppendCount() {
+			return appendNanos.length;
+		}
+
+		/**
+		 * Returns the appended changes per second
+		 * @return the append throughput
+		 */
+		public double getAppendsPerSecond() {
+			long total = 0;
+			for (long nanos : appendNanos) {
+				total += nanos;
+			}
+			return total == 0 ? 0 : appendNanos.length * 1e9 / total;
+		}
+
+		/**
+		 * Returns the papers saved per second by saveAll
+		 * @return the save throughput
+		 */
+		public double getPapersSavedPerSecond() {
+			return saveAllNanos == 0 ? 0 : papers * 1e9 / saveAllNanos;
+		}
+
+		/**
+		 * Returns the papers loaded per second by loadAll
+		 * @return the load throughput
+		 */
+		public double getPapersLoadedPerSecond() {
+			return loadAllNanos == 0 ? 0 : papers * 1e9 / loadAllNanos;
+		}
+
+		/**
+		 * Returns a percentile of the time taken by one appended change
+		 * @param percentile the percentile from 0 to 100
+		 * @return the nanoseconds, 0 if nothing was appended
+		 */
+		public long getAppendPercentileNanos(double percentile) {
+			if (appendNanos.length == 0) {
+				return 0;
+			}
+			int index = (int) Math.ceil(percentile / 100 * appendNanos.length) - 1;
+			return appendNanos[Math.max(0, Math.min(appendNanos.length - 1, index))];
+		}
+
+		/**
+		 * Returns the result as one line of throughputs and append latencies
+		 * @return the result as a string
+		 */
+		@Override
+		public String toString() {
+			return String.format("save=%.0f papers/s load=%.0f papers/s saveDirty=%.2f ms "
+					+ "append=%.0f/s p50=%d us p99=%d us max=%d us", getPapersSavedPerSecond(),
+					getPapersLoadedPerSecond(), saveDirtyNanos / 1e6, getAppendsPerSecond(),
+					getAppendPercentileNanos(50) / 1000, getAppendPercentileNanos(99) / 1000,
+					getAppendPercentileNanos(100) / 1000);
+		}
+	}
+
+	/**
+	 * Prevents making a benchmark object
+	 */
+	private StorageBenchmark() {
+	}
+
+	/**
+	 * Runs the benchmark against a storage. Anything stored in the storage is replaced
+	 * @param storage the storage to measure
+	 * @param trackCount the number of tracks to save and load
+	 * @param papersPerTrack the number of papers in each track
+	 * @param changes the number of commands to run, at most the number of papers in a track
+	 * @return the measurements
+	 * @throws IllegalArgumentException if a count is not positive, there are more changes
+	 * than papers in a track, or the storage does not load back what was saved
+	 */
+	public static Result run(TrackStorage storage, int trackCount, int papersPerTrack, int changes) {
+		if (trackCount < 1 || papersPerTrack < 1 || changes < 0 || changes > papersPerTrack) {
+			throw new IllegalArgumentException("Invalid information.");
+		}
+		List<PaperTrack> tracks = new ArrayList<PaperTrack>();
+		for (int t = 0; t < trackCount; t++) {
+			PaperTrack track = new PaperTrack("Benchmark " + t, 10, 5);
+			for (int p = 0; p < papersPerTrack; p++) {
+				track.addPaper("Author " + p + "; Coauthor " + (p % 10));
+			}
+			tracks.add(track);
+		}
+
+		long start = System.nanoTime();
+		storage.saveAll(tracks);
+		long saveAll = System.nanoTime() - start;
+
+		start = System.nanoTime();
+		ArrayList<PaperTrack> loaded = storage.loadAll();
+		long loadAll = System.nanoTime() - start;
+		if (loaded.size() != trackCount || loaded.get(0).getPapers().size() != papersPerTrack) {
+			throw new IllegalArgumentException("Invalid information.");
+		}
+		storage.saveDirty(loaded);
+
+		PaperTrack track = loaded.get(0);
+		long[] appendNanos = new long[changes];
+		int[] appended = new int[1];
+		PaperTrackListener timer = (changed, before, after) -> {
+			long begin = System.nanoTime();
+			storage.append(changed, before, after);
+			if (appended[0] < appendNanos.length) {
+				appendNanos[appended[0]++] = System.nanoTime() - begin;
+			}
+		};
+		track.addListener(timer);
+		for (int i = 0; i < changes; i++) {
+			int id = track.getPapers().get(i).getId();
+			track.executeCommand(id, new Command(CommandValue.ASSIGN, "reviewer" + (i % 20)));
+		}
+		track.removeListener(timer);
+
+		start = System.nanoTime();
+		storage.saveDirty(loaded);
+		long saveDirty = System.nanoTime() - start;
+		return new Result(saveAll, loadAll, saveDirty, appendNanos, trackCount * papersPerTrack);
+	}
+
+	/**
+	 * Runs the benchmark against the text storage in a temporary file and the memory storage
+	 * and prints the results
+	 * @param args the number of tracks, papers per track and changes, all optional
+	 * @throws IOException if the temporary file cannot be made
+	 */
+	public static void main(String[] args) throws IOException {
+		int trackCount = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+		int papersPerTrack = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+		int changes = args.length > 2 ? Integer.parseInt(args[2]) : 500;
+		Path file = Files.createTempFile("benchmark", ".txt");
+		try {
+			System.out.println("text:   " + run(new TextTrackStorage(file.toString()), trackCount, papersPerTrack, changes));
+			System.out.println("memory: " + run(new MemoryTrackStorage(), trackCount, papersPerTrack, changes));
+		} finally {
+			Files.deleteIfExists(TextTrackStorage.journalFile(file.toString()));
+			Files.deleteIfExists(file);
+		}
+	}
+}
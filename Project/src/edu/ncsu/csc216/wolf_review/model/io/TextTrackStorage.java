@@ -0,0 +1,224 @@
+package edu.ncsu.csc216.wolf_review.model.io;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+
+import edu.ncsu.csc216.wolf_review.model.manager.PaperTrack;
+import edu.ncsu.csc216.wolf_review.model.paper.Paper;
+import edu.ncsu.csc216.wolf_review.model.paper.PaperView;
+
+/**
+ * Stores PaperTracks in one paper track file read by the PaperTrackReader and written by the
+ * PaperTrackWriter. The file format has no way to change one paper, so appended changes go
+ * to a journal file next to it, with one line for each paper that was written or deleted.
+ * Loading reads the file and then applies the journal, and saving rewrites the file and
+ * empties the journal
+ * @author Steven Saleeb
+ */
+public class TextTrackStorage implements TrackStorage {
+
+	/** The paper track file */
+	private final String fileName;
+
+	/** The collector for rejected lines, or null to not collect them */
+	private final ParseDiagnostics diagnostics;
+
+	/** The version of each track when this storage last loaded or saved it */
+	private final Map<PaperTrack, Long> versions = new WeakHashMap<PaperTrack, Long>();
+
+	/**
+	 * Creates a storage for a paper track file
+	 * @param fileName the file
+	 */
+	public TextTrackStorage(String fileName) {
+		this(fileName, null);
+	}
+
+	/**
+	 * Creates a storage for a paper track file that reports every line that could not be loaded
+	 * @param fileName the file
+	 * @param diagnostics the collector for rejected lines, or null to not collect them
+	 * @throws IllegalArgumentException if the file name is null
+	 */
+	public TextTrackStorage(String fileName, ParseDiagnostics diagnostics) {
+		if (fileName == null) {
+			throw new IllegalArgumentException("Unable to load file.");
+		}
+		this.fileName = fileName;
+		this.diagnostics = diagnostics;
+	}
+
+	/**
+	 * Returns the journal file of a paper track file
+	 * @param fileName the paper track file
+	 * @return the journal file next to it
+	 */
+	public static Path journalFile(String fileName) {
+		return Paths.get(fileName + ".journal");
+	}
+
+	/**
+	 * Loads every track of the file and applies the journal to them
+	 * @return the tracks in file order
+	 * @throws IllegalArgumentException if the file cannot be read
+	 */
+	@Override
+	public synchronized ArrayList<PaperTrack> loadAll() {
+		ArrayList<PaperTrack> tracks = PaperTrackReader.readPaperTrackFile(fileName, diagnostics);
+		for (PaperTrack track : tracks) {
+			versions.put(track, track.getSnapshot().getVersion());
+		}
+		replayJournal(tracks);
+		return tracks;
+	}
+
+	/**
+	 * Loads one track of the file. The file has no index, so every track is read
+	 * @param trackName the name of the track
+	 * @return the track or null if the file has no track with the name
+	 * @throws IllegalArgumentException if the file cannot be read
+	 */
+	@Override
+	public synchronized PaperTrack loadTrack(String trackName) {
+		for (PaperTrack track : loadAll()) {
+			if (track.getTrackName().equals(trackName)) {
+				return track;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Writes the tracks to the file and empties the journal
+	 * @param tracks the tracks to save
+	 * @throws IllegalArgumentException if the file cannot be written
+	 */
+	@Override
+	public synchronized void saveAll(List<PaperTrack> tracks) {
+		PaperTrackWriter.writePaperTracksToFile(fileName, new ArrayList<PaperTrack>(tracks));
+		try {
+			Files.deleteIfExists(journalFile(fileName));
+		} catch (IOException e) {
+			throw new IllegalArgumentException("Unable to save file.");
+		}
+		for (PaperTrack track : tracks) {
+			versions.put(track, track.getSnapshot().getVersion());
+		}
+	}
+
+	/**
+	 * Rewrites the whole file if any track is new or changed, since the file cannot be
+	 * written one track at a time
+	 * @param tracks the tracks to save
+	 * @return the number of tracks that were new or changed
+	 * @throws IllegalArgumentException if the file cannot be written
+	 */
+	@Override
+	public synchronized int saveDirty(List<PaperTrack> tracks) {
+		int dirty = 0;
+		for (PaperTrack track : tracks) {
+			Long version = versions.get(track);
+			if (version == null || version != track.getSnapshot().getVersion()) {
+				dirty++;
+			}
+		}
+		if (dirty > 0) {
+			saveAll(tracks);
+		}
+		return dirty;
+	}
+
+	/**
+	 * Appends a line to the journal with the paper after the change, or its id if it was deleted.
+	 * Papers removed by unloading or archiving the track are still stored, so nothing is appended
+	 * @param track the track of the paper
+	 * @param before the paper before the change, or null if it was added
+	 * @param after the paper after the change, or null if it was deleted
+	 * @throws IllegalArgumentException if the journal cannot be written
+	 */
+	@Override
+	public synchronized void append(PaperTrack track, PaperView before, PaperView after) {
+		if (after == null && (!track.isLoaded() || track.getSnapshot().getArchive().contains(before.getId()))) {
+			return;
+		}
+		String line = after != null ? "* " + track.getTrackName() + "," + after.toString()
+				: "- " + track.getTrackName() + "," + before.getId();
+		try (BufferedWriter out = Files.newBufferedWriter(journalFile(fileName), StandardCharsets.UTF_8,
+				StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+			out.write(line);
+			out.newLine();
+		} catch (IOException e) {
+			throw new IllegalArgumentException("Unable to save file.");
+		}
+	}
+
+	/**
+	 * Applies the lines of the journal to the loaded tracks. Only the last line for each paper
+	 * counts, and the changes of each track are applied together as one snapshot. Lines for a
+	 * track that is not loaded, or with a paper that is not valid, are skipped
+	 * @param tracks the loaded tracks
+	 * @throws IllegalArgumentException if the journal cannot be read
+	 */
+	private void replayJournal(List<PaperTrack> tracks) {
+		Map<PaperTrack, TreeMap<Integer, Paper>> changes = new LinkedHashMap<PaperTrack, TreeMap<Integer, Paper>>();
+		try (BufferedReader in = Files.newBufferedReader(journalFile(fileName), StandardCharsets.UTF_8)) {
+			String line;
+			while ((line = in.readLine()) != null) {
+				int comma = line.indexOf(',');
+				if (line.length() < 2 || comma < 0) {
+					continue;
+				}
+				PaperTrack track = find(tracks, line.substring(2, comma).trim());
+				if (track == null) {
+					continue;
+				}
+				try {
+					if (line.startsWith("* ")) {
+						Paper paper = PaperTrackReader.processPaper(line.substring(comma + 1));
+						changes.computeIfAbsent(track, k -> new TreeMap<Integer, Paper>()).put(paper.getId(), paper);
+					} else if (line.startsWith("- ")) {
+						changes.computeIfAbsent(track, k -> new TreeMap<Integer, Paper>())
+								.put(Integer.parseInt(line.substring(comma + 1).trim()), null);
+					}
+				} catch (RuntimeException e) {
+					continue;
+				}
+			}
+		} catch (NoSuchFileException e) {
+			return;
+		} catch (IOException e) {
+			throw new IllegalArgumentException("Unable to load file.");
+		}
+		for (Map.Entry<PaperTrack, TreeMap<Integer, Paper>> entry : changes.entrySet()) {
+			entry.getKey().replacePapers(entry.getValue());
+		}
+	}
+
+	/**
+	 * Finds a track by name
+	 * @param tracks the tracks to look in
+	 * @param trackName the name of the track
+	 * @return the track or null if there is none with the name
+	 */
+	private static PaperTrack find(List<PaperTrack> tracks, String trackName) {
+		for (PaperTrack track : tracks) {
+			if (track.getTrackName().equals(trackName)) {
+				return track;
+			}
+		}
+		return null;
+	}
+}
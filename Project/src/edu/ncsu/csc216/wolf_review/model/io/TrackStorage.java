@@ -0,0 +1,58 @@
+package edu.ncsu.csc216.wolf_review.model.io;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import edu.ncsu.csc216.wolf_review.model.manager.PaperTrack;
+import edu.ncsu.csc216.wolf_review.model.paper.PaperView;
+
+/**
+ * A place PaperTracks are loaded from and saved to. Each storage keeps track of which
+ * versions of the tracks it has loaded or saved, so saveDirty only writes tracks that changed
+ * since this storage last saw them, whatever other storages have done with them. A single
+ * change to a paper can also be appended without saving the track, and the next load of the
+ * storage includes it
+ * @author Steven Saleeb
+ */
+public interface TrackStorage {
+
+	/**
+	 * Loads every stored track
+	 * @return the tracks in stored order, empty if nothing is stored
+	 * @throws IllegalArgumentException if the tracks cannot be read
+	 */
+	ArrayList<PaperTrack> loadAll();
+
+	/**
+	 * Loads one stored track
+	 * @param trackName the name of the track
+	 * @return the track or null if no track with the name is stored
+	 * @throws IllegalArgumentException if the track cannot be read
+	 */
+	PaperTrack loadTrack(String trackName);
+
+	/**
+	 * Replaces everything stored with the given tracks
+	 * @param tracks the tracks to save
+	 * @throws IllegalArgumentException if the tracks cannot be written
+	 */
+	void saveAll(List<PaperTrack> tracks);
+
+	/**
+	 * Saves the given tracks that are new to this storage or changed since this storage last
+	 * loaded or saved them
+	 * @param tracks the tracks to save
+	 * @return the number of tracks that were new or changed
+	 * @throws IllegalArgumentException if the tracks cannot be written
+	 */
+	int saveDirty(List<PaperTrack> tracks);
+
+	/**
+	 * Records one change to a paper of a track without saving the whole track
+	 * @param track the track of the paper
+	 * @param before the paper before the change, or null if it was added
+	 * @param after the paper after the change, or null if it was deleted
+	 * @throws IllegalArgumentException if the change cannot be written
+	 */
+	void append(PaperTrack track, PaperView before, PaperView after);
+}
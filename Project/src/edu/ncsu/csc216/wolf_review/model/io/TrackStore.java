@@ -0,0 +1,276 @@
+package edu.ncsu.csc216.wolf_review.model.io;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import edu.ncsu.csc216.wolf_review.model.manager.PaperTrack;
+import edu.ncsu.csc216.wolf_review.model.manager.TrackSnapshot;
+import edu.ncsu.csc216.wolf_review.model.paper.Paper;
+
+/**
+ * Stores PaperTracks in a directory with one file per track and a small manifest. Each
+ * track file has the same format as a file written by the PaperTrackWriter, and each line
+ * of the manifest has the file name, track name, page limit and pay rate of one track.
+ * Opening the store only reads the manifest, the papers of a track are read the first time
+ * they are needed, and saving only rewrites the files of tracks that changed. A track can
+ * also be evicted, which writes it back if needed and drops its papers until they are
+ * needed again. Track files end with a checksum line, so reading a track back skips checking
+ * its papers again
+ * @author Steven Saleeb
+ */
+public class TrackStore {
+
+	/** Name of the manifest file */
+	public static final String MANIFEST_NAME = "manifest.txt";
+
+	/** The directory of the store */
+	private final Path directory;
+
+	/** The file name of each stored track, keyed by track name in manifest order */
+	private final Map<String, String> files = new LinkedHashMap<String, String>();
+
+	/** The manifest line of each stored track as last read or written, keyed by track name */
+	private final Map<String, String> lines = new LinkedHashMap<String, String>();
+
+	/**
+	 * Creates a store for the given directory, the directory is created if it does not exist
+	 * @param directory the directory of the store
+	 * @throws IllegalArgumentException if the directory cannot be created
+	 */
+	public TrackStore(Path directory) {
+		if (directory == null) {
+			throw new IllegalArgumentException("Unable to load file.");
+		}
+		try {
+			Files.createDirectories(directory);
+		} catch (IOException e) {
+			throw new IllegalArgumentException("Unable to load file.");
+		}
+		this.directory = directory;
+	}
+
+	/**
+	 * Returns the directory of the store
+	 * @return the directory
+	 */
+	public Path getDirectory() {
+		return directory;
+	}
+
+	/**
+	 * Returns the file a track is stored in
+	 * @param trackName the name of the track
+	 * @return the file or null if the track is not stored
+	 */
+	public synchronized Path getTrackFile(String trackName) {
+		String file = files.get(trackName);
+		return file == null ? null : directory.resolve(file);
+	}
+
+	/**
+	 * Reads the manifest and returns a track for each line whose papers are read the first
+	 * time they are needed. A store without a manifest is empty
+	 * @return the stored tracks in manifest order
+	 * @throws IllegalArgumentException if the manifest cannot be read or a line is invalid
+	 */
+	public synchronized ArrayList<PaperTrack> open() {
+		files.clear();
+		lines.clear();
+		ArrayList<PaperTrack> tracks = new ArrayList<PaperTrack>();
+		try (BufferedReader in = Files.newBufferedReader(directory.resolve(MANIFEST_NAME), StandardCharsets.UTF_8)) {
+			String line;
+			while ((line = in.readLine()) != null) {
+				if (line.trim().isEmpty()) {
+					continue;
+				}
+				String[] parts = line.split(",");
+				if (parts.length != 4) {
+					throw new IllegalArgumentException("Unable to load file.");
+				}
+				String file = parts[0].trim();
+				String name = parts[1].trim();
+				Path path = directory.resolve(file);
+				PaperTrack track = new PaperTrack(name, Integer.parseInt(parts[2].trim()),
+						Integer.parseInt(parts[3].trim()), () -> readPapers(path));
+				if (files.putIfAbsent(name, file) == null) {
+					lines.put(name, line);
+					tracks.add(track);
+				}
+			}
+		} catch (NoSuchFileException e) {
+			return tracks;
+		} catch (IOException e) {
+			throw new IllegalArgumentException("Unable to load file.");
+		}
+		return tracks;
+	}
+
+	/**
+	 * Saves the given tracks. The file of a track is only written if the track is new to the
+	 * store or changed since it was loaded or saved, the files of stored tracks that are not
+	 * given are deleted, and the manifest is only rewritten if it changed. Every file is
+	 * written under a temporary name and then moved into place
+	 * @param tracks the tracks to save, a later track with the same name as an earlier one is skipped
+	 * @return the number of track files written
+	 * @throws IllegalArgumentException if a file cannot be written
+	 */
+	public synchronized int save(List<PaperTrack> tracks) {
+		int written = 0;
+		Map<String, String> next = new LinkedHashMap<String, String>();
+		Map<String, String> nextLines = new LinkedHashMap<String, String>();
+		Set<String> used = new HashSet<String>(files.values());
+		try {
+			for (PaperTrack track : tracks) {
+				String name = track.getTrackName();
+				if (next.containsKey(name)) {
+					continue;
+				}
+				String file = files.get(name);
+				if (file == null) {
+					file = fileName(name, used);
+					used.add(file);
+				}
+				next.put(name, file);
+				nextLines.put(name, file + "," + track.toString());
+				if (!files.containsKey(name) || track.isDirty()) {
+					writeTrack(directory.resolve(file), track);
+					written++;
+				}
+			}
+			for (Map.Entry<String, String> entry : files.entrySet()) {
+				if (!next.containsKey(entry.getKey())) {
+					Files.deleteIfExists(directory.resolve(entry.getValue()));
+				}
+			}
+			if (!nextLines.equals(lines)) {
+				writeAtomically(directory.resolve(MANIFEST_NAME), manifestText(nextLines));
+			}
+		} catch (IOException e) {
+			throw new IllegalArgumentException("Unable to save file.");
+		}
+		files.clear();
+		files.putAll(next);
+		lines.clear();
+		lines.putAll(nextLines);
+		return written;
+	}
+
+	/**
+	 * Writes a track back to the store if it is new to the store or changed, and then drops
+	 * its papers from memory so they are read from its file the next time they are needed.
+	 * A track new to the store, or whose page limit or pay rate changed, is written to the manifest
+	 * @param track the track to evict
+	 * @return true if the papers are no longer in memory, false if the track changed while
+	 * it was being written
+	 * @throws IllegalArgumentException if a file cannot be written
+	 */
+	public synchronized boolean evict(PaperTrack track) {
+		String name = track.getTrackName();
+		String file = files.get(name);
+		try {
+			if (file == null) {
+				file = fileName(name, new HashSet<String>(files.values()));
+				writeTrack(directory.resolve(file), track);
+				files.put(name, file);
+			} else if (track.isDirty()) {
+				writeTrack(directory.resolve(file), track);
+			}
+			String line = file + "," + track.toString();
+			if (!line.equals(lines.get(name))) {
+				Map<String, String> nextLines = new LinkedHashMap<String, String>(lines);
+				nextLines.put(name, line);
+				writeAtomically(directory.resolve(MANIFEST_NAME), manifestText(nextLines));
+				lines.put(name, line);
+			}
+		} catch (IOException e) {
+			throw new IllegalArgumentException("Unable to save file.");
+		}
+		Path path = directory.resolve(file);
+		return track.unload(() -> readPapers(path));
+	}
+
+	/**
+	 * Writes the current snapshot of a track to its file and records that it was saved
+	 * @param file the file to write
+	 * @param track the track to write
+	 * @throws IOException if the file cannot be written
+	 */
+	private static void writeTrack(Path file, PaperTrack track) throws IOException {
+		TrackSnapshot snapshot = track.getSnapshot();
+		PaperTrackWriter.writeSnapshotToFile(file, snapshot);
+		track.markSaved(snapshot.getVersion());
+	}
+
+	/**
+	 * Returns the text of a manifest
+	 * @param manifestLines the line of each track in order
+	 * @return the text with one line per track
+	 */
+	private static String manifestText(Map<String, String> manifestLines) {
+		StringBuilder text = new StringBuilder();
+		for (String line : manifestLines.values()) {
+			text.append(line).append('\n');
+		}
+		return text.toString();
+	}
+
+	/**
+	 * Reads the papers of a track file
+	 * @param file the track file
+	 * @return the papers, empty if the file has no valid papers
+	 * @throws IllegalArgumentException if the file cannot be read
+	 */
+	private static List<Paper> readPapers(Path file) {
+		ArrayList<PaperTrack> tracks = PaperTrackReader.readPaperTrackFile(file.toString());
+		return tracks.isEmpty() ? new ArrayList<Paper>() : tracks.get(0).getPapers();
+	}
+
+	/**
+	 * Writes a file under a temporary name of its own and moves it into place, so two
+	 * writes of the same file never write into each other's temporary file
+	 * @param file the file to write
+	 * @param text the contents of the file
+	 * @throws IOException if the file cannot be written
+	 */
+	private static void writeAtomically(Path file, String text) throws IOException {
+		Path temp = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(), ".tmp");
+		try {
+			try (BufferedWriter out = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+				out.write(text);
+			}
+			Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			Files.deleteIfExists(temp);
+		}
+	}
+
+	/**
+	 * Picks a file name for a new track from its name that no other track uses
+	 * @param trackName the name of the track
+	 * @param used the file names already in use
+	 * @return the file name
+	 */
+	private static String fileName(String trackName, Set<String> used) {
+		String base = trackName.toLowerCase().replaceAll("[^a-z0-9]+", "-").replaceAll("^-+|-+$", "");
+		if (base.isEmpty() || (base + ".txt").equals(MANIFEST_NAME)) {
+			base = "track";
+		}
+		String file = base + ".txt";
+		for (int i = 2; used.contains(file); i++) {
+			file = base + "-" + i + ".txt";
+		}
+		return file;
+	}
+}
@@ -0,0 +1,331 @@
+package edu.ncsu.csc216.wolf_review.model.io;
+
+import java.io.Closeable;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import edu.ncsu.csc216.wolf_review.model.manager.PaperTrack;
+import edu.ncsu.csc216.wolf_review.model.manager.PaperTrackListener;
+import edu.ncsu.csc216.wolf_review.model.paper.PaperView;
+
+/**
+ * Saves PaperTracks to a TrackStorage in the background so a change never waits for the
+ * disk. The persister listens to the tracks, and a change only marks the tracks as unsaved.
+ * A writer thread saves them at most one window after the first unsaved change, so every
+ * change made during the window is written by the same save and no change waits more than
+ * about one window plus one save. Changes to the list of tracks, such as a track that was
+ * removed, are saved by replacing everything stored. Closing the persister stops the thread
+ * and saves whatever is still unsaved on the calling thread, so nothing is lost on shutdown
+ * @author Steven Saleeb
+ */
+public class WriteBehindPersister implements PaperTrackListener, Closeable {
+
+	/** Window used when none is given, in milliseconds */
+	public static final long DEFAULT_WINDOW_MILLIS = 500;
+
+	/** The storage the tracks are saved to */
+	private final TrackStorage storage;
+
+	/** Supplies the tracks to save */
+	private final Supplier<List<PaperTrack>> tracks;
+
+	/** Longest time an unsaved change waits for the writer, in nanoseconds */
+	private final long windowNanos;
+
+	/** Guards the unsaved state, and is held by the writer while it waits */
+	private final Object lock = new Object();
+
+	/** Held while the tracks are being saved, so only one save runs at a time */
+	private final Object saveLock = new Object();
+
+	/** Number of changes that are not saved yet */
+	private int unsaved;
+
+	/** Whether the list of tracks changed since the last save */
+	private boolean tracksChanged;
+
+	/** Time of the first unsaved change from System.nanoTime */
+	private long firstUnsaved;
+
+	/** Number of changes seen */
+	private long changes;
+
+	/** Number of saves that wrote at least one change */
+	private long saves;
+
+	/** Number of tracks written by all saves */
+	private long tracksWritten;
+
+	/** The failure of the most recent save, or null if it succeeded */
+	private volatile IllegalArgumentException lastFailure;
+
+	/** Whether the writer thread is running */
+	private boolean running;
+
+	/** Thread that saves the tracks */
+	private Thread writer;
+
+	/**
+	 * Creates a persister with the default window
+	 * @param storage the storage to save to
+	 * @param tracks supplies the tracks to save
+	 * @throws IllegalArgumentException if the storage or supplier is null
+	 */
+	public WriteBehindPersister(TrackStorage storage, Supplier<List<PaperTrack>> tracks) {
+		this(storage, tracks, DEFAULT_WINDOW_MILLIS);
+	}
+
+	/**
+	 * Creates a persister, nothing is saved in the background until start is called
+	 * @param storage the storage to save to
+	 * @param tracks supplies the tracks to save
+	 * @param windowMillis longest time an unsaved change waits for the writer, in milliseconds
+	 * @throws IllegalArgumentException if the storage or supplier is null or the window is negative
+	 */
+	public WriteBehindPersister(TrackStorage storage, Supplier<List<PaperTrack>> tracks, long windowMillis) {
+		if (storage == null || tracks == null || windowMillis < 0) {
+			throw new IllegalArgumentException("Invalid information.");
+		}
+		this.storage = storage;
+		this.tracks = tracks;
+		this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+	}
+
+	/**
+	 * Starts the writer thread
+	 * @throws IllegalStateException if the persister is already running
+	 */
+	public void start() {
+		synchronized (lock) {
+			if (running) {
+				throw new IllegalStateException("Persister is already running.");
+			}
+			running = true;
+			writer = Thread.ofPlatform().daemon().name("wolfreview-write-behind").start(this::write);
+		}
+	}
+
+	/**
+	 * Returns the storage the tracks are saved to
+	 * @return the storage
+	 */
+	public TrackStorage getStorage() {
+		return storage;
+	}
+
+	/**
+	 * Marks the tracks as unsaved when a paper changes. Papers removed by unloading a track
+	 * are still stored, so they are not counted
+	 * @param track the track that changed
+	 * @param before the paper before the change, or null if the paper was added
+	 * @param after the paper after the change, or null if the paper was deleted
+	 */
+	@Override
+	public void paperChanged(PaperTrack track, PaperView before, PaperView after) {
+		if (after == null && !track.isLoaded()) {
+			return;
+		}
+		changed(false);
+	}
+
+	/**
+	 * Marks the list of tracks as changed, so the next save replaces everything stored
+	 */
+	public void tracksChanged() {
+		changed(true);
+	}
+
+	/**
+	 * Notes one unsaved change and wakes the writer if it is the first
+	 * @param structural true if the list of tracks changed
+	 */
+	private void changed(boolean structural) {
+		synchronized (lock) {
+			if (unsaved == 0) {
+				firstUnsaved = System.nanoTime();
+				lock.notifyAll();
+			}
+			unsaved++;
+			changes++;
+			tracksChanged |= structural;
+		}
+	}
+
+	/**
+	 * Saves every unsaved change now on the calling thread. Any exception from the storage
+	 * puts the changes back as unsaved, and one that is not an IllegalArgumentException is
+	 * reported as one, so the writer thread keeps running and tries again
+	 * @return the number of tracks written
+	 * @throws IllegalArgumentException if the tracks cannot be saved, they stay unsaved
+	 */
+	public int flush() {
+		synchronized (saveLock) {
+			int count;
+			boolean structural;
+			synchronized (lock) {
+				count = unsaved;
+				structural = tracksChanged;
+				unsaved = 0;
+				tracksChanged = false;
+			}
+			if (count == 0) {
+				return 0;
+			}
+			try {
+				int written;
+				List<PaperTrack> current = tracks.get();
+				if (structural) {
+					storage.saveAll(current);
+					written = current.size();
+				} else {
+					written = storage.saveDirty(current);
+				}
+				lastFailure = null;
+				synchronized (lock) {
+					saves++;
+					tracksWritten += written;
+				}
+				return written;
+			} catch (RuntimeException e) {
+				IllegalArgumentException failure = e instanceof IllegalArgumentException
+						? (IllegalArgumentException) e : new IllegalArgumentException("Unable to save file.", e);
+				lastFailure = failure;
+				synchronized (lock) {
+					if (unsaved == 0) {
+						firstUnsaved = System.nanoTime();
+					}
+					unsaved += count;
+					tracksChanged |= structural;
+				}
+				throw failure;
+			}
+		}
+	}
+
+	/**
+	 * Saves every track to another storage on the calling thread while no background save
+	 * is running, such as a save the user asked for. The save waits for a background save
+	 * in progress and the next one waits for it, so a manual save and a background save
+	 * never write the same file at the same time
+	 * @param target the storage to save the tracks to
+	 * @throws IllegalArgumentException if the tracks cannot be saved
+	 */
+	public void saveAllTo(TrackStorage target) {
+		synchronized (saveLock) {
+			target.saveAll(tracks.get());
+		}
+	}
+
+	/**
+	 * Runs on the writer thread: waits for an unsaved change, waits out the rest of its
+	 * window and saves. A failed save is tried again one window later
+	 */
+	private void write() {
+		try {
+			while (true) {
+				synchronized (lock) {
+					while (running && unsaved == 0) {
+						lock.wait();
+					}
+					long wait;
+					while (running && (wait = firstUnsaved + windowNanos - System.nanoTime()) > 0) {
+						TimeUnit.NANOSECONDS.timedWait(lock, wait);
+					}
+					if (!running) {
+						return;
+					}
+				}
+				try {
+					flush();
+				} catch (IllegalArgumentException e) {
+					// kept in lastFailure and tried again after the window
+					Thread.sleep(Math.max(1, TimeUnit.NANOSECONDS.toMillis(windowNanos)));
+				}
+			}
+		} catch (InterruptedException e) {
+			// stopped
+		}
+	}
+
+	/**
+	 * Stops the writer thread, waiting for a save in progress, and saves every unsaved
+	 * change on the calling thread
+	 * @throws IllegalArgumentException if the unsaved changes cannot be saved
+	 */
+	@Override
+	public void close() {
+		Thread stopping;
+		synchronized (lock) {
+			running = false;
+			lock.notifyAll();
+			stopping = writer;
+		}
+		if (stopping != null) {
+			try {
+				stopping.join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		flush();
+	}
+
+	/**
+	 * Returns whether the writer thread is running
+	 * @return true if changes are saved in the background
+	 */
+	public boolean isRunning() {
+		synchronized (lock) {
+			return running;
+		}
+	}
+
+	/**
+	 * Returns the number of changes that are not saved yet
+	 * @return the number of changes
+	 */
+	public int getUnsavedCount() {
+		synchronized (lock) {
+			return unsaved;
+		}
+	}
+
+	/**
+	 * Returns the number of changes seen
+	 * @return the number of changes
+	 */
+	public long getChangeCount() {
+		synchronized (lock) {
+			return changes;
+		}
+	}
+
+	/**
+	 * Returns the number of saves that wrote at least one change
+	 * @return the number of saves
+	 */
+	public long getSaveCount() {
+		synchronized (lock) {
+			return saves;
+		}
+	}
+
+	/**
+	 * Returns the number of tracks written by all saves
+	 * @return the number of tracks
+	 */
+	public long getTracksWritten() {
+		synchronized (lock) {
+			return tracksWritten;
+		}
+	}
+
+	/**
+	 * Returns the failure of the most recent save
+	 * @return the failure or null if the most recent save succeeded
+	 */
+	public IllegalArgumentException getLastFailure() {
+		return lastFailure;
+	}
+}
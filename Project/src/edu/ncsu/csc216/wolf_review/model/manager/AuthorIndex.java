@@ -0,0 +1,216 @@
+package edu.ncsu.csc216.wolf_review.model.manager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import edu.ncsu.csc216.wolf_review.model.paper.Paper;
+import edu.ncsu.csc216.wolf_review.model.paper.PaperView;
+
+/**
+ * A tokenized index of author names across every PaperTrack it watches. Each author list
+ * is split into lower case name tokens that can be searched by prefix. The real names of
+ * a paper under review are hidden behind "anonymous", so they are kept apart from the
+ * visible names and are only returned by the searches that ask for them, such as
+ * conflict of interest checks. The index listens to its tracks and is updated as
+ * commands hide and restore author names
+ * @author Steven Saleeb
+ */
+public class AuthorIndex implements PaperTrackListener {
+
+	/** For each token of a visible author name, the ids of its papers keyed by track name */
+	private final TreeMap<String, Map<String, TreeSet<Integer>>> visible = new TreeMap<String, Map<String, TreeSet<Integer>>>();
+
+	/** For each token of a hidden author name, the ids of its papers keyed by track name */
+	private final TreeMap<String, Map<String, TreeSet<Integer>>> hidden = new TreeMap<String, Map<String, TreeSet<Integer>>>();
+
+	/**
+	 * Starts watching a track and indexes the papers it already has, archived or not. A track
+	 * whose papers are not loaded yet is indexed by the events it sends when they are loaded
+	 * @param track the track to watch
+	 */
+	public synchronized void addTrack(PaperTrack track) {
+		track.addListener(this);
+		if (!track.isLoaded()) {
+			return;
+		}
+		for (PaperView paper : track.getSnapshot().getAllPapers()) {
+			update(track.getTrackName(), paper, true);
+		}
+	}
+
+	/**
+	 * Stops watching a track and removes its papers from the index, including the papers
+	 * of a track that was unloaded after it was indexed
+	 * @param track the track to remove
+	 */
+	public synchronized void removeTrack(PaperTrack track) {
+		track.removeListener(this);
+		String trackName = track.getTrackName();
+		visible.values().removeIf(tracks -> tracks.remove(trackName) != null && tracks.isEmpty());
+		hidden.values().removeIf(tracks -> tracks.remove(trackName) != null && tracks.isEmpty());
+	}
+
+	/**
+	 * Updates the index when a paper changes in a watched track. Papers removed by unloading
+	 * the track or by archiving them are still in the track, so they stay in the index
+	 * @param track the track that changed
+	 * @param before the paper before the change, or null if it was added
+	 * @param after the paper after the change, or null if it was deleted
+	 */
+	@Override
+	public synchronized void paperChanged(PaperTrack track, PaperView before, PaperView after) {
+		if (after == null && (!track.isLoaded() || track.getSnapshot().getArchive().contains(before.getId()))) {
+			return;
+		}
+		if (before != null && after != null && before.getAuthorNames().equals(after.getAuthorNames())
+				&& hiddenNames(before).equals(hiddenNames(after))) {
+			return;
+		}
+		if (before != null) {
+			update(track.getTrackName(), before, false);
+		}
+		if (after != null) {
+			update(track.getTrackName(), after, true);
+		}
+	}
+
+	/**
+	 * Finds the papers with a visible author name token that starts with the prefix
+	 * @param prefix the start of an author name, ignoring case
+	 * @return a map from track name to the sorted ids of matching papers
+	 */
+	public synchronized Map<String, List<Integer>> search(String prefix) {
+		Map<String, TreeSet<Integer>> result = new LinkedHashMap<String, TreeSet<Integer>>();
+		collect(visible, prefix, result);
+		return toLists(result);
+	}
+
+	/**
+	 * Finds the papers with a visible or hidden author name token that starts with the prefix.
+	 * This search sees the real authors of anonymous papers, so it must only be used where
+	 * knowing them is allowed, such as checking for conflicts of interest
+	 * @param prefix the start of an author name, ignoring case
+	 * @return a map from track name to the sorted ids of matching papers
+	 */
+	public synchronized Map<String, List<Integer>> searchIncludingHidden(String prefix) {
+		Map<String, TreeSet<Integer>> result = new LinkedHashMap<String, TreeSet<Integer>>();
+		collect(visible, prefix, result);
+		collect(hidden, prefix, result);
+		return toLists(result);
+	}
+
+	/**
+	 * Splits an author list into lower case name tokens
+	 * @param authorNames the semicolon separated author names
+	 * @return the tokens
+	 */
+	static Set<String> tokenize(String authorNames) {
+		Set<String> tokens = new TreeSet<String>();
+		if (authorNames == null) {
+			return tokens;
+		}
+		for (String token : authorNames.toLowerCase().split("[^\\p{L}\\p{N}'-]+")) {
+			if (!token.isEmpty()) {
+				tokens.add(token);
+			}
+		}
+		return tokens;
+	}
+
+	/**
+	 * Returns the real author names hidden by a paper, which only exist while it is anonymous.
+	 * A paper read from a file while anonymous only has placeholder names, which are not real
+	 * authors and are never indexed
+	 * @param paper the paper
+	 * @return the hidden names or an empty string if the paper does not hide its authors
+	 */
+	private static String hiddenNames(PaperView paper) {
+		String saved = paper.getSavedAuthorNames();
+		if (Paper.ANONYMOUS.equals(paper.getAuthorNames()) && saved != null && !Paper.TEMP_AUTHOR_NAMES.equals(saved)) {
+			return saved;
+		}
+		return "";
+	}
+
+	/**
+	 * Adds or removes the tokens of a paper
+	 * @param trackName the name of the paper's track
+	 * @param paper the paper
+	 * @param add true to add the paper, false to remove it
+	 */
+	private void update(String trackName, PaperView paper, boolean add) {
+		if (Paper.ANONYMOUS.equals(paper.getAuthorNames())) {
+			update(hidden, tokenize(hiddenNames(paper)), trackName, paper.getId(), add);
+		} else {
+			update(visible, tokenize(paper.getAuthorNames()), trackName, paper.getId(), add);
+		}
+	}
+
+	/**
+	 * Adds or removes a paper id for each token
+	 * @param tokens the token map to change
+	 * @param names the tokens of the paper
+	 * @param trackName the name of the paper's track
+	 * @param id the id of the paper
+	 * @param add true to add the paper, false to remove it
+	 */
+	private static void update(TreeMap<String, Map<String, TreeSet<Integer>>> tokens, Set<String> names,
+			String trackName, int id, boolean add) {
+		for (String name : names) {
+			if (add) {
+				tokens.computeIfAbsent(name, k -> new HashMap<String, TreeSet<Integer>>())
+						.computeIfAbsent(trackName, k -> new TreeSet<Integer>()).add(id);
+				continue;
+			}
+			Map<String, TreeSet<Integer>> tracks = tokens.get(name);
+			if (tracks == null || !tracks.containsKey(trackName)) {
+				continue;
+			}
+			tracks.get(trackName).remove(id);
+			if (tracks.get(trackName).isEmpty()) {
+				tracks.remove(trackName);
+			}
+			if (tracks.isEmpty()) {
+				tokens.remove(name);
+			}
+		}
+	}
+
+	/**
+	 * Collects the papers of every token that starts with the prefix
+	 * @param tokens the token map to search
+	 * @param prefix the prefix to search for
+	 * @param result the map to add the papers to
+	 */
+	private static void collect(TreeMap<String, Map<String, TreeSet<Integer>>> tokens, String prefix,
+			Map<String, TreeSet<Integer>> result) {
+		if (prefix == null || prefix.trim().isEmpty()) {
+			return;
+		}
+		String start = prefix.trim().toLowerCase();
+		for (Map<String, TreeSet<Integer>> tracks : tokens.subMap(start, start + Character.MAX_VALUE).values()) {
+			for (Map.Entry<String, TreeSet<Integer>> entry : tracks.entrySet()) {
+				result.computeIfAbsent(entry.getKey(), k -> new TreeSet<Integer>()).addAll(entry.getValue());
+			}
+		}
+	}
+
+	/**
+	 * Copies the sets of ids into lists
+	 * @param sets the ids for each track
+	 * @return the ids for each track as lists
+	 */
+	private static Map<String, List<Integer>> toLists(Map<String, TreeSet<Integer>> sets) {
+		Map<String, List<Integer>> result = new LinkedHashMap<String, List<Integer>>();
+		for (Map.Entry<String, TreeSet<Integer>> entry : sets.entrySet()) {
+			result.put(entry.getKey(), new ArrayList<Integer>(entry.getValue()));
+		}
+		return result;
+	}
+}
@@ -0,0 +1,595 @@
+package edu.ncsu.csc216.wolf_review.model.manager;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import edu.ncsu.csc216.wolf_review.model.paper.Paper;
+import edu.ncsu.csc216.wolf_review.model.paper.PaperView;
+
+/**
+ * An immutable copy of the papers of a PaperTrack stored as columns of primitive arrays
+ * instead of one object per paper. Ids are an int array sorted by id, states and paper
+ * types are byte codes, the processed flags are a bitset, and reviewers, notes and author
+ * names are codes into small tables of distinct strings, so a track with many papers holds
+ * only a few arrays and each distinct string once. Scans and filters are loops over the
+ * primitive arrays, and a PaperRow is a flyweight view of one position that reads the
+ * columns on demand. Read mostly tracks can be kept and queried in this form, and a track
+ * can be made from it again with toPapers
+ * @author Steven Saleeb
+ */
+public final class ColumnarPaperTrack {
+
+	/** The state names in code order */
+	private static final String[] STATES = {Paper.SUBMITTED_NAME, Paper.REVIEWING_NAME, Paper.REVISING_NAME,
+		Paper.REGISTERING_NAME, Paper.CLOSED_NAME};
+
+	/** The paper types in code order */
+	private static final String[] PAPER_TYPES = {Paper.P_ABSTRACT, Paper.P_FULLPAPER};
+
+	/** The version of the snapshot the columns were copied from */
+	private final long version;
+
+	/** Name of the paper track */
+	private final String trackName;
+
+	/** Maximum allowed number of pages for papers */
+	private final int pageLimit;
+
+	/** Payment rate for extra pages after the limit */
+	private final int extraPagesPayRate;
+
+	/** The paper ids in increasing order */
+	private final int[] ids;
+
+	/** The state code of each paper */
+	private final byte[] states;
+
+	/** The paper type code of each paper */
+	private final byte[] types;
+
+	/** The processed flag of each paper, one bit per paper */
+	private final long[] processed;
+
+	/** The reviewer code of each paper, 0 for no reviewer */
+	private final int[] reviewers;
+
+	/** The note code of each paper, 0 for no note */
+	private final int[] notes;
+
+	/** The author names code of each paper */
+	private final int[] authors;
+
+	/** The saved author names code of each paper, -1 for none */
+	private final int[] savedAuthors;
+
+	/** The distinct reviewers, the empty string first */
+	private final String[] reviewerTable;
+
+	/** The distinct notes, the empty string first */
+	private final String[] noteTable;
+
+	/** The distinct author names and saved author names */
+	private final String[] authorPool;
+
+	/**
+	 * Copies the papers of a snapshot into columns
+	 * @param snapshot the snapshot to copy
+	 */
+	private ColumnarPaperTrack(TrackSnapshot snapshot) {
+		List<PaperView> papers = snapshot.getPapers();
+		int size = papers.size();
+		version = snapshot.getVersion();
+		trackName = snapshot.getTrackName();
+		pageLimit = snapshot.getPageLimit();
+		extraPagesPayRate = snapshot.getPayRateExtraPages();
+		ids = new int[size];
+		states = new byte[size];
+		types = new byte[size];
+		processed = new long[(size + 63) >>> 6];
+		reviewers = new int[size];
+		notes = new int[size];
+		authors = new int[size];
+		savedAuthors = new int[size];
+
+		Dictionary reviewerCodes = new Dictionary("");
+		Dictionary noteCodes = new Dictionary("");
+		Dictionary authorCodes = new Dictionary(null);
+		for (int i = 0; i < size; i++) {
+			PaperView paper = papers.get(i);
+			ids[i] = paper.getId();
+			states[i] = (byte) indexOf(STATES, paper.getState());
+			types[i] = (byte) indexOf(PAPER_TYPES, paper.getPaperType());
+			if (paper.isProcessed()) {
+				processed[i >>> 6] |= 1L << i;
+			}
+			reviewers[i] = reviewerCodes.code(paper.getReviewer());
+			notes[i] = noteCodes.code(paper.getNote());
+			authors[i] = authorCodes.code(paper.getAuthorNames());
+			savedAuthors[i] = paper.getSavedAuthorNames() == null ? -1 : authorCodes.code(paper.getSavedAuthorNames());
+		}
+		reviewerTable = reviewerCodes.toArray();
+		noteTable = noteCodes.toArray();
+		authorPool = authorCodes.toArray();
+	}
+
+	/**
+	 * Copies the papers of a snapshot into columns
+	 * @param snapshot the snapshot to copy
+	 * @return the columnar copy
+	 * @throws IllegalArgumentException if the snapshot is null
+	 */
+	public static ColumnarPaperTrack of(TrackSnapshot snapshot) {
+		if (snapshot == null) {
+			throw new IllegalArgumentException("Paper Track cannot be created.");
+		}
+		return new ColumnarPaperTrack(snapshot);
+	}
+
+	/**
+	 * Gives each distinct string a code in the order they are first seen
+	 */
+	private static final class Dictionary {
+
+		/** The code of each string */
+		private final Map<String, Integer> codes = new HashMap<String, Integer>();
+
+		/** The strings in code order */
+		private final List<String> values = new ArrayList<String>();
+
+		/**
+		 * Creates a dictionary, giving the first code to a string if one is given
+		 * @param first the string to give code 0, or null
+		 */
+		Dictionary(String first) {
+			if (first != null) {
+				code(first);
+			}
+		}
+
+		/**
+		 * Returns the code of a string, adding it if it is new
+		 * @param value the string
+		 * @return the code
+		 */
+		int code(String value) {
+			Integer code = codes.get(value);
+			if (code == null) {
+				code = values.size();
+				codes.put(value, code);
+				values.add(value);
+			}
+			return code;
+		}
+
+		/**
+		 * Returns the strings in code order
+		 * @return the table of strings
+		 */
+		String[] toArray() {
+			return values.toArray(new String[values.size()]);
+		}
+	}
+
+	/**
+	 * Returns the position of a string in a table
+	 * @param table the table
+	 * @param value the string to find
+	 * @return the position or -1 if the string is not in the table
+	 */
+	private static int indexOf(String[] table, String value) {
+		for (int i = 0; i < table.length; i++) {
+			if (table[i].equals(value)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns the version of the snapshot the columns were copied from
+	 * @return the version
+	 */
+	public long getVersion() {
+		return version;
+	}
+
+	/**
+	 * Returns the name of the track
+	 * @return the track name
+	 */
+	public String getTrackName() {
+		return trackName;
+	}
+
+	/**
+	 * Returns the page limit of the track
+	 * @return the page limit
+	 */
+	public int getPageLimit() {
+		return pageLimit;
+	}
+
+	/**
+	 * Returns the extra page pay rate of the track
+	 * @return the extra page pay rate
+	 */
+	public int getPayRateExtraPages() {
+		return extraPagesPayRate;
+	}
+
+	/**
+	 * Returns the number of papers
+	 * @return the number of papers
+	 */
+	public int size() {
+		return ids.length;
+	}
+
+	/**
+	 * Returns the number of distinct author names and saved author names stored
+	 * @return the size of the author pool
+	 */
+	public int getAuthorPoolSize() {
+		return authorPool.length;
+	}
+
+	/**
+	 * Finds the position of a paper id with a binary search
+	 * @param id the id to find
+	 * @return the position of the id, or a negative number if it is not in the track
+	 */
+	public int indexOf(int id) {
+		int low = 0;
+		int high = ids.length - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			if (ids[mid] < id) {
+				low = mid + 1;
+			} else if (ids[mid] > id) {
+				high = mid - 1;
+			} else {
+				return mid;
+			}
+		}
+		return -(low + 1);
+	}
+
+	/**
+	 * Returns a view of the paper with the given id
+	 * @param id the id of the paper
+	 * @return the view or null if there is no paper with the id
+	 */
+	public PaperRow getPaperById(int id) {
+		int position = indexOf(id);
+		return position < 0 ? null : new PaperRow(position);
+	}
+
+	/**
+	 * Returns views of all papers in id order. The views are made as the list is read, so
+	 * the list itself holds nothing
+	 * @return a read only list of paper views
+	 */
+	public List<PaperRow> getPapers() {
+		return new AbstractList<PaperRow>() {
+			@Override
+			public PaperRow get(int index) {
+				if (index < 0 || index >= ids.length) {
+					throw new IndexOutOfBoundsException(index);
+				}
+				return new PaperRow(index);
+			}
+
+			@Override
+			public int size() {
+				return ids.length;
+			}
+		};
+	}
+
+	/**
+	 * Returns views of the papers at the given positions
+	 * @param positions the positions in id order
+	 * @return the paper views
+	 */
+	public List<PaperRow> rows(int[] positions) {
+		List<PaperRow> rows = new ArrayList<PaperRow>(positions.length);
+		for (int position : positions) {
+			rows.add(new PaperRow(position));
+		}
+		return rows;
+	}
+
+	/**
+	 * Returns the positions of the papers in a state
+	 * @param state the state name
+	 * @return the positions in id order, empty for an unknown state
+	 */
+	public int[] positionsInState(String state) {
+		int code = indexOf(STATES, state);
+		int count = 0;
+		int[] positions = new int[ids.length];
+		for (int i = 0; i < states.length; i++) {
+			if (states[i] == code) {
+				positions[count++] = i;
+			}
+		}
+		return trim(positions, count);
+	}
+
+	/**
+	 * Returns the positions of the papers of a reviewer
+	 * @param reviewer the reviewer name
+	 * @return the positions in id order, empty if the reviewer has no papers
+	 */
+	public int[] positionsOfReviewer(String reviewer) {
+		int code = indexOf(reviewerTable, reviewer);
+		if (code <= 0) {
+			return new int[0];
+		}
+		int count = 0;
+		int[] positions = new int[ids.length];
+		for (int i = 0; i < reviewers.length; i++) {
+			if (reviewers[i] == code) {
+				positions[count++] = i;
+			}
+		}
+		return trim(positions, count);
+	}
+
+	/**
+	 * Counts the papers in a state
+	 * @param state the state name
+	 * @return the number of papers, 0 for an unknown state
+	 */
+	public int countInState(String state) {
+		int code = indexOf(STATES, state);
+		int count = 0;
+		for (byte s : states) {
+			if (s == code) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Finds the papers that match every filter that is given, checking the columns of each
+	 * filter in one loop over the positions still matching
+	 * @param id the paper id to match or -1
+	 * @param state the state name to match or null
+	 * @param paperType the paper type to match or null
+	 * @param isProcessed the processed status to match or null
+	 * @param reviewer the reviewer to match or null
+	 * @param note the note to match or null
+	 * @param authorText lower case text the author names must contain, or null
+	 * @return the matching positions in id order
+	 */
+	int[] filter(int id, String state, String paperType, Boolean isProcessed, String reviewer, String note,
+			String authorText) {
+		int count;
+		int[] positions;
+		if (id >= 0) {
+			int position = indexOf(id);
+			count = position < 0 ? 0 : 1;
+			positions = new int[] {position};
+		} else {
+			count = ids.length;
+			positions = new int[count];
+			for (int i = 0; i < count; i++) {
+				positions[i] = i;
+			}
+		}
+		if (state != null) {
+			int code = indexOf(STATES, state);
+			int kept = 0;
+			for (int k = 0; k < count; k++) {
+				if (states[positions[k]] == code) {
+					positions[kept++] = positions[k];
+				}
+			}
+			count = kept;
+		}
+		if (paperType != null) {
+			int code = -1;
+			for (int t = 0; t < PAPER_TYPES.length; t++) {
+				if (PAPER_TYPES[t].equalsIgnoreCase(paperType)) {
+					code = t;
+				}
+			}
+			int kept = 0;
+			for (int k = 0; k < count; k++) {
+				if (types[positions[k]] == code) {
+					positions[kept++] = positions[k];
+				}
+			}
+			count = kept;
+		}
+		if (isProcessed != null) {
+			boolean wanted = isProcessed;
+			int kept = 0;
+			for (int k = 0; k < count; k++) {
+				if (isProcessed(positions[k]) == wanted) {
+					positions[kept++] = positions[k];
+				}
+			}
+			count = kept;
+		}
+		if (reviewer != null) {
+			count = keepCode(positions, count, reviewers, indexOf(reviewerTable, reviewer));
+		}
+		if (note != null) {
+			count = keepCode(positions, count, notes, indexOf(noteTable, note));
+		}
+		if (authorText != null) {
+			boolean[] poolMatches = new boolean[authorPool.length];
+			for (int p = 0; p < authorPool.length; p++) {
+				poolMatches[p] = authorPool[p].toLowerCase().contains(authorText);
+			}
+			int kept = 0;
+			for (int k = 0; k < count; k++) {
+				if (poolMatches[authors[positions[k]]]) {
+					positions[kept++] = positions[k];
+				}
+			}
+			count = kept;
+		}
+		return trim(positions, count);
+	}
+
+	/**
+	 * Keeps the positions whose code in a column equals the given code
+	 * @param positions the positions still matching
+	 * @param count the number of positions still matching
+	 * @param column the column of codes
+	 * @param code the code to keep, -1 if the value is not in the column
+	 * @return the number of positions kept
+	 */
+	private static int keepCode(int[] positions, int count, int[] column, int code) {
+		int kept = 0;
+		for (int k = 0; k < count; k++) {
+			if (column[positions[k]] == code) {
+				positions[kept++] = positions[k];
+			}
+		}
+		return kept;
+	}
+
+	/**
+	 * Returns the first entries of an array
+	 * @param positions the array
+	 * @param count the number of entries to keep
+	 * @return an array of the first count entries
+	 */
+	private static int[] trim(int[] positions, int count) {
+		int[] result = new int[count];
+		System.arraycopy(positions, 0, result, 0, count);
+		return result;
+	}
+
+	/**
+	 * Returns whether the paper at a position is processed
+	 * @param position the position
+	 * @return the processed flag
+	 */
+	private boolean isProcessed(int position) {
+		return (processed[position >>> 6] & (1L << position)) != 0;
+	}
+
+	/**
+	 * Creates full Papers from the columns, in id order, for building a PaperTrack again.
+	 * The papers were valid when they were copied, so they are restored without checking them
+	 * @return the papers
+	 */
+	public List<Paper> toPapers() {
+		List<Paper> papers = new ArrayList<Paper>(ids.length);
+		for (int i = 0; i < ids.length; i++) {
+			papers.add(new PaperRow(i).toPaper());
+		}
+		return papers;
+	}
+
+	/**
+	 * A flyweight view of one paper of a ColumnarPaperTrack. The view holds only its
+	 * position and reads every value from the columns when it is asked for
+	 */
+	public final class PaperRow {
+
+		/** The position of the paper in the columns */
+		private final int position;
+
+		/**
+		 * Creates a view of the paper at a position
+		 * @param position the position
+		 */
+		private PaperRow(int position) {
+			this.position = position;
+		}
+
+		/**
+		 * Returns the paper id
+		 * @return the id of the paper
+		 */
+		public int getId() {
+			return ids[position];
+		}
+
+		/**
+		 * Returns the state name
+		 * @return the state of the paper
+		 */
+		public String getState() {
+			return STATES[states[position]];
+		}
+
+		/**
+		 * Returns the author names
+		 * @return the author names of the paper
+		 */
+		public String getAuthorNames() {
+			return authorPool[authors[position]];
+		}
+
+		/**
+		 * Returns the saved author names
+		 * @return the saved author names or null if there are none
+		 */
+		public String getSavedAuthorNames() {
+			int code = savedAuthors[position];
+			return code < 0 ? null : authorPool[code];
+		}
+
+		/**
+		 * Returns the paper type
+		 * @return the paper type
+		 */
+		public String getPaperType() {
+			return PAPER_TYPES[types[position]];
+		}
+
+		/**
+		 * Returns whether the paper has been processed
+		 * @return the processed status
+		 */
+		public boolean isProcessed() {
+			return ColumnarPaperTrack.this.isProcessed(position);
+		}
+
+		/**
+		 * Returns the reviewer
+		 * @return the reviewer or an empty string if there is none
+		 */
+		public String getReviewer() {
+			return reviewerTable[reviewers[position]];
+		}
+
+		/**
+		 * Returns the note
+		 * @return the note or an empty string if there is none
+		 */
+		public String getNote() {
+			return noteTable[notes[position]];
+		}
+
+		/**
+		 * Creates a full Paper with the values of this view
+		 * @return the paper
+		 */
+		public Paper toPaper() {
+			return Paper.restore(getId(), getState(), getAuthorNames(), getPaperType(), isProcessed(), getReviewer(),
+					getNote());
+		}
+
+		/**
+		 * Returns the paper in the same format as a Paper
+		 * @return the paper as a string
+		 */
+		@Override
+		public String toString() {
+			return getId() + "," + getState() + "," + getAuthorNames() + "," + getPaperType() + "," + isProcessed()
+					+ "," + getReviewer() + "," + getNote();
+		}
+	}
+}
@@ -0,0 +1,405 @@
+package edu.ncsu.csc216.wolf_review.model.manager;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import edu.ncsu.csc216.wolf_review.model.paper.Paper;
+import edu.ncsu.csc216.wolf_review.model.paper.PaperView;
+
+/**
+ * An immutable store of Closed papers kept outside the Java heap. A Closed paper never
+ * changes again, so once it is archived it is written once as a compact record into a direct
+ * buffer and only the sorted ids and record offsets stay on the heap. A record is the id,
+ * the version, one byte of flags for the paper type and processed status, one byte for the close reason,
+ * and the author names, reviewer and any other note as length prefixed UTF-8. Papers are
+ * made from their record each time they are asked for. Adding or removing papers makes a
+ * new archive, so an archive can be read by any thread without locking
+ * @author Steven Saleeb
+ */
+public final class PaperArchive {
+
+	/** The close reasons stored as a single code */
+	private static final String[] CLOSE_REASONS = {Paper.ACCEPT_CLOSED, Paper.REJECT_CLOSED,
+		Paper.WITHDRAW_CLOSED, Paper.DUPLICATE_CLOSED};
+
+	/** Flag set for a full paper */
+	private static final int FULL_PAPER = 1;
+
+	/** Flag set for a processed paper */
+	private static final int PROCESSED = 2;
+
+	/** Note code of a note stored as a string after the record */
+	private static final byte OTHER_NOTE = -1;
+
+	/** An archive with no papers */
+	public static final PaperArchive EMPTY = new PaperArchive(new int[0], new int[0], ByteBuffer.allocateDirect(0),
+			TrackStatistics.EMPTY);
+
+	/** The archived paper ids in increasing order */
+	private final int[] ids;
+
+	/** The offset of the record of each paper, in the same order as the ids */
+	private final int[] offsets;
+
+	/** The records, outside the heap and never modified */
+	private final ByteBuffer records;
+
+	/** Counts of the archived papers */
+	private final TrackStatistics statistics;
+
+	/**
+	 * Creates an archive from its parts, the arrays and buffer are owned by the archive after this call
+	 * @param ids the ids in increasing order
+	 * @param offsets the offset of each record
+	 * @param records the records
+	 * @param statistics the counts of the papers
+	 */
+	private PaperArchive(int[] ids, int[] offsets, ByteBuffer records, TrackStatistics statistics) {
+		this.ids = ids;
+		this.offsets = offsets;
+		this.records = records;
+		this.statistics = statistics;
+	}
+
+	/**
+	 * Returns the number of archived papers
+	 * @return the number of papers
+	 */
+	public int size() {
+		return ids.length;
+	}
+
+	/**
+	 * Returns the number of bytes the records use outside the heap
+	 * @return the size of the records
+	 */
+	public int getRecordBytes() {
+		return records.capacity();
+	}
+
+	/**
+	 * Returns the counts of the archived papers
+	 * @return the statistics
+	 */
+	public TrackStatistics getStatistics() {
+		return statistics;
+	}
+
+	/**
+	 * Finds the position of a paper id with a binary search
+	 * @param id the id to find
+	 * @return the position of the id, or a negative number if it is not archived
+	 */
+	int indexOf(int id) {
+		int low = 0;
+		int high = ids.length - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			if (ids[mid] < id) {
+				low = mid + 1;
+			} else if (ids[mid] > id) {
+				high = mid - 1;
+			} else {
+				return mid;
+			}
+		}
+		return -(low + 1);
+	}
+
+	/**
+	 * Returns the largest archived paper id
+	 * @return the largest id, or 0 if nothing is archived
+	 */
+	public int getMaxId() {
+		return ids.length == 0 ? 0 : ids[ids.length - 1];
+	}
+
+	/**
+	 * Returns whether a paper is archived
+	 * @param id the id of the paper
+	 * @return true if the paper is archived
+	 */
+	public boolean contains(int id) {
+		return indexOf(id) >= 0;
+	}
+
+	/**
+	 * Makes the archived paper with the given id from its record
+	 * @param id the id of the paper
+	 * @return a new Paper or null if the paper is not archived
+	 */
+	public Paper getPaperById(int id) {
+		int position = indexOf(id);
+		return position < 0 ? null : paperAt(position);
+	}
+
+	/**
+	 * Makes the archived paper at a position from its record
+	 * @param position the position of the paper in id order
+	 * @return a new Paper
+	 */
+	Paper paperAt(int position) {
+		int offset = offsets[position] + Integer.BYTES + Long.BYTES;
+		int flags = records.get(offset++);
+		byte noteCode = records.get(offset++);
+		int length = records.getShort(offset) & 0xFFFF;
+		String authors = readString(offset);
+		offset += Short.BYTES + length;
+		length = records.getShort(offset) & 0xFFFF;
+		String reviewer = readString(offset);
+		offset += Short.BYTES + length;
+		String note = noteCode == OTHER_NOTE ? readString(offset) : CLOSE_REASONS[noteCode];
+		Paper paper = Paper.restore(ids[position], Paper.CLOSED_NAME, authors,
+				(flags & FULL_PAPER) != 0 ? Paper.P_FULLPAPER : Paper.P_ABSTRACT, (flags & PROCESSED) != 0, reviewer,
+				note);
+		paper.setVersion(versionAt(position));
+		return paper;
+	}
+
+	/**
+	 * Reads the version of the archived paper at a position without making the paper
+	 * @param position the position of the paper in id order
+	 * @return the version of the paper
+	 */
+	long versionAt(int position) {
+		return records.getLong(offsets[position] + Integer.BYTES);
+	}
+
+	/**
+	 * Returns the archived paper id at a position
+	 * @param position the position of the paper in id order
+	 * @return the paper id
+	 */
+	int idAt(int position) {
+		return ids[position];
+	}
+
+	/**
+	 * Returns views of the archived papers, each made from its record when it is read
+	 * @return the views in id order
+	 */
+	public List<PaperView> getPapers() {
+		List<PaperView> views = new ArrayList<PaperView>(ids.length);
+		for (int i = 0; i < ids.length; i++) {
+			views.add(new PaperView(paperAt(i)));
+		}
+		return views;
+	}
+
+	/**
+	 * Returns views of the archived papers that match the given filters. The paper type,
+	 * processed status, close reason, reviewer and note are compared in place in each record,
+	 * and a paper is only made from a record that matches, so a query that matches few archived
+	 * papers does not make every paper of the archive
+	 * @param paperType the paper type ignoring case, or null for any
+	 * @param processed the processed status, or null for any
+	 * @param reviewer the reviewer, or null for any
+	 * @param note the note, or null for any
+	 * @return views of the matching papers in id order
+	 */
+	List<PaperView> find(String paperType, Boolean processed, String reviewer, String note) {
+		List<PaperView> views = new ArrayList<PaperView>();
+		int typeFlag = 0;
+		if (paperType != null) {
+			if (Paper.P_FULLPAPER.equalsIgnoreCase(paperType)) {
+				typeFlag = FULL_PAPER;
+			} else if (!Paper.P_ABSTRACT.equalsIgnoreCase(paperType)) {
+				return views;
+			}
+		}
+		byte[] reviewerBytes = reviewer == null ? null : reviewer.getBytes(StandardCharsets.UTF_8);
+		byte[] noteBytes = note == null ? null : note.getBytes(StandardCharsets.UTF_8);
+		byte noteCode = OTHER_NOTE;
+		for (int i = 0; note != null && i < CLOSE_REASONS.length; i++) {
+			if (CLOSE_REASONS[i].equals(note)) {
+				noteCode = (byte) i;
+			}
+		}
+		for (int i = 0; i < ids.length; i++) {
+			int offset = offsets[i] + Integer.BYTES + Long.BYTES;
+			int flags = records.get(offset++);
+			byte code = records.get(offset++);
+			if (paperType != null && (flags & FULL_PAPER) != typeFlag
+					|| processed != null && ((flags & PROCESSED) != 0) != processed
+					|| note != null && code != OTHER_NOTE && code != noteCode) {
+				continue;
+			}
+			offset += Short.BYTES + (records.getShort(offset) & 0xFFFF);
+			if (reviewerBytes != null && !stringEquals(offset, reviewerBytes)) {
+				continue;
+			}
+			offset += Short.BYTES + (records.getShort(offset) & 0xFFFF);
+			if (noteBytes != null && code == OTHER_NOTE && !stringEquals(offset, noteBytes)) {
+				continue;
+			}
+			views.add(new PaperView(paperAt(i)));
+		}
+		return views;
+	}
+	/**
+	 * Returns a new archive with these papers and the given Closed papers
+	 * @param closed views of Closed papers whose ids are not archived yet
+	 * @return the new archive
+	 * @throws IllegalArgumentException if a paper is not Closed or is already archived
+	 */
+	public PaperArchive with(List<PaperView> closed) {
+		byte[][] added = new byte[closed.size()][];
+		int[] addedIds = new int[closed.size()];
+		TrackStatistics next = statistics;
+		int bytes = records.capacity();
+		for (int i = 0; i < added.length; i++) {
+			PaperView paper = closed.get(i);
+			if (!Paper.CLOSED_NAME.equals(paper.getState()) || contains(paper.getId())) {
+				throw new IllegalArgumentException("Invalid information.");
+			}
+			added[i] = encode(paper);
+			addedIds[i] = paper.getId();
+			bytes += added[i].length;
+			next = next.withChange(null, paper);
+		}
+		Integer[] order = new Integer[added.length];
+		for (int i = 0; i < order.length; i++) {
+			order[i] = i;
+		}
+		Arrays.sort(order, (a, b) -> Integer.compare(addedIds[a], addedIds[b]));
+
+		int count = ids.length + added.length;
+		int[] nextIds = new int[count];
+		int[] nextOffsets = new int[count];
+		ByteBuffer nextRecords = ByteBuffer.allocateDirect(bytes);
+		int i = 0;
+		int k = 0;
+		for (int n = 0; n < count; n++) {
+			nextOffsets[n] = nextRecords.position();
+			if (k >= order.length || i < ids.length && ids[i] < addedIds[order[k]]) {
+				nextIds[n] = ids[i];
+				nextRecords.put(nextRecords.position(), records, offsets[i], recordLength(i));
+				nextRecords.position(nextRecords.position() + recordLength(i));
+				i++;
+			} else {
+				if (n > 0 && nextIds[n - 1] == addedIds[order[k]]) {
+					throw new IllegalArgumentException("Invalid information.");
+				}
+				nextIds[n] = addedIds[order[k]];
+				nextRecords.put(added[order[k]]);
+				k++;
+			}
+		}
+		return new PaperArchive(nextIds, nextOffsets, nextRecords, next);
+	}
+
+	/**
+	 * Returns a new archive without the paper with the given id
+	 * @param id the id of the paper to remove
+	 * @return the new archive, or this archive if the paper is not archived
+	 */
+	public PaperArchive without(int id) {
+		int position = indexOf(id);
+		if (position < 0) {
+			return this;
+		}
+		int length = recordLength(position);
+		int count = ids.length - 1;
+		int[] nextIds = new int[count];
+		int[] nextOffsets = new int[count];
+		ByteBuffer nextRecords = ByteBuffer.allocateDirect(records.capacity() - length);
+		nextRecords.put(0, records, 0, offsets[position]);
+		nextRecords.put(offsets[position], records, offsets[position] + length,
+				records.capacity() - offsets[position] - length);
+		for (int i = 0; i < count; i++) {
+			int from = i < position ? i : i + 1;
+			nextIds[i] = ids[from];
+			nextOffsets[i] = i < position ? offsets[from] : offsets[from] - length;
+		}
+		return new PaperArchive(nextIds, nextOffsets, nextRecords,
+				statistics.withChange(new PaperView(paperAt(position)), null));
+	}
+
+	/**
+	 * Returns the length of the record at a position
+	 * @param position the position of the paper
+	 * @return the number of bytes of its record
+	 */
+	private int recordLength(int position) {
+		int end = position + 1 < offsets.length ? offsets[position + 1] : records.capacity();
+		return end - offsets[position];
+	}
+
+	/**
+	 * Reads a length prefixed UTF-8 string
+	 * @param offset the offset of the length
+	 * @return the string
+	 */
+	private String readString(int offset) {
+		byte[] bytes = new byte[records.getShort(offset) & 0xFFFF];
+		records.get(offset + Short.BYTES, bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Checks whether a length prefixed UTF-8 string equals the given bytes without reading it
+	 * into a string
+	 * @param offset the offset of the length
+	 * @param bytes the UTF-8 bytes to compare with
+	 * @return true if the string has exactly these bytes
+	 */
+	private boolean stringEquals(int offset, byte[] bytes) {
+		if ((records.getShort(offset) & 0xFFFF) != bytes.length) {
+			return false;
+		}
+		for (int i = 0; i < bytes.length; i++) {
+			if (records.get(offset + Short.BYTES + i) != bytes[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+	/**
+	 * Encodes a Closed paper as a record
+	 * @param paper the paper
+	 * @return the bytes of the record
+	 * @throws IllegalArgumentException if a string is too long for a record
+	 */
+	private static byte[] encode(PaperView paper) {
+		byte noteCode = OTHER_NOTE;
+		for (int i = 0; i < CLOSE_REASONS.length; i++) {
+			if (CLOSE_REASONS[i].equals(paper.getNote())) {
+				noteCode = (byte) i;
+			}
+		}
+		byte[] authors = utf8(paper.getAuthorNames());
+		byte[] reviewer = utf8(paper.getReviewer());
+		byte[] note = noteCode == OTHER_NOTE ? utf8(paper.getNote()) : null;
+		int length = Integer.BYTES + Long.BYTES + 2 + Short.BYTES + authors.length + Short.BYTES + reviewer.length
+				+ (note == null ? 0 : Short.BYTES + note.length);
+		ByteBuffer record = ByteBuffer.allocate(length);
+		record.putInt(paper.getId());
+		record.putLong(paper.getVersion());
+		record.put((byte) ((Paper.P_FULLPAPER.equals(paper.getPaperType()) ? FULL_PAPER : 0)
+				| (paper.isProcessed() ? PROCESSED : 0)));
+		record.put(noteCode);
+		record.putShort((short) authors.length).put(authors);
+		record.putShort((short) reviewer.length).put(reviewer);
+		if (note != null) {
+			record.putShort((short) note.length).put(note);
+		}
+		return record.array();
+	}
+
+	/**
+	 * Encodes a string as UTF-8
+	 * @param value the string
+	 * @return the bytes of the string
+	 * @throws IllegalArgumentException if the string is too long for a record
+	 */
+	private static byte[] utf8(String value) {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		if (bytes.length > 0xFFFF) {
+			throw new IllegalArgumentException("Invalid information.");
+		}
+		return bytes;
+	}
+}
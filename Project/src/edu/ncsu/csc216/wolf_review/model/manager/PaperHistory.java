@@ -0,0 +1,426 @@
+package edu.ncsu.csc216.wolf_review.model.manager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.LongSupplier;
+
+import edu.ncsu.csc216.wolf_review.model.command.Command.CommandValue;
+import edu.ncsu.csc216.wolf_review.model.paper.PaperView;
+
+/**
+ * An append only log of every change to the papers of one PaperTrack, with the time of the
+ * change and the command that made it, so the papers can be seen as they were at any earlier
+ * time. The log is kept in parallel arrays that share the immutable paper views of the track,
+ * and each event links to the previous event of the same paper, so the history of one paper
+ * is read without scanning the others. Every checkpoint interval events the papers are copied
+ * into a checkpoint, and the track as of a time is made from the last checkpoint before it and
+ * at most one interval of events, however long the log is. Papers that are archived or dropped
+ * when the track is unloaded are not logged as deleted, since they are still in the track.
+ * The class is final because the constructor registers the history with the track
+ * @author Steven Saleeb
+ */
+public final class PaperHistory implements PaperTrackListener {
+
+	/** Number of events between checkpoints used when none is given */
+	public static final int DEFAULT_CHECKPOINT_INTERVAL = 256;
+
+	/** Event capacity of a new log */
+	private static final int INITIAL_CAPACITY = 16;
+
+	/** The command values, indexed by the codes in the log minus one */
+	private static final CommandValue[] COMMANDS = CommandValue.values();
+
+	/**
+	 * One change to a paper
+	 */
+	public static final class Event {
+
+		/** Time of the change in milliseconds */
+		private final long time;
+
+		/** Id of the paper */
+		private final int paperId;
+
+		/** The command that made the change, or null */
+		private final CommandValue command;
+
+		/** The paper after the change, or null if it was deleted */
+		private final PaperView paper;
+
+		/**
+		 * Creates an event
+		 * @param time time of the change in milliseconds
+		 * @param paperId id of the paper
+		 * @param command the command that made the change, or null
+		 * @param paper the paper after the change, or null if it was deleted
+		 */
+		private Event(long time, int paperId, CommandValue command, PaperView paper) {
+			this.time = time;
+			this.paperId = paperId;
+			this.command = command;
+			this.paper = paper;
+		}
+
+		/**
+		 * Returns the time of the change
+		 * @return the time in milliseconds
+		 */
+		public long getTime() {
+			return time;
+		}
+
+		/**
+		 * Returns the id of the paper that changed
+		 * @return the paper id
+		 */
+		public int getPaperId() {
+			return paperId;
+		}
+
+		/**
+		 * Returns the command that made the change
+		 * @return the command value, or null if the paper was added, deleted or reloaded
+		 */
+		public CommandValue getCommand() {
+			return command;
+		}
+
+		/**
+		 * Returns the paper after the change
+		 * @return the paper, or null if it was deleted
+		 */
+		public PaperView getPaper() {
+			return paper;
+		}
+
+		/**
+		 * Returns the event as the time, command and paper
+		 * @return the event as a string
+		 */
+		@Override
+		public String toString() {
+			return time + " " + (command == null ? "-" : command) + " " + (paper == null ? "deleted " + paperId : paper);
+		}
+	}
+
+	/**
+	 * The papers of the track after a number of events
+	 */
+	private static final class Checkpoint {
+
+		/** Time of the last event included, or the time the history started */
+		private final long time;
+
+		/** Number of events included */
+		private final int events;
+
+		/** The papers sorted by id */
+		private final PaperView[] papers;
+
+		/**
+		 * Creates a checkpoint
+		 * @param time time of the last event included
+		 * @param events number of events included
+		 * @param papers the papers sorted by id
+		 */
+		private Checkpoint(long time, int events, PaperView[] papers) {
+			this.time = time;
+			this.events = events;
+			this.papers = papers;
+		}
+	}
+
+	/** The track whose changes are logged */
+	private final PaperTrack track;
+
+	/** Number of events between checkpoints */
+	private final int checkpointInterval;
+
+	/** Source of the time of each change in milliseconds */
+	private final LongSupplier clock;
+
+	/** Time of each event */
+	private long[] times = new long[INITIAL_CAPACITY];
+
+	/** Paper id of each event */
+	private int[] ids = new int[INITIAL_CAPACITY];
+
+	/** Command of each event as the ordinal plus one, or 0 if no command made it */
+	private byte[] commands = new byte[INITIAL_CAPACITY];
+
+	/** Paper after each event, or null if it was deleted */
+	private PaperView[] papers = new PaperView[INITIAL_CAPACITY];
+
+	/** Index of the previous event of the same paper, or -1 if it is the first */
+	private int[] previous = new int[INITIAL_CAPACITY];
+
+	/** Number of events */
+	private int size;
+
+	/** Index of the last event of each paper that has one */
+	private final Map<Integer, Integer> lastEvent = new HashMap<Integer, Integer>();
+
+	/** The papers after every event so far, by id */
+	private final TreeMap<Integer, PaperView> current = new TreeMap<Integer, PaperView>();
+
+	/** The checkpoints in event order, the first is the track when the history started */
+	private final List<Checkpoint> checkpoints = new ArrayList<Checkpoint>();
+
+	/**
+	 * Starts logging the changes of a track with the default checkpoint interval and the system clock
+	 * @param track the track to log
+	 * @throws IllegalArgumentException if the track is null
+	 */
+	public PaperHistory(PaperTrack track) {
+		this(track, DEFAULT_CHECKPOINT_INTERVAL, System::currentTimeMillis);
+	}
+
+	/**
+	 * Starts logging the changes of a track. The papers the track has now are the first
+	 * checkpoint, and the papers of a track that is not loaded are read
+	 * @param track the track to log
+	 * @param checkpointInterval number of events between checkpoints
+	 * @param clock source of the time of each change in milliseconds
+	 * @throws IllegalArgumentException if the track or clock is null or the interval is less than one
+	 */
+	public PaperHistory(PaperTrack track, int checkpointInterval, LongSupplier clock) {
+		if (track == null || clock == null || checkpointInterval < 1) {
+			throw new IllegalArgumentException("Invalid information.");
+		}
+		this.track = track;
+		this.checkpointInterval = checkpointInterval;
+		this.clock = clock;
+		track.addListener(this, snapshot -> {
+			for (PaperView paper : snapshot.getAllPapers()) {
+				current.put(paper.getId(), paper);
+			}
+			checkpoints.add(new Checkpoint(clock.getAsLong(), 0, currentPapers()));
+		});
+	}
+
+	/**
+	 * Stops logging the changes of the track. The history that was logged can still be read
+	 */
+	public void detach() {
+		track.removeListener(this);
+	}
+
+	/**
+	 * Returns the track whose changes are logged
+	 * @return the track
+	 */
+	public PaperTrack getTrack() {
+		return track;
+	}
+
+	/**
+	 * Logs a change to a paper of the track
+	 * @param changed the track that changed
+	 * @param before the paper before the change, or null if the paper was added
+	 * @param after the paper after the change, or null if the paper was deleted
+	 */
+	@Override
+	public void paperChanged(PaperTrack changed, PaperView before, PaperView after) {
+		if (after == null && (!changed.isLoaded() || changed.getSnapshot().getArchive().contains(before.getId()))) {
+			return;
+		}
+		CommandValue command = changed.getApplyingCommand();
+		append(after != null ? after.getId() : before.getId(), command, after);
+	}
+
+	/**
+	 * Appends an event unless the paper is already as it would leave it, and makes a
+	 * checkpoint every interval events. Times never go backwards, so an event is never
+	 * logged before the event it follows
+	 * @param id the id of the paper
+	 * @param command the command that made the change, or null
+	 * @param paper the paper after the change, or null if it was deleted
+	 */
+	private synchronized void append(int id, CommandValue command, PaperView paper) {
+		PaperView known = current.get(id);
+		if (paper == null ? known == null : paper.equals(known)) {
+			return;
+		}
+		if (size == times.length) {
+			int capacity = size * 2;
+			times = Arrays.copyOf(times, capacity);
+			ids = Arrays.copyOf(ids, capacity);
+			commands = Arrays.copyOf(commands, capacity);
+			papers = Arrays.copyOf(papers, capacity);
+			previous = Arrays.copyOf(previous, capacity);
+		}
+		long time = Math.max(clock.getAsLong(), size == 0 ? checkpoints.get(0).time : times[size - 1]);
+		times[size] = time;
+		ids[size] = id;
+		commands[size] = (byte) (command == null ? 0 : command.ordinal() + 1);
+		papers[size] = paper;
+		Integer last = lastEvent.put(id, size);
+		previous[size] = last == null ? -1 : last;
+		size++;
+		if (paper == null) {
+			current.remove(id);
+		} else {
+			current.put(id, paper);
+		}
+		if (size % checkpointInterval == 0) {
+			checkpoints.add(new Checkpoint(time, size, currentPapers()));
+		}
+	}
+
+	/**
+	 * Copies the current papers into an array sorted by id
+	 * @return the papers
+	 */
+	private PaperView[] currentPapers() {
+		return current.values().toArray(new PaperView[current.size()]);
+	}
+
+	/**
+	 * Returns the papers of the track as they were at a time. The work is one checkpoint copy
+	 * and at most one checkpoint interval of events
+	 * @param time the time in milliseconds
+	 * @return the papers sorted by id, empty if the time is before the history started
+	 */
+	public synchronized List<PaperView> asOf(long time) {
+		int c = lastCheckpointAt(time);
+		if (c < 0) {
+			return Collections.emptyList();
+		}
+		Checkpoint checkpoint = checkpoints.get(c);
+		TreeMap<Integer, PaperView> state = new TreeMap<Integer, PaperView>();
+		for (PaperView paper : checkpoint.papers) {
+			state.put(paper.getId(), paper);
+		}
+		for (int i = checkpoint.events; i < size && times[i] <= time; i++) {
+			if (papers[i] == null) {
+				state.remove(ids[i]);
+			} else {
+				state.put(ids[i], papers[i]);
+			}
+		}
+		return Collections.unmodifiableList(new ArrayList<PaperView>(state.values()));
+	}
+
+	/**
+	 * Returns one paper as it was at a time, following only the events of that paper
+	 * @param id the id of the paper
+	 * @param time the time in milliseconds
+	 * @return the paper, or null if it did not exist at the time
+	 */
+	public synchronized PaperView paperAsOf(int id, long time) {
+		Integer last = lastEvent.get(id);
+		for (int i = last == null ? -1 : last; i >= 0; i = previous[i]) {
+			if (times[i] <= time) {
+				return papers[i];
+			}
+		}
+		Checkpoint first = checkpoints.get(0);
+		if (time < first.time) {
+			return null;
+		}
+		int low = 0;
+		int high = first.papers.length - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			int midId = first.papers[mid].getId();
+			if (midId == id) {
+				return first.papers[mid];
+			} else if (midId < id) {
+				low = mid + 1;
+			} else {
+				high = mid - 1;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Returns every logged change to one paper
+	 * @param id the id of the paper
+	 * @return the events of the paper, oldest first
+	 */
+	public synchronized List<Event> getEvents(int id) {
+		List<Event> events = new ArrayList<Event>();
+		Integer last = lastEvent.get(id);
+		for (int i = last == null ? -1 : last; i >= 0; i = previous[i]) {
+			events.add(event(i));
+		}
+		Collections.reverse(events);
+		return events;
+	}
+
+	/**
+	 * Returns every logged change made after a time
+	 * @param time the time in milliseconds
+	 * @return the events, oldest first
+	 */
+	public synchronized List<Event> getEventsSince(long time) {
+		int from = lastCheckpointAt(time);
+		List<Event> events = new ArrayList<Event>();
+		for (int i = from < 0 ? 0 : checkpoints.get(from).events; i < size; i++) {
+			if (times[i] > time) {
+				events.add(event(i));
+			}
+		}
+		return events;
+	}
+
+	/**
+	 * Makes the event at an index of the log
+	 * @param i the index
+	 * @return the event
+	 */
+	private Event event(int i) {
+		return new Event(times[i], ids[i], commands[i] == 0 ? null : COMMANDS[commands[i] - 1], papers[i]);
+	}
+
+	/**
+	 * Finds the last checkpoint made at or before a time
+	 * @param time the time in milliseconds
+	 * @return the index of the checkpoint, or -1 if the time is before the history started
+	 */
+	private int lastCheckpointAt(long time) {
+		int low = 0;
+		int high = checkpoints.size() - 1;
+		int found = -1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			if (checkpoints.get(mid).time <= time) {
+				found = mid;
+				low = mid + 1;
+			} else {
+				high = mid - 1;
+			}
+		}
+		return found;
+	}
+
+	/**
+	 * Returns the time the history started
+	 * @return the time in milliseconds
+	 */
+	public synchronized long getStartTime() {
+		return checkpoints.get(0).time;
+	}
+
+	/**
+	 * Returns the number of logged changes
+	 * @return the number of events
+	 */
+	public synchronized int getEventCount() {
+		return size;
+	}
+
+	/**
+	 * Returns the number of checkpoints, including the one made when the history started
+	 * @return the number of checkpoints
+	 */
+	public synchronized int getCheckpointCount() {
+		return checkpoints.size();
+	}
+}
@@ -0,0 +1,355 @@
+package edu.ncsu.csc216.wolf_review.model.manager;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import edu.ncsu.csc216.wolf_review.model.paper.Paper;
+import edu.ncsu.csc216.wolf_review.model.paper.PaperView;
+
+/**
+ * A query over the papers of a PaperTrack. Each filter that is set must match for a paper
+ * to be returned, and filters that are left unset match every paper. The query picks the
+ * most selective index of the snapshot it runs on, the id, the state or the reviewer,
+ * and only checks the remaining filters on the papers that index returns
+ * @author Steven Saleeb
+ */
+public class PaperQuery {
+
+	/**
+	 * The ways a query can find its candidate papers, from most to least selective
+	 */
+	public enum Plan {
+		/** Look up a single paper by its id */
+		ID_LOOKUP,
+		/** Read the papers in one state from the state index */
+		STATE_INDEX,
+		/** Read the papers of one reviewer from the reviewer index */
+		REVIEWER_INDEX,
+		/** Check every paper in the track */
+		FULL_SCAN
+	}
+
+	/**
+	 * The fields the results can be sorted by
+	 */
+	public enum SortKey {
+		/** Sort by paper id */
+		ID,
+		/** Sort by state name */
+		STATE,
+		/** Sort by author names */
+		AUTHORS,
+		/** Sort by paper type */
+		PAPER_TYPE,
+		/** Sort by reviewer */
+		REVIEWER
+	}
+
+	/** The paper id to match, or -1 to match any id */
+	private int id = -1;
+
+	/** The state name to match or null */
+	private String state;
+
+	/** The paper type to match or null */
+	private String paperType;
+
+	/** The processed status to match or null */
+	private Boolean processed;
+
+	/** The reviewer to match or null */
+	private String reviewer;
+
+	/** The note or recommendation to match or null */
+	private String note;
+
+	/** Text the author names must contain, or null */
+	private String authorText;
+
+	/** The field to sort the results by */
+	private SortKey sortKey = SortKey.ID;
+
+	/** Whether the results are sorted in descending order */
+	private boolean descending;
+
+	/** Number of matching papers to skip */
+	private int offset;
+
+	/** Largest number of papers to return, or 0 for no limit */
+	private int limit;
+
+	/**
+	 * Matches only the paper with the given id
+	 * @param paperId the id of the paper
+	 * @return this query
+	 * @throws IllegalArgumentException if the id is negative
+	 */
+	public PaperQuery id(int paperId) {
+		if (paperId < 0) {
+			throw new IllegalArgumentException("Invalid query.");
+		}
+		this.id = paperId;
+		return this;
+	}
+
+	/**
+	 * Matches papers in the given state, "All" or null matches every state
+	 * @param stateName the name of the state
+	 * @return this query
+	 */
+	public PaperQuery state(String stateName) {
+		this.state = "All".equals(stateName) ? null : stateName;
+		return this;
+	}
+
+	/**
+	 * Matches papers of the given type
+	 * @param type the paper type
+	 * @return this query
+	 */
+	public PaperQuery paperType(String type) {
+		this.paperType = type;
+		return this;
+	}
+
+	/**
+	 * Matches papers with the given processed status
+	 * @param isProcessed the processed status
+	 * @return this query
+	 */
+	public PaperQuery processed(boolean isProcessed) {
+		this.processed = isProcessed;
+		return this;
+	}
+
+	/**
+	 * Matches papers assigned to the given reviewer
+	 * @param reviewerName the reviewer name
+	 * @return this query
+	 */
+	public PaperQuery reviewer(String reviewerName) {
+		this.reviewer = reviewerName;
+		return this;
+	}
+
+	/**
+	 * Matches papers with the given note or recommendation
+	 * @param noteText the note
+	 * @return this query
+	 */
+	public PaperQuery note(String noteText) {
+		this.note = noteText;
+		return this;
+	}
+
+	/**
+	 * Matches papers whose author names contain the given text, ignoring case
+	 * @param text the text to look for
+	 * @return this query
+	 */
+	public PaperQuery authorContains(String text) {
+		this.authorText = text == null ? null : text.toLowerCase();
+		return this;
+	}
+
+	/**
+	 * Sorts the results by the given field
+	 * @param key the field to sort by
+	 * @param isDescending true to sort from largest to smallest
+	 * @return this query
+	 * @throws IllegalArgumentException if the key is null
+	 */
+	public PaperQuery sortBy(SortKey key, boolean isDescending) {
+		if (key == null) {
+			throw new IllegalArgumentException("Invalid query.");
+		}
+		this.sortKey = key;
+		this.descending = isDescending;
+		return this;
+	}
+
+	/**
+	 * Returns one page of the results
+	 * @param skip the number of matching papers to skip
+	 * @param max the largest number of papers to return, 0 for no limit
+	 * @return this query
+	 * @throws IllegalArgumentException if either value is negative
+	 */
+	public PaperQuery page(int skip, int max) {
+		if (skip < 0 || max < 0) {
+			throw new IllegalArgumentException("Invalid query.");
+		}
+		this.offset = skip;
+		this.limit = max;
+		return this;
+	}
+
+	/**
+	 * Returns the plan the query would use on the given snapshot
+	 * @param snapshot the snapshot to query
+	 * @return the plan with the fewest candidate papers
+	 */
+	public Plan plan(TrackSnapshot snapshot) {
+		if (id >= 0) {
+			return Plan.ID_LOOKUP;
+		}
+		int best = snapshot.size();
+		Plan plan = Plan.FULL_SCAN;
+		if (state != null && snapshot.positionsInState(state).length < best) {
+			best = snapshot.positionsInState(state).length;
+			plan = Plan.STATE_INDEX;
+		}
+		if (reviewer != null && snapshot.positionsOfReviewer(reviewer).length < best) {
+			plan = Plan.REVIEWER_INDEX;
+		}
+		return plan;
+	}
+
+	/**
+	 * Runs the query on the given snapshot. Archived papers are Closed, so they are only
+	 * read from the archive when the query can match a Closed paper, and the archive only
+	 * makes the papers whose records match the paper type, processed, reviewer and note filters
+	 * @param snapshot the snapshot to query
+	 * @return the matching papers, sorted and paged
+	 */
+	public List<PaperView> execute(TrackSnapshot snapshot) {
+		List<PaperView> papers = snapshot.getPapers();
+		List<PaperView> matches = new ArrayList<PaperView>();
+		switch (plan(snapshot)) {
+		case ID_LOOKUP:
+			PaperView paper = snapshot.getPaperById(id);
+			if (paper != null && matches(paper)) {
+				matches.add(paper);
+			}
+			break;
+		case STATE_INDEX:
+			addMatches(papers, snapshot.positionsInState(state), matches);
+			break;
+		case REVIEWER_INDEX:
+			addMatches(papers, snapshot.positionsOfReviewer(reviewer), matches);
+			break;
+		default:
+			for (PaperView p : papers) {
+				if (matches(p)) {
+					matches.add(p);
+				}
+			}
+		}
+		boolean archived = false;
+		if (id < 0 && snapshot.getArchive().size() > 0 && (state == null || Paper.CLOSED_NAME.equals(state))) {
+			for (PaperView p : snapshot.getArchive().find(paperType, processed, reviewer, note)) {
+				if (matches(p)) {
+					matches.add(p);
+					archived = true;
+				}
+			}
+		}
+
+		if (archived || sortKey != SortKey.ID || descending) {
+			matches.sort(comparator());
+		}
+		int from = Math.min(offset, matches.size());
+		int to = limit == 0 ? matches.size() : Math.min(matches.size(), from + limit);
+		return new ArrayList<PaperView>(matches.subList(from, to));
+	}
+
+	/**
+	 * Runs the query on a columnar copy of a track. Each filter is checked as one loop over
+	 * its column, and only the matching papers get a view
+	 * @param track the columnar track to query
+	 * @return views of the matching papers, sorted and paged
+	 */
+	public List<ColumnarPaperTrack.PaperRow> execute(ColumnarPaperTrack track) {
+		List<ColumnarPaperTrack.PaperRow> matches = track.rows(track.filter(id, state, paperType, processed, reviewer,
+				note, authorText));
+		if (sortKey != SortKey.ID || descending) {
+			matches.sort(rowComparator());
+		}
+		int from = Math.min(offset, matches.size());
+		int to = limit == 0 ? matches.size() : Math.min(matches.size(), from + limit);
+		return new ArrayList<ColumnarPaperTrack.PaperRow>(matches.subList(from, to));
+	}
+
+	/**
+	 * Adds the papers at the given positions that match every filter
+	 * @param papers the papers of the snapshot
+	 * @param positions the candidate positions from an index
+	 * @param matches the list to add matching papers to
+	 */
+	private void addMatches(List<PaperView> papers, int[] positions, List<PaperView> matches) {
+		for (int position : positions) {
+			PaperView p = papers.get(position);
+			if (matches(p)) {
+				matches.add(p);
+			}
+		}
+	}
+
+	/**
+	 * Checks a paper against every filter that is set
+	 * @param p the paper to check
+	 * @return true if the paper matches
+	 */
+	boolean matches(PaperView p) {
+		return (id < 0 || p.getId() == id)
+				&& (state == null || state.equals(p.getState()))
+				&& (paperType == null || paperType.equalsIgnoreCase(p.getPaperType()))
+				&& (processed == null || processed == p.isProcessed())
+				&& (reviewer == null || reviewer.equals(p.getReviewer()))
+				&& (note == null || note.equals(p.getNote()))
+				&& (authorText == null || p.getAuthorNames().toLowerCase().contains(authorText));
+	}
+
+	/**
+	 * Returns the comparator for the sort key, ties are broken by id
+	 * @return the comparator
+	 */
+	private Comparator<PaperView> comparator() {
+		Comparator<PaperView> result;
+		switch (sortKey) {
+		case STATE:
+			result = Comparator.comparing(PaperView::getState);
+			break;
+		case AUTHORS:
+			result = Comparator.comparing(PaperView::getAuthorNames, String.CASE_INSENSITIVE_ORDER);
+			break;
+		case PAPER_TYPE:
+			result = Comparator.comparing(PaperView::getPaperType);
+			break;
+		case REVIEWER:
+			result = Comparator.comparing(PaperView::getReviewer);
+			break;
+		default:
+			result = Comparator.comparingInt(PaperView::getId);
+		}
+		result = result.thenComparingInt(PaperView::getId);
+		return descending ? result.reversed() : result;
+	}
+
+	/**
+	 * Returns the comparator for the sort key on columnar views, ties are broken by id
+	 * @return the comparator
+	 */
+	private Comparator<ColumnarPaperTrack.PaperRow> rowComparator() {
+		Comparator<ColumnarPaperTrack.PaperRow> result;
+		switch (sortKey) {
+		case STATE:
+			result = Comparator.comparing(ColumnarPaperTrack.PaperRow::getState);
+			break;
+		case AUTHORS:
+			result = Comparator.comparing(ColumnarPaperTrack.PaperRow::getAuthorNames, String.CASE_INSENSITIVE_ORDER);
+			break;
+		case PAPER_TYPE:
+			result = Comparator.comparing(ColumnarPaperTrack.PaperRow::getPaperType);
+			break;
+		case REVIEWER:
+			result = Comparator.comparing(ColumnarPaperTrack.PaperRow::getReviewer);
+			break;
+		default:
+			result = Comparator.comparingInt(ColumnarPaperTrack.PaperRow::getId);
+		}
+		result = result.thenComparingInt(ColumnarPaperTrack.PaperRow::getId);
+		return descending ? result.reversed() : result;
+	}
+}
@@ -1,22 +1,90 @@
 
 package edu.ncsu.csc216.wolf_review.model.manager;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import edu.ncsu.csc216.wolf_review.model.command.Command;
+import edu.ncsu.csc216.wolf_review.model.command.Command.CommandValue;
+import edu.ncsu.csc216.wolf_review.model.command.CommandResult;
+import edu.ncsu.csc216.wolf_review.model.metrics.CommandEvent;
+import edu.ncsu.csc216.wolf_review.model.metrics.Metrics;
 import edu.ncsu.csc216.wolf_review.model.paper.Paper;
+import edu.ncsu.csc216.wolf_review.model.paper.PaperView;
 
 /**
  * PaperTrack holds information like its name, page limit, extra pages pay rate, 
  * and a list of papers and it allows adding, removing, retrieving, and updating papers
- * within the track
+ * within the track.
+ * Changes are made copy on write: the papers are held only as the immutable views of the
+ * current TrackSnapshot, and every change, including a command, works on a copy of the
+ * paper and publishes a new snapshot that shares the unchanged parts of the one before it,
+ * so readers never need a lock and never see a change half done. Snapshots are published
+ * with compareAndSet: a command on one paper never takes the lock of the track and is run
+ * again on the newer snapshot if another change was published first, while changes that
+ * add, delete or replace many papers take the lock so they are made one at a time.
+ * A track can also be created with a loader, in which case its papers are only read
+ * the first time they are needed. Closed papers can be moved to an off heap PaperArchive
+ * held by the snapshot, where they are still found by id, counted and written out
  * @author Steven Saleeb
  */
 public class PaperTrack {
 
-	/** List of Papers in this track */
-	private List<Paper> papers;
+	/**
+	 * Lock held by every change to the papers other than a command on one paper. It is a
+	 * ReentrantLock and not the monitor of the track so that a virtual thread waiting for it
+	 * or holding it is not pinned to its carrier thread
+	 */
+	private final ReentrantLock lock = new ReentrantLock();
+
+	/** Lock held while the papers of an unloaded track are read, so they are read only once */
+	private final ReentrantLock loadLock = new ReentrantLock();
+
+	/** The most recently published snapshot of this track, only ever replaced with compareAndSet */
+	private final AtomicReference<TrackSnapshot> snapshot = new AtomicReference<TrackSnapshot>();
+
+	/** Published snapshots whose changes have not been sent to the listeners yet, by version */
+	private final Map<Long, Delivery> pending = new ConcurrentHashMap<Long, Delivery>();
+
+	/** Lock held while changes are sent to the listeners, so they are sent one snapshot at a time */
+	private final ReentrantLock deliveryLock = new ReentrantLock();
+
+	/** The last snapshot whose changes were sent to the listeners, only used under the delivery lock */
+	private TrackSnapshot delivered;
 	
+	/** Reads the papers of a track that has not been loaded yet, null once the papers are in memory */
+	private volatile Supplier<List<Paper>> loader;
+
+	/** Statistics of the papers when they were unloaded, null unless the track was unloaded */
+	private volatile TrackStatistics unloadedStatistics;
+
+	/** Versions of the papers that had changed when the track was unloaded, given back when they are loaded again */
+	private Map<Integer, Long> unloadedVersions = new HashMap<Integer, Long>();
+
+	/** Columnar copy of the papers made from a snapshot, replaced when it is older than the current snapshot */
+	private volatile ColumnarPaperTrack columnar;
+
+	/** Version of the snapshot that was last saved, or -1 if the track has never been saved */
+	private volatile long savedVersion = -1;
+
+	/** The command whose change is being sent to the listeners, null for any other change */
+	private volatile CommandValue applying;
+
+	/** Listeners told about every change to the papers of this track */
+	private final List<PaperTrackListener> listeners = new CopyOnWriteArrayList<PaperTrackListener>();
+
 	/** Name of the paper track */
 	private String paperTrackName;
 
@@ -37,23 +105,210 @@ public class PaperTrack {
 		setPaperTrackName(paperTrackName);
 		setPageLimit(pageLimit);
 		setPayRateExtraPages(extraPagesPayRate);
-		papers = new ArrayList<Paper>();
+		delivered = new TrackSnapshot(0, paperTrackName, pageLimit, extraPagesPayRate, new PaperView[0]);
+		snapshot.set(delivered);
 		
 		}  
 
+	/**
+	 * Constructs a PaperTrack whose papers are not read until they are first needed. The
+	 * track starts out clean, as its papers are already saved wherever the loader reads them
+	 * @param paperTrackName the name of the paper track
+	 * @param pageLimit the maximum page limit for papers
+	 * @param extraPagesPayRate the payment rate for extra pages
+	 * @param loader reads the papers of the track when they are first needed
+	 * @throws IllegalArgumentException if any parameter is invalid
+	 */
+	public PaperTrack(String paperTrackName, int pageLimit, int extraPagesPayRate, Supplier<List<Paper>> loader) {
+		this(paperTrackName, pageLimit, extraPagesPayRate);
+		if (loader == null) {
+			throw new IllegalArgumentException("Paper Track cannot be created.");
+		}
+		this.loader = loader;
+	}
+
+	/**
+	 * Returns whether the papers of the PaperTrack are in memory
+	 * @return true if the papers have been loaded
+	 */
+	public boolean isLoaded() {
+		return loader == null;
+	}
+
+	/**
+	 * Returns whether the PaperTrack changed since it was last saved or loaded. A track whose
+	 * papers have not been loaded is never dirty
+	 * @return true if the track needs to be saved
+	 */
+	public boolean isDirty() {
+		return loader == null && snapshot.get().getVersion() != savedVersion;
+	}
+
+	/**
+	 * Records that a snapshot of the PaperTrack was saved. The track stays dirty if it changed
+	 * after that snapshot was taken
+	 * @param version the version of the snapshot that was saved
+	 */
+	public void markSaved(long version) {
+		savedVersion = version;
+	}
+
+	/**
+	 * Drops the papers of the PaperTrack from memory so they are read again with the given
+	 * loader the next time they are needed. Listeners are told about each paper as if it had
+	 * been deleted. The versions of the papers are kept, so a reloaded paper carries on from
+	 * its version and a version is never reused. A track that changed since it was last saved
+	 * is not unloaded
+	 * @param reloader reads the papers of the track when they are next needed
+	 * @return true if the papers are no longer in memory
+	 * @throws IllegalArgumentException if the reloader is null
+	 */
+	public boolean unload(Supplier<List<Paper>> reloader) {
+		lock.lock();
+		try {
+			if (reloader == null) {
+				throw new IllegalArgumentException("Paper Track cannot be created.");
+			}
+			while (loader == null) {
+				if (isDirty()) {
+					return false;
+				}
+				TrackSnapshot current = snapshot.get();
+				List<PaperView> views = current.getPapers();
+				Map<Integer, Long> versions = new HashMap<Integer, Long>();
+				List<PaperView[]> events = new ArrayList<PaperView[]>(views.size());
+				for (PaperView view : views) {
+					if (view.getVersion() != 0) {
+						versions.put(view.getId(), view.getVersion());
+					}
+					events.add(new PaperView[] {view, null});
+				}
+				PaperArchive archive = current.getArchive();
+				for (int i = 0; i < archive.size(); i++) {
+					if (archive.versionAt(i) != 0) {
+						versions.put(archive.idAt(i), archive.versionAt(i));
+					}
+				}
+				// the loader is set before the empty snapshot is published, so a command that
+				// reads the empty snapshot always sees that the papers must be read first
+				unloadedVersions = versions;
+				unloadedStatistics = current.getStatistics();
+				loader = reloader;
+				TrackSnapshot next = current.withArchive(pageLimit, extraPagesPayRate, new PaperView[0], PaperArchive.EMPTY);
+				if (publish(current, next, events, null)) {
+					columnar = null;
+					return true;
+				}
+				loader = null;
+			}
+			return true;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Reads the papers of the PaperTrack if they have not been loaded yet
+	 * @throws IllegalArgumentException if the papers cannot be read
+	 */
+	private void ensureLoaded() {
+		if (loader != null) {
+			load();
+		}
+	}
+
+	/**
+	 * Reads the papers of the PaperTrack if needed and takes the lock of the track. The papers
+	 * are read before the lock is taken, and if the track was unloaded again in between they
+	 * are read again, so the lock is only ever held with the papers in memory
+	 * @throws IllegalArgumentException if the papers cannot be read
+	 */
+	private void lockLoaded() {
+		while (true) {
+			ensureLoaded();
+			lock.lock();
+			if (loader == null) {
+				return;
+			}
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Returns the current snapshot once the papers are in memory, for a command that is
+	 * published with compareAndSet and does not take the lock of the track
+	 * @return the current snapshot of the loaded papers
+	 * @throws IllegalArgumentException if the papers cannot be read
+	 */
+	private TrackSnapshot loadedSnapshot() {
+		while (true) {
+			ensureLoaded();
+			TrackSnapshot current = snapshot.get();
+			if (loader == null) {
+				return current;
+			}
+		}
+	}
+
+	/**
+	 * Reads the papers with the loader, gives them back the versions they had when the track
+	 * was unloaded and publishes them, then tells every listener about each paper as if it
+	 * had been added. The file is read without the lock of the track, so changes wait only
+	 * for the papers to be published, and nothing is published if the track was loaded or
+	 * given another loader while the papers were read
+	 * @throws IllegalArgumentException if the papers cannot be read
+	 */
+	private void load() {
+		loadLock.lock();
+		try {
+			Supplier<List<Paper>> source = loader;
+			if (source == null) {
+				return;
+			}
+			List<Paper> loaded = new ArrayList<Paper>(source.get());
+			loaded.sort(Comparator.comparingInt(Paper::getId));
+			lock.lock();
+			try {
+				if (loader != source) {
+					return;
+				}
+				PaperView[] views = new PaperView[loaded.size()];
+				List<PaperView[]> events = new ArrayList<PaperView[]>(views.length);
+				for (int i = 0; i < views.length; i++) {
+					Long version = unloadedVersions.get(loaded.get(i).getId());
+					if (version != null) {
+						loaded.get(i).setVersion(version);
+					}
+					views[i] = new PaperView(loaded.get(i));
+					events.add(new PaperView[] {null, views[i]});
+				}
+				// no command publishes while the loader is set, so the swap cannot fail, and the
+				// loader is only cleared once the papers are published
+				TrackSnapshot current = snapshot.get();
+				TrackSnapshot next = current.withPapers(pageLimit, extraPagesPayRate, views);
+				swap(current, next, events, null);
+				unloadedVersions = new HashMap<Integer, Long>();
+				savedVersion = next.getVersion();
+				loader = null;
+				unloadedStatistics = null;
+				deliver(next.getVersion());
+			} finally {
+				lock.unlock();
+			}
+		} finally {
+			loadLock.unlock();
+		}
+	}
+
 	/**
 	 * Sets the counter for paper id and update it based on the largest current id, 
 	 * and this ensures that new papers get a unique id
 	 */
 	public void setPaperId() {
-		int max = 0;
-		
-		for (int i = 0; i < papers.size(); i++) {
-			Paper paper = papers.get(i);
-			if (paper.getId() > max) {
-				max = paper.getId();
-			}
-		}
+		TrackSnapshot current = getSnapshot();
+		List<PaperView> views = current.getPapers();
+		int max = views.isEmpty() ? 0 : views.get(views.size() - 1).getId();
+		max = Math.max(max, current.getArchive().getMaxId());
 		Paper.setCounter(max + 1);
 	}
 
@@ -129,12 +384,28 @@ public class PaperTrack {
 	 * @throws IllegalArgumentException if author names are empty or null
 	 */
 	public int addPaper(String authorNames) {
-		if (authorNames == null || authorNames.isEmpty()) {
-			throw new IllegalArgumentException("Paper Track cannot be created.");
+		return addPaper(authorNames, null);
+	}
+
+	/**
+	 * Adds a new Paper like addPaper and fills in the paper as it was published, so a change
+	 * another caller makes right after cannot be taken for the added paper
+	 * @param authorNames the names of the authors
+	 * @param change the array of two the paper before and after are put in, or null
+	 * @return the ID of the added Paper
+	 * @throws IllegalArgumentException if author names are empty or null
+	 */
+	int addPaper(String authorNames, PaperView[] change) {
+		lockLoaded();
+		try {
+			if (authorNames == null || authorNames.isEmpty()) {
+				throw new IllegalArgumentException("Paper Track cannot be created.");
+			}
+			Paper paper = new Paper(authorNames);
+			return addPaper(paper, change);
+		} finally {
+			lock.unlock();
 		}
-		Paper paper = new Paper(authorNames);
-		addPaper(paper);
-		return paper.getId();
 	}
 
 	/**
@@ -144,42 +415,228 @@ public class PaperTrack {
 	 * @throws IllegalArgumentException if a paper with the same ID already exists
 	 */
 	public int addPaper(Paper paper) {
-		for (Paper p : papers) {
-			if (p.getId() == paper.getId()) {
-				throw new IllegalArgumentException("Paper Track cannot be created.");
+		return addPaper(paper, null);
+	}
+
+	/**
+	 * Adds an existing Paper to the PaperTrack and fills in the paper as it was published
+	 * @param paper the paper to add
+	 * @param change the array of two the paper before and after are put in, or null
+	 * @return the ID of the added Paper
+	 * @throws IllegalArgumentException if a paper with the same ID already exists
+	 */
+	private int addPaper(Paper paper, PaperView[] change) {
+		lockLoaded();
+		try {
+			PaperView view = new PaperView(paper);
+			while (true) {
+				TrackSnapshot current = snapshot.get();
+				int i = current.indexOf(paper.getId());
+				if (i >= 0 || current.getArchive().contains(paper.getId())) {
+					throw new IllegalArgumentException("Paper Track cannot be created.");
+				}
+				if (publish(current, current.withInserted(-(i + 1), view), null, view, null)) {
+					setChange(change, null, view);
+					return paper.getId();
+				}
 			}
+		} finally {
+			lock.unlock();
 		}
-		int i = 0;
-		while (i < papers.size() && papers.get(i).getId() < paper.getId()) {
-			i++;
+	}
+
+	/**
+	 * Adds many Papers to the PaperTrack at once, such as the papers of a track read from a
+	 * file. The papers are merged into the list in one pass and published as one snapshot,
+	 * so adding n papers costs about as much as one copy of the list rather than n copies.
+	 * Listeners are then told about each paper as if it had been added on its own
+	 * @param added the papers to add, in any order
+	 * @throws IllegalArgumentException if two papers have the same id or a paper with the
+	 * same id already exists, in which case nothing is added
+	 */
+	public void addPapers(List<Paper> added) {
+		lockLoaded();
+		try {
+			TrackSnapshot current = snapshot.get();
+			TreeMap<Integer, Paper> changes = new TreeMap<Integer, Paper>();
+			for (Paper paper : added) {
+				if (changes.put(paper.getId(), paper) != null || current.indexOf(paper.getId()) >= 0
+						|| current.getArchive().contains(paper.getId())) {
+					throw new IllegalArgumentException("Paper Track cannot be created.");
+				}
+			}
+			publishAll(changes);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Replaces and deletes many Papers of the PaperTrack at once, such as the changes of a
+	 * journal, and publishes them as one snapshot. A paper whose id is not in the track is
+	 * added, and a replaced paper carries on from the version of the paper it replaces.
+	 * Listeners are then told about each paper that was added, replaced or deleted
+	 * @param changes the paper to put in place of each id, or null to delete the paper with the id
+	 */
+	public void replacePapers(SortedMap<Integer, Paper> changes) {
+		lockLoaded();
+		try {
+			restoreArchived();
+			publishAll(changes);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Merges changes sorted by id into the papers in one pass, publishes one snapshot and
+	 * then tells the listeners about each change. The caller holds the lock of the track, so
+	 * only a command on one paper can be published first, and then the merge is made again
+	 * @param changes the paper to put in place of each id, or null to delete the paper with the id
+	 */
+	private void publishAll(SortedMap<Integer, Paper> changes) {
+		if (changes.isEmpty()) {
+			return;
+		}
+		while (true) {
+			TrackSnapshot current = snapshot.get();
+			List<PaperView> currentViews = current.getPapers();
+			List<PaperView> views = new ArrayList<PaperView>(currentViews.size() + changes.size());
+			List<PaperView[]> events = new ArrayList<PaperView[]>();
+			Iterator<Map.Entry<Integer, Paper>> remaining = changes.entrySet().iterator();
+			Map.Entry<Integer, Paper> change = remaining.next();
+			int i = 0;
+			while (i < currentViews.size() || change != null) {
+				int oldId = i < currentViews.size() ? currentViews.get(i).getId() : Integer.MAX_VALUE;
+				if (change == null || oldId < change.getKey()) {
+					views.add(currentViews.get(i));
+					i++;
+					continue;
+				}
+				PaperView before = oldId == change.getKey() ? currentViews.get(i++) : null;
+				Paper paper = change.getValue();
+				PaperView after = null;
+				if (paper != null) {
+					if (before != null) {
+						paper.setVersion(before.getVersion() + 1);
+					}
+					after = new PaperView(paper);
+					views.add(after);
+				}
+				if (before != null || after != null) {
+					events.add(new PaperView[] {before, after});
+				}
+				change = remaining.hasNext() ? remaining.next() : null;
+			}
+			if (events.isEmpty()) {
+				return;
+			}
+			TrackSnapshot next = current.withPapers(pageLimit, extraPagesPayRate, views.toArray(new PaperView[views.size()]));
+			if (publish(current, next, events, null)) {
+				return;
+			}
 		}
-		papers.add(i, paper);
-		
-		return paper.getId();
-		
 	}
+
 	/**
-	 * Returns a list of all Papers in the PaperTrack
+	 * Returns a list of all Papers in the PaperTrack. The papers are copies made from the
+	 * current snapshot, so the list and its papers do not change when the track changes
+	 * later, and changing a paper in the list does not change the track. Archived papers
+	 * are not in the list, they are in the archive of the snapshot
 	 * @return the list of Papers
 	 */
 	public List<Paper> getPapers() {
-		return papers;
+		List<PaperView> views = getSnapshot().getPapers();
+		List<Paper> copies = new ArrayList<Paper>(views.size());
+		for (PaperView view : views) {
+			copies.add(Paper.of(view));
+		}
+		return Collections.unmodifiableList(copies);
+	}
+
+	/**
+	 * Returns the most recently published snapshot of the PaperTrack, 
+	 * the snapshot can be read without locking while the track keeps changing
+	 * @return the current snapshot
+	 */
+	public TrackSnapshot getSnapshot() {
+		ensureLoaded();
+		return snapshot.get();
 	}
 
 	/**
-	 * Returns the Paper with the given ID
+	 * Returns the counts of the papers of the PaperTrack by state, close reason, paper type
+	 * and recommendation. The counts are kept up to date on every change, and the counts of
+	 * a track that was unloaded are kept, so only a track whose papers have never been read
+	 * has to read them
+	 * @return the statistics of the current papers
+	 */
+	public TrackStatistics getStatistics() {
+		TrackStatistics statistics = peekStatistics();
+		return statistics == null ? getSnapshot().getStatistics() : statistics;
+	}
+
+	/**
+	 * Returns the statistics of the PaperTrack if they are known without reading its papers
+	 * @return the statistics or null if the papers have never been read
+	 */
+	public TrackStatistics peekStatistics() {
+		TrackSnapshot current = snapshot.get();
+		if (loader == null) {
+			return current.getStatistics();
+		}
+		return unloadedStatistics;
+	}
+
+	/**
+	 * Returns the version of the most recently published snapshot without reading the papers
+	 * @return the snapshot version
+	 */
+	public long peekVersion() {
+		return snapshot.get().getVersion();
+	}
+
+	/**
+	 * Returns a columnar copy of the current papers of the PaperTrack for scans and filters
+	 * over many papers. The copy is made once per snapshot and reused until the track changes
+	 * @return the columnar copy of the current snapshot
+	 */
+	public ColumnarPaperTrack getColumnar() {
+		TrackSnapshot current = getSnapshot();
+		ColumnarPaperTrack copy = columnar;
+		if (copy == null || copy.getVersion() != current.getVersion()) {
+			copy = ColumnarPaperTrack.of(current);
+			columnar = copy;
+		}
+		return copy;
+	}
+
+	/**
+	 * Runs a query over the current snapshot of the PaperTrack
+	 * @param query the query to run
+	 * @return the matching papers
+	 * @throws IllegalArgumentException if the query is null
+	 */
+	public List<PaperView> query(PaperQuery query) {
+		if (query == null) {
+			throw new IllegalArgumentException("Invalid query.");
+		}
+		return query.execute(getSnapshot());
+	}
+
+	/**
+	 * Returns a copy of the Paper with the given ID made from the current snapshot, so it
+	 * does not change when the track changes later
 	 * @param id the id of the Paper to retrieve
-	 * @return the Paper with the id
+	 * @return the Paper with the id, or null if there is no paper with the id
 	 */
 	public Paper getPaperById(int id) {
-
-		for (Paper paper : papers) {
-			if (paper.getId() == id) {
-				return paper;
-			}
+		TrackSnapshot current = getSnapshot();
+		int i = current.indexOf(id);
+		if (i >= 0) {
+			return Paper.of(current.getPapers().get(i));
 		}
-		return null;
-	
+		return current.getArchive().getPaperById(id);
 	}
 
 	/**
@@ -187,12 +644,177 @@ public class PaperTrack {
 	 * @param id the id of the Paper to delete
 	 */
 	public void deletePaperById(int id) {
-		for (int i = 0; i < papers.size(); i++) {
-			if (papers.get(i).getId() == id) {
-				papers.remove(i);
-				return;
+		deletePaperById(id, null);
+	}
+
+	/**
+	 * Deletes the paper with the given id like deletePaperById and fills in the paper as it
+	 * was just before it was deleted, so a change made by another caller can never come
+	 * between the two
+	 * @param id the id of the Paper to delete
+	 * @param change the array of two the paper before and after are put in, or null
+	 */
+	void deletePaperById(int id, PaperView[] change) {
+		lockLoaded();
+		try {
+			while (true) {
+				TrackSnapshot current = snapshot.get();
+				int i = current.indexOf(id);
+				PaperView before = current.getPaperById(id);
+				if (before == null) {
+					return;
+				}
+				TrackSnapshot next;
+				List<PaperView[]> events;
+				if (i < 0) {
+					List<PaperView> views = current.getPapers();
+					next = current.withArchive(pageLimit, extraPagesPayRate, views.toArray(new PaperView[views.size()]),
+							current.getArchive().without(id));
+					events = Collections.emptyList();
+				} else {
+					next = current.withRemoved(i);
+					events = Collections.singletonList(new PaperView[] {before, null});
+				}
+				if (publish(current, next, events, null)) {
+					setChange(change, before, null);
+					return;
+				}
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Puts one paper back to an earlier view, used to undo and redo a change. The paper must
+	 * still be as the change left it, so a change made since then is never overwritten. Only
+	 * the one paper is replaced, added or removed, and listeners are told like any other change
+	 * @param expected the paper as the change left it, or null if the change deleted it
+	 * @param target the paper to put back, or null to delete the paper
+	 * @return the paper after it was put back, or null if it was deleted
+	 * @throws IllegalArgumentException if the paper is not as the change left it
+	 */
+	PaperView revertPaper(PaperView expected, PaperView target) {
+		lockLoaded();
+		try {
+			int id = expected != null ? expected.getId() : target.getId();
+			while (true) {
+				TrackSnapshot current = snapshot.get();
+				int i = current.indexOf(id);
+				PaperView now = i >= 0 ? current.getPapers().get(i) : null;
+				if (now == null ? expected != null || current.getArchive().contains(id) : !now.equals(expected)) {
+					throw new IllegalArgumentException("Paper changed since the command.");
+				}
+				PaperView view = null;
+				TrackSnapshot next;
+				if (target == null) {
+					next = current.withRemoved(i);
+				} else {
+					Paper paper = Paper.restore(id, target.getState(), target.getAuthorNames(), target.getPaperType(),
+							target.isProcessed(), target.getReviewer(), target.getNote());
+					paper.setVersion((now != null ? now.getVersion() : target.getVersion()) + 1);
+					view = new PaperView(paper);
+					next = now == null ? current.withInserted(-(i + 1), view) : current.withReplaced(i, view);
+				}
+				if (publish(current, next, now, view, null)) {
+					return view;
+				}
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+
+	/**
+	 * Makes this PaperTrack match another track with the same name, such as the same track
+	 * read again from a refreshed file. Papers are matched by id: new papers are added,
+	 * missing papers are removed, papers that differ are replaced, and papers that are the
+	 * same are kept. The result is published as one new snapshot and then a change event
+	 * is sent for each paper that was added, removed or replaced
+	 * @param source the track to copy from
+	 * @param summary the summary the changes are counted in
+	 */
+	void mergeFrom(PaperTrack source, ReloadSummary summary) {
+		lockLoaded();
+		try {
+			restoreArchived();
+			List<PaperView> incoming = source.getSnapshot().getPapers();
+			boolean settings = pageLimit != source.getPageLimit() || extraPagesPayRate != source.getPayRateExtraPages();
+			if (settings) {
+				setPageLimit(source.getPageLimit());
+				setPayRateExtraPages(source.getPayRateExtraPages());
+				summary.trackUpdated(paperTrackName);
+			}
+			while (true) {
+				TrackSnapshot current = snapshot.get();
+				List<PaperView> currentViews = current.getPapers();
+				List<PaperView> views = new ArrayList<PaperView>(incoming.size());
+				List<PaperView[]> changes = new ArrayList<PaperView[]>();
+				int unchanged = 0;
+
+				int i = 0;
+				int k = 0;
+				while (i < currentViews.size() || k < incoming.size()) {
+					int oldId = i < currentViews.size() ? currentViews.get(i).getId() : Integer.MAX_VALUE;
+					int newId = k < incoming.size() ? incoming.get(k).getId() : Integer.MAX_VALUE;
+					if (oldId < newId) {
+						changes.add(new PaperView[] {currentViews.get(i), null});
+						i++;
+						continue;
+					}
+					PaperView view = incoming.get(k);
+					if (newId < oldId) {
+						changes.add(new PaperView[] {null, view});
+					} else if (view.equals(currentViews.get(i))) {
+						view = currentViews.get(i);
+						unchanged++;
+						i++;
+					} else {
+						Paper paper = Paper.of(view);
+						paper.setVersion(currentViews.get(i).getVersion() + 1);
+						view = new PaperView(paper);
+						changes.add(new PaperView[] {currentViews.get(i), view});
+						i++;
+					}
+					views.add(view);
+					k++;
+				}
+
+				if (changes.isEmpty() && !settings) {
+					countMerge(summary, changes, unchanged);
+					return;
+				}
+				TrackSnapshot next = current.withPapers(pageLimit, extraPagesPayRate, views.toArray(new PaperView[views.size()]));
+				if (publish(current, next, changes, null)) {
+					countMerge(summary, changes, unchanged);
+					return;
+				}
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Counts the papers of a published merge in a reload summary
+	 * @param summary the summary the changes are counted in
+	 * @param changes the paper before and after each change, null where there is no paper
+	 * @param unchanged the number of papers that were kept as they were
+	 */
+	private static void countMerge(ReloadSummary summary, List<PaperView[]> changes, int unchanged) {
+		for (PaperView[] change : changes) {
+			if (change[0] == null) {
+				summary.paperAdded();
+			} else if (change[1] == null) {
+				summary.paperRemoved();
+			} else {
+				summary.paperChanged();
 			}
 		}
+		for (int i = 0; i < unchanged; i++) {
+			summary.paperUnchanged();
+		}
 	}
 
 	/**
@@ -201,12 +823,472 @@ public class PaperTrack {
 	 * @param c the command to perform
 	 */
 	public void executeCommand(int id, Command c) {
-		 for (Paper paper : papers) {
-			 if (paper.getId() == id) {
-				 paper.update(c);
-				 return;
-			 }
-		 }
+		executeCommand(id, c, null);
+	}
+
+	/**
+	 * Performs a command like executeCommand and fills in the paper as it was just before and
+	 * just after the command, taken from the snapshot the command was published from and the
+	 * one it published. The command runs on a copy of the paper without the lock of the track
+	 * and is published with compareAndSet, and it is run again on the newer paper if another
+	 * change was published first. Nothing is filled in if the command did not change the paper
+	 * @param id the id of the Paper to update
+	 * @param c the command to perform
+	 * @param change the array of two the paper before and after are put in, or null
+	 */
+	void executeCommand(int id, Command c, PaperView[] change) {
+		CommandValue value = c == null ? null : c.getCommand();
+		CommandEvent event = new CommandEvent();
+		event.begin();
+		while (true) {
+			TrackSnapshot current = loadedSnapshot();
+			int i = current.indexOf(id);
+			if (i < 0) {
+				Paper archived = current.getArchive().getPaperById(id);
+				if (archived == null) {
+					if (snapshot.get() != current) {
+						continue;
+					}
+					commitCommandEvent(event, id, value, null, null, CommandEvent.NOT_FOUND);
+					return;
+				}
+				try {
+					archived.update(c);
+				} catch (UnsupportedOperationException e) {
+					Metrics.getInstance().recordRejected(Paper.CLOSED_NAME);
+					commitCommandEvent(event, id, value, Paper.CLOSED_NAME, Paper.CLOSED_NAME, CommandEvent.REJECTED);
+					throw e;
+				}
+				return;
+			}
+			PaperView before = current.getPapers().get(i);
+			Paper paper = Paper.of(before);
+			String state = paper.getState();
+			try {
+				paper.update(c);
+			} catch (RuntimeException e) {
+				if (e instanceof UnsupportedOperationException) {
+					Metrics.getInstance().recordRejected(state);
+				}
+				commitCommandEvent(event, id, value, state, state, CommandEvent.REJECTED);
+				throw e;
+			}
+			PaperView after = new PaperView(paper);
+			if (publish(current, current.withReplaced(i, after), before, after, value)) {
+				Metrics.getInstance().recordCommand(value);
+				setChange(change, before, after);
+				commitCommandEvent(event, id, value, state, after.getState(), CommandEvent.APPLIED);
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Runs a command on the Paper with the given id, reporting a command that does not apply
+	 * with a result code instead of an exception. The rules are the same as executeCommand,
+	 * so a result other than APPLIED means the paper was not changed
+	 * @param id the id of the Paper to update
+	 * @param value the command value
+	 * @param information the command information, may be null
+	 * @return the result of the command
+	 */
+	public CommandResult tryExecuteCommand(int id, CommandValue value, String information) {
+		return runCommand(id, false, 0, value, information, null);
+	}
+
+	/**
+	 * Runs a command like tryExecuteCommand and fills in the paper as it was just before and
+	 * just after the command if it was applied
+	 * @param id the id of the Paper to update
+	 * @param value the command value
+	 * @param information the command information, may be null
+	 * @param change the array of two the paper before and after are put in, or null
+	 * @return the result of the command
+	 */
+	CommandResult tryExecuteCommand(int id, CommandValue value, String information, PaperView[] change) {
+		return runCommand(id, false, 0, value, information, change);
+	}
+
+	/**
+	 * Runs a command on the Paper with the given id only if the paper is still at the version
+	 * the caller read, so two callers acting on the same paper cannot overwrite each other.
+	 * The command never takes the lock of the track: it runs on a copy of the paper and is
+	 * published with compareAndSet, and if another change was published first the version
+	 * is checked again, so a caller that lost the race on the same paper gets CONFLICT and
+	 * one that lost it to a change of another paper runs again
+	 * @param id the id of the Paper to update
+	 * @param expectedVersion the version of the paper the caller read
+	 * @param value the command value
+	 * @param information the command information, may be null
+	 * @return CONFLICT if the paper is at another version, otherwise the result of the command
+	 */
+	public CommandResult tryExecuteCommand(int id, long expectedVersion, CommandValue value, String information) {
+		return runCommand(id, true, expectedVersion, value, information, null);
+	}
+
+	/**
+	 * Runs a command like the versioned tryExecuteCommand and fills in the paper as it was
+	 * just before and just after the command if it was applied
+	 * @param id the id of the Paper to update
+	 * @param expectedVersion the version of the paper the caller read
+	 * @param value the command value
+	 * @param information the command information, may be null
+	 * @param change the array of two the paper before and after are put in, or null
+	 * @return CONFLICT if the paper is at another version, otherwise the result of the command
+	 */
+	CommandResult tryExecuteCommand(int id, long expectedVersion, CommandValue value, String information,
+			PaperView[] change) {
+		return runCommand(id, true, expectedVersion, value, information, change);
+	}
+
+	/**
+	 * Runs a command on a copy of the paper from the current snapshot and publishes the
+	 * changed paper with compareAndSet, running it again on the newer snapshot if another
+	 * change was published first
+	 * @param id the id of the Paper to update
+	 * @param versioned whether the paper must be at the expected version
+	 * @param expectedVersion the version of the paper the caller read, used if versioned
+	 * @param value the command value
+	 * @param information the command information, may be null
+	 * @param change the array of two the paper before and after are put in, or null
+	 * @return the result of the command
+	 */
+	private CommandResult runCommand(int id, boolean versioned, long expectedVersion, CommandValue value,
+			String information, PaperView[] change) {
+		CommandEvent event = new CommandEvent();
+		event.begin();
+		while (true) {
+			TrackSnapshot current = loadedSnapshot();
+			int i = current.indexOf(id);
+			if (i < 0) {
+				Paper archived = current.getArchive().getPaperById(id);
+				if (archived == null) {
+					// the snapshot of a track unloaded just after it was read has no papers
+					if (snapshot.get() != current) {
+						continue;
+					}
+					commitCommandEvent(event, id, value, null, null, CommandEvent.NOT_FOUND);
+					return CommandResult.NOT_FOUND;
+				}
+				if (versioned && archived.getVersion() != expectedVersion) {
+					commitCommandEvent(event, id, value, Paper.CLOSED_NAME, Paper.CLOSED_NAME, CommandEvent.CONFLICT);
+					return CommandResult.CONFLICT;
+				}
+				CommandResult result = archived.execute(value, information);
+				if (result == CommandResult.INVALID_FOR_STATE) {
+					Metrics.getInstance().recordRejected(Paper.CLOSED_NAME);
+				}
+				commitCommandEvent(event, id, value, Paper.CLOSED_NAME, Paper.CLOSED_NAME, CommandEvent.REJECTED);
+				return result;
+			}
+			PaperView before = current.getPapers().get(i);
+			if (versioned && before.getVersion() != expectedVersion) {
+				commitCommandEvent(event, id, value, before.getState(), before.getState(), CommandEvent.CONFLICT);
+				return CommandResult.CONFLICT;
+			}
+			Paper paper = Paper.of(before);
+			String state = paper.getState();
+			CommandResult result = paper.execute(value, information);
+			if (result != CommandResult.APPLIED) {
+				if (result == CommandResult.INVALID_FOR_STATE) {
+					Metrics.getInstance().recordRejected(state);
+				}
+				commitCommandEvent(event, id, value, state, paper.getState(), CommandEvent.REJECTED);
+				return result;
+			}
+			PaperView after = new PaperView(paper);
+			if (publish(current, current.withReplaced(i, after), before, after, value)) {
+				Metrics.getInstance().recordCommand(value);
+				setChange(change, before, after);
+				commitCommandEvent(event, id, value, state, after.getState(), CommandEvent.APPLIED);
+				return CommandResult.APPLIED;
+			}
+		}
+	}
+
+
+	/**
+	 * Moves the Closed papers of the PaperTrack to the off heap archive of its snapshot.
+	 * Closed papers never change again, so they are kept only as compact records and are made
+	 * again when they are asked for by id, counted or written out. Listeners are told each
+	 * archived paper was removed, since it is no longer in the paper views of the snapshot
+	 * @return the number of papers archived
+	 */
+	public int archiveClosed() {
+		lockLoaded();
+		try {
+			while (true) {
+				TrackSnapshot current = snapshot.get();
+				List<PaperView> views = current.getPapers();
+				List<PaperView> liveViews = new ArrayList<PaperView>(views.size());
+				List<PaperView> closed = new ArrayList<PaperView>();
+				List<PaperView[]> events = new ArrayList<PaperView[]>();
+				for (PaperView view : views) {
+					if (Paper.CLOSED_NAME.equals(view.getState())) {
+						closed.add(view);
+						events.add(new PaperView[] {view, null});
+					} else {
+						liveViews.add(view);
+					}
+				}
+				if (closed.isEmpty()) {
+					return 0;
+				}
+				PaperArchive archive = current.getArchive().with(closed);
+				TrackSnapshot next = current.withArchive(pageLimit, extraPagesPayRate,
+						liveViews.toArray(new PaperView[liveViews.size()]), archive);
+				if (publish(current, next, events, null)) {
+					return closed.size();
+				}
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Moves every archived paper back into the papers of the PaperTrack and tells the
+	 * listeners about each one as if it had been added
+	 */
+	private void restoreArchived() {
+		while (true) {
+			TrackSnapshot current = snapshot.get();
+			PaperArchive archive = current.getArchive();
+			if (archive.size() == 0) {
+				return;
+			}
+			List<PaperView> restored = archive.getPapers();
+			List<PaperView> live = current.getPapers();
+			PaperView[] views = new PaperView[live.size() + restored.size()];
+			List<PaperView[]> events = new ArrayList<PaperView[]>(restored.size());
+			int i = 0;
+			int k = 0;
+			while (i + k < views.length) {
+				if (k >= restored.size() || i < live.size() && live.get(i).getId() < restored.get(k).getId()) {
+					views[i + k] = live.get(i++);
+				} else {
+					events.add(new PaperView[] {null, restored.get(k)});
+					views[i + k] = restored.get(k++);
+				}
+			}
+			if (publish(current, current.withArchive(pageLimit, extraPagesPayRate, views, PaperArchive.EMPTY), events, null)) {
+				return;
+			}
+		}
+	}
+
+
+	/**
+	 * Publishes the next snapshot if the current snapshot is still the one it was made from,
+	 * and then sends its changes to the listeners
+	 * @param current the snapshot the change was made from
+	 * @param next the snapshot to publish
+	 * @param before the paper before the change, or null if it was added
+	 * @param after the paper after the change, or null if it was deleted
+	 * @param command the command that made the change, or null
+	 * @return false if another change was published first, in which case nothing was published
+	 */
+	private boolean publish(TrackSnapshot current, TrackSnapshot next, PaperView before, PaperView after,
+			CommandValue command) {
+		return publish(current, next, Collections.singletonList(new PaperView[] {before, after}), command);
+	}
+
+	/**
+	 * Publishes the next snapshot if the current snapshot is still the one it was made from,
+	 * and then sends its changes to the listeners
+	 * @param current the snapshot the changes were made from
+	 * @param next the snapshot to publish
+	 * @param events the paper before and after each change, null where there is no paper
+	 * @param command the command that made the changes, or null
+	 * @return false if another change was published first, in which case nothing was published
+	 */
+	private boolean publish(TrackSnapshot current, TrackSnapshot next, List<PaperView[]> events, CommandValue command) {
+		if (!swap(current, next, events, command)) {
+			return false;
+		}
+		deliver(next.getVersion());
+		return true;
+	}
+
+	/**
+	 * Replaces the current snapshot with compareAndSet and queues its changes for the
+	 * listeners. Every snapshot is one version after the one it was made from, so the queue
+	 * is keyed by version and the changes are sent in the order they were published
+	 * @param current the snapshot the changes were made from
+	 * @param next the snapshot to publish
+	 * @param events the paper before and after each change, null where there is no paper
+	 * @param command the command that made the changes, or null
+	 * @return false if another change was published first, in which case nothing was published
+	 */
+	private boolean swap(TrackSnapshot current, TrackSnapshot next, List<PaperView[]> events, CommandValue command) {
+		if (!snapshot.compareAndSet(current, next)) {
+			return false;
+		}
+		pending.put(next.getVersion(), new Delivery(next, events, command));
+		return true;
+	}
+
+	/**
+	 * Sends the queued changes to the listeners in version order until the changes of the
+	 * given version have been sent. A snapshot published just before it by another thread
+	 * may not be queued yet, and this waits the moment it takes to be queued
+	 * @param version the version of the snapshot whose changes must be sent
+	 */
+	private void deliver(long version) {
+		while (true) {
+			deliveryLock.lock();
+			try {
+				Delivery next = pending.remove(delivered.getVersion() + 1);
+				while (next != null) {
+					delivered = next.published;
+					CommandValue outer = applying;
+					applying = next.command;
+					try {
+						for (PaperView[] event : next.events) {
+							firePaperChanged(event[0], event[1]);
+						}
+					} finally {
+						applying = outer;
+					}
+					next = pending.remove(delivered.getVersion() + 1);
+				}
+				if (delivered.getVersion() >= version) {
+					return;
+				}
+			} finally {
+				deliveryLock.unlock();
+			}
+			Thread.onSpinWait();
+		}
+	}
+
+	/**
+	 * Fills in the paper before and after a change for a caller that asked for them
+	 * @param change the array of two to fill in, or null if the caller did not ask
+	 * @param before the paper before the change, or null if it was added
+	 * @param after the paper after the change, or null if it was deleted
+	 */
+	private static void setChange(PaperView[] change, PaperView before, PaperView after) {
+		if (change != null) {
+			change[0] = before;
+			change[1] = after;
+		}
+	}
+
+	/**
+	 * Returns the command whose change is being sent to the listeners. Changes are sent to
+	 * the listeners one at a time under the delivery lock, so a listener can call this to
+	 * tell which command made the change it was told about
+	 * @return the command value, or null if the change was not made by a command
+	 */
+	CommandValue getApplyingCommand() {
+		return applying;
+	}
+
+	/**
+	 * Fills in and commits the Flight Recorder event of a command if it is being recorded
+	 * @param event the event begun when the command started
+	 * @param id the id of the paper
+	 * @param value the command value
+	 * @param oldState the state before the command, or null if there is no such paper
+	 * @param newState the state after the command, or null if there is no such paper
+	 * @param outcome the outcome of the command
+	 */
+	private void commitCommandEvent(CommandEvent event, int id, CommandValue value, String oldState, String newState,
+			String outcome) {
+		if (event.shouldCommit()) {
+			event.track = paperTrackName;
+			event.paperId = id;
+			event.command = value == null ? null : String.valueOf(value);
+			event.oldState = oldState;
+			event.newState = newState;
+			event.outcome = outcome;
+			event.commit();
+		}
+	}
+
+	/**
+	 * Adds a listener that is told about every change to the papers of the PaperTrack
+	 * @param listener the listener to add
+	 * @throws IllegalArgumentException if the listener is null
+	 */
+	public void addListener(PaperTrackListener listener) {
+		if (listener == null) {
+			throw new IllegalArgumentException("Listener cannot be null.");
+		}
+		listeners.add(listener);
+	}
+
+	/**
+	 * Adds a listener to the PaperTrack after it has been given the snapshot whose changes
+	 * were the last sent to the listeners. Both are done under the delivery lock, so the
+	 * listener is told about every change made after that snapshot and about none before it
+	 * @param listener the listener to add
+	 * @param start called with the snapshot before the listener is added
+	 * @throws IllegalArgumentException if the listener is null
+	 */
+	void addListener(PaperTrackListener listener, Consumer<TrackSnapshot> start) {
+		if (listener == null) {
+			throw new IllegalArgumentException("Listener cannot be null.");
+		}
+		lockLoaded();
+		try {
+			deliveryLock.lock();
+			try {
+				start.accept(delivered);
+				listeners.add(listener);
+			} finally {
+				deliveryLock.unlock();
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Removes a listener from the PaperTrack
+	 * @param listener the listener to remove
+	 */
+	public void removeListener(PaperTrackListener listener) {
+		listeners.remove(listener);
+	}
+
+	/**
+	 * Tells every listener that a paper changed
+	 * @param before the paper before the change or null if it was added
+	 * @param after the paper after the change or null if it was deleted
+	 */
+	private void firePaperChanged(PaperView before, PaperView after) {
+		for (PaperTrackListener listener : listeners) {
+			listener.paperChanged(this, before, after);
+		}
+	}
+
+	/**
+	 * The changes of one published snapshot waiting to be sent to the listeners
+	 */
+	private static final class Delivery {
+
+		/** The snapshot that was published */
+		private final TrackSnapshot published;
+
+		/** The paper before and after each change, null where there is no paper */
+		private final List<PaperView[]> events;
+
+		/** The command that made the changes, or null */
+		private final CommandValue command;
+
+		/**
+		 * Creates the changes of a published snapshot
+		 * @param published the snapshot that was published
+		 * @param events the paper before and after each change
+		 * @param command the command that made the changes, or null
+		 */
+		private Delivery(TrackSnapshot published, List<PaperView[]> events, CommandValue command) {
+			this.published = published;
+			this.events = events;
+			this.command = command;
+		}
 	}
 
 	/**
@@ -0,0 +1,19 @@
+package edu.ncsu.csc216.wolf_review.model.manager;
+
+import edu.ncsu.csc216.wolf_review.model.paper.PaperView;
+
+/**
+ * Listens for changes to the papers of a PaperTrack. A PaperTrack tells each of its
+ * listeners about every paper it adds, deletes or updates, after the change is published
+ * @author Steven Saleeb
+ */
+public interface PaperTrackListener {
+
+	/**
+	 * Called after a paper in the track changes
+	 * @param track the track that changed
+	 * @param before the paper before the change, or null if the paper was added
+	 * @param after the paper after the change, or null if the paper was deleted
+	 */
+	void paperChanged(PaperTrack track, PaperView before, PaperView after);
+}
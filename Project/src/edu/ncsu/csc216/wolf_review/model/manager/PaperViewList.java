@@ -0,0 +1,247 @@
+package edu.ncsu.csc216.wolf_review.model.manager;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+import edu.ncsu.csc216.wolf_review.model.paper.PaperView;
+
+/**
+ * An immutable list of paper views sorted by id, kept as short chunks so that the next
+ * version of a track can share most of the list it came from. Replacing, adding or removing
+ * one view copies only the chunk it is in and the array of references to the chunks, and
+ * every other chunk is shared, so a change to a track of n papers copies about n / 64
+ * references and one chunk instead of all n views
+ * @author Steven Saleeb
+ */
+final class PaperViewList extends AbstractList<PaperView> implements RandomAccess {
+
+	/** Largest number of views in one chunk, a full chunk is split in two when a view is added to it */
+	static final int CHUNK_SIZE = 64;
+
+	/** The list with no views */
+	static final PaperViewList EMPTY = new PaperViewList(new PaperView[0][], new int[0], 0);
+
+	/** The chunks of views in id order, none of them empty and none ever modified */
+	private final PaperView[][] chunks;
+
+	/** The position in the list of the first view of each chunk */
+	private final int[] starts;
+
+	/** The number of views */
+	private final int size;
+
+	/**
+	 * Creates a list from its chunks
+	 * @param chunks the chunks in id order
+	 * @param starts the position of the first view of each chunk
+	 * @param size the number of views
+	 */
+	private PaperViewList(PaperView[][] chunks, int[] starts, int size) {
+		this.chunks = chunks;
+		this.starts = starts;
+		this.size = size;
+	}
+
+	/**
+	 * Creates a list of the given views, which must already be sorted by id
+	 * @param views the views sorted by id
+	 * @return the list
+	 */
+	static PaperViewList of(PaperView[] views) {
+		if (views.length == 0) {
+			return EMPTY;
+		}
+		int count = (views.length + CHUNK_SIZE - 1) / CHUNK_SIZE;
+		PaperView[][] chunks = new PaperView[count][];
+		int[] starts = new int[count];
+		for (int c = 0; c < count; c++) {
+			starts[c] = c * CHUNK_SIZE;
+			chunks[c] = Arrays.copyOfRange(views, starts[c], Math.min(views.length, starts[c] + CHUNK_SIZE));
+		}
+		return new PaperViewList(chunks, starts, views.length);
+	}
+
+	/**
+	 * Returns the view at a position
+	 * @param index the position
+	 * @return the view
+	 * @throws IndexOutOfBoundsException if the position is not in the list
+	 */
+	@Override
+	public PaperView get(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException(index);
+		}
+		int c = chunkAt(index);
+		return chunks[c][index - starts[c]];
+	}
+
+	/**
+	 * Returns the number of views
+	 * @return the size
+	 */
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Finds the chunk holding a position
+	 * @param index a position in the list
+	 * @return the index of the chunk
+	 */
+	private int chunkAt(int index) {
+		int low = 0;
+		int high = starts.length - 1;
+		while (low < high) {
+			int mid = (low + high + 1) >>> 1;
+			if (starts[mid] <= index) {
+				low = mid;
+			} else {
+				high = mid - 1;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Finds the position of a paper id with a binary search over the chunks and then
+	 * within the one chunk the id can be in
+	 * @param id the id to find
+	 * @return the position of the id, or -(insertion point + 1) if it is not in the list
+	 */
+	int positionOf(int id) {
+		if (size == 0 || id < chunks[0][0].getId()) {
+			return -1;
+		}
+		int low = 0;
+		int high = chunks.length - 1;
+		while (low < high) {
+			int mid = (low + high + 1) >>> 1;
+			if (chunks[mid][0].getId() <= id) {
+				low = mid;
+			} else {
+				high = mid - 1;
+			}
+		}
+		PaperView[] chunk = chunks[low];
+		int first = 0;
+		int last = chunk.length - 1;
+		while (first <= last) {
+			int mid = (first + last) >>> 1;
+			int midId = chunk[mid].getId();
+			if (midId < id) {
+				first = mid + 1;
+			} else if (midId > id) {
+				last = mid - 1;
+			} else {
+				return starts[low] + mid;
+			}
+		}
+		return -(starts[low] + first + 1);
+	}
+
+	/**
+	 * Returns a list with the view at a position replaced, sharing every other chunk
+	 * @param index the position
+	 * @param view the new view, with the same id as the one it replaces
+	 * @return the new list
+	 */
+	PaperViewList withReplaced(int index, PaperView view) {
+		int c = chunkAt(index);
+		PaperView[] chunk = chunks[c].clone();
+		chunk[index - starts[c]] = view;
+		PaperView[][] next = chunks.clone();
+		next[c] = chunk;
+		return new PaperViewList(next, starts, size);
+	}
+
+	/**
+	 * Returns a list with a view added at a position, sharing every other chunk. A chunk
+	 * that is full is split into two halves
+	 * @param index the position, from 0 to the size of the list
+	 * @param view the view to add
+	 * @return the new list
+	 */
+	PaperViewList withInserted(int index, PaperView view) {
+		if (size == 0) {
+			return new PaperViewList(new PaperView[][] {{view}}, new int[] {0}, 1);
+		}
+		int c = index == size ? chunks.length - 1 : chunkAt(index);
+		PaperView[] old = chunks[c];
+		int at = index - starts[c];
+		PaperView[] chunk = new PaperView[old.length + 1];
+		System.arraycopy(old, 0, chunk, 0, at);
+		chunk[at] = view;
+		System.arraycopy(old, at, chunk, at + 1, old.length - at);
+		if (chunk.length <= CHUNK_SIZE) {
+			PaperView[][] next = chunks.clone();
+			next[c] = chunk;
+			int[] nextStarts = starts.clone();
+			for (int k = c + 1; k < nextStarts.length; k++) {
+				nextStarts[k]++;
+			}
+			return new PaperViewList(next, nextStarts, size + 1);
+		}
+		int half = chunk.length / 2;
+		PaperView[][] next = new PaperView[chunks.length + 1][];
+		int[] nextStarts = new int[starts.length + 1];
+		System.arraycopy(chunks, 0, next, 0, c);
+		System.arraycopy(starts, 0, nextStarts, 0, c + 1);
+		next[c] = Arrays.copyOfRange(chunk, 0, half);
+		next[c + 1] = Arrays.copyOfRange(chunk, half, chunk.length);
+		nextStarts[c + 1] = starts[c] + half;
+		for (int k = c + 1; k < chunks.length; k++) {
+			next[k + 1] = chunks[k];
+			nextStarts[k + 1] = starts[k] + 1;
+		}
+		return new PaperViewList(next, nextStarts, size + 1);
+	}
+
+	/**
+	 * Returns a list with the view at a position removed, sharing every other chunk. A
+	 * chunk left empty is dropped
+	 * @param index the position
+	 * @return the new list
+	 */
+	PaperViewList withRemoved(int index) {
+		int c = chunkAt(index);
+		PaperView[] old = chunks[c];
+		if (old.length == 1) {
+			PaperView[][] next = new PaperView[chunks.length - 1][];
+			int[] nextStarts = new int[starts.length - 1];
+			System.arraycopy(chunks, 0, next, 0, c);
+			System.arraycopy(starts, 0, nextStarts, 0, c);
+			for (int k = c + 1; k < chunks.length; k++) {
+				next[k - 1] = chunks[k];
+				nextStarts[k - 1] = starts[k] - 1;
+			}
+			return new PaperViewList(next, nextStarts, size - 1);
+		}
+		int at = index - starts[c];
+		PaperView[] chunk = new PaperView[old.length - 1];
+		System.arraycopy(old, 0, chunk, 0, at);
+		System.arraycopy(old, at + 1, chunk, at, old.length - at - 1);
+		PaperView[][] next = chunks.clone();
+		next[c] = chunk;
+		int[] nextStarts = starts.clone();
+		for (int k = c + 1; k < nextStarts.length; k++) {
+			nextStarts[k]--;
+		}
+		return new PaperViewList(next, nextStarts, size - 1);
+	}
+
+	/**
+	 * Returns the views as an array, copying the chunks in order
+	 * @return a new array of the views sorted by id
+	 */
+	@Override
+	public PaperView[] toArray() {
+		PaperView[] views = new PaperView[size];
+		for (int c = 0; c < chunks.length; c++) {
+			System.arraycopy(chunks[c], 0, views, starts[c], chunks[c].length);
+		}
+		return views;
+	}
+}
@@ -0,0 +1,162 @@
+package edu.ncsu.csc216.wolf_review.model.manager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The changes made by reloading a paper track file over the tracks already loaded.
+ * Tracks are matched by name and papers by id, and only the differences are applied
+ * @author Steven Saleeb
+ */
+public class ReloadSummary {
+
+	/** Names of the tracks that were added */
+	private final List<String> addedTracks = new ArrayList<String>();
+
+	/** Names of the tracks that were removed */
+	private final List<String> removedTracks = new ArrayList<String>();
+
+	/** Names of the tracks whose page limit or pay rate changed */
+	private final List<String> updatedTracks = new ArrayList<String>();
+
+	/** Number of papers added to tracks that were already loaded */
+	private int papersAdded;
+
+	/** Number of papers removed from tracks that were already loaded */
+	private int papersRemoved;
+
+	/** Number of papers whose state or fields changed */
+	private int papersChanged;
+
+	/** Number of papers that did not change */
+	private int papersUnchanged;
+
+	/**
+	 * Records a track that was added
+	 * @param trackName the name of the track
+	 */
+	void trackAdded(String trackName) {
+		addedTracks.add(trackName);
+	}
+
+	/**
+	 * Records a track that was removed
+	 * @param trackName the name of the track
+	 */
+	void trackRemoved(String trackName) {
+		removedTracks.add(trackName);
+	}
+
+	/**
+	 * Records a track whose page limit or pay rate changed
+	 * @param trackName the name of the track
+	 */
+	void trackUpdated(String trackName) {
+		updatedTracks.add(trackName);
+	}
+
+	/**
+	 * Records a paper that was added
+	 */
+	void paperAdded() {
+		papersAdded++;
+	}
+
+	/**
+	 * Records a paper that was removed
+	 */
+	void paperRemoved() {
+		papersRemoved++;
+	}
+
+	/**
+	 * Records a paper that changed
+	 */
+	void paperChanged() {
+		papersChanged++;
+	}
+
+	/**
+	 * Records a paper that did not change
+	 */
+	void paperUnchanged() {
+		papersUnchanged++;
+	}
+
+	/**
+	 * Returns the names of the tracks that were added
+	 * @return the track names
+	 */
+	public List<String> getAddedTracks() {
+		return Collections.unmodifiableList(addedTracks);
+	}
+
+	/**
+	 * Returns the names of the tracks that were removed
+	 * @return the track names
+	 */
+	public List<String> getRemovedTracks() {
+		return Collections.unmodifiableList(removedTracks);
+	}
+
+	/**
+	 * Returns the names of the tracks whose page limit or pay rate changed
+	 * @return the track names
+	 */
+	public List<String> getUpdatedTracks() {
+		return Collections.unmodifiableList(updatedTracks);
+	}
+
+	/**
+	 * Returns the number of papers added to tracks that were already loaded
+	 * @return the number of papers
+	 */
+	public int getPapersAdded() {
+		return papersAdded;
+	}
+
+	/**
+	 * Returns the number of papers removed from tracks that were already loaded
+	 * @return the number of papers
+	 */
+	public int getPapersRemoved() {
+		return papersRemoved;
+	}
+
+	/**
+	 * Returns the number of papers whose state or fields changed
+	 * @return the number of papers
+	 */
+	public int getPapersChanged() {
+		return papersChanged;
+	}
+
+	/**
+	 * Returns the number of papers that did not change
+	 * @return the number of papers
+	 */
+	public int getPapersUnchanged() {
+		return papersUnchanged;
+	}
+
+	/**
+	 * Returns whether the reload changed anything
+	 * @return true if nothing changed
+	 */
+	public boolean isEmpty() {
+		return addedTracks.isEmpty() && removedTracks.isEmpty() && updatedTracks.isEmpty()
+				&& papersAdded == 0 && papersRemoved == 0 && papersChanged == 0;
+	}
+
+	/**
+	 * Returns the summary as one line of counts
+	 * @return the summary as a string
+	 */
+	@Override
+	public String toString() {
+		return addedTracks.size() + " tracks added, " + removedTracks.size() + " removed, "
+				+ updatedTracks.size() + " updated; " + papersAdded + " papers added, " + papersRemoved
+				+ " removed, " + papersChanged + " changed, " + papersUnchanged + " unchanged";
+	}
+}
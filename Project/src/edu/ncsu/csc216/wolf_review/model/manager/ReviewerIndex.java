@@ -0,0 +1,173 @@
+package edu.ncsu.csc216.wolf_review.model.manager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import edu.ncsu.csc216.wolf_review.model.paper.PaperView;
+
+/**
+ * An inverted index from each reviewer to the ids of the papers assigned to them, across
+ * every PaperTrack it watches. The index listens to its tracks, so it stays current as
+ * commands set and clear the reviewer of a paper, and answers workload questions
+ * without scanning any papers
+ * @author Steven Saleeb
+ */
+public class ReviewerIndex implements PaperTrackListener {
+
+	/** For each reviewer, the ids of their papers in each track, keyed by track name */
+	private final Map<String, Map<String, TreeSet<Integer>>> assignments = new HashMap<String, Map<String, TreeSet<Integer>>>();
+
+	/** Total number of papers assigned to each reviewer */
+	private final Map<String, Integer> workloads = new HashMap<String, Integer>();
+
+	/**
+	 * Starts watching a track and indexes the papers it already has, archived or not. The
+	 * listener is added first so a change made while indexing is applied after the index has
+	 * caught up. A track whose papers are not loaded yet is indexed by the events it sends
+	 * when they are loaded
+	 * @param track the track to watch
+	 */
+	public synchronized void addTrack(PaperTrack track) {
+		track.addListener(this);
+		if (!track.isLoaded()) {
+			return;
+		}
+		for (PaperView paper : track.getSnapshot().getAllPapers()) {
+			add(track.getTrackName(), paper);
+		}
+	}
+
+	/**
+	 * Stops watching a track and removes its papers from the index, including the papers
+	 * of a track that was unloaded after it was indexed
+	 * @param track the track to remove
+	 */
+	public synchronized void removeTrack(PaperTrack track) {
+		track.removeListener(this);
+		String trackName = track.getTrackName();
+		assignments.entrySet().removeIf(entry -> {
+			TreeSet<Integer> ids = entry.getValue().remove(trackName);
+			if (ids != null) {
+				workloads.merge(entry.getKey(), -ids.size(), Integer::sum);
+			}
+			if (entry.getValue().isEmpty()) {
+				workloads.remove(entry.getKey());
+				return true;
+			}
+			return false;
+		});
+	}
+
+	/**
+	 * Updates the index when a paper changes in a watched track. Papers removed by unloading
+	 * the track or by archiving them are still assigned, so they stay in the index
+	 * @param track the track that changed
+	 * @param before the paper before the change, or null if it was added
+	 * @param after the paper after the change, or null if it was deleted
+	 */
+	@Override
+	public synchronized void paperChanged(PaperTrack track, PaperView before, PaperView after) {
+		if (after == null && (!track.isLoaded() || track.getSnapshot().getArchive().contains(before.getId()))) {
+			return;
+		}
+		if (before != null && after != null && before.getReviewer().equals(after.getReviewer())) {
+			return;
+		}
+		if (before != null) {
+			remove(track.getTrackName(), before);
+		}
+		if (after != null) {
+			add(track.getTrackName(), after);
+		}
+	}
+
+	/**
+	 * Returns the number of papers assigned to a reviewer across every track
+	 * @param reviewer the reviewer name
+	 * @return the number of papers
+	 */
+	public synchronized int getWorkload(String reviewer) {
+		return workloads.getOrDefault(reviewer, 0);
+	}
+
+	/**
+	 * Returns the ids of the papers assigned to a reviewer in each track
+	 * @param reviewer the reviewer name
+	 * @return a map from track name to the sorted paper ids, empty if the reviewer has no papers
+	 */
+	public synchronized Map<String, List<Integer>> getAssignments(String reviewer) {
+		Map<String, List<Integer>> result = new LinkedHashMap<String, List<Integer>>();
+		Map<String, TreeSet<Integer>> tracks = assignments.get(reviewer);
+		if (tracks != null) {
+			for (Map.Entry<String, TreeSet<Integer>> entry : tracks.entrySet()) {
+				result.put(entry.getKey(), new ArrayList<Integer>(entry.getValue()));
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the ids of the papers assigned to a reviewer in one track
+	 * @param reviewer the reviewer name
+	 * @param trackName the name of the track
+	 * @return the sorted paper ids, empty if the reviewer has no papers in the track
+	 */
+	public synchronized List<Integer> getPaperIds(String reviewer, String trackName) {
+		Map<String, TreeSet<Integer>> tracks = assignments.get(reviewer);
+		if (tracks == null || !tracks.containsKey(trackName)) {
+			return new ArrayList<Integer>();
+		}
+		return new ArrayList<Integer>(tracks.get(trackName));
+	}
+
+	/**
+	 * Returns every reviewer with at least one paper
+	 * @return the reviewer names
+	 */
+	public synchronized List<String> getReviewers() {
+		return new ArrayList<String>(workloads.keySet());
+	}
+
+	/**
+	 * Adds a paper to the index if it has a reviewer
+	 * @param trackName the name of the paper's track
+	 * @param paper the paper to add
+	 */
+	private void add(String trackName, PaperView paper) {
+		String reviewer = paper.getReviewer();
+		if (reviewer.isEmpty()) {
+			return;
+		}
+		TreeSet<Integer> ids = assignments.computeIfAbsent(reviewer, k -> new HashMap<String, TreeSet<Integer>>())
+				.computeIfAbsent(trackName, k -> new TreeSet<Integer>());
+		if (ids.add(paper.getId())) {
+			workloads.merge(reviewer, 1, Integer::sum);
+		}
+	}
+
+	/**
+	 * Removes a paper from the index if it has a reviewer
+	 * @param trackName the name of the paper's track
+	 * @param paper the paper to remove
+	 */
+	private void remove(String trackName, PaperView paper) {
+		String reviewer = paper.getReviewer();
+		Map<String, TreeSet<Integer>> tracks = assignments.get(reviewer);
+		if (tracks == null || !tracks.containsKey(trackName) || !tracks.get(trackName).remove(paper.getId())) {
+			return;
+		}
+		if (tracks.get(trackName).isEmpty()) {
+			tracks.remove(trackName);
+		}
+		if (tracks.isEmpty()) {
+			assignments.remove(reviewer);
+			workloads.remove(reviewer);
+		} else {
+			workloads.merge(reviewer, -1, Integer::sum);
+		}
+	}
+}
@@ -0,0 +1,173 @@
+package edu.ncsu.csc216.wolf_review.model.manager;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import edu.ncsu.csc216.wolf_review.model.paper.PaperView;
+
+/**
+ * Keeps track of which PaperTracks have their papers in memory, in order of last use, and
+ * of how many papers they hold in total. The weight of a track is its number of papers, and
+ * it is kept current from the change events of the track, so loading, unloading, adding
+ * and deleting papers are all counted without scanning. When the total weight is over the
+ * limit, the least recently used tracks are chosen to be evicted
+ * @author Steven Saleeb
+ */
+public class TrackCache implements PaperTrackListener {
+
+	/** The largest number of papers to keep in memory */
+	private final int maxWeight;
+
+	/** Number of papers of each track in memory, in order from least to most recently used */
+	private final LinkedHashMap<PaperTrack, Integer> resident = new LinkedHashMap<PaperTrack, Integer>(16, 0.75f, true);
+
+	/** Number of papers in memory across all tracks */
+	private int weight;
+
+	/**
+	 * Creates a cache that holds up to the given number of papers
+	 * @param maxWeight the largest number of papers to keep in memory
+	 * @throws IllegalArgumentException if the limit is less than one
+	 */
+	public TrackCache(int maxWeight) {
+		if (maxWeight < 1) {
+			throw new IllegalArgumentException("Invalid information.");
+		}
+		this.maxWeight = maxWeight;
+	}
+
+	/**
+	 * Starts watching a track, counting its papers if they are in memory
+	 * @param track the track to watch
+	 */
+	public synchronized void addTrack(PaperTrack track) {
+		track.addListener(this);
+		if (track.isLoaded() && !resident.containsKey(track)) {
+			int size = track.getSnapshot().size();
+			resident.put(track, size);
+			weight += size;
+		}
+	}
+
+	/**
+	 * Stops watching a track and stops counting its papers
+	 * @param track the track to remove
+	 */
+	public synchronized void removeTrack(PaperTrack track) {
+		track.removeListener(this);
+		Integer size = resident.remove(track);
+		if (size != null) {
+			weight -= size;
+		}
+	}
+
+	/**
+	 * Counts papers that are added to or removed from memory
+	 * @param track the track that changed
+	 * @param before the paper before the change, or null if it was added or loaded
+	 * @param after the paper after the change, or null if it was deleted or unloaded
+	 */
+	@Override
+	public synchronized void paperChanged(PaperTrack track, PaperView before, PaperView after) {
+		int change = (after == null ? 0 : 1) - (before == null ? 0 : 1);
+		if (change == 0) {
+			return;
+		}
+		weight += change;
+		Integer size = resident.get(track);
+		int next = (size == null ? 0 : size) + change;
+		if (next <= 0 && !track.isLoaded()) {
+			resident.remove(track);
+		} else {
+			resident.put(track, next);
+		}
+	}
+
+	/**
+	 * Marks a track as the most recently used
+	 * @param track the track that was used
+	 */
+	public synchronized void touch(PaperTrack track) {
+		if (resident.get(track) == null && track.isLoaded()) {
+			resident.put(track, track.getSnapshot().size());
+			weight += resident.get(track);
+		}
+	}
+
+	/**
+	 * Records that a track was evicted and its papers are no longer in memory
+	 * @param track the track that was evicted
+	 */
+	public synchronized void evicted(PaperTrack track) {
+		Integer size = resident.remove(track);
+		if (size != null) {
+			weight -= size;
+		}
+	}
+
+	/**
+	 * Chooses the least recently used tracks to evict until the total weight would be
+	 * within the limit, never choosing the tracks to keep
+	 * @param keep tracks that must stay in memory, such as the active track
+	 * @return the tracks to evict, from least to most recently used
+	 */
+	public synchronized List<PaperTrack> victims(PaperTrack... keep) {
+		List<PaperTrack> victims = new ArrayList<PaperTrack>();
+		int remaining = weight;
+		Iterator<Map.Entry<PaperTrack, Integer>> entries = resident.entrySet().iterator();
+		while (remaining > maxWeight && entries.hasNext()) {
+			Map.Entry<PaperTrack, Integer> entry = entries.next();
+			if (!contains(keep, entry.getKey())) {
+				victims.add(entry.getKey());
+				remaining -= entry.getValue();
+			}
+		}
+		return victims;
+	}
+
+	/**
+	 * Returns the number of papers in memory across all tracks
+	 * @return the total weight
+	 */
+	public synchronized int getWeight() {
+		return weight;
+	}
+
+	/**
+	 * Returns the largest number of papers to keep in memory
+	 * @return the limit
+	 */
+	public int getMaxWeight() {
+		return maxWeight;
+	}
+
+	/**
+	 * Returns the tracks whose papers are in memory, from least to most recently used
+	 * @return the names of the tracks
+	 */
+	public synchronized List<String> getResidentTracks() {
+		List<String> names = new ArrayList<String>();
+		for (PaperTrack track : resident.keySet()) {
+			names.add(track.getTrackName());
+		}
+		return names;
+	}
+
+	/**
+	 * Checks whether a track is one of the tracks to keep
+	 * @param keep the tracks to keep
+	 * @param track the track to look for
+	 * @return true if the track is one to keep
+	 */
+	private static boolean contains(PaperTrack[] keep, PaperTrack track) {
+		for (PaperTrack k : keep) {
+			if (k == track) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
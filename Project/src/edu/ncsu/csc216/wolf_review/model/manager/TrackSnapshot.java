@@ -0,0 +1,312 @@
+package edu.ncsu.csc216.wolf_review.model.manager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import edu.ncsu.csc216.wolf_review.model.paper.Paper;
+import edu.ncsu.csc216.wolf_review.model.paper.PaperView;
+
+/**
+ * An immutable, versioned picture of a PaperTrack. A PaperTrack publishes a new
+ * snapshot after every change, and each new snapshot shares the unchanged chunks of
+ * PaperViews of the one before it, so a change to one paper copies only a small part of the track. Readers can use a snapshot without locking and will never see
+ * a half finished change. Closed papers that were archived are not in the paper views of a
+ * snapshot but in its PaperArchive, and are still counted in its statistics and listed by getAllPapers
+ * @author Steven Saleeb
+ */
+public final class TrackSnapshot {
+
+	/** The version of the snapshot, increased by one on every change to the track */
+	private final long version;
+
+	/** Name of the paper track */
+	private final String trackName;
+
+	/** Maximum allowed number of pages for papers */
+	private final int pageLimit;
+
+	/** Payment rate for extra pages after the limit */
+	private final int extraPagesPayRate;
+
+	/** Views of the papers in the track sorted by id, sharing its unchanged chunks with the snapshot before */
+	private final PaperViewList papers;
+
+	/** The archived Closed papers of the track */
+	private final PaperArchive archive;
+
+	/** Counts of the papers and archived papers by state, close reason, paper type and recommendation */
+	private final TrackStatistics statistics;
+
+	/** Positions of the papers in each state, built the first time a query needs them */
+	private volatile Map<String, int[]> stateIndex;
+
+	/** Positions of the papers of each reviewer, built the first time a query needs them */
+	private volatile Map<String, int[]> reviewerIndex;
+
+	/**
+	 * Creates a snapshot from its parts, the array is owned by the snapshot after this call
+	 * @param version the version of the snapshot
+	 * @param trackName the name of the track
+	 * @param pageLimit the page limit of the track
+	 * @param extraPagesPayRate the extra page pay rate of the track
+	 * @param papers the paper views sorted by id
+	 */
+	TrackSnapshot(long version, String trackName, int pageLimit, int extraPagesPayRate, PaperView[] papers) {
+		this(version, trackName, pageLimit, extraPagesPayRate, PaperViewList.of(papers), PaperArchive.EMPTY,
+				TrackStatistics.of(papers));
+	}
+
+	/**
+	 * Creates a snapshot from its parts with statistics that are already counted
+	 * @param version the version of the snapshot
+	 * @param trackName the name of the track
+	 * @param pageLimit the page limit of the track
+	 * @param extraPagesPayRate the extra page pay rate of the track
+	 * @param papers the paper views sorted by id
+	 * @param archive the archived papers
+	 * @param statistics the statistics of the papers and archived papers
+	 */
+	private TrackSnapshot(long version, String trackName, int pageLimit, int extraPagesPayRate, PaperViewList papers,
+			PaperArchive archive, TrackStatistics statistics) {
+		this.version = version;
+		this.trackName = trackName;
+		this.pageLimit = pageLimit;
+		this.extraPagesPayRate = extraPagesPayRate;
+		this.papers = papers;
+		this.archive = archive;
+		this.statistics = statistics;
+	}
+
+	/**
+	 * Returns the version of the snapshot
+	 * @return the version
+	 */
+	public long getVersion() {
+		return version;
+	}
+
+	/**
+	 * Returns the name of the track
+	 * @return the track name
+	 */
+	public String getTrackName() {
+		return trackName;
+	}
+
+	/**
+	 * Returns the page limit of the track
+	 * @return the page limit
+	 */
+	public int getPageLimit() {
+		return pageLimit;
+	}
+
+	/**
+	 * Returns the extra page pay rate of the track
+	 * @return the extra page pay rate
+	 */
+	public int getPayRateExtraPages() {
+		return extraPagesPayRate;
+	}
+
+	/**
+	 * Returns the papers of the track sorted by id
+	 * @return a read only list of paper views
+	 */
+	public List<PaperView> getPapers() {
+		return papers;
+	}
+
+	/**
+	 * Returns the number of papers in the snapshot, not counting archived papers
+	 * @return the number of papers
+	 */
+	public int size() {
+		return papers.size();
+	}
+
+	/**
+	 * Returns the archived Closed papers of the track
+	 * @return the archive
+	 */
+	public PaperArchive getArchive() {
+		return archive;
+	}
+
+	/**
+	 * Returns the papers and archived papers of the track sorted by id. Archived papers are
+	 * made from their records, so this is only cheap when nothing is archived
+	 * @return a read only list of paper views
+	 */
+	public List<PaperView> getAllPapers() {
+		if (archive.size() == 0) {
+			return papers;
+		}
+		List<PaperView> archived = archive.getPapers();
+		List<PaperView> all = new ArrayList<PaperView>(papers.size() + archived.size());
+		int i = 0;
+		int k = 0;
+		while (i < papers.size() || k < archived.size()) {
+			if (k >= archived.size() || i < papers.size() && papers.get(i).getId() < archived.get(k).getId()) {
+				all.add(papers.get(i++));
+			} else {
+				all.add(archived.get(k++));
+			}
+		}
+		return Collections.unmodifiableList(all);
+	}
+
+	/**
+	 * Returns the counts of the papers in the snapshot, including archived papers, by state,
+	 * close reason, paper type and recommendation
+	 * @return the statistics
+	 */
+	public TrackStatistics getStatistics() {
+		return statistics;
+	}
+
+	/**
+	 * Returns the view of the paper with the given id. An archived paper is made from its
+	 * record
+	 * @param id the id of the paper
+	 * @return the paper view or null if there is no paper with the id
+	 */
+	public PaperView getPaperById(int id) {
+		int index = indexOf(id);
+		if (index < 0) {
+			Paper archived = archive.getPaperById(id);
+			return archived == null ? null : new PaperView(archived);
+		}
+		return papers.get(index);
+	}
+
+	/**
+	 * Returns the positions of the papers in the given state
+	 * @param state the state name
+	 * @return the positions in id order, empty if no paper is in the state
+	 */
+	int[] positionsInState(String state) {
+		if (stateIndex == null) {
+			buildIndexes();
+		}
+		return stateIndex.getOrDefault(state, new int[0]);
+	}
+
+	/**
+	 * Returns the positions of the papers assigned to the given reviewer
+	 * @param reviewer the reviewer name
+	 * @return the positions in id order, empty if the reviewer has no papers
+	 */
+	int[] positionsOfReviewer(String reviewer) {
+		if (reviewerIndex == null) {
+			buildIndexes();
+		}
+		return reviewerIndex.getOrDefault(reviewer, new int[0]);
+	}
+
+	/**
+	 * Builds the state and reviewer indexes with one pass over the papers. The snapshot
+	 * never changes, so two threads building the indexes at once build the same thing
+	 */
+	private void buildIndexes() {
+		Map<String, List<Integer>> states = new HashMap<String, List<Integer>>();
+		Map<String, List<Integer>> reviewers = new HashMap<String, List<Integer>>();
+		int i = 0;
+		for (PaperView paper : papers) {
+			states.computeIfAbsent(paper.getState(), k -> new ArrayList<Integer>()).add(i);
+			String reviewer = paper.getReviewer();
+			if (!reviewer.isEmpty()) {
+				reviewers.computeIfAbsent(reviewer, k -> new ArrayList<Integer>()).add(i);
+			}
+			i++;
+		}
+		reviewerIndex = toPositions(reviewers);
+		stateIndex = toPositions(states);
+	}
+
+	/**
+	 * Converts lists of boxed positions into int arrays
+	 * @param lists the positions for each key
+	 * @return a map from each key to its positions
+	 */
+	private static Map<String, int[]> toPositions(Map<String, List<Integer>> lists) {
+		Map<String, int[]> result = new HashMap<String, int[]>();
+		for (Map.Entry<String, List<Integer>> entry : lists.entrySet()) {
+			List<Integer> list = entry.getValue();
+			int[] positions = new int[list.size()];
+			for (int i = 0; i < positions.length; i++) {
+				positions[i] = list.get(i);
+			}
+			result.put(entry.getKey(), positions);
+		}
+		return result;
+	}
+
+	/**
+	 * Finds the position of a paper id with a binary search
+	 * @param id the id to find
+	 * @return the index of the id, or a negative number if it is not in the snapshot
+	 */
+	int indexOf(int id) {
+		return papers.positionOf(id);
+	}
+
+	/**
+	 * Returns the next version of this snapshot with one paper view replaced
+	 * @param index the position of the paper to replace
+	 * @param view the new view of the paper
+	 * @return the new snapshot
+	 */
+	TrackSnapshot withReplaced(int index, PaperView view) {
+		return new TrackSnapshot(version + 1, trackName, pageLimit, extraPagesPayRate, papers.withReplaced(index, view),
+				archive, statistics.withChange(papers.get(index), view));
+	}
+
+	/**
+	 * Returns the next version of this snapshot with new settings and paper views, keeping its archive
+	 * @param nextPageLimit the page limit of the track
+	 * @param nextPayRate the extra page pay rate of the track
+	 * @param views the paper views sorted by id, owned by the new snapshot after this call
+	 * @return the new snapshot
+	 */
+	TrackSnapshot withPapers(int nextPageLimit, int nextPayRate, PaperView[] views) {
+		return withArchive(nextPageLimit, nextPayRate, views, archive);
+	}
+
+	/**
+	 * Returns the next version of this snapshot with new settings, paper views and archive
+	 * @param nextPageLimit the page limit of the track
+	 * @param nextPayRate the extra page pay rate of the track
+	 * @param views the paper views sorted by id, owned by the new snapshot after this call
+	 * @param nextArchive the archived papers, none of which are in the views
+	 * @return the new snapshot
+	 */
+	TrackSnapshot withArchive(int nextPageLimit, int nextPayRate, PaperView[] views, PaperArchive nextArchive) {
+		return new TrackSnapshot(version + 1, trackName, nextPageLimit, nextPayRate, PaperViewList.of(views),
+				nextArchive, TrackStatistics.of(views).plus(nextArchive.getStatistics()));
+	}
+
+	/**
+	 * Returns the next version of this snapshot with one paper view inserted
+	 * @param index the position to insert the view at
+	 * @param view the view of the new paper
+	 * @return the new snapshot
+	 */
+	TrackSnapshot withInserted(int index, PaperView view) {
+		return new TrackSnapshot(version + 1, trackName, pageLimit, extraPagesPayRate, papers.withInserted(index, view),
+				archive, statistics.withChange(null, view));
+	}
+
+	/**
+	 * Returns the next version of this snapshot with one paper view removed
+	 * @param index the position of the paper to remove
+	 * @return the new snapshot
+	 */
+	TrackSnapshot withRemoved(int index) {
+		return new TrackSnapshot(version + 1, trackName, pageLimit, extraPagesPayRate, papers.withRemoved(index),
+				archive, statistics.withChange(papers.get(index), null));
+	}
+}
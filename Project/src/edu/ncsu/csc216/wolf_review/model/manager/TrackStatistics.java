@@ -0,0 +1,285 @@
+package edu.ncsu.csc216.wolf_review.model.manager;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import edu.ncsu.csc216.wolf_review.model.paper.Paper;
+import edu.ncsu.csc216.wolf_review.model.paper.PaperView;
+
+/**
+ * Immutable counts of the papers of a PaperTrack by state, close reason, paper type and
+ * recommendation. Each TrackSnapshot carries the statistics of its papers, and a snapshot
+ * made by adding, removing or replacing one paper adjusts the counts of the snapshot before
+ * it instead of counting again, so the statistics of a track can be read at any time
+ * without looking at its papers
+ * @author Steven Saleeb
+ */
+public final class TrackStatistics {
+
+	/** The state names in the order they are counted */
+	private static final String[] STATES = {Paper.SUBMITTED_NAME, Paper.REVIEWING_NAME, Paper.REVISING_NAME,
+		Paper.REGISTERING_NAME, Paper.CLOSED_NAME};
+
+	/** The close reasons in the order they are counted */
+	private static final String[] CLOSE_REASONS = {Paper.ACCEPT_CLOSED, Paper.REJECT_CLOSED,
+		Paper.WITHDRAW_CLOSED, Paper.DUPLICATE_CLOSED};
+
+	/** The paper types in the order they are counted */
+	private static final String[] PAPER_TYPES = {Paper.P_ABSTRACT, Paper.P_FULLPAPER};
+
+	/** The recommendations in the order they are counted */
+	private static final String[] RECOMMENDATIONS = {Paper.RECOMMEND_STRONG_ACCEPT, Paper.RECOMMEND_WEAK_ACCEPT,
+		Paper.RECOMMEND_WEAK_REJECT, Paper.RECOMMEND_STRONG_REJECT};
+
+	/** Position of the first close reason count */
+	private static final int CLOSE_REASON_START = STATES.length;
+
+	/** Position of the first paper type count */
+	private static final int PAPER_TYPE_START = CLOSE_REASON_START + CLOSE_REASONS.length;
+
+	/** Position of the first recommendation count */
+	private static final int RECOMMENDATION_START = PAPER_TYPE_START + PAPER_TYPES.length;
+
+	/** Position of the total number of papers */
+	private static final int TOTAL = RECOMMENDATION_START + RECOMMENDATIONS.length;
+
+	/** Statistics of a track with no papers */
+	public static final TrackStatistics EMPTY = new TrackStatistics(new int[TOTAL + 1]);
+
+	/** The counts of every category followed by the total, never modified */
+	private final int[] counts;
+
+	/**
+	 * Creates statistics from their counts, the array is owned by the statistics after this call
+	 * @param counts the counts of every category followed by the total
+	 */
+	private TrackStatistics(int[] counts) {
+		this.counts = counts;
+	}
+
+	/**
+	 * Counts the given papers
+	 * @param papers the papers to count
+	 * @return the statistics of the papers
+	 */
+	public static TrackStatistics of(PaperView[] papers) {
+		int[] counts = new int[TOTAL + 1];
+		for (PaperView paper : papers) {
+			count(counts, paper, 1);
+		}
+		return new TrackStatistics(counts);
+	}
+
+	/**
+	 * Returns these statistics with one paper changed. The counts are adjusted for the
+	 * paper before and after the change, so this takes the same time however many papers are counted
+	 * @param before the paper before the change or null if it was added
+	 * @param after the paper after the change or null if it was removed
+	 * @return the new statistics
+	 */
+	public TrackStatistics withChange(PaperView before, PaperView after) {
+		int[] next = counts.clone();
+		if (before != null) {
+			count(next, before, -1);
+		}
+		if (after != null) {
+			count(next, after, 1);
+		}
+		return new TrackStatistics(next);
+	}
+
+	/**
+	 * Returns the sum of these statistics and another
+	 * @param other the statistics to add
+	 * @return the combined statistics
+	 */
+	public TrackStatistics plus(TrackStatistics other) {
+		int[] next = counts.clone();
+		for (int i = 0; i < next.length; i++) {
+			next[i] += other.counts[i];
+		}
+		return new TrackStatistics(next);
+	}
+
+	/**
+	 * Adds a paper to the counts of each of its categories
+	 * @param counts the counts to change
+	 * @param paper the paper
+	 * @param change 1 to add the paper or -1 to remove it
+	 */
+	private static void count(int[] counts, PaperView paper, int change) {
+		counts[TOTAL] += change;
+		add(counts, 0, STATES, paper.getState(), change);
+		add(counts, CLOSE_REASON_START, CLOSE_REASONS, paper.getNote(), change);
+		add(counts, PAPER_TYPE_START, PAPER_TYPES, paper.getPaperType(), change);
+		add(counts, RECOMMENDATION_START, RECOMMENDATIONS, paper.getNote(), change);
+	}
+
+	/**
+	 * Adds to the count of a value if it is one of the values of a category
+	 * @param counts the counts to change
+	 * @param start the position of the first count of the category
+	 * @param values the values of the category
+	 * @param value the value of the paper
+	 * @param change the amount to add
+	 */
+	private static void add(int[] counts, int start, String[] values, String value, int change) {
+		int i = indexOf(values, value);
+		if (i >= 0) {
+			counts[start + i] += change;
+		}
+	}
+
+	/**
+	 * Finds a value in a category
+	 * @param values the values of the category
+	 * @param value the value to find
+	 * @return the position of the value or -1 if it is not in the category
+	 */
+	private static int indexOf(String[] values, String value) {
+		for (int i = 0; i < values.length; i++) {
+			if (values[i].equals(value)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns the number of papers
+	 * @return the total number of papers
+	 */
+	public int getTotal() {
+		return counts[TOTAL];
+	}
+
+	/**
+	 * Returns the number of papers in a state
+	 * @param state the state name
+	 * @return the number of papers, 0 for an unknown state
+	 */
+	public int getStateCount(String state) {
+		return get(0, STATES, state);
+	}
+
+	/**
+	 * Returns the number of closed papers with a close reason
+	 * @param reason the close reason, such as Accepted or Rejected
+	 * @return the number of papers, 0 for an unknown reason
+	 */
+	public int getCloseReasonCount(String reason) {
+		return get(CLOSE_REASON_START, CLOSE_REASONS, reason);
+	}
+
+	/**
+	 * Returns the number of papers of a paper type
+	 * @param paperType the paper type
+	 * @return the number of papers, 0 for an unknown type
+	 */
+	public int getPaperTypeCount(String paperType) {
+		return get(PAPER_TYPE_START, PAPER_TYPES, paperType);
+	}
+
+	/**
+	 * Returns the number of papers with a recommendation
+	 * @param recommendation the recommendation
+	 * @return the number of papers, 0 for an unknown recommendation
+	 */
+	public int getRecommendationCount(String recommendation) {
+		return get(RECOMMENDATION_START, RECOMMENDATIONS, recommendation);
+	}
+
+	/**
+	 * Returns the count of a value in a category
+	 * @param start the position of the first count of the category
+	 * @param values the values of the category
+	 * @param value the value to look up
+	 * @return the count, 0 if the value is not in the category
+	 */
+	private int get(int start, String[] values, String value) {
+		int i = indexOf(values, value);
+		return i < 0 ? 0 : counts[start + i];
+	}
+
+	/**
+	 * Returns the number of papers in each state
+	 * @return a map from state name to count, in the order of the states
+	 */
+	public Map<String, Integer> getStateCounts() {
+		return toMap(0, STATES);
+	}
+
+	/**
+	 * Returns the number of closed papers with each close reason
+	 * @return a map from close reason to count
+	 */
+	public Map<String, Integer> getCloseReasonCounts() {
+		return toMap(CLOSE_REASON_START, CLOSE_REASONS);
+	}
+
+	/**
+	 * Returns the number of papers of each paper type
+	 * @return a map from paper type to count
+	 */
+	public Map<String, Integer> getPaperTypeCounts() {
+		return toMap(PAPER_TYPE_START, PAPER_TYPES);
+	}
+
+	/**
+	 * Returns the number of papers with each recommendation
+	 * @return a map from recommendation to count
+	 */
+	public Map<String, Integer> getRecommendationCounts() {
+		return toMap(RECOMMENDATION_START, RECOMMENDATIONS);
+	}
+
+	/**
+	 * Returns the counts of a category as a map
+	 * @param start the position of the first count of the category
+	 * @param values the values of the category
+	 * @return a map from each value to its count, in category order
+	 */
+	private Map<String, Integer> toMap(int start, String[] values) {
+		Map<String, Integer> map = new LinkedHashMap<String, Integer>();
+		for (int i = 0; i < values.length; i++) {
+			map.put(values[i], counts[start + i]);
+		}
+		return map;
+	}
+
+	/**
+	 * Compares the counts of two statistics
+	 * @param obj the object to compare to
+	 * @return true if both have the same counts
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof TrackStatistics)) {
+			return false;
+		}
+		return Arrays.equals(counts, ((TrackStatistics) obj).counts);
+	}
+
+	/**
+	 * Returns a hash code of the counts
+	 * @return the hash code
+	 */
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode(counts);
+	}
+
+	/**
+	 * Returns the statistics as the total followed by the counts of each category
+	 * @return the statistics as a string
+	 */
+	@Override
+	public String toString() {
+		return "total=" + getTotal() + " " + getStateCounts() + " " + getCloseReasonCounts() + " "
+				+ getPaperTypeCounts() + " " + getRecommendationCounts();
+	}
+}
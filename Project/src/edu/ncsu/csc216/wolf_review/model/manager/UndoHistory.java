@@ -0,0 +1,224 @@
+package edu.ncsu.csc216.wolf_review.model.manager;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import edu.ncsu.csc216.wolf_review.model.paper.PaperView;
+
+/**
+ * Undo and redo stacks of the changes made to papers through WolfReview. Each entry is one
+ * paper before and after a change, kept as the immutable views the track already published,
+ * so an entry costs three references however large the paper or track is. Undoing puts the
+ * one paper back and redoing applies the change again, and neither copies or scans the track
+ * beyond publishing the one change. At most a fixed number of entries are kept: when there
+ * are more, the two oldest are joined into one if they are back to back changes of the same
+ * paper, and otherwise the oldest is forgotten
+ * @author Steven Saleeb
+ */
+public class UndoHistory {
+
+	/** Number of entries kept when no limit is given */
+	public static final int DEFAULT_CAPACITY = 100;
+
+	/**
+	 * One paper before and after a change
+	 */
+	private static final class Entry {
+
+		/** The track of the paper */
+		private final PaperTrack track;
+
+		/** The paper before the change, or null if it was added */
+		private final PaperView before;
+
+		/** The paper after the change, or null if it was deleted */
+		private final PaperView after;
+
+		/**
+		 * Creates an entry
+		 * @param track the track of the paper
+		 * @param before the paper before the change, or null if it was added
+		 * @param after the paper after the change, or null if it was deleted
+		 */
+		private Entry(PaperTrack track, PaperView before, PaperView after) {
+			this.track = track;
+			this.before = before;
+			this.after = after;
+		}
+
+		/**
+		 * Returns the id of the paper
+		 * @return the paper id
+		 */
+		private int getId() {
+			return before != null ? before.getId() : after.getId();
+		}
+	}
+
+	/** Changes that can be undone, most recent first */
+	private final Deque<Entry> undo = new ArrayDeque<Entry>();
+
+	/** Changes that were undone and can be redone, most recently undone first */
+	private final Deque<Entry> redo = new ArrayDeque<Entry>();
+
+	/** Largest number of entries kept on each stack */
+	private int capacity;
+
+	/**
+	 * Creates an empty history with the default capacity
+	 */
+	public UndoHistory() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Creates an empty history
+	 * @param capacity largest number of entries kept on each stack
+	 * @throws IllegalArgumentException if the capacity is less than one
+	 */
+	public UndoHistory(int capacity) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("Invalid information.");
+		}
+		this.capacity = capacity;
+	}
+
+	/**
+	 * Sets the largest number of entries kept on each stack, joining or forgetting the
+	 * oldest entries if there are more
+	 * @param capacity the largest number of entries
+	 * @throws IllegalArgumentException if the capacity is less than one
+	 */
+	public synchronized void setCapacity(int capacity) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("Invalid information.");
+		}
+		this.capacity = capacity;
+		trim();
+		while (redo.size() > capacity) {
+			redo.pollLast();
+		}
+	}
+
+	/**
+	 * Returns the largest number of entries kept on each stack
+	 * @return the capacity
+	 */
+	public synchronized int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * Records a change to a paper so it can be undone, and forgets the changes that could
+	 * be redone. Nothing is recorded if the paper did not change
+	 * @param track the track of the paper
+	 * @param before the paper before the change, or null if it was added
+	 * @param after the paper after the change, or null if it was deleted
+	 */
+	synchronized void record(PaperTrack track, PaperView before, PaperView after) {
+		if (before == null ? after == null : before.equals(after)) {
+			return;
+		}
+		undo.push(new Entry(track, before, after));
+		redo.clear();
+		trim();
+	}
+
+	/**
+	 * Joins or forgets the oldest undo entries until there are no more than the capacity
+	 */
+	private void trim() {
+		while (undo.size() > capacity) {
+			Entry oldest = undo.pollLast();
+			Entry next = undo.peekLast();
+			if (next != null && next.track == oldest.track && next.getId() == oldest.getId()
+					&& next.before != null && next.before.equals(oldest.after)) {
+				undo.pollLast();
+				if (oldest.before != null || next.after != null) {
+					undo.addLast(new Entry(oldest.track, oldest.before, next.after));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Undoes the most recent change that has not been undone
+	 * @return the id of the paper that was put back
+	 * @throws IllegalArgumentException if there is nothing to undo, or the paper changed
+	 * since, in which case the change is forgotten
+	 */
+	public synchronized int undo() {
+		Entry entry = undo.poll();
+		if (entry == null) {
+			throw new IllegalArgumentException("Nothing to undo.");
+		}
+		PaperView restored = entry.track.revertPaper(entry.after, entry.before);
+		redo.push(new Entry(entry.track, restored, entry.after));
+		return entry.getId();
+	}
+
+	/**
+	 * Applies the most recently undone change again
+	 * @return the id of the paper that was changed
+	 * @throws IllegalArgumentException if there is nothing to redo, or the paper changed
+	 * since it was undone, in which case the change is forgotten
+	 */
+	public synchronized int redo() {
+		Entry entry = redo.poll();
+		if (entry == null) {
+			throw new IllegalArgumentException("Nothing to redo.");
+		}
+		PaperView applied = entry.track.revertPaper(entry.before, entry.after);
+		undo.push(new Entry(entry.track, entry.before, applied));
+		return entry.getId();
+	}
+
+	/**
+	 * Returns whether there is a change to undo
+	 * @return true if undo can be called
+	 */
+	public synchronized boolean canUndo() {
+		return !undo.isEmpty();
+	}
+
+	/**
+	 * Returns whether there is an undone change to redo
+	 * @return true if redo can be called
+	 */
+	public synchronized boolean canRedo() {
+		return !redo.isEmpty();
+	}
+
+	/**
+	 * Returns the number of changes that can be undone
+	 * @return the number of entries
+	 */
+	public synchronized int getUndoCount() {
+		return undo.size();
+	}
+
+	/**
+	 * Returns the number of changes that can be redone
+	 * @return the number of entries
+	 */
+	public synchronized int getRedoCount() {
+		return redo.size();
+	}
+
+	/**
+	 * Forgets every change of a track, used when the track is removed
+	 * @param track the track
+	 */
+	synchronized void removeTrack(PaperTrack track) {
+		undo.removeIf(entry -> entry.track == track);
+		redo.removeIf(entry -> entry.track == track);
+	}
+
+	/**
+	 * Forgets every change
+	 */
+	public synchronized void clear() {
+		undo.clear();
+		redo.clear();
+	}
+}
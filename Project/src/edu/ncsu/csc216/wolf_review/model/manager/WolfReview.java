@@ -1,20 +1,36 @@
 
 package edu.ncsu.csc216.wolf_review.model.manager;
 
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 
 import edu.ncsu.csc216.wolf_review.model.command.Command;
+import edu.ncsu.csc216.wolf_review.model.command.Command.CommandValue;
+import edu.ncsu.csc216.wolf_review.model.command.CommandResult;
 import edu.ncsu.csc216.wolf_review.model.io.PaperTrackReader;
-import edu.ncsu.csc216.wolf_review.model.io.PaperTrackWriter;
+import edu.ncsu.csc216.wolf_review.model.io.ParseDiagnostics;
+import edu.ncsu.csc216.wolf_review.model.io.TextTrackStorage;
+import edu.ncsu.csc216.wolf_review.model.io.TrackStorage;
+import edu.ncsu.csc216.wolf_review.model.io.TrackStore;
+import edu.ncsu.csc216.wolf_review.model.io.WriteBehindPersister;
+import edu.ncsu.csc216.wolf_review.model.metrics.LoadTrackEvent;
+import edu.ncsu.csc216.wolf_review.model.metrics.Metrics;
 import edu.ncsu.csc216.wolf_review.model.paper.Paper;
+import edu.ncsu.csc216.wolf_review.model.paper.PaperView;
 
 /**
  * This class is the main manager for the entire WolfReview system, 
  * it keeps track of multiple PaperTracks and provides methods to
  * load tracks from a file, save tracks, add new tracks, 
- * and it ensures only one instance exists throughout the program
+ * and it ensures only one instance exists throughout the program.
+ * Methods that change the list of tracks are synchronized, and the list itself is copy on
+ * write, so many threads can read and run commands on tracks at the same time
  * @author Steven Saleeb
  */
 public class WolfReview {
@@ -23,20 +39,69 @@ public class WolfReview {
 	private static WolfReview singleton;
 	
 	/** List of all PaperTracks in the system */
-	private ArrayList<PaperTrack> paperTracks;
+	private List<PaperTrack> paperTracks;
 	
 	/** The active PaperTrack */
-	private PaperTrack activePaperTrack;
+	private volatile PaperTrack activePaperTrack;
+
+	/** Index from each reviewer to their papers across all tracks */
+	private ReviewerIndex reviewerIndex;
+
+	/** Index of the author names of the papers across all tracks */
+	private AuthorIndex authorIndex;
+
+	/** The directory store the tracks were opened from, or null if none was opened */
+	private volatile TrackStore store;
+
+	/** Limits the number of papers in memory by evicting tracks to the store, or null for no limit */
+	private volatile TrackCache cache;
+
+	/** Saves the tracks in the background after every change, or null if changes are not saved */
+	private volatile WriteBehindPersister persister;
+
+	/** The history of each track, keyed by track, or null if histories are not recorded */
+	private volatile Map<PaperTrack, PaperHistory> histories;
+
+	/** Number of events between checkpoints of the histories */
+	private int historyInterval;
+
+	/** The changes made through this manager that can be undone and redone */
+	private final UndoHistory undoHistory = new UndoHistory();
 
 	/**
 	 * Private constructor to prevent multiple instances from being created.
 	 */
 	private WolfReview() {
-		paperTracks = new ArrayList<>();
+		paperTracks = new CopyOnWriteArrayList<>();
 	    activePaperTrack = null;
+	    reviewerIndex = new ReviewerIndex();
+	    authorIndex = new AuthorIndex();
+	    Metrics.getInstance().registerGauge("wolfreview_papers", "state", this::countPapersByState);
 	 
 	}
 
+	/**
+	 * Counts the papers in each state across all tracks whose papers have been read, used by
+	 * the papers per state metric
+	 * @return a map from state name to number of papers
+	 */
+	private Map<String, Long> countPapersByState() {
+		Map<String, Long> counts = new LinkedHashMap<String, Long>();
+		for (String state : Metrics.STATE_NAMES) {
+			counts.put(state, 0L);
+		}
+		for (PaperTrack track : paperTracks) {
+			TrackStatistics statistics = track.peekStatistics();
+			if (statistics == null) {
+				continue;
+			}
+			for (Map.Entry<String, Integer> entry : statistics.getStateCounts().entrySet()) {
+				counts.merge(entry.getKey(), (long) entry.getValue(), Long::sum);
+			}
+		}
+		return counts;
+	}
+
 	/**
 	 * Returns the instance of WolfReview
 	 * @return the single instance of WolfReview
@@ -53,28 +118,284 @@ public class WolfReview {
 	 * Loads PaperTracks from a file and makes the first one active
 	 * @param fileName the file to read PaperTracks from
 	 */
-	public void loadTracksFromFile(String fileName) {
-		ArrayList<PaperTrack> tracks = PaperTrackReader.readPaperTrackFile(fileName);
+	public synchronized void loadTracksFromFile(String fileName) {
+		loadTracksFromFile(fileName, null);
+	}
+
+	/**
+	 * Loads PaperTracks from a file and makes the first one active, reporting every line
+	 * that could not be loaded
+	 * @param fileName the file to read PaperTracks from
+	 * @param diagnostics the collector for rejected lines, or null to not collect them
+	 */
+	public synchronized void loadTracksFromFile(String fileName, ParseDiagnostics diagnostics) {
+		loadTracks(new TextTrackStorage(fileName, diagnostics));
+	}
+
+	/**
+	 * Loads every PaperTrack of a storage and makes the first one active
+	 * @param storage the storage to load PaperTracks from
+	 * @throws IllegalArgumentException if the storage cannot be read
+	 */
+	public synchronized void loadTracks(TrackStorage storage) {
+		ArrayList<PaperTrack> tracks = storage.loadAll();
 		for (int i = 0; i < tracks.size(); i++) {
-			paperTracks.add(tracks.get(i));
+			addTrack(tracks.get(i));
 		}
 		if (tracks.isEmpty()) {
 			return;	
 		}
 		activePaperTrack = tracks.get(0);
+		evictIfNeeded(null);
 		
 	}
 
+	/**
+	 * Reloads PaperTracks from a refreshed file without duplicating the tracks already loaded
+	 * @param fileName the file to read PaperTracks from
+	 * @return the changes that were applied
+	 * @throws IllegalArgumentException if the file cannot be read or has no valid tracks
+	 */
+	public synchronized ReloadSummary reloadTracksFromFile(String fileName) {
+		return reloadTracksFromFile(fileName, null);
+	}
+
+	/**
+	 * Reloads PaperTracks from a refreshed file by applying only the differences. Tracks are
+	 * matched by name: a track that is only in the file is added, a track that is not in the
+	 * file is removed, and a track in both is updated paper by paper, so listeners and
+	 * indexes see one change event for each paper that was added, removed or changed.
+	 * Papers that did not change keep their objects. The active track stays active if it
+	 * is still in the file, otherwise the first track becomes active
+	 * @param fileName the file to read PaperTracks from
+	 * @param diagnostics the collector for rejected lines, or null to not collect them
+	 * @return the changes that were applied
+	 * @throws IllegalArgumentException if the file cannot be read or has no valid tracks
+	 */
+	public synchronized ReloadSummary reloadTracksFromFile(String fileName, ParseDiagnostics diagnostics) {
+		ArrayList<PaperTrack> tracks = PaperTrackReader.readPaperTrackFile(fileName, diagnostics);
+		if (tracks.isEmpty()) {
+			throw new IllegalArgumentException("Unable to load file.");
+		}
+		return applyTracks(tracks, true);
+	}
+
+	/**
+	 * Merges tracks that were read elsewhere, such as from a file dropped by another system,
+	 * into the loaded tracks. A track with a new name is added and a track with a loaded
+	 * name is updated paper by paper like a reload, but loaded tracks that are not given
+	 * are kept. The tracks should be parsed before calling this method, so the lock is only
+	 * held while the differences are applied
+	 * @param tracks the tracks to merge
+	 * @return the changes that were applied
+	 */
+	public synchronized ReloadSummary mergeTracks(List<PaperTrack> tracks) {
+		return applyTracks(tracks, false);
+	}
+
+	/**
+	 * Applies the differences between the given tracks and the loaded tracks
+	 * @param tracks the tracks to apply
+	 * @param removeMissing true to remove loaded tracks that are not given and duplicate
+	 * copies of a loaded name
+	 * @return the changes that were applied
+	 */
+	private ReloadSummary applyTracks(List<PaperTrack> tracks, boolean removeMissing) {
+		Map<String, PaperTrack> incoming = new LinkedHashMap<String, PaperTrack>();
+		for (PaperTrack track : tracks) {
+			incoming.putIfAbsent(track.getTrackName(), track);
+		}
+
+		ReloadSummary summary = new ReloadSummary();
+		Map<String, PaperTrack> loaded = new LinkedHashMap<String, PaperTrack>();
+		for (PaperTrack track : paperTracks) {
+			String name = track.getTrackName();
+			if (!loaded.containsKey(name) && (!removeMissing || incoming.containsKey(name))) {
+				loaded.put(name, track);
+			} else if (removeMissing) {
+				removeTrack(track);
+				summary.trackRemoved(name);
+			}
+		}
+		for (PaperTrack track : incoming.values()) {
+			PaperTrack existing = loaded.get(track.getTrackName());
+			if (existing == null) {
+				addTrack(track);
+				summary.trackAdded(track.getTrackName());
+			} else {
+				existing.mergeFrom(track, summary);
+			}
+		}
+
+		if (activePaperTrack == null || !paperTracks.contains(activePaperTrack)) {
+			activePaperTrack = paperTracks.isEmpty() ? null : paperTracks.get(0);
+		}
+		if (activePaperTrack != null) {
+			activePaperTrack.setPaperId();
+		}
+		evictIfNeeded(null);
+		return summary;
+	}
+
+	/**
+	 * Opens a directory store and adds its tracks without reading their papers. Only the
+	 * manifest is read, and the papers of a track are read the first time it is made active
+	 * or used. Tracks with the name of a track already loaded are skipped, and the active
+	 * track does not change
+	 * @param directory the directory of the store, created if it does not exist
+	 * @throws IllegalArgumentException if the store cannot be opened
+	 */
+	public synchronized void openStore(String directory) {
+		TrackStore opened = new TrackStore(Paths.get(directory));
+		ArrayList<PaperTrack> tracks = opened.open();
+		store = opened;
+		for (PaperTrack track : tracks) {
+			if (findTrack(track.getTrackName()) == null) {
+				addTrack(track);
+			}
+		}
+	}
+
+	/**
+	 * Saves every PaperTrack to the directory store that was opened, rewriting only the
+	 * files of tracks that changed
+	 * @return the number of track files written
+	 * @throws IllegalArgumentException if no store is open or a file cannot be written
+	 */
+	public synchronized int saveToStore() {
+		if (store == null) {
+			throw new IllegalArgumentException("Unable to save file.");
+		}
+		return store.save(new ArrayList<PaperTrack>(paperTracks));
+	}
+
 	/**
 	 * Saves all PaperTracks to a file
 	 * @param fileName the file to save PaperTracks to
 	 * @throws IllegalArgumentException if no track is active
 	 */
-	public void savePaperTracksToFile(String fileName) {
-	if (activePaperTrack == null) {
-		throw new IllegalArgumentException("Unable to save file.");
+	public synchronized void savePaperTracksToFile(String fileName) {
+		saveTracks(new TextTrackStorage(fileName));
+	}
+
+	/**
+	 * Saves all PaperTracks to a storage, replacing what it stored. While changes are saved
+	 * in the background the save goes through the persister, so it never writes at the same
+	 * time as a background save, which may be writing the same file
+	 * @param storage the storage to save PaperTracks to
+	 * @throws IllegalArgumentException if no track is active or the storage cannot be written
+	 */
+	public synchronized void saveTracks(TrackStorage storage) {
+		if (activePaperTrack == null) {
+			throw new IllegalArgumentException("Unable to save file.");
+		}
+		WriteBehindPersister running = persister;
+		if (running != null) {
+			running.saveAllTo(storage);
+		} else {
+			storage.saveAll(new ArrayList<PaperTrack>(paperTracks));
+		}
+	}
+
+	/**
+	 * Starts saving every PaperTrack to a storage in the background. Each change to a paper
+	 * or to the list of tracks is saved within the window, and the changes made during one
+	 * window are saved together, so running a command does not wait for the storage. A
+	 * persister that was already running is stopped first and its changes are saved
+	 * @param storage the storage to save PaperTracks to
+	 * @param windowMillis longest time a change waits to be saved, in milliseconds
+	 * @return the persister that saves the tracks
+	 * @throws IllegalArgumentException if the storage is null, the window is negative or
+	 * the changes of the previous persister cannot be saved
+	 */
+	public synchronized WriteBehindPersister startWriteBehind(TrackStorage storage, long windowMillis) {
+		WriteBehindPersister next = new WriteBehindPersister(storage, () -> new ArrayList<PaperTrack>(paperTracks),
+				windowMillis);
+		stopWriteBehind();
+		for (PaperTrack track : paperTracks) {
+			track.addListener(next);
+		}
+		next.start();
+		persister = next;
+		return next;
+	}
+
+	/**
+	 * Stops saving PaperTracks in the background and saves every change that is not saved yet.
+	 * Does nothing if no persister is running
+	 * @throws IllegalArgumentException if the unsaved changes cannot be saved
+	 */
+	public synchronized void stopWriteBehind() {
+		WriteBehindPersister stopping = persister;
+		if (stopping == null) {
+			return;
+		}
+		persister = null;
+		for (PaperTrack track : paperTracks) {
+			track.removeListener(stopping);
+		}
+		stopping.close();
+	}
+
+	/**
+	 * Returns the persister that saves the tracks in the background
+	 * @return the persister or null if changes are not saved in the background
+	 */
+	public WriteBehindPersister getWriteBehind() {
+		return persister;
+	}
+
+	/**
+	 * Starts recording the history of every PaperTrack, so the papers can be seen as they
+	 * were at an earlier time. Tracks added later are recorded from when they are added.
+	 * Histories already being recorded are kept
+	 * @param checkpointInterval number of events between checkpoints of each history
+	 * @throws IllegalArgumentException if the interval is less than one
+	 */
+	public synchronized void recordHistory(int checkpointInterval) {
+		if (checkpointInterval < 1) {
+			throw new IllegalArgumentException("Invalid information.");
+		}
+		historyInterval = checkpointInterval;
+		if (histories == null) {
+			Map<PaperTrack, PaperHistory> started = new ConcurrentHashMap<PaperTrack, PaperHistory>();
+			for (PaperTrack track : paperTracks) {
+				started.put(track, new PaperHistory(track, checkpointInterval, System::currentTimeMillis));
+			}
+			histories = started;
+		}
 	}
-	PaperTrackWriter.writePaperTracksToFile(fileName, paperTracks);
+
+	/**
+	 * Returns the history of a PaperTrack
+	 * @param paperTrackName the name of the track
+	 * @return the history, or null if there is no such track or histories are not recorded
+	 */
+	public PaperHistory getHistory(String paperTrackName) {
+		Map<PaperTrack, PaperHistory> recorded = histories;
+		PaperTrack track = findTrack(paperTrackName);
+		return recorded == null || track == null ? null : recorded.get(track);
+	}
+
+	/**
+	 * Returns the papers of every recorded PaperTrack as they were at a time
+	 * @param time the time in milliseconds
+	 * @return the papers of each track sorted by id, keyed by track name in track order,
+	 * empty if histories are not recorded
+	 */
+	public Map<String, List<PaperView>> getPapersAsOf(long time) {
+		Map<String, List<PaperView>> papers = new LinkedHashMap<String, List<PaperView>>();
+		Map<PaperTrack, PaperHistory> recorded = histories;
+		if (recorded == null) {
+			return papers;
+		}
+		for (PaperTrack track : paperTracks) {
+			PaperHistory history = recorded.get(track);
+			if (history != null) {
+				papers.put(track.getTrackName(), history.asOf(time));
+			}
+		}
+		return papers;
 	}
 
 	/**
@@ -84,7 +405,7 @@ public class WolfReview {
 	 * @param payRateExtraPages the payment rate for extra pages
 	 * @throws IllegalArgumentException if the name is invalid or already used
 	 */
-	public void addNewPaperTrack(String paperTrackName, int pageLimit, int payRateExtraPages) {
+	public synchronized void addNewPaperTrack(String paperTrackName, int pageLimit, int payRateExtraPages) {
 		if (paperTrackName == null || paperTrackName.isEmpty()) {
             throw new IllegalArgumentException("Paper Track cannot be created.");
         }
@@ -94,27 +415,176 @@ public class WolfReview {
             }
 		}
 		PaperTrack newPaperTracks = new PaperTrack(paperTrackName, pageLimit, payRateExtraPages);
-		paperTracks.add(newPaperTracks);
+		addTrack(newPaperTracks);
 		loadTrack(paperTrackName);
 
 	}
 
+	/**
+	 * Adds a track to the list of tracks and to the indexes that watch every track
+	 * @param track the track to add
+	 */
+	private void addTrack(PaperTrack track) {
+		paperTracks.add(track);
+		reviewerIndex.addTrack(track);
+		authorIndex.addTrack(track);
+		if (cache != null) {
+			cache.addTrack(track);
+		}
+		if (persister != null) {
+			track.addListener(persister);
+			persister.tracksChanged();
+		}
+		if (histories != null) {
+			histories.put(track, new PaperHistory(track, historyInterval, System::currentTimeMillis));
+		}
+	}
+
+	/**
+	 * Removes a track from the list of tracks and from the indexes that watch every track
+	 * @param track the track to remove
+	 */
+	private void removeTrack(PaperTrack track) {
+		paperTracks.remove(track);
+		reviewerIndex.removeTrack(track);
+		authorIndex.removeTrack(track);
+		if (cache != null) {
+			cache.removeTrack(track);
+		}
+		if (persister != null) {
+			track.removeListener(persister);
+			persister.tracksChanged();
+		}
+		undoHistory.removeTrack(track);
+		if (histories != null) {
+			PaperHistory history = histories.remove(track);
+			if (history != null) {
+				history.detach();
+			}
+		}
+	}
+
 	/**
 	 * Loads an existing PaperTrack and sets it as the active one
 	 * @param paperTrackName the name of the track to load
 	 * @throws IllegalArgumentException if the track name does not exist
 	 */
-	public void loadTrack(String paperTrackName) {
+	public synchronized void loadTrack(String paperTrackName) {
+		LoadTrackEvent event = new LoadTrackEvent();
+		event.begin();
+		event.track = paperTrackName;
 		for (PaperTrack track : paperTracks) {
 			if(track.getTrackName().equals(paperTrackName)) {
 				activePaperTrack = track;
 				activePaperTrack.setPaperId();
+				event.found = true;
+				event.papers = track.getSnapshot().size();
+				event.commit();
+				if (cache != null) {
+					cache.touch(track);
+					evictIfNeeded(track);
+				}
 				return;
 			}
 		}
+		event.commit();
 		throw new IllegalArgumentException("Paper Track not available."); 
 	}
 
+	/**
+	 * Returns the PaperTrack with the given name without making it active
+	 * @param paperTrackName the name of the track
+	 * @return the track or null if there is no track with the name
+	 */
+	public PaperTrack getPaperTrack(String paperTrackName) {
+		PaperTrack track = findTrack(paperTrackName);
+		TrackCache trackCache = cache;
+		if (track != null && trackCache != null) {
+			trackCache.touch(track);
+			evictIfNeeded(track);
+		}
+		return track;
+	}
+
+	/**
+	 * Returns every PaperTrack without reading any papers or counting any track as used, for
+	 * listings that only need the names, limits and counts of the tracks
+	 * @return the tracks in order
+	 */
+	public List<PaperTrack> peekPaperTracks() {
+		return new ArrayList<PaperTrack>(paperTracks);
+	}
+
+	/**
+	 * Finds the PaperTrack with the given name without counting it as used
+	 * @param paperTrackName the name of the track
+	 * @return the track or null if there is no track with the name
+	 */
+	private PaperTrack findTrack(String paperTrackName) {
+		for (PaperTrack track : paperTracks) {
+			if (track.getTrackName().equals(paperTrackName)) {
+				return track;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Limits the number of papers kept in memory. When more papers are loaded than the
+	 * limit, the least recently used tracks other than the active track are written back to
+	 * the open store if they changed and their papers are dropped. An evicted track stays
+	 * in the list of tracks and its papers are read again the next time it is made active
+	 * or used. The reviewer and author indexes keep the papers of evicted tracks
+	 * @param maxPapers the largest number of papers to keep in memory
+	 * @throws IllegalArgumentException if no store is open or the limit is less than one
+	 */
+	public synchronized void setTrackCacheLimit(int maxPapers) {
+		if (store == null) {
+			throw new IllegalArgumentException("Invalid information.");
+		}
+		TrackCache next = new TrackCache(maxPapers);
+		if (cache != null) {
+			for (PaperTrack track : paperTracks) {
+				cache.removeTrack(track);
+			}
+		}
+		for (PaperTrack track : paperTracks) {
+			next.addTrack(track);
+		}
+		cache = next;
+		evictIfNeeded(null);
+	}
+
+	/**
+	 * Returns the cache that limits the number of papers in memory
+	 * @return the cache or null if there is no limit
+	 */
+	public TrackCache getTrackCache() {
+		return cache;
+	}
+
+	/**
+	 * Evicts the least recently used tracks while more papers are in memory than the limit.
+	 * A track that cannot be written back stays in memory
+	 * @param keep a track that must stay in memory besides the active track, may be null
+	 */
+	private void evictIfNeeded(PaperTrack keep) {
+		TrackCache trackCache = cache;
+		TrackStore trackStore = store;
+		if (trackCache == null || trackStore == null) {
+			return;
+		}
+		for (PaperTrack victim : trackCache.victims(activePaperTrack, keep)) {
+			try {
+				if (trackStore.evict(victim)) {
+					trackCache.evicted(victim);
+				}
+			} catch (IllegalArgumentException e) {
+				// the track stays in memory and is tried again on the next eviction
+			}
+		}
+	}
+
 	/**
 	 * Returns the name of the currently active PaperTrack
 	 * @return the active name of PaperTrack
@@ -126,6 +596,18 @@ public class WolfReview {
 		return activePaperTrack.getTrackName();
 	}	
 
+	/**
+	 * Returns the latest snapshot of the active PaperTrack, which can be read without locking
+	 * @return the snapshot of the active PaperTrack or null if nothing is active
+	 */
+	public TrackSnapshot getActiveTrackSnapshot() {
+		PaperTrack track = activePaperTrack;
+		if (track == null) {
+			return null;
+		}
+		return track.getSnapshot();
+	}
+
 	/**
 	 * Returns the currently active PaperTrack object
 	 * @return the active PaperTrack or null if nothing is active
@@ -142,9 +624,10 @@ public class WolfReview {
 	 * @return a String array of PaperTrack names
 	 */
 	public String[] getPaperTrackList() {
-		String[] namesList = new String [paperTracks.size()];
-		for (int i = 0; i < paperTracks.size(); i++) {
-			namesList[i] = paperTracks.get(i).getTrackName();
+		List<PaperTrack> tracks = new ArrayList<PaperTrack>(paperTracks);
+		String[] namesList = new String [tracks.size()];
+		for (int i = 0; i < tracks.size(); i++) {
+			namesList[i] = tracks.get(i).getTrackName();
 		}
 		return namesList;
 	}
@@ -154,11 +637,12 @@ public class WolfReview {
 	 * @param authorNames the names of the authors for the new Paper
 	 */
 	public void addPaperToPaperTrack(String authorNames) {
-		if (activePaperTrack != null) {
-			activePaperTrack.addPaper(authorNames);
+		PaperTrack track = activePaperTrack;
+		if (track != null) {
+			PaperView[] change = new PaperView[2];
+			track.addPaper(authorNames, change);
+			undoHistory.record(track, null, change[1]);
 		}
-		
-		
 	}
 
 	/**
@@ -167,10 +651,58 @@ public class WolfReview {
 	 * @param c the command to execute on the paper
 	 */
 	public void executeCommand(int id, Command c) {
-		if (activePaperTrack != null) {
-			activePaperTrack.executeCommand(id, c);
+		PaperTrack track = activePaperTrack;
+		if (track != null) {
+			PaperView[] change = new PaperView[2];
+			track.executeCommand(id, c, change);
+			if (change[0] != null) {
+				undoHistory.record(track, change[0], change[1]);
+			}
 		}
-		
+	}
+
+	/**
+	 * Runs a command on a Paper in the active PaperTrack, reporting a command that does not
+	 * apply with a result code instead of an exception
+	 * @param id the id of the Paper
+	 * @param value the command value
+	 * @param information the command information, may be null
+	 * @return the result of the command, NOT_FOUND if there is no active track or no paper with the id
+	 */
+	public CommandResult tryExecuteCommand(int id, CommandValue value, String information) {
+		PaperTrack track = activePaperTrack;
+		if (track == null) {
+			return CommandResult.NOT_FOUND;
+		}
+		PaperView[] change = new PaperView[2];
+		CommandResult result = track.tryExecuteCommand(id, value, information, change);
+		if (result == CommandResult.APPLIED && change[0] != null) {
+			undoHistory.record(track, change[0], change[1]);
+		}
+		return result;
+	}
+
+	/**
+	 * Runs a command on a Paper in the active PaperTrack only if the paper is still at the
+	 * version the caller read, so a change made by someone else since is never overwritten
+	 * @param id the id of the Paper
+	 * @param expectedVersion the version of the paper the caller read
+	 * @param value the command value
+	 * @param information the command information, may be null
+	 * @return CONFLICT if the paper changed since the version, NOT_FOUND if there is no
+	 * active track or no paper with the id, otherwise the result of the command
+	 */
+	public CommandResult tryExecuteCommand(int id, long expectedVersion, CommandValue value, String information) {
+		PaperTrack track = activePaperTrack;
+		if (track == null) {
+			return CommandResult.NOT_FOUND;
+		}
+		PaperView[] change = new PaperView[2];
+		CommandResult result = track.tryExecuteCommand(id, expectedVersion, value, information, change);
+		if (result == CommandResult.APPLIED && change[0] != null) {
+			undoHistory.record(track, change[0], change[1]);
+		}
+		return result;
 	}
 
 	/**
@@ -178,26 +710,62 @@ public class WolfReview {
 	 * @param id the id of the Paper to delete
 	 */
 	public void deletePaperById(int id) {
-		if (activePaperTrack != null) {
-			activePaperTrack.deletePaperById(id);
+		PaperTrack track = activePaperTrack;
+		if (track != null) {
+			PaperView[] change = new PaperView[2];
+			track.deletePaperById(id, change);
+			if (change[0] != null) {
+				undoHistory.record(track, change[0], change[1]);
+			}
 		}
 	}
+
+	/**
+	 * Undoes the most recent command, added paper or deleted paper made through this
+	 * manager, in whichever track it was made
+	 * @return the id of the paper that was put back
+	 * @throws IllegalArgumentException if there is nothing to undo or the paper changed since
+	 */
+	public int undo() {
+		return undoHistory.undo();
+	}
+
+	/**
+	 * Applies the most recently undone change again
+	 * @return the id of the paper that was changed
+	 * @throws IllegalArgumentException if there is nothing to redo or the paper changed since
+	 */
+	public int redo() {
+		return undoHistory.redo();
+	}
+
+	/**
+	 * Returns the changes that can be undone and redone
+	 * @return the undo history
+	 */
+	public UndoHistory getUndoHistory() {
+		return undoHistory;
+	}
 	 
 	/**
-	 * Returns a 2D array of the papers data in the active track, filtered by a given state
+	 * Returns a 2D array of the papers data in the active track, filtered by a given state.
+	 * The array is built from one snapshot of the track so it is never torn by a change
 	 * @param stateName the name of the state to filter by
 	 * @return a 2D array of Paper data
 	 */
 	public String[][] getPapersAsArray(String stateName) {
-		if (activePaperTrack == null) {
+		PaperTrack track = activePaperTrack;
+		if (track == null) {
 			return null;
 		}
 		
-		List<Paper> papers = activePaperTrack.getPapers();
+		TrackSnapshot snapshot = track.getSnapshot();
+		boolean archived = stateName == null || "All".equals(stateName) || Paper.CLOSED_NAME.equals(stateName);
+		List<PaperView> papers = archived ? snapshot.getAllPapers() : snapshot.getPapers();
 		
-	    ArrayList<Paper> thePapers = new ArrayList<>();
+	    ArrayList<PaperView> thePapers = new ArrayList<>();
 	     
-	    for (Paper p : papers) {
+	    for (PaperView p : papers) {
 	    	if (p == null) {
 	    		
 	    		continue;
@@ -220,7 +788,7 @@ public class WolfReview {
 	    String[][] results = new String[thePapers.size()][4];
 	    
 	    for (int i = 0; i < thePapers.size(); i++) {
-	    	Paper paper = thePapers.get(i);
+	    	PaperView paper = thePapers.get(i);
 	    	results[i][0] = Integer.toString(paper.getId());
 	    	results[i][1] = paper.getState();
 	    	results[i][2] = paper.getAuthorNames();
@@ -231,7 +799,22 @@ public class WolfReview {
 	}
 
 	/**
-	 * Returns a paper by its id from the active PaperTrack
+	 * Runs a query over the papers in the active PaperTrack
+	 * @param query the query to run
+	 * @return the matching papers or null if no track is active
+	 * @throws IllegalArgumentException if the query is null
+	 */
+	public List<PaperView> queryPapers(PaperQuery query) {
+		PaperTrack track = activePaperTrack;
+		if (track == null) {
+			return null;
+		}
+		return track.query(query);
+	}
+
+	/**
+	 * Returns a copy of a paper by its id from the active PaperTrack, which does not change
+	 * when a command later changes the paper
 	 * @param id the id of the Paper
 	 * @return the Paper with the given id or null if it is not found
 	 */
@@ -242,6 +825,78 @@ public class WolfReview {
 		return activePaperTrack.getPaperById(id);
 	}
 
+	/**
+	 * Returns the index of the papers assigned to each reviewer across all tracks
+	 * @return the reviewer index
+	 */
+	public ReviewerIndex getReviewerIndex() {
+		return reviewerIndex;
+	}
+
+	/**
+	 * Returns the index of the author names of the papers across all tracks
+	 * @return the author index
+	 */
+	public AuthorIndex getAuthorIndex() {
+		return authorIndex;
+	}
+
+	/**
+	 * Moves the Closed papers of every PaperTrack whose papers are in memory to the off heap
+	 * archive of the track. Tracks that are not loaded are skipped rather than read
+	 * @return the number of papers archived
+	 */
+	public int archiveClosedPapers() {
+		int archived = 0;
+		for (PaperTrack track : paperTracks) {
+			if (track.isLoaded()) {
+				archived += track.archiveClosed();
+			}
+		}
+		return archived;
+	}
+
+	/**
+	 * Returns the counts of the papers of a PaperTrack by state, close reason, paper type and
+	 * recommendation without making the track active or counting it as used
+	 * @param paperTrackName the name of the track
+	 * @return the statistics or null if there is no track with the name
+	 */
+	public TrackStatistics getTrackStatistics(String paperTrackName) {
+		PaperTrack track = findTrack(paperTrackName);
+		if (track == null) {
+			return null;
+		}
+		return track.getStatistics();
+	}
+
+	/**
+	 * Returns the counts of the papers of every PaperTrack. The counts are kept by each track
+	 * as it changes, so this only does a small amount of work per track however many papers
+	 * there are. Tracks evicted to the store keep their counts, and only a track whose papers
+	 * have never been read has to read them
+	 * @return a map from track name to statistics, in the order of the tracks
+	 */
+	public Map<String, TrackStatistics> getStatisticsByTrack() {
+		Map<String, TrackStatistics> statistics = new LinkedHashMap<String, TrackStatistics>();
+		for (PaperTrack track : paperTracks) {
+			statistics.put(track.getTrackName(), track.getStatistics());
+		}
+		return statistics;
+	}
+
+	/**
+	 * Returns the counts of the papers across all PaperTracks
+	 * @return the combined statistics
+	 */
+	public TrackStatistics getStatistics() {
+		TrackStatistics total = TrackStatistics.EMPTY;
+		for (PaperTrack track : paperTracks) {
+			total = total.plus(track.getStatistics());
+		}
+		return total;
+	}
+
 	/**
 	 * Resets the manager by removing its singleton instance
 	 */
@@ -0,0 +1,54 @@
+package edu.ncsu.csc216.wolf_review.model.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event for executing a command on a paper
+ * @author Steven Saleeb
+ */
+@Name("edu.ncsu.csc216.wolf_review.Command")
+@Label("Paper Command")
+@Category("WolfReview")
+@Description("Executing a command on a paper of a PaperTrack")
+public class CommandEvent extends Event {
+
+	/** The outcome of a command that was applied */
+	public static final String APPLIED = "Applied";
+
+	/** The outcome of a command that was not valid for the paper's state */
+	public static final String REJECTED = "Rejected";
+
+	/** The outcome of a command for a paper that does not exist */
+	public static final String NOT_FOUND = "NotFound";
+
+	/** The outcome of a command for a paper that changed since the expected version */
+	public static final String CONFLICT = "Conflict";
+
+	/** The name of the track */
+	@Label("Track")
+	public String track;
+
+	/** The id of the paper */
+	@Label("Paper Id")
+	public int paperId;
+
+	/** The command value */
+	@Label("Command")
+	public String command;
+
+	/** The state before the command */
+	@Label("Old State")
+	public String oldState;
+
+	/** The state after the command */
+	@Label("New State")
+	public String newState;
+
+	/** The outcome of the command */
+	@Label("Outcome")
+	public String outcome;
+}
@@ -0,0 +1,95 @@
+package edu.ncsu.csc216.wolf_review.model.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A latency histogram with fixed bucket bounds. Recording a value only adds to
+ * existing counters, so it never allocates and is safe to call from many threads
+ * @author Steven Saleeb
+ */
+public class Histogram {
+
+	/** Upper bounds of the buckets in nanoseconds, the last bucket has no bound */
+	private final long[] bounds;
+
+	/** Number of values in each bucket, one more than the number of bounds */
+	private final AtomicLongArray counts;
+
+	/** Sum of every value recorded in nanoseconds */
+	private final LongAdder sum = new LongAdder();
+
+	/**
+	 * Creates a histogram with the given bucket bounds
+	 * @param boundsNanos the upper bound of each bucket in nanoseconds, in increasing order
+	 * @throws IllegalArgumentException if the bounds are not in increasing order
+	 */
+	public Histogram(long... boundsNanos) {
+		for (int i = 1; i < boundsNanos.length; i++) {
+			if (boundsNanos[i] <= boundsNanos[i - 1]) {
+				throw new IllegalArgumentException("Invalid histogram.");
+			}
+		}
+		this.bounds = boundsNanos.clone();
+		this.counts = new AtomicLongArray(bounds.length + 1);
+	}
+
+	/**
+	 * Records one value
+	 * @param nanos the value in nanoseconds
+	 */
+	public void record(long nanos) {
+		int i = 0;
+		while (i < bounds.length && nanos > bounds[i]) {
+			i++;
+		}
+		counts.incrementAndGet(i);
+		sum.add(nanos);
+	}
+
+	/**
+	 * Returns the number of buckets, including the last bucket that has no bound
+	 * @return the number of buckets
+	 */
+	public int getBucketCount() {
+		return counts.length();
+	}
+
+	/**
+	 * Returns the upper bound of a bucket
+	 * @param bucket the bucket
+	 * @return the bound in nanoseconds, or Long.MAX_VALUE for the last bucket
+	 */
+	public long getBound(int bucket) {
+		return bucket < bounds.length ? bounds[bucket] : Long.MAX_VALUE;
+	}
+
+	/**
+	 * Returns the number of values recorded in a bucket
+	 * @param bucket the bucket
+	 * @return the number of values
+	 */
+	public long getBucket(int bucket) {
+		return counts.get(bucket);
+	}
+
+	/**
+	 * Returns the number of values recorded
+	 * @return the number of values
+	 */
+	public long getCount() {
+		long total = 0;
+		for (int i = 0; i < counts.length(); i++) {
+			total += counts.get(i);
+		}
+		return total;
+	}
+
+	/**
+	 * Returns the sum of every value recorded
+	 * @return the sum in nanoseconds
+	 */
+	public long getSum() {
+		return sum.sum();
+	}
+}
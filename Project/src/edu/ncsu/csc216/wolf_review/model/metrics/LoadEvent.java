@@ -0,0 +1,40 @@
+package edu.ncsu.csc216.wolf_review.model.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event for reading a paper track file
+ * @author Steven Saleeb
+ */
+@Name("edu.ncsu.csc216.wolf_review.Load")
+@Label("Paper Track File Load")
+@Category({"WolfReview", "I/O"})
+@Description("Reading a paper track file into PaperTracks")
+public class LoadEvent extends Event {
+
+	/** The name of the file */
+	@Label("File")
+	public String file;
+
+	/** The size of the file */
+	@Label("Bytes")
+	@DataAmount
+	public long bytes;
+
+	/** Number of tracks loaded */
+	@Label("Tracks")
+	public int tracks;
+
+	/** Number of papers loaded */
+	@Label("Papers")
+	public int papers;
+
+	/** Number of paper lines that were not loaded */
+	@Label("Rejected Lines")
+	public int rejectedLines;
+}
@@ -0,0 +1,30 @@
+package edu.ncsu.csc216.wolf_review.model.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event for making a PaperTrack the active track
+ * @author Steven Saleeb
+ */
+@Name("edu.ncsu.csc216.wolf_review.LoadTrack")
+@Label("Load Paper Track")
+@Category("WolfReview")
+@Description("Making a PaperTrack the active track")
+public class LoadTrackEvent extends Event {
+
+	/** The name of the track */
+	@Label("Track")
+	public String track;
+
+	/** Number of papers in the track */
+	@Label("Papers")
+	public int papers;
+
+	/** Whether the track was found */
+	@Label("Found")
+	public boolean found;
+}
@@ -0,0 +1,258 @@
+package edu.ncsu.csc216.wolf_review.model.metrics;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import edu.ncsu.csc216.wolf_review.model.command.Command.CommandValue;
+import edu.ncsu.csc216.wolf_review.model.io.ParseDiagnostics.Reason;
+import edu.ncsu.csc216.wolf_review.model.paper.Paper;
+
+/**
+ * The registry of counters and timers for the WolfReview system. Every counter is created
+ * up front and indexed by command, state or parse error reason, so recording only adds to
+ * an existing counter and never allocates, which keeps it cheap enough to leave on in
+ * production. The values are read by a MetricsExporter when they are exported.
+ * Only one registry exists throughout the program
+ * @author Steven Saleeb
+ */
+public class Metrics {
+
+	/** The names of the paper states, in the order used by the state counters */
+	public static final String[] STATE_NAMES = {Paper.SUBMITTED_NAME, Paper.REVIEWING_NAME, Paper.REVISING_NAME,
+		Paper.REGISTERING_NAME, Paper.CLOSED_NAME};
+
+	/** Bucket bounds for load and save latency, from one millisecond to ten seconds */
+	private static final long[] LATENCY_BOUNDS = {
+		TimeUnit.MILLISECONDS.toNanos(1), TimeUnit.MILLISECONDS.toNanos(5), TimeUnit.MILLISECONDS.toNanos(10),
+		TimeUnit.MILLISECONDS.toNanos(50), TimeUnit.MILLISECONDS.toNanos(100), TimeUnit.MILLISECONDS.toNanos(500),
+		TimeUnit.SECONDS.toNanos(1), TimeUnit.SECONDS.toNanos(5), TimeUnit.SECONDS.toNanos(10)};
+
+	/** The single instance of Metrics */
+	private static final Metrics INSTANCE = new Metrics();
+
+	/** Commands applied, indexed by command ordinal */
+	private final LongAdder[] commands = newCounters(CommandValue.values().length);
+
+	/** Commands rejected as invalid for the state, indexed by state */
+	private final LongAdder[] rejected = newCounters(STATE_NAMES.length);
+
+	/** Time taken to load paper track files */
+	private final Histogram loadLatency = new Histogram(LATENCY_BOUNDS);
+
+	/** Time taken to save paper track files */
+	private final Histogram saveLatency = new Histogram(LATENCY_BOUNDS);
+
+	/** Lines that could not be parsed, indexed by reason ordinal */
+	private final LongAdder[] parseErrors = newCounters(Reason.values().length);
+
+	/** Values that are read when exported, keyed by metric name */
+	private final ConcurrentHashMap<String, Gauge> gauges = new ConcurrentHashMap<String, Gauge>();
+
+	/**
+	 * Private constructor to prevent multiple instances from being created.
+	 */
+	private Metrics() {
+	}
+
+	/**
+	 * Returns the instance of Metrics
+	 * @return the single instance of Metrics
+	 */
+	public static Metrics getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Records a command that was applied to a paper
+	 * @param command the command value
+	 */
+	public void recordCommand(CommandValue command) {
+		commands[command.ordinal()].increment();
+	}
+
+	/**
+	 * Records a command that was rejected because it is not valid for the paper's state
+	 * @param state the name of the paper's state
+	 */
+	public void recordRejected(String state) {
+		int i = stateIndex(state);
+		if (i >= 0) {
+			rejected[i].increment();
+		}
+	}
+
+	/**
+	 * Records how long it took to load a file
+	 * @param nanos the time in nanoseconds
+	 */
+	public void recordLoad(long nanos) {
+		loadLatency.record(nanos);
+	}
+
+	/**
+	 * Records how long it took to save a file
+	 * @param nanos the time in nanoseconds
+	 */
+	public void recordSave(long nanos) {
+		saveLatency.record(nanos);
+	}
+
+	/**
+	 * Records a line of a file that could not be parsed
+	 * @param reason why the line was rejected
+	 */
+	public void recordParseError(Reason reason) {
+		parseErrors[reason.ordinal()].increment();
+	}
+
+	/**
+	 * Registers a value that is read each time metrics are exported, replacing any
+	 * value registered under the same name
+	 * @param name the metric name
+	 * @param label the name of the label that tells the values apart
+	 * @param values supplies the current value for each label value
+	 */
+	public void registerGauge(String name, String label, Supplier<Map<String, Long>> values) {
+		gauges.put(name, new Gauge(label, values));
+	}
+
+	/**
+	 * Exports the current values with the given exporter
+	 * @param exporter the exporter to use
+	 * @throws IOException if the exporter cannot write the values
+	 */
+	public void exportTo(MetricsExporter exporter) throws IOException {
+		exporter.export(this);
+	}
+
+	/**
+	 * Returns the number of times a command was applied
+	 * @param command the command value
+	 * @return the number of times
+	 */
+	public long getCommandCount(CommandValue command) {
+		return commands[command.ordinal()].sum();
+	}
+
+	/**
+	 * Returns the number of commands rejected in a state
+	 * @param state the name of the state
+	 * @return the number of rejected commands
+	 */
+	public long getRejectedCount(String state) {
+		int i = stateIndex(state);
+		return i < 0 ? 0 : rejected[i].sum();
+	}
+
+	/**
+	 * Returns the load latency histogram
+	 * @return the histogram
+	 */
+	public Histogram getLoadLatency() {
+		return loadLatency;
+	}
+
+	/**
+	 * Returns the save latency histogram
+	 * @return the histogram
+	 */
+	public Histogram getSaveLatency() {
+		return saveLatency;
+	}
+
+	/**
+	 * Returns the number of lines that could not be parsed for a reason
+	 * @param reason why the lines were rejected
+	 * @return the number of lines
+	 */
+	public long getParseErrorCount(Reason reason) {
+		return parseErrors[reason.ordinal()].sum();
+	}
+
+	/**
+	 * Returns the current values of every registered gauge
+	 * @return a map from metric name to the value for each label value
+	 */
+	public Map<String, Map<String, Long>> getGaugeValues() {
+		Map<String, Map<String, Long>> result = new LinkedHashMap<String, Map<String, Long>>();
+		for (Map.Entry<String, Gauge> entry : gauges.entrySet()) {
+			result.put(entry.getKey(), entry.getValue().values.get());
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the label name of a registered gauge
+	 * @param name the metric name
+	 * @return the label name or null if there is no gauge with the name
+	 */
+	public String getGaugeLabel(String name) {
+		Gauge gauge = gauges.get(name);
+		return gauge == null ? null : gauge.label;
+	}
+
+	/**
+	 * Returns the position of a state name in STATE_NAMES
+	 * @param state the state name
+	 * @return the position or -1 if it is not a state name
+	 */
+	private static int stateIndex(String state) {
+		if (state == null) {
+			return -1;
+		}
+		switch (state) {
+		case Paper.SUBMITTED_NAME:
+			return 0;
+		case Paper.REVIEWING_NAME:
+			return 1;
+		case Paper.REVISING_NAME:
+			return 2;
+		case Paper.REGISTERING_NAME:
+			return 3;
+		case Paper.CLOSED_NAME:
+			return 4;
+		default:
+			return -1;
+		}
+	}
+
+	/**
+	 * Creates an array of counters
+	 * @param size the number of counters
+	 * @return the counters
+	 */
+	private static LongAdder[] newCounters(int size) {
+		LongAdder[] counters = new LongAdder[size];
+		for (int i = 0; i < size; i++) {
+			counters[i] = new LongAdder();
+		}
+		return counters;
+	}
+
+	/**
+	 * A value read when metrics are exported
+	 */
+	private static class Gauge {
+
+		/** The name of the label that tells the values apart */
+		private final String label;
+
+		/** Supplies the current value for each label value */
+		private final Supplier<Map<String, Long>> values;
+
+		/**
+		 * Creates a gauge
+		 * @param label the label name
+		 * @param values supplies the values
+		 */
+		Gauge(String label, Supplier<Map<String, Long>> values) {
+			this.label = label;
+			this.values = values;
+		}
+	}
+}
@@ -0,0 +1,19 @@
+package edu.ncsu.csc216.wolf_review.model.metrics;
+
+import java.io.IOException;
+
+/**
+ * Sends the current values of a Metrics registry somewhere, such as a file or a
+ * monitoring system. Exporters are only called when metrics are exported, never
+ * while they are recorded
+ * @author Steven Saleeb
+ */
+public interface MetricsExporter {
+
+	/**
+	 * Exports the current values of the registry
+	 * @param metrics the registry to export
+	 * @throws IOException if the values cannot be written
+	 */
+	void export(Metrics metrics) throws IOException;
+}
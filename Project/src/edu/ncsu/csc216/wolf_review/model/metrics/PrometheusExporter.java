@@ -0,0 +1,111 @@
+package edu.ncsu.csc216.wolf_review.model.metrics;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+
+import edu.ncsu.csc216.wolf_review.model.command.Command.CommandValue;
+import edu.ncsu.csc216.wolf_review.model.io.ParseDiagnostics.Reason;
+
+/**
+ * Exports metrics in the Prometheus text format to a file. The file is written to a
+ * temporary file first and then moved into place, so a scraper never reads half a file
+ * @author Steven Saleeb
+ */
+public class PrometheusExporter implements MetricsExporter {
+
+	/** The file the metrics are written to */
+	private final Path file;
+
+	/**
+	 * Creates an exporter that writes to the given file
+	 * @param file the file to write
+	 */
+	public PrometheusExporter(Path file) {
+		this.file = file;
+	}
+
+	/**
+	 * Writes the metrics to the file
+	 * @param metrics the registry to export
+	 * @throws IOException if the file cannot be written
+	 */
+	@Override
+	public void export(Metrics metrics) throws IOException {
+		Path parent = file.toAbsolutePath().getParent();
+		Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+		try {
+			Files.write(temp, format(metrics).getBytes(StandardCharsets.UTF_8));
+			Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			Files.deleteIfExists(temp);
+		}
+	}
+
+	/**
+	 * Returns the metrics in the Prometheus text format
+	 * @param metrics the registry to format
+	 * @return the text
+	 */
+	public static String format(Metrics metrics) {
+		StringBuilder sb = new StringBuilder();
+		sb.append("# TYPE wolfreview_commands_total counter\n");
+		for (CommandValue command : CommandValue.values()) {
+			sample(sb, "wolfreview_commands_total", "command", command.name(), metrics.getCommandCount(command));
+		}
+		sb.append("# TYPE wolfreview_rejected_transitions_total counter\n");
+		for (String state : Metrics.STATE_NAMES) {
+			sample(sb, "wolfreview_rejected_transitions_total", "state", state, metrics.getRejectedCount(state));
+		}
+		histogram(sb, "wolfreview_load_seconds", metrics.getLoadLatency());
+		histogram(sb, "wolfreview_save_seconds", metrics.getSaveLatency());
+		sb.append("# TYPE wolfreview_parse_errors_total counter\n");
+		for (Reason reason : Reason.values()) {
+			sample(sb, "wolfreview_parse_errors_total", "reason", reason.name(), metrics.getParseErrorCount(reason));
+		}
+		for (Map.Entry<String, Map<String, Long>> gauge : metrics.getGaugeValues().entrySet()) {
+			String label = metrics.getGaugeLabel(gauge.getKey());
+			sb.append("# TYPE ").append(gauge.getKey()).append(" gauge\n");
+			for (Map.Entry<String, Long> entry : gauge.getValue().entrySet()) {
+				sample(sb, gauge.getKey(), label, entry.getKey(), entry.getValue());
+			}
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Appends the lines of a histogram
+	 * @param sb the text to append to
+	 * @param name the metric name
+	 * @param histogram the histogram
+	 */
+	private static void histogram(StringBuilder sb, String name, Histogram histogram) {
+		sb.append("# TYPE ").append(name).append(" histogram\n");
+		long cumulative = 0;
+		for (int i = 0; i < histogram.getBucketCount(); i++) {
+			cumulative += histogram.getBucket(i);
+			long bound = histogram.getBound(i);
+			String le = bound == Long.MAX_VALUE ? "+Inf" : Double.toString(bound / 1e9);
+			sample(sb, name + "_bucket", "le", le, cumulative);
+		}
+		sb.append(name).append("_sum ").append(histogram.getSum() / 1e9).append('\n');
+		sb.append(name).append("_count ").append(cumulative).append('\n');
+	}
+
+	/**
+	 * Appends one labelled sample
+	 * @param sb the text to append to
+	 * @param name the metric name
+	 * @param label the label name
+	 * @param value the label value
+	 * @param sample the sample value
+	 */
+	private static void sample(StringBuilder sb, String name, String label, String value, long sample) {
+		sb.append(name).append('{').append(label).append("=\"")
+				.append(value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n"))
+				.append("\"} ").append(sample).append('\n');
+	}
+}
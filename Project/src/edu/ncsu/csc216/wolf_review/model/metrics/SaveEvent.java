@@ -0,0 +1,30 @@
+package edu.ncsu.csc216.wolf_review.model.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event for writing a paper track file
+ * @author Steven Saleeb
+ */
+@Name("edu.ncsu.csc216.wolf_review.Save")
+@Label("Paper Track File Save")
+@Category({"WolfReview", "I/O"})
+@Description("Writing PaperTracks to a paper track file")
+public class SaveEvent extends Event {
+
+	/** The name of the file */
+	@Label("File")
+	public String file;
+
+	/** Number of tracks written */
+	@Label("Tracks")
+	public int tracks;
+
+	/** Number of papers written */
+	@Label("Papers")
+	public int papers;
+}
@@ -1,6 +1,8 @@
 package edu.ncsu.csc216.wolf_review.model.paper;
 
 import edu.ncsu.csc216.wolf_review.model.command.Command;
+import edu.ncsu.csc216.wolf_review.model.command.Command.CommandValue;
+import edu.ncsu.csc216.wolf_review.model.command.CommandResult;
 
 /**
  * This class is responsible to keep track of all the information that is related to the paper 
@@ -29,6 +31,9 @@ import edu.ncsu.csc216.wolf_review.model.command.Command;
   
   /** A note for the paper */
   private String note;
+
+  /** Number of times the paper has changed, so a change made by someone else can be detected */
+  private long version;
   
   /** Counter for papers */
   private static int counter = 0;
@@ -84,8 +89,8 @@ import edu.ncsu.csc216.wolf_review.model.command.Command;
   /** It is the author name when the actual author name is hidden  */
   public static final String ANONYMOUS = "anonymous";
   
-  /** Temporary name for the author*/
-  private static final String TEMP_AUTHOR_NAMES = "C. Ross; M. Mendez";
+  /** Temporary name for the author, saved in place of the real names of a paper that is read while anonymous */
+  public static final String TEMP_AUTHOR_NAMES = "C. Ross; M. Mendez";
  
 
   /** Paper types (Abstract and full paper) */ 
@@ -278,7 +283,75 @@ import edu.ncsu.csc216.wolf_review.model.command.Command;
     	
     }
 
-    
+
+    /**
+     * Creates an empty paper for restore to fill in
+     */
+    private Paper() {
+    	// fields are set by restore
+    }
+
+    /**
+     * Creates a paper with full details without the consistency checks of the full constructor.
+     * This is only for data that was checked when it was written and has been verified since,
+     * such as a checksummed file written by the PaperTrackWriter. The result is the same paper
+     * the full constructor would create from the same values, so only the state and paper type
+     * are still checked, as the paper cannot be built without them
+     * @param id the paper id
+     * @param state the state of the paper
+     * @param authorNames the names of the authors
+     * @param paperType the paper type
+     * @param processed the processed status
+     * @param reviewer the reviewer assigned to the paper
+     * @param note the note of the paper
+     * @return the paper
+     * @throws IllegalArgumentException if the state or paper type is not known
+     */
+    public static Paper restore(int id, String state, String authorNames, String paperType, boolean processed,
+    		String reviewer, String note) {
+    	Paper paper = new Paper();
+    	paper.setState(state);
+    	paper.setPaperType(paperType);
+    	paper.processed = processed;
+    	paper.authorNames = authorNames;
+    	paper.setReviewer(reviewer);
+    	paper.note = note == null ? "" : note;
+    	if (processed || !CLOSED_NAME.equals(state) && !REGISTERING_NAME.equals(state)) {
+    		paper.tempAuthorNames = TEMP_AUTHOR_NAMES;
+    	}
+    	if (id >= counter) {
+    		setCounter(id + 1);
+    	}
+    	paper.paperId = id;
+    	return paper;
+    }
+
+    /**
+     * Makes a paper that is the same as a view in every field, including its saved author
+     * names and version, without checking it or changing the paper counter, as the paper
+     * already has its id. A track runs a command on a paper made this way and publishes the
+     * result, so a paper a reader was given never changes under it
+     * @param view the view to copy
+     * @return the paper
+     * @throws IllegalArgumentException if the view is null
+     */
+    public static Paper of(PaperView view) {
+    	if (view == null) {
+    		throw new IllegalArgumentException("Paper cannot be null.");
+    	}
+    	Paper paper = new Paper();
+    	paper.setState(view.getState());
+    	paper.setPaperType(view.getPaperType());
+    	paper.processed = view.isProcessed();
+    	paper.authorNames = view.getAuthorNames();
+    	paper.tempAuthorNames = view.getSavedAuthorNames();
+    	paper.setReviewer(view.getReviewer());
+    	paper.note = view.getNote();
+    	paper.paperId = view.getId();
+    	paper.version = view.getVersion();
+    	return paper;
+    }
+
     /**
      * Sets the unique id number of the paper
      * @param id the id of the paper
@@ -503,6 +576,27 @@ import edu.ncsu.csc216.wolf_review.model.command.Command;
   }
  
 
+  /**
+   * Returns the version of the paper, which goes up by one every time a command changes it
+   * @return the version, 0 for a paper that has not changed since it was made or read
+   */
+  public long getVersion() {
+	  return version;
+  }
+
+  /**
+   * Sets the version of the paper, used when the paper replaces an earlier copy of itself
+   * so its version keeps going up
+   * @param version the version
+   * @throws IllegalArgumentException if the version is negative
+   */
+  public void setVersion(long version) {
+	  if (version < 0) {
+		  throw new IllegalArgumentException("Invalid information.");
+	  }
+	  this.version = version;
+  }
+
   /**
    * Increments the paper counter
    */
@@ -537,6 +631,47 @@ import edu.ncsu.csc216.wolf_review.model.command.Command;
 	        throw new IllegalArgumentException("Command cannot be null.");
 	    }
 	    currentState.updateState(c);
+	    version++;
+  }
+
+  /**
+   * Checks whether a command would be applied by update without running it or throwing
+   * @param c the command to check
+   * @return true if the command is valid for the paper's current state
+   */
+  public boolean canExecute(Command c) {
+	  return c != null && currentState.canUpdate(c.getCommand(), c.getCommandInformation());
+  }
+
+  /**
+   * Checks whether a command with the given information would be applied by update,
+   * without creating the Command or throwing
+   * @param command the command value
+   * @param commandInformation the command information
+   * @return true if the information is valid for the command and the command is valid for the paper's current state
+   */
+  public boolean canExecute(CommandValue command, String commandInformation) {
+	  return Command.isValid(command, commandInformation) && currentState.canUpdate(command, commandInformation);
+  }
+
+  /**
+   * Runs a command on the paper following the same rules as update, but reports a command
+   * that does not apply with a result code instead of an exception
+   * @param command the command value
+   * @param commandInformation the command information
+   * @return APPLIED if the paper was updated, INVALID_INFO if the information is not valid
+   * for the command, or INVALID_FOR_STATE if the command is not valid in the current state
+   */
+  public CommandResult execute(CommandValue command, String commandInformation) {
+	  if (!Command.isValid(command, commandInformation)) {
+		  return CommandResult.INVALID_INFO;
+	  }
+	  if (!currentState.canUpdate(command, commandInformation)) {
+		  return CommandResult.INVALID_FOR_STATE;
+	  }
+	  currentState.updateState(new Command(command, commandInformation));
+	  version++;
+	  return CommandResult.APPLIED;
   }
 
   
@@ -561,6 +696,17 @@ import edu.ncsu.csc216.wolf_review.model.command.Command;
 		 * for the given state.
 		 */
 		void updateState(Command command);
+
+		/**
+		 * Checks whether a command is a valid action for the given state without
+		 * changing the Paper.  The checks are the same ones updateState makes, and
+		 * updateState throws an UnsupportedOperationException exactly when this
+		 * returns false.
+		 * @param command the command value
+		 * @param information the command information, already valid for the command
+		 * @return true if updateState would apply the command
+		 */
+		boolean canUpdate(CommandValue command, String information);
 		
 		/**
 		 * Returns the name of the current state as a String.
@@ -575,26 +721,52 @@ import edu.ncsu.csc216.wolf_review.model.command.Command;
  */ 
   private class SubmittedState implements PaperState {
 
+	  /**
+	   * Checks whether a command can be applied to a paper in the Submitted state
+	   * @param command the command value
+	   * @param information the command information
+	   * @return true if the command is valid for this state
+	   */
+	  @Override
+	  public boolean canUpdate(CommandValue command, String information) {
+		  if (command == null) {
+			  return false;
+		  }
+		  switch (command) {
+		  case ASSIGN:
+			  return !isProcessed();
+		  case SUBMIT:
+			  return !(P_ABSTRACT.equals(getPaperType()) && !isProcessed())
+					  && !RECOMMEND_STRONG_REJECT.equals(note) && !RECOMMEND_WEAK_REJECT.equals(note);
+		  case ACCEPT:
+			  return !P_ABSTRACT.equals(getPaperType()) && processed;
+		  case CLOSE:
+			  if (WITHDRAW_CLOSED.equals(information)) {
+				  return true;
+			  }
+			  if (REJECT_CLOSED.equals(information)) {
+				  return processed;
+			  }
+			  return DUPLICATE_CLOSED.equals(information) && !processed;
+		  default:
+			  return false;
+		  }
+	  }
+
 	  /**
 	   * Handles what happens when a command is applied to a paper in the Submitted state
 	   * @param command the command to process
-	   * @throws IllegalArgumentException if the command is invalid for this state
+	   * @throws UnsupportedOperationException if the command is invalid for this state
 	   */
 	  @Override
 	  public void updateState(Command command) { 
 		  
-		  if (command == null || command.getCommand() == null) {
+		  if (command == null || !canUpdate(command.getCommand(), command.getCommandInformation())) {
 	            throw new UnsupportedOperationException("Invalid command.");
 	        }
 		  switch(command.getCommand()) {
 		  
 		  case ASSIGN: 
-			   
-			  if (isProcessed()) {
-				 throw new UnsupportedOperationException("Invalid command.");
-			  }
-			  
-			 
 			  setReviewer(command.getCommandInformation());
 				
 			  
@@ -609,15 +781,6 @@ import edu.ncsu.csc216.wolf_review.model.command.Command;
               break;
 			  
 		  case SUBMIT:
-			  
-			  if (P_ABSTRACT.equals(getPaperType()) && !isProcessed()) {
-				  throw new UnsupportedOperationException("Invalid command."); 
-			  }
-			  
-			  if (RECOMMEND_STRONG_REJECT.equals(note) || RECOMMEND_WEAK_REJECT.equals(note)) {
-				  throw new UnsupportedOperationException("Invalid command."); 
-			  }
-			  
 			  setState(SUBMITTED_NAME);
 			  setProcessed(false);
 			  setNote(null);
@@ -628,11 +791,6 @@ import edu.ncsu.csc216.wolf_review.model.command.Command;
               break;
               
 		  case ACCEPT: 
-			  
-			  if (P_ABSTRACT.equals(getPaperType()) || !processed) {
-                  throw new UnsupportedOperationException("Invalid command.");
-              }
-			  
               note = null;
               processed = true;
               
@@ -651,23 +809,6 @@ import edu.ncsu.csc216.wolf_review.model.command.Command;
 		  case CLOSE:
 			  String info = command.getCommandInformation();
 			  
-			  	if (info == null || info.trim().isEmpty() || (!WITHDRAW_CLOSED.equals(info) && !REJECT_CLOSED.equals(info) 
-			  			&& !DUPLICATE_CLOSED.equals(info))) {
-			  		throw new UnsupportedOperationException("Invalid command."); 
-			  }
-			  
-			  	if (REJECT_CLOSED.equals(info) && !processed) {
-			  		throw new UnsupportedOperationException("Invalid command."); 
-			  }
-			  	
-			  	if (!WITHDRAW_CLOSED.equals(info) && !REJECT_CLOSED.equals(info) && !DUPLICATE_CLOSED.equals(info)) {
-		                throw new UnsupportedOperationException("Invalid command.");
-		            }
-			  
-			  	if (DUPLICATE_CLOSED.equals(info) && processed) {
-			  		throw new UnsupportedOperationException("Invalid command."); 
-			  }
-			  
 			  	if (REJECT_CLOSED.equals(info)) {
 				   
 			  	setProcessed(true);
@@ -734,31 +875,19 @@ import edu.ncsu.csc216.wolf_review.model.command.Command;
 	  @Override
 	  public void updateState(Command command) { 
 		  
-		  if (command == null || command.getCommand() == null) {
+		  if (command == null || !canUpdate(command.getCommand(), command.getCommandInformation())) {
 	            throw new UnsupportedOperationException("Invalid command.");
 	        }
 		  
 		  switch (command.getCommand()) {
 		  
 		  case RECOMMEND: 
-			  
-			  String info = command.getCommandInformation();
-			  
-			  if (!RECOMMEND_STRONG_ACCEPT.equals(info) && !RECOMMEND_WEAK_ACCEPT.equals(info)
-                     && !RECOMMEND_WEAK_REJECT.equals(info) && !RECOMMEND_STRONG_REJECT.equals(info)) {
-				  		throw new UnsupportedOperationException("Invalid command.");
-			  }
-			  
-			  note = info; 
+			  note = command.getCommandInformation(); 
 			  setState(SUBMITTED_NAME);
 			  setProcessed(true);
 			  break;
 			  
 		  case PROPOSE: 
-			  
-				 if (P_ABSTRACT.equals(getPaperType())) {
-					 throw new UnsupportedOperationException("Invalid command.");
-				 }
 				 setProcessed(false);
 				 setAuthorNames(ANONYMOUS);
 				 setReviewer(null);
@@ -766,12 +895,6 @@ import edu.ncsu.csc216.wolf_review.model.command.Command;
 				 break;
 			 
 		  case CLOSE:
-			  
-			  String information = command.getCommandInformation();
-			  
-			  	if (!WITHDRAW_CLOSED.equals(information)) {
-				  throw new UnsupportedOperationException("Invalid command.");
-			  }
 			  setNote(WITHDRAW_CLOSED);
 			  setProcessed(false);
 			  
@@ -793,6 +916,30 @@ import edu.ncsu.csc216.wolf_review.model.command.Command;
 		  }
 	  }
 	  
+	  /**
+	   * Checks whether a command can be applied to a paper in the Reviewing state
+	   * @param command the command value
+	   * @param information the command information
+	   * @return true if the command is valid for this state
+	   */
+	  @Override
+	  public boolean canUpdate(CommandValue command, String information) {
+		  if (command == null) {
+			  return false;
+		  }
+		  switch (command) {
+		  case RECOMMEND:
+			  return RECOMMEND_STRONG_ACCEPT.equals(information) || RECOMMEND_WEAK_ACCEPT.equals(information)
+					  || RECOMMEND_WEAK_REJECT.equals(information) || RECOMMEND_STRONG_REJECT.equals(information);
+		  case PROPOSE:
+			  return !P_ABSTRACT.equals(getPaperType());
+		  case CLOSE:
+			  return WITHDRAW_CLOSED.equals(information);
+		  default:
+			  return false;
+		  }
+	  }
+
 	  /**
 	   * Returns the name of the state
 	   * @return Reviewing
@@ -816,6 +963,9 @@ import edu.ncsu.csc216.wolf_review.model.command.Command;
 	  @Override
 	  public void updateState(Command command) { 
 		  
+		  if (!canUpdate(command.getCommand(), command.getCommandInformation())) {
+			  throw new UnsupportedOperationException("Invalid command.");
+		  }
 		  switch (command.getCommand()) {
 
 		  case MODIFY:
@@ -823,11 +973,6 @@ import edu.ncsu.csc216.wolf_review.model.command.Command;
 			  break;
 			  
 		  case CLOSE:
-			  String information = command.getCommandInformation();
-			  
-			  if (!WITHDRAW_CLOSED.equals(information)) {
-				  throw new UnsupportedOperationException("Invalid command.");
-			  }
 			  setNote(WITHDRAW_CLOSED);
 			  if (tempAuthorNames != null && !tempAuthorNames.trim().isEmpty()) {
           	    
@@ -846,6 +991,18 @@ import edu.ncsu.csc216.wolf_review.model.command.Command;
 		 
 	  }
 	  
+	  /**
+	   * Checks whether a command can be applied to a paper in the Revising state
+	   * @param command the command value
+	   * @param information the command information
+	   * @return true if the command is valid for this state
+	   */
+	  @Override
+	  public boolean canUpdate(CommandValue command, String information) {
+		  return command == CommandValue.MODIFY
+				  || (command == CommandValue.CLOSE && WITHDRAW_CLOSED.equals(information));
+	  }
+
 	  /**
 	   * Returns the name of the state
 	   * @return Revising
@@ -869,7 +1026,7 @@ import edu.ncsu.csc216.wolf_review.model.command.Command;
 	  @Override
 	  public void updateState(Command command) { 
 		  
-		  if (command.getCommand() == Command.CommandValue.PROCESS && command.getCommandInformation().equals(ACCEPT_CLOSED)) {
+		  if (canUpdate(command.getCommand(), command.getCommandInformation())) {
 			  
 			  setNote(ACCEPT_CLOSED);
 			  setProcessed(true);
@@ -880,6 +1037,17 @@ import edu.ncsu.csc216.wolf_review.model.command.Command;
 			  	}
 		}
 	  
+	  /**
+	   * Checks whether a command can be applied to a paper in the Registering state
+	   * @param command the command value
+	   * @param information the command information
+	   * @return true if the command is valid for this state
+	   */
+	  @Override
+	  public boolean canUpdate(CommandValue command, String information) {
+		  return command == CommandValue.PROCESS && ACCEPT_CLOSED.equals(information);
+	  }
+
 	  /**
 	   * Returns the name of the state
 	   * @return Registering
@@ -906,6 +1074,17 @@ import edu.ncsu.csc216.wolf_review.model.command.Command;
 		  throw new UnsupportedOperationException("Invalid command.");
 	  }
 	  
+	  /**
+	   * Checks whether a command can be applied to a paper in the Closed state
+	   * @param command the command value
+	   * @param information the command information
+	   * @return false, since a closed paper takes no commands
+	   */
+	  @Override
+	  public boolean canUpdate(CommandValue command, String information) {
+		  return false;
+	  }
+
 	  /**
 	   * Returns the name of the state
 	   * @return Closed
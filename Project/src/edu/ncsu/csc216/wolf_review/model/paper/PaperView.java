@@ -0,0 +1,171 @@
+package edu.ncsu.csc216.wolf_review.model.paper;
+
+import java.util.Objects;
+
+/**
+ * An immutable copy of the information held by a Paper at one moment in time.
+ * Views are safe to share between threads and never change after they are created,
+ * so readers can hold on to them while the Paper they came from keeps being updated
+ * @author Steven Saleeb
+ */
+public final class PaperView {
+
+	/** The id of the paper */
+	private final int id;
+
+	/** The state name of the paper */
+	private final String state;
+
+	/** The author names of the paper */
+	private final String authorNames;
+
+	/** The saved author names of the paper */
+	private final String savedAuthorNames;
+
+	/** The paper type of the paper */
+	private final String paperType;
+
+	/** The processed status of the paper */
+	private final boolean processed;
+
+	/** The reviewer of the paper or an empty string */
+	private final String reviewer;
+
+	/** The note of the paper or an empty string */
+	private final String note;
+
+	/** The version of the paper when the view was made */
+	private final long version;
+
+	/**
+	 * Creates a view that copies the current information of the given paper
+	 * @param paper the paper to copy
+	 * @throws IllegalArgumentException if the paper is null
+	 */
+	public PaperView(Paper paper) {
+		if (paper == null) {
+			throw new IllegalArgumentException("Paper cannot be null.");
+		}
+		this.id = paper.getId();
+		this.state = paper.getState();
+		this.authorNames = paper.getAuthorNames();
+		this.savedAuthorNames = paper.getSavedAuthorNames();
+		this.paperType = paper.getPaperType();
+		this.processed = paper.isProcessed();
+		this.reviewer = paper.getReviewer();
+		this.note = paper.getNote();
+		this.version = paper.getVersion();
+	}
+
+	/**
+	 * Returns the paper id
+	 * @return the id of the paper
+	 */
+	public int getId() {
+		return id;
+	}
+
+	/**
+	 * Returns the state name
+	 * @return the state of the paper
+	 */
+	public String getState() {
+		return state;
+	}
+
+	/**
+	 * Returns the author names
+	 * @return the author names of the paper
+	 */
+	public String getAuthorNames() {
+		return authorNames;
+	}
+
+	/**
+	 * Returns the saved author names, which hold the real names while the paper is anonymous
+	 * @return the saved author names or null if there are none
+	 */
+	public String getSavedAuthorNames() {
+		return savedAuthorNames;
+	}
+
+	/**
+	 * Returns the paper type
+	 * @return the paper type
+	 */
+	public String getPaperType() {
+		return paperType;
+	}
+
+	/**
+	 * Returns whether the paper has been processed
+	 * @return the processed status
+	 */
+	public boolean isProcessed() {
+		return processed;
+	}
+
+	/**
+	 * Returns the reviewer
+	 * @return the reviewer or an empty string if there is none
+	 */
+	public String getReviewer() {
+		return reviewer;
+	}
+
+	/**
+	 * Returns the note
+	 * @return the note or an empty string if there is none
+	 */
+	public String getNote() {
+		return note;
+	}
+
+	/**
+	 * Returns the version of the paper when the view was made
+	 * @return the version
+	 */
+	public long getVersion() {
+		return version;
+	}
+
+	/**
+	 * Compares this view to another object, two views are equal when every field of the
+	 * paper matches. The version is not compared, so a paper read again from a file equals
+	 * the paper in memory when it holds the same information
+	 * @param obj the object to compare
+	 * @return true if the views hold the same information
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof PaperView)) {
+			return false;
+		}
+		PaperView other = (PaperView) obj;
+		return id == other.id && processed == other.processed && state.equals(other.state)
+				&& authorNames.equals(other.authorNames) && Objects.equals(savedAuthorNames, other.savedAuthorNames)
+				&& paperType.equals(other.paperType) && reviewer.equals(other.reviewer) && note.equals(other.note);
+	}
+
+	/**
+	 * Returns a hash code built from the id and state
+	 * @return the hash code
+	 */
+	@Override
+	public int hashCode() {
+		return 31 * id + state.hashCode();
+	}
+
+	/**
+	 * Returns a string representation of the paper in the same format as Paper
+	 * @return the paper as a comma separated line
+	 */
+	@Override
+	public String toString() {
+		return id + "," + state + "," + authorNames + "," + paperType + "," + processed + ","
+				+ reviewer + "," + note;
+	}
+}
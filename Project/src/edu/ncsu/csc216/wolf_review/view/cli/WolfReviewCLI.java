@@ -0,0 +1,265 @@
+package edu.ncsu.csc216.wolf_review.view.cli;
+
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+
+import edu.ncsu.csc216.wolf_review.model.command.Command.CommandValue;
+import edu.ncsu.csc216.wolf_review.model.io.ParseDiagnostics;
+import edu.ncsu.csc216.wolf_review.model.manager.WolfReview;
+
+/**
+ * Command line front end for the WolfReview system that runs without a display. It loads
+ * paper track files, applies a script of commands read one line at a time from a file or
+ * from standard input, and saves the result. Only the model classes are loaded, so it
+ * starts quickly and can run in containers that have no AWT or Swing support.
+ *
+ * Usage: WolfReviewCLI [-load file]... [-track name] [-script file|-] [-save file]
+ *
+ * Each script line is one of:
+ * <ul>
+ * <li>id COMMAND [information], for example "12 ASSIGN reviewer1"</li>
+ * <li>TRACK name, which makes the named track active</li>
+ * <li>NEWTRACK name,pageLimit,payRate, which adds a track and makes it active</li>
+ * <li>ADD authorNames, which adds a paper to the active track</li>
+ * <li>DELETE id, which deletes a paper from the active track</li>
+ * <li>LOAD file and SAVE file</li>
+ * <li>RELOAD file, which applies only the differences between the file and the loaded tracks</li>
+ * <li>PRINT [state], which prints the papers of the active track</li>
+ * </ul>
+ * Blank lines and lines that start with "#" are skipped. A line that fails is reported
+ * on the error stream with its line number and the script carries on. Lines of a file
+ * given to -load that cannot be loaded are reported on the error stream as well.
+ * @author Steven Saleeb
+ */
+public class WolfReviewCLI {
+
+	/** The model the commands are applied to */
+	private final WolfReview model;
+
+	/** Stream for normal output */
+	private final PrintStream out;
+
+	/** Stream for error messages */
+	private final PrintStream err;
+
+	/** Number of script lines applied */
+	private int applied;
+
+	/** Number of script lines rejected */
+	private int rejected;
+
+	/**
+	 * Creates a command line front end over the given model
+	 * @param model the model to apply commands to
+	 * @param out the stream for normal output
+	 * @param err the stream for error messages
+	 */
+	public WolfReviewCLI(WolfReview model, PrintStream out, PrintStream err) {
+		this.model = model;
+		this.out = out;
+		this.err = err;
+	}
+
+	/**
+	 * Runs the options given on the command line in order
+	 * @param args the command line options
+	 * @param in the stream to read the script from when the script is "-"
+	 * @return 0 if every option and script line succeeded, 1 if any line was rejected,
+	 * and 2 if the options were invalid or a file could not be used
+	 */
+	public int run(String[] args, InputStream in) {
+		for (int i = 0; i < args.length; i++) {
+			if (i + 1 >= args.length) {
+				err.println("Missing value for " + args[i] + ".");
+				return 2;
+			}
+			String value = args[++i];
+			try {
+				switch (args[i - 1]) {
+				case "-load":
+					load(value);
+					break;
+				case "-track":
+					model.loadTrack(value);
+					break;
+				case "-save":
+					model.savePaperTracksToFile(value);
+					break;
+				case "-script":
+					if ("-".equals(value)) {
+						runScript(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)));
+					} else {
+						try (BufferedReader reader = new BufferedReader(
+								new InputStreamReader(new FileInputStream(value), StandardCharsets.UTF_8))) {
+							runScript(reader);
+						}
+					}
+					break;
+				default:
+					err.println("Unknown option " + args[i - 1] + ".");
+					return 2;
+				}
+			} catch (IllegalArgumentException | IOException e) {
+				err.println(args[i - 1] + " " + value + ": " + e.getMessage());
+				return 2;
+			}
+		}
+		out.println(applied + " applied, " + rejected + " rejected");
+		return rejected == 0 ? 0 : 1;
+	}
+
+	/**
+	 * Loads a paper track file and reports every line that could not be loaded on the error stream
+	 * @param fileName the file to load
+	 * @throws IllegalArgumentException if the file cannot be loaded
+	 */
+	private void load(String fileName) {
+		ParseDiagnostics diagnostics = new ParseDiagnostics();
+		model.loadTracksFromFile(fileName, diagnostics);
+		for (ParseDiagnostics.Entry entry : diagnostics.getEntries()) {
+			err.println(fileName + ": " + entry);
+		}
+		if (diagnostics.isTruncated()) {
+			err.println(fileName + ": " + (diagnostics.getTotal() - diagnostics.getEntries().size())
+					+ " more lines not loaded");
+		}
+	}
+
+	/**
+	 * Applies every line of a script, reading one line at a time
+	 * @param reader the script to read
+	 * @throws IOException if the script cannot be read
+	 */
+	public void runScript(BufferedReader reader) throws IOException {
+		int lineNumber = 0;
+		String line;
+		while ((line = reader.readLine()) != null) {
+			lineNumber++;
+			line = line.trim();
+			if (line.isEmpty() || line.startsWith("#")) {
+				continue;
+			}
+			String rejection;
+			try {
+				rejection = runLine(line);
+			} catch (IllegalArgumentException | UnsupportedOperationException e) {
+				rejection = e.getMessage();
+			}
+			if (rejection == null) {
+				applied++;
+			} else {
+				rejected++;
+				err.println("line " + lineNumber + ": " + rejection + " [" + line + "]");
+			}
+		}
+	}
+
+	/**
+	 * Applies a single script line
+	 * @param line the line to apply, already trimmed
+	 * @return null if the line was applied, or why a paper command was rejected
+	 * @throws IllegalArgumentException if the line is not valid
+	 */
+	private String runLine(String line) {
+		int space = line.indexOf(' ');
+		String first = space < 0 ? line : line.substring(0, space);
+		String rest = space < 0 ? "" : line.substring(space + 1).trim();
+
+		switch (first.toUpperCase()) {
+		case "TRACK":
+			model.loadTrack(rest);
+			break;
+		case "NEWTRACK":
+			String[] parts = rest.split(",");
+			if (parts.length != 3) {
+				throw new IllegalArgumentException("Paper Track cannot be created.");
+			}
+			model.addNewPaperTrack(parts[0].trim(), Integer.parseInt(parts[1].trim()),
+					Integer.parseInt(parts[2].trim()));
+			break;
+		case "ADD":
+			requireActiveTrack();
+			model.addPaperToPaperTrack(rest);
+			break;
+		case "DELETE":
+			requireActiveTrack();
+			model.deletePaperById(Integer.parseInt(rest));
+			break;
+		case "LOAD":
+			model.loadTracksFromFile(rest);
+			break;
+		case "SAVE":
+			model.savePaperTracksToFile(rest);
+			break;
+		case "RELOAD":
+			out.println(model.reloadTracksFromFile(rest));
+			break;
+		case "PRINT":
+			requireActiveTrack();
+			for (String[] row : model.getPapersAsArray(rest.isEmpty() ? "All" : rest)) {
+				out.println(String.join(",", row));
+			}
+			break;
+		default:
+			return runCommand(first, rest);
+		}
+		return null;
+	}
+
+	/**
+	 * Applies a paper command line of the form "id COMMAND [information]". Paper commands
+	 * are the bulk of a replayed script, so a command that does not apply is reported with
+	 * its result code instead of an exception
+	 * @param idText the id of the paper
+	 * @param rest the command and its information
+	 * @return null if the command was applied, or why it was rejected
+	 * @throws IllegalArgumentException if the id or command name is not valid
+	 */
+	private String runCommand(String idText, String rest) {
+		requireActiveTrack();
+		int id = Integer.parseInt(idText);
+		int space = rest.indexOf(' ');
+		String name = space < 0 ? rest : rest.substring(0, space);
+		String information = space < 0 ? null : rest.substring(space + 1).trim();
+		CommandValue value;
+		try {
+			value = CommandValue.valueOf(name.toUpperCase());
+		} catch (IllegalArgumentException e) {
+			throw new IllegalArgumentException("Invalid command.");
+		}
+		switch (model.tryExecuteCommand(id, value, information)) {
+		case APPLIED:
+			return null;
+		case NOT_FOUND:
+			return "Paper " + id + " not available.";
+		case INVALID_INFO:
+			return "Invalid information.";
+		default:
+			return "Invalid command.";
+		}
+	}
+
+	/**
+	 * Checks that there is an active track
+	 * @throws IllegalArgumentException if no track is active
+	 */
+	private void requireActiveTrack() {
+		if (model.getActivePaperTrackName() == null) {
+			throw new IllegalArgumentException("No active paper track.");
+		}
+	}
+
+	/**
+	 * Starts the command line front end
+	 * @param args command line options
+	 */
+	public static void main(String[] args) {
+		WolfReviewCLI cli = new WolfReviewCLI(WolfReview.getInstance(), System.out, System.err);
+		System.exit(cli.run(args, System.in));
+	}
+}
@@ -0,0 +1,266 @@
+package edu.ncsu.csc216.wolf_review.view.http;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import edu.ncsu.csc216.wolf_review.model.manager.PaperTrack;
+import edu.ncsu.csc216.wolf_review.model.manager.TrackStatistics;
+import edu.ncsu.csc216.wolf_review.model.paper.PaperView;
+
+/**
+ * Writes model objects as JSON text and reads the flat JSON objects that clients send.
+ * Only the small part of JSON the server needs is supported: objects with string,
+ * number, boolean or null values
+ * @author Steven Saleeb
+ */
+final class Json {
+
+	/**
+	 * Prevents creating instances of this helper class
+	 */
+	private Json() {
+	}
+
+	/**
+	 * Returns a string as a quoted JSON string
+	 * @param value the string, may be null
+	 * @return the JSON text
+	 */
+	static String quote(String value) {
+		if (value == null) {
+			return "null";
+		}
+		StringBuilder sb = new StringBuilder(value.length() + 2);
+		sb.append('"');
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			switch (c) {
+			case '"':
+				sb.append("\\\"");
+				break;
+			case '\\':
+				sb.append("\\\\");
+				break;
+			case '\n':
+				sb.append("\\n");
+				break;
+			case '\r':
+				sb.append("\\r");
+				break;
+			case '\t':
+				sb.append("\\t");
+				break;
+			default:
+				if (c < 0x20) {
+					sb.append(String.format("\\u%04x", (int) c));
+				} else {
+					sb.append(c);
+				}
+			}
+		}
+		return sb.append('"').toString();
+	}
+
+	/**
+	 * Returns a paper as a JSON object
+	 * @param paper the paper
+	 * @return the JSON text
+	 */
+	static String paper(PaperView paper) {
+		return "{\"id\":" + paper.getId() + ",\"state\":" + quote(paper.getState())
+				+ ",\"authorNames\":" + quote(paper.getAuthorNames()) + ",\"paperType\":" + quote(paper.getPaperType())
+				+ ",\"processed\":" + paper.isProcessed() + ",\"reviewer\":" + quote(paper.getReviewer())
+				+ ",\"note\":" + quote(paper.getNote()) + ",\"version\":" + paper.getVersion() + "}";
+	}
+
+	/**
+	 * Returns a list of papers as a JSON array
+	 * @param papers the papers
+	 * @return the JSON text
+	 */
+	static String papers(List<PaperView> papers) {
+		StringBuilder sb = new StringBuilder("[");
+		for (int i = 0; i < papers.size(); i++) {
+			if (i > 0) {
+				sb.append(',');
+			}
+			sb.append(paper(papers.get(i)));
+		}
+		return sb.append(']').toString();
+	}
+
+	/**
+	 * Returns the information of a track as a JSON object, read without loading its papers.
+	 * The number of papers includes archived papers, and is null if the papers have never been read
+	 * @param track the track
+	 * @return the JSON text
+	 */
+	static String track(PaperTrack track) {
+		TrackStatistics statistics = track.peekStatistics();
+		return "{\"name\":" + quote(track.getTrackName()) + ",\"pageLimit\":" + track.getPageLimit()
+				+ ",\"payRateExtraPages\":" + track.getPayRateExtraPages() + ",\"papers\":"
+				+ (statistics == null ? "null" : String.valueOf(statistics.getTotal())) + ",\"version\":"
+				+ track.peekVersion() + "}";
+	}
+
+	/**
+	 * Returns an error message as a JSON object
+	 * @param message the message
+	 * @return the JSON text
+	 */
+	static String error(String message) {
+		return "{\"error\":" + quote(message) + "}";
+	}
+
+	/**
+	 * Reads a flat JSON object, nested objects and arrays are not supported
+	 * @param text the JSON text
+	 * @return the values of the object as strings, null values are kept as null
+	 * @throws IllegalArgumentException if the text is not a flat JSON object
+	 */
+	static Map<String, String> parseObject(String text) {
+		Map<String, String> values = new LinkedHashMap<String, String>();
+		int[] pos = {skipSpace(text, 0)};
+		expect(text, pos, '{');
+		if (peek(text, pos) == '}') {
+			pos[0]++;
+			return values;
+		}
+		while (true) {
+			String key = readString(text, pos);
+			expect(text, pos, ':');
+			values.put(key, readValue(text, pos));
+			char c = peek(text, pos);
+			pos[0]++;
+			if (c == '}') {
+				break;
+			}
+			if (c != ',') {
+				throw new IllegalArgumentException("Invalid JSON.");
+			}
+		}
+		if (skipSpace(text, pos[0]) != text.length()) {
+			throw new IllegalArgumentException("Invalid JSON.");
+		}
+		return values;
+	}
+
+	/**
+	 * Reads a string, number, boolean or null value
+	 * @param text the JSON text
+	 * @param pos the current position, moved past the value
+	 * @return the value as a string, or null for a JSON null
+	 */
+	private static String readValue(String text, int[] pos) {
+		char c = peek(text, pos);
+		if (c == '"') {
+			return readString(text, pos);
+		}
+		int start = pos[0];
+		while (pos[0] < text.length() && ",}".indexOf(text.charAt(pos[0])) < 0
+				&& !Character.isWhitespace(text.charAt(pos[0]))) {
+			pos[0]++;
+		}
+		String literal = text.substring(start, pos[0]);
+		if ("null".equals(literal)) {
+			return null;
+		}
+		if (!"true".equals(literal) && !"false".equals(literal) && !literal.matches("-?\\d+(\\.\\d+)?")) {
+			throw new IllegalArgumentException("Invalid JSON.");
+		}
+		return literal;
+	}
+
+	/**
+	 * Reads a quoted string
+	 * @param text the JSON text
+	 * @param pos the current position, moved past the string
+	 * @return the string without quotes or escapes
+	 */
+	private static String readString(String text, int[] pos) {
+		expect(text, pos, '"');
+		StringBuilder sb = new StringBuilder();
+		while (pos[0] < text.length()) {
+			char c = text.charAt(pos[0]++);
+			if (c == '"') {
+				return sb.toString();
+			}
+			if (c != '\\') {
+				sb.append(c);
+				continue;
+			}
+			if (pos[0] >= text.length()) {
+				break;
+			}
+			char e = text.charAt(pos[0]++);
+			switch (e) {
+			case 'n':
+				sb.append('\n');
+				break;
+			case 'r':
+				sb.append('\r');
+				break;
+			case 't':
+				sb.append('\t');
+				break;
+			case 'b':
+				sb.append('\b');
+				break;
+			case 'f':
+				sb.append('\f');
+				break;
+			case 'u':
+				if (pos[0] + 4 > text.length()) {
+					throw new IllegalArgumentException("Invalid JSON.");
+				}
+				sb.append((char) Integer.parseInt(text.substring(pos[0], pos[0] + 4), 16));
+				pos[0] += 4;
+				break;
+			default:
+				sb.append(e);
+			}
+		}
+		throw new IllegalArgumentException("Invalid JSON.");
+	}
+
+	/**
+	 * Checks that the next character that is not a space is the expected one and moves past it
+	 * @param text the JSON text
+	 * @param pos the current position
+	 * @param expected the expected character
+	 */
+	private static void expect(String text, int[] pos, char expected) {
+		if (peek(text, pos) != expected) {
+			throw new IllegalArgumentException("Invalid JSON.");
+		}
+		pos[0]++;
+	}
+
+	/**
+	 * Skips spaces and returns the next character without moving past it
+	 * @param text the JSON text
+	 * @param pos the current position, moved past any spaces
+	 * @return the next character
+	 */
+	private static char peek(String text, int[] pos) {
+		pos[0] = skipSpace(text, pos[0]);
+		if (pos[0] >= text.length()) {
+			throw new IllegalArgumentException("Invalid JSON.");
+		}
+		return text.charAt(pos[0]);
+	}
+
+	/**
+	 * Returns the position of the next character that is not a space
+	 * @param text the JSON text
+	 * @param pos the position to start at
+	 * @return the position of the next character or the length of the text
+	 */
+	private static int skipSpace(String text, int pos) {
+		while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+			pos++;
+		}
+		return pos;
+	}
+}
@@ -0,0 +1,301 @@
+package edu.ncsu.csc216.wolf_review.view.http;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import edu.ncsu.csc216.wolf_review.model.command.Command.CommandValue;
+import edu.ncsu.csc216.wolf_review.model.command.CommandResult;
+import edu.ncsu.csc216.wolf_review.model.manager.PaperQuery;
+import edu.ncsu.csc216.wolf_review.model.manager.PaperTrack;
+import edu.ncsu.csc216.wolf_review.model.manager.WolfReview;
+import edu.ncsu.csc216.wolf_review.model.paper.PaperView;
+
+/**
+ * An embedded HTTP server that exposes the WolfReview model as JSON. Every request runs
+ * on its own virtual thread. Reads are served from track snapshots without locking, and
+ * commands are run directly on the named track, so requests never change which track
+ * is active in the model.
+ *
+ * Routes:
+ * <ul>
+ * <li>GET /tracks lists every track</li>
+ * <li>GET /tracks/{name}/papers lists the papers of a track, filtered by the query
+ * parameters state, type, processed, reviewer, note and author, sorted by sort and desc,
+ * and paged by offset and limit</li>
+ * <li>GET /tracks/{name}/papers/{id} returns one paper</li>
+ * <li>POST /tracks/{name}/papers/{id}/commands runs a command given as
+ * {"command": "ASSIGN", "information": "reviewer1"} and returns the updated paper. With a
+ * "version" the command only runs if the paper is still at that version, and the response
+ * is 412 if it changed since</li>
+ * </ul>
+ * @author Steven Saleeb
+ */
+public class WolfReviewServer {
+
+	/** The model served */
+	private final WolfReview model;
+
+	/** The underlying HTTP server */
+	private final HttpServer server;
+
+	/** Runs each request on a new virtual thread */
+	private final ExecutorService executor;
+
+	/**
+	 * Creates a server for the model that listens on the given port, the server is not
+	 * started until start is called
+	 * @param model the model to serve
+	 * @param port the port to listen on, or 0 to pick a free port
+	 * @throws IOException if the port cannot be opened
+	 */
+	public WolfReviewServer(WolfReview model, int port) throws IOException {
+		this.model = model;
+		this.server = HttpServer.create(new InetSocketAddress(port), 0);
+		this.executor = Executors.newVirtualThreadPerTaskExecutor();
+		server.createContext("/tracks", this::handle);
+		server.setExecutor(executor);
+	}
+
+	/**
+	 * Starts serving requests
+	 */
+	public void start() {
+		server.start();
+	}
+
+	/**
+	 * Stops the server, waiting up to the given time for requests in progress to finish
+	 * @param delaySeconds the longest time to wait in seconds
+	 */
+	public void stop(int delaySeconds) {
+		server.stop(delaySeconds);
+		executor.shutdown();
+	}
+
+	/**
+	 * Returns the port the server listens on
+	 * @return the port
+	 */
+	public int getPort() {
+		return server.getAddress().getPort();
+	}
+
+	/**
+	 * Routes a request and writes the response
+	 * @param exchange the request and response
+	 * @throws IOException if the response cannot be written
+	 */
+	private void handle(HttpExchange exchange) throws IOException {
+		try {
+			String[] parts = exchange.getRequestURI().getRawPath().split("/");
+			String method = exchange.getRequestMethod();
+			if (parts.length == 2 && "GET".equals(method)) {
+				listTracks(exchange);
+				return;
+			}
+			PaperTrack track = parts.length > 3 ? model.getPaperTrack(decode(parts[2])) : null;
+			if (track == null || !"papers".equals(parts[3])) {
+				send(exchange, 404, Json.error("Paper Track not available."));
+			} else if (parts.length == 4 && "GET".equals(method)) {
+				listPapers(exchange, track);
+			} else if (parts.length == 5 && "GET".equals(method)) {
+				getPaper(exchange, track, Integer.parseInt(parts[4]));
+			} else if (parts.length == 6 && "commands".equals(parts[5]) && "POST".equals(method)) {
+				executeCommand(exchange, track, Integer.parseInt(parts[4]));
+			} else {
+				send(exchange, 404, Json.error("Not found."));
+			}
+		} catch (IllegalArgumentException e) {
+			send(exchange, 400, Json.error(e.getMessage()));
+		} catch (UnsupportedOperationException e) {
+			send(exchange, 409, Json.error(e.getMessage()));
+		} catch (RuntimeException e) {
+			send(exchange, 500, Json.error("Internal error."));
+		} finally {
+			exchange.close();
+		}
+	}
+
+	/**
+	 * Writes the list of tracks. The list is made from what each track already knows, so
+	 * listing never reads a track from its store or counts it as used by the track cache
+	 * @param exchange the request and response
+	 * @throws IOException if the response cannot be written
+	 */
+	private void listTracks(HttpExchange exchange) throws IOException {
+		StringBuilder sb = new StringBuilder("[");
+		for (PaperTrack track : model.peekPaperTracks()) {
+			if (sb.length() > 1) {
+				sb.append(',');
+			}
+			sb.append(Json.track(track));
+		}
+		send(exchange, 200, sb.append(']').toString());
+	}
+
+	/**
+	 * Writes the papers of a track that match the query parameters
+	 * @param exchange the request and response
+	 * @param track the track to list
+	 * @throws IOException if the response cannot be written
+	 */
+	private void listPapers(HttpExchange exchange, PaperTrack track) throws IOException {
+		Map<String, String> params = queryParameters(exchange.getRequestURI().getRawQuery());
+		PaperQuery query = new PaperQuery().state(params.get("state")).paperType(params.get("type"))
+				.reviewer(params.get("reviewer")).note(params.get("note")).authorContains(params.get("author"));
+		if (params.containsKey("processed")) {
+			query.processed(Boolean.parseBoolean(params.get("processed")));
+		}
+		if (params.containsKey("sort")) {
+			query.sortBy(PaperQuery.SortKey.valueOf(params.get("sort").toUpperCase()),
+					Boolean.parseBoolean(params.get("desc")));
+		}
+		query.page(Integer.parseInt(params.getOrDefault("offset", "0")),
+				Integer.parseInt(params.getOrDefault("limit", "0")));
+		List<PaperView> papers = track.query(query);
+		send(exchange, 200, Json.papers(papers));
+	}
+
+	/**
+	 * Writes one paper of a track
+	 * @param exchange the request and response
+	 * @param track the track of the paper
+	 * @param id the id of the paper
+	 * @throws IOException if the response cannot be written
+	 */
+	private void getPaper(HttpExchange exchange, PaperTrack track, int id) throws IOException {
+		PaperView paper = track.getSnapshot().getPaperById(id);
+		if (paper == null) {
+			send(exchange, 404, Json.error("Paper not available."));
+		} else {
+			send(exchange, 200, Json.paper(paper));
+		}
+	}
+
+	/**
+	 * Runs a command on a paper and writes the updated paper
+	 * @param exchange the request and response
+	 * @param track the track of the paper
+	 * @param id the id of the paper
+	 * @throws IOException if the request cannot be read or the response cannot be written
+	 */
+	private void executeCommand(HttpExchange exchange, PaperTrack track, int id) throws IOException {
+		String body;
+		try (InputStream in = exchange.getRequestBody()) {
+			body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+		}
+		Map<String, String> values = Json.parseObject(body);
+		if (track.getSnapshot().getPaperById(id) == null) {
+			send(exchange, 404, Json.error("Paper not available."));
+			return;
+		}
+		CommandValue value;
+		try {
+			value = CommandValue.valueOf(String.valueOf(values.get("command")).toUpperCase());
+		} catch (IllegalArgumentException e) {
+			throw new IllegalArgumentException("Invalid command.");
+		}
+		String version = values.get("version");
+		CommandResult result;
+		if (version == null) {
+			result = track.tryExecuteCommand(id, value, values.get("information"));
+		} else {
+			long expected;
+			try {
+				expected = Long.parseLong(version.trim());
+			} catch (NumberFormatException e) {
+				throw new IllegalArgumentException("Invalid version.");
+			}
+			result = track.tryExecuteCommand(id, expected, value, values.get("information"));
+		}
+		switch (result) {
+		case APPLIED:
+			getPaper(exchange, track, id);
+			break;
+		case NOT_FOUND:
+			send(exchange, 404, Json.error("Paper not available."));
+			break;
+		case INVALID_INFO:
+			send(exchange, 400, Json.error("Invalid information."));
+			break;
+		case CONFLICT:
+			send(exchange, 412, Json.error("Paper changed since it was read."));
+			break;
+		default:
+			send(exchange, 409, Json.error("Invalid command."));
+		}
+	}
+
+	/**
+	 * Writes a JSON response
+	 * @param exchange the request and response
+	 * @param status the HTTP status code
+	 * @param json the JSON body
+	 * @throws IOException if the response cannot be written
+	 */
+	private static void send(HttpExchange exchange, int status, String json) throws IOException {
+		byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+		exchange.sendResponseHeaders(status, bytes.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(bytes);
+		}
+	}
+
+	/**
+	 * Reads the parameters of a query string
+	 * @param rawQuery the encoded query string, may be null
+	 * @return the decoded parameters
+	 */
+	private static Map<String, String> queryParameters(String rawQuery) {
+		Map<String, String> params = new HashMap<String, String>();
+		if (rawQuery == null || rawQuery.isEmpty()) {
+			return params;
+		}
+		for (String pair : rawQuery.split("&")) {
+			int equals = pair.indexOf('=');
+			if (equals > 0) {
+				params.put(decode(pair.substring(0, equals)), decode(pair.substring(equals + 1)));
+			}
+		}
+		return params;
+	}
+
+	/**
+	 * Decodes one URL encoded path segment or parameter
+	 * @param text the encoded text
+	 * @return the decoded text
+	 */
+	private static String decode(String text) {
+		return URLDecoder.decode(text, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Starts a server, the first argument is the port and any further arguments are
+	 * paper track files to load
+	 * @param args command line arguments
+	 * @throws IOException if the port cannot be opened
+	 */
+	public static void main(String[] args) throws IOException {
+		int port = args.length > 0 ? Integer.parseInt(args[0]) : 8080;
+		WolfReview model = WolfReview.getInstance();
+		for (int i = 1; i < args.length; i++) {
+			model.loadTracksFromFile(args[i]);
+		}
+		WolfReviewServer server = new WolfReviewServer(model, port);
+		server.start();
+		System.out.println("WolfReview listening on port " + server.getPort());
+	}
+}
@@ -34,6 +34,8 @@ import javax.swing.border.TitledBorder;
 import javax.swing.table.AbstractTableModel;
 
 import edu.ncsu.csc216.wolf_review.model.command.Command;
+import edu.ncsu.csc216.wolf_review.model.io.TextTrackStorage;
+import edu.ncsu.csc216.wolf_review.model.io.WriteBehindPersister;
 import edu.ncsu.csc216.wolf_review.model.manager.WolfReview;
 import edu.ncsu.csc216.wolf_review.model.paper.Paper;
 
@@ -60,6 +62,10 @@ public class WolfReviewGUI extends JFrame implements ActionListener {
 	private static final String LOAD_TITLE = "Load Paper Tracks File";
 	/** Text for the Save menu item. */
 	private static final String SAVE_TITLE = "Save Paper Tracks";
+	/** Text for the Undo menu item. */
+	private static final String UNDO_TITLE = "Undo";
+	/** Text for the Redo menu item. */
+	private static final String REDO_TITLE = "Redo";
 	/** Text for the Quit menu item. */
 	private static final String QUIT_TITLE = "Quit";
 	/** Menu bar for the GUI that contains Menus. */
@@ -72,6 +78,10 @@ public class WolfReviewGUI extends JFrame implements ActionListener {
 	private JMenuItem itemLoadPaperTrack;
 	/** Menu item for saving the paper tracks and their papers. */
 	private JMenuItem itemSavePaperTrack;
+	/** Menu item for undoing the last change to a paper. */
+	private JMenuItem itemUndo;
+	/** Menu item for redoing the last undone change to a paper. */
+	private JMenuItem itemRedo;
 	/** Menu item for quitting the program. */
 	private JMenuItem itemQuit;
 	/** Panel that will contain different views for the paper. */
@@ -153,13 +163,18 @@ public class WolfReviewGUI extends JFrame implements ActionListener {
 		addWindowListener(new WindowAdapter() {
 
 			/**
-			 * Ask the user to save the papertracks file when closing GUI.
+			 * Saves the changes the background saver has not written yet when closing GUI,
+			 * or asks the user to save the papertracks file if no file is loaded.
 			 * @param e WindowEvent leading to GUI closing
 			 */
 			@Override
 			public void windowClosing(WindowEvent e) {
 				WolfReview model = WolfReview.getInstance();
 				try {
+					if (model.getWriteBehind() != null) {
+						model.stopWriteBehind();
+						return;
+					}
 					model.savePaperTracksToFile(getFileName(false));
 				} catch (IllegalArgumentException exp) {
 					JOptionPane.showMessageDialog(WolfReviewGUI.this, exp.getMessage());
@@ -185,10 +200,14 @@ public class WolfReviewGUI extends JFrame implements ActionListener {
 		itemAddPaperTrack = new JMenuItem(ADD_TITLE);
 		itemLoadPaperTrack = new JMenuItem(LOAD_TITLE);
 		itemSavePaperTrack = new JMenuItem(SAVE_TITLE);
+		itemUndo = new JMenuItem(UNDO_TITLE);
+		itemRedo = new JMenuItem(REDO_TITLE);
 		itemQuit = new JMenuItem(QUIT_TITLE);
 		itemAddPaperTrack.addActionListener(this);
 		itemLoadPaperTrack.addActionListener(this);
 		itemSavePaperTrack.addActionListener(this);
+		itemUndo.addActionListener(this);
+		itemRedo.addActionListener(this);
 		itemQuit.addActionListener(this);
 		
 		//Start with save button disabled
@@ -198,6 +217,8 @@ public class WolfReviewGUI extends JFrame implements ActionListener {
 		menu.add(itemAddPaperTrack);
 		menu.add(itemLoadPaperTrack);
 		menu.add(itemSavePaperTrack);
+		menu.add(itemUndo);
+		menu.add(itemRedo);
 		menu.add(itemQuit);
 		menuBar.add(menu);
 		this.setJMenuBar(menuBar);
@@ -223,7 +244,10 @@ public class WolfReviewGUI extends JFrame implements ActionListener {
 		} else if (e.getSource() == itemLoadPaperTrack) {
 			//Load an existing paper track list
 			try {
-				model.loadTracksFromFile(getFileName(true));
+				String fileName = getFileName(true);
+				model.stopWriteBehind();
+				model.loadTracksFromFile(fileName);
+				model.startWriteBehind(new TextTrackStorage(fileName), WriteBehindPersister.DEFAULT_WINDOW_MILLIS);
 				itemSavePaperTrack.setEnabled(true);
 				pnlPaperTrackList.updatePaperTrack();
 				cardLayout.show(panel, PAPERTRACK_LIST_PANEL);
@@ -235,18 +259,39 @@ public class WolfReviewGUI extends JFrame implements ActionListener {
 				//Don't do anything - user canceled (or error)
 			}
 		} else if (e.getSource() == itemSavePaperTrack) {
-			//Save paperTracks and papers
+			//Save paperTracks and papers, and keep saving changes to the same file
 			try {
-				model.savePaperTracksToFile(getFileName(false));
+				String fileName = getFileName(false);
+				model.savePaperTracksToFile(fileName);
+				model.startWriteBehind(new TextTrackStorage(fileName), WriteBehindPersister.DEFAULT_WINDOW_MILLIS);
 			} catch (IllegalArgumentException exp) {
 				JOptionPane.showMessageDialog(this, exp.getMessage());
 			} catch (IllegalStateException exp) {
 				//Don't do anything - user canceled (or error)
 			}
+		} else if (e.getSource() == itemUndo || e.getSource() == itemRedo) {
+			//Undo or redo the last change to a paper and show the list again
+			try {
+				if (e.getSource() == itemUndo) {
+					model.undo();
+				} else {
+					model.redo();
+				}
+				pnlPaperTrackList.updatePaperTrack();
+				cardLayout.show(panel, PAPERTRACK_LIST_PANEL);
+				validate();
+				repaint();
+			} catch (IllegalArgumentException exp) {
+				JOptionPane.showMessageDialog(this, exp.getMessage());
+			}
 		} else if (e.getSource() == itemQuit) {
 			//Quit the program
 			try {
-				model.savePaperTracksToFile(getFileName(false));
+				if (model.getWriteBehind() != null) {
+					model.stopWriteBehind();
+				} else {
+					model.savePaperTracksToFile(getFileName(false));
+				}
 				System.exit(0);  //Ignore SpotBugs warning here - this is the only place to quit the program!
 			} catch (IllegalArgumentException exp) {
 				JOptionPane.showMessageDialog(this, exp.getMessage());
@@ -96,4 +96,29 @@ class CommandTest {
     	assertThrows(IllegalArgumentException.class, () -> new Command(Command.CommandValue.PROCESS, Paper.RECOMMEND_WEAK_ACCEPT));
     }
 
+
+    /**
+     * Tests that isValid accepts exactly the values the constructor accepts
+     */
+    @Test
+    void testIsValid() {
+        String[] infos = {null, "", "reviewer", Paper.ACCEPT_CLOSED, Paper.WITHDRAW_CLOSED,
+            Paper.REJECT_CLOSED, Paper.DUPLICATE_CLOSED, Paper.RECOMMEND_WEAK_ACCEPT, Paper.RECOMMEND_STRONG_REJECT};
+        for (Command.CommandValue value : Command.CommandValue.values()) {
+            for (String info : infos) {
+                boolean created;
+                try {
+                    new Command(value, info);
+                    created = true;
+                } catch (IllegalArgumentException e) {
+                    created = false;
+                }
+                assertEquals(created, Command.isValid(value, info), value + " " + info);
+            }
+        }
+        assertFalse(Command.isValid(null, null));
+        assertTrue(Command.isValid(Command.CommandValue.ASSIGN, "reviewer"));
+        assertFalse(Command.isValid(Command.CommandValue.MODIFY, "reviewer"));
+    }
+
 }
@@ -0,0 +1,200 @@
+package edu.ncsu.csc216.wolf_review.model.ingest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import edu.ncsu.csc216.wolf_review.model.manager.PaperTrack;
+import edu.ncsu.csc216.wolf_review.model.manager.PaperTrackListener;
+import edu.ncsu.csc216.wolf_review.model.manager.WolfReview;
+
+/**
+ * Tests the IngestService class in the WolfReview system.
+ * Each test drops files into a temporary directory and makes sure that
+ * they are parsed and merged into the model once they are quiet
+ * @author Steven Saleeb
+ */
+class IngestServiceTest {
+
+	/**
+	 * The drop directory
+	 */
+	@TempDir
+	Path dir;
+
+	/**
+	 * The model the files are merged into
+	 */
+	private WolfReview model;
+
+	/**
+	 * The service under test
+	 */
+	private IngestService service;
+
+	/**
+	 * Creates a service with a short debounce time before each test
+	 */
+	@BeforeEach
+	void setUp() {
+		model = WolfReview.getInstance();
+		service = new IngestService(model, dir, 100, 2);
+	}
+
+	/**
+	 * Stops the service after each test
+	 * @throws InterruptedException if interrupted while stopping
+	 */
+	@AfterEach
+	void tearDown() throws InterruptedException {
+		service.stop();
+	}
+
+	/**
+	 * Tests that new and modified files are merged into the model
+	 * @throws Exception if the files cannot be written
+	 */
+	@Test
+	void testNewAndModifiedFiles() throws Exception {
+		service.start();
+		assertTrue(service.isRunning());
+		drop("feed.txt", "# Ingest Feed,10,5\n* 801,Submitted,S. Carol,Abstract,false,,\n");
+		waitFor(() -> service.getIngestedCount() == 1);
+		PaperTrack track = model.getPaperTrack("Ingest Feed");
+		assertNotNull(track);
+		assertEquals(1, track.getSnapshot().size());
+
+		drop("feed.txt", "# Ingest Feed,10,5\n* 801,Reviewing,anonymous,Abstract,false,reviewer1,\n"
+				+ "* 802,Submitted,M. Hill,Abstract,false,,\n");
+		waitFor(() -> service.getIngestedCount() == 2);
+		assertSame(track, model.getPaperTrack("Ingest Feed"));
+		assertEquals("Reviewing", track.getSnapshot().getPaperById(801).getState());
+		assertEquals(1, service.getLastSummary().getPapersAdded());
+		assertEquals(1, service.getLastSummary().getPapersChanged());
+	}
+
+	/**
+	 * Tests that files already in the directory are ingested on start and that invalid
+	 * and temporary files are not merged
+	 * @throws Exception if the files cannot be written
+	 */
+	@Test
+	void testExistingInvalidAndTemporaryFiles() throws Exception {
+		Files.writeString(dir.resolve("existing.txt"), "# Ingest Existing,10,5\n* 811,Submitted,S. Carol,Abstract,false,,\n");
+		Files.writeString(dir.resolve("invalid.txt"), "not a paper track file\n");
+		Files.writeString(dir.resolve("partial.tmp"), "# Ingest Partial,10,5\n* 812,Submitted,S. Carol,Abstract,false,,\n");
+		service.start();
+		waitFor(() -> service.getIngestedCount() == 1 && service.getFailedCount() == 1);
+		assertNotNull(model.getPaperTrack("Ingest Existing"));
+		assertNull(model.getPaperTrack("Ingest Partial"));
+	}
+
+	/**
+	 * Tests that many writes to one file while it is busy are read once it is quiet
+	 * @throws Exception if the files cannot be written
+	 */
+	@Test
+	void testDebounce() throws Exception {
+		service = new IngestService(model, dir, 400, 2);
+		service.start();
+		for (int i = 0; i < 5; i++) {
+			Files.writeString(dir.resolve("busy.txt"), "# Ingest Busy,10,5\n* 82" + i + ",Submitted,S. Carol,Abstract,false,,\n");
+			Thread.sleep(20);
+		}
+		waitFor(() -> service.getIngestedCount() == 1);
+		Thread.sleep(600);
+		assertEquals(1, service.getIngestedCount());
+		assertEquals(1, model.getPaperTrack("Ingest Busy").getSnapshot().size());
+		assertNotNull(model.getPaperTrack("Ingest Busy").getSnapshot().getPaperById(824));
+	}
+
+	/**
+	 * Tests that every file is ingested when more files arrive than the queue can hold
+	 * @throws Exception if the files cannot be written
+	 */
+	@Test
+	void testBackpressure() throws Exception {
+		service.start();
+		for (int i = 0; i < 10; i++) {
+			drop("burst" + i + ".txt", "# Ingest Burst " + i + ",10,5\n* 83" + i + ",Submitted,S. Carol,Abstract,false,,\n");
+		}
+		waitFor(() -> service.getIngestedCount() == 10);
+		for (int i = 0; i < 10; i++) {
+			assertNotNull(model.getPaperTrack("Ingest Burst " + i));
+		}
+		assertEquals(0, service.getPendingCount());
+	}
+
+	/**
+	 * Tests that a merge that throws is counted as failed and later files are still ingested
+	 * @throws Exception if the files cannot be written
+	 */
+	@Test
+	void testFailedMerge() throws Exception {
+		model.addNewPaperTrack("Ingest Broken", 10, 5);
+		PaperTrack broken = model.getPaperTrack("Ingest Broken");
+		PaperTrackListener failing = (track, before, after) -> {
+			throw new IllegalStateException("Listener failed.");
+		};
+		broken.addListener(failing);
+		service.start();
+		drop("broken.txt", "# Ingest Broken,10,5\n* 841,Submitted,S. Carol,Abstract,false,,\n");
+		waitFor(() -> service.getFailedCount() == 1);
+		drop("after.txt", "# Ingest After,10,5\n* 842,Submitted,S. Carol,Abstract,false,,\n");
+		waitFor(() -> service.getIngestedCount() == 1);
+		assertTrue(service.isRunning());
+		assertNotNull(model.getPaperTrack("Ingest After"));
+		broken.removeListener(failing);
+	}
+
+	/**
+	 * Tests invalid arguments and starting twice
+	 * @throws Exception if the service cannot start
+	 */
+	@Test
+	void testInvalid() throws Exception {
+		assertThrows(IllegalArgumentException.class, () -> new IngestService(null, dir));
+		assertThrows(IllegalArgumentException.class, () -> new IngestService(model, dir.resolve("missing")));
+		assertThrows(IllegalArgumentException.class, () -> new IngestService(model, dir, -1, 2));
+		assertThrows(IllegalArgumentException.class, () -> new IngestService(model, dir, 100, 0));
+		service.start();
+		assertThrows(IllegalStateException.class, () -> service.start());
+		service.stop();
+		assertFalse(service.isRunning());
+	}
+
+	/**
+	 * Writes a file under a temporary name and renames it into place
+	 * @param name the name of the file
+	 * @param text the contents of the file
+	 * @throws Exception if the file cannot be written
+	 */
+	private void drop(String name, String text) throws Exception {
+		Path temp = dir.resolve(name + ".tmp");
+		Files.writeString(temp, text);
+		Files.move(temp, dir.resolve(name), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	/**
+	 * Waits up to ten seconds for a condition to become true
+	 * @param condition the condition to wait for
+	 * @throws InterruptedException if interrupted while waiting
+	 */
+	private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 10000;
+		while (!condition.getAsBoolean()) {
+			if (System.currentTimeMillis() > deadline) {
+				fail("Timed out waiting for the ingest service.");
+			}
+			Thread.sleep(20);
+		}
+	}
+}
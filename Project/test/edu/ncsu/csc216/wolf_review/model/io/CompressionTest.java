@@ -0,0 +1,140 @@
+package edu.ncsu.csc216.wolf_review.model.io;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import edu.ncsu.csc216.wolf_review.model.manager.PaperTrack;
+
+/**
+ * Tests the Compression class
+ * @author Steven Saleeb
+ */
+public class CompressionTest {
+
+	/** Directory for the files written by the tests */
+	@TempDir
+	Path dir;
+
+	/**
+	 * Tests that the format to write is chosen from the file extension
+	 */
+	@Test
+	public void testForFileName() {
+		assertEquals(Compression.GZIP, Compression.forFileName("tracks.txt.gz"));
+		assertEquals(Compression.GZIP, Compression.forFileName("TRACKS.GZ"));
+		assertEquals(Compression.DEFLATE, Compression.forFileName("tracks.zz"));
+		assertEquals(Compression.DEFLATE, Compression.forFileName("tracks.deflate"));
+		assertEquals(Compression.NONE, Compression.forFileName("tracks.txt"));
+		assertEquals(Compression.NONE, Compression.forFileName("gz"));
+	}
+
+	/**
+	 * Tests that the format of a stream is found from its first bytes without consuming them
+	 * @throws IOException if a stream fails
+	 */
+	@Test
+	public void testDetect() throws IOException {
+		for (Compression compression : Compression.values()) {
+			byte[] bytes = compress(compression, "# Track,10,5\n");
+			BufferedInputStream in = new BufferedInputStream(new ByteArrayInputStream(bytes));
+			assertEquals(compression, Compression.detect(in));
+			assertEquals(bytes[0] & 0xff, in.read());
+		}
+		assertEquals(Compression.NONE, Compression.detect(new BufferedInputStream(new ByteArrayInputStream(new byte[0]))));
+		assertEquals(Compression.NONE, Compression.detect(new BufferedInputStream(new ByteArrayInputStream(new byte[] {0x1f}))));
+	}
+
+	/**
+	 * Tests that text written in each format is read back unchanged
+	 * @throws IOException if a stream fails
+	 */
+	@Test
+	public void testRoundTrip() throws IOException {
+		StringBuilder text = new StringBuilder();
+		for (int i = 0; i < 5000; i++) {
+			text.append("* ").append(i).append(",Paper ").append(i).append(",submitted,10,author,,\n");
+		}
+		for (Compression compression : Compression.values()) {
+			byte[] bytes = compress(compression, text.toString());
+			try (InputStream in = Compression.decompress(new ByteArrayInputStream(bytes))) {
+				assertEquals(text.toString(), new String(in.readAllBytes(), StandardCharsets.UTF_8));
+			}
+			if (compression != Compression.NONE) {
+				assertTrue(bytes.length < text.length() / 4);
+			}
+		}
+	}
+
+	/**
+	 * Tests that paper track files are written compressed from their extension and read back
+	 * by the reader, including a gzip file whose name does not say it is compressed
+	 * @throws IOException if a file fails
+	 */
+	@Test
+	public void testPaperTrackFiles() throws IOException {
+		ArrayList<PaperTrack> tracks = PaperTrackReader.readPaperTrackFile("test-files/paperTrack1.txt");
+		Path plain = dir.resolve("plain.txt");
+		PaperTrackWriter.writePaperTracksToFile(plain.toString(), tracks);
+
+		Path gzip = dir.resolve("tracks.txt.gz");
+		PaperTrackWriter.writePaperTracksToFile(gzip.toString(), tracks);
+		assertEquals(Compression.GZIP, Compression.detect(new BufferedInputStream(Files.newInputStream(gzip))));
+		assertEquals(tracks.get(0).getPapers().size(),
+				PaperTrackReader.readPaperTrackFile(gzip.toString()).get(0).getPapers().size());
+
+		Path deflate = dir.resolve("tracks.zz");
+		PaperTrackWriter.writePaperTracksToFile(deflate.toString(), tracks);
+		assertEquals(Compression.DEFLATE, Compression.detect(new BufferedInputStream(Files.newInputStream(deflate))));
+		PaperTrackWriter.writePaperTracksToFile(dir.resolve("round.txt").toString(),
+				PaperTrackReader.readPaperTrackFile(deflate.toString()));
+		assertEquals(Files.readString(plain), Files.readString(dir.resolve("round.txt")));
+
+		Path hidden = dir.resolve("hidden.txt");
+		PaperTrackWriter.writePaperTracksToFile(hidden.toString(), tracks, Compression.GZIP);
+		assertEquals(Compression.GZIP, Compression.detect(new BufferedInputStream(Files.newInputStream(hidden))));
+		assertEquals(tracks.get(0).getTrackName(), PaperTrackReader.readPaperTrackFile(hidden.toString()).get(0).getTrackName());
+	}
+
+	/**
+	 * Tests that a file that is cut off in the middle of its compressed data cannot be loaded
+	 * @throws IOException if a file fails
+	 */
+	@Test
+	public void testTruncated() throws IOException {
+		byte[] bytes = compress(Compression.GZIP, Files.readString(Path.of("test-files/paperTrack1.txt")));
+		Path file = dir.resolve("cut.gz");
+		Files.write(file, Arrays.copyOf(bytes, bytes.length / 2));
+		Exception e = assertThrows(IllegalArgumentException.class,
+				() -> PaperTrackReader.readPaperTrackFile(file.toString()));
+		assertEquals("Unable to load file.", e.getMessage());
+	}
+
+	/**
+	 * Compresses text in the given format
+	 * @param compression the format
+	 * @param text the text
+	 * @return the compressed bytes
+	 * @throws IOException if the stream fails
+	 */
+	private static byte[] compress(Compression compression, String text) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (OutputStream out = compression.compress(bytes)) {
+			out.write(text.getBytes(StandardCharsets.UTF_8));
+		}
+		return bytes.toByteArray();
+	}
+}
@@ -0,0 +1,32 @@
+package edu.ncsu.csc216.wolf_review.model.io;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the MemoryTrackStorage class
+ * @author Steven Saleeb
+ */
+public class MemoryTrackStorageTest extends TrackStorageConformanceTest {
+
+	/**
+	 * Makes an empty memory storage
+	 * @param directory not used
+	 * @return the storage
+	 */
+	@Override
+	protected TrackStorage newStorage(Path directory) {
+		return new MemoryTrackStorage();
+	}
+
+	/**
+	 * Tests that an empty storage loads no tracks
+	 */
+	@Test
+	public void testEmpty() {
+		assertTrue(newStorage(dir).loadAll().isEmpty());
+	}
+}
@@ -6,6 +6,7 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.List;
 
 import org.junit.jupiter.api.Test;
 
@@ -99,4 +100,176 @@ public class PaperTrackReaderTest {
                 () -> PaperTrackReader.readPaperTrackFile(p));
         assertEquals("Unable to load file.", ex.getMessage());
     }
+
+    /**
+     * Tests that every rejected line is reported with its line number, track and reason
+     * while the valid papers are still loaded
+     * @throws Exception if temporary file creation or reading fails
+     */
+    @Test
+    public void testDiagnostics() throws Exception {
+        String content = "# Good,10,5\n"
+                + "* 1,Submitted,S. Carol,Abstract,false,,\n"
+                + "* x,Submitted,M. Hill,Abstract,false,,\n"
+                + "* 1,Submitted,P. Kathleen,Abstract,false,,\n"
+                + "just some text\n"
+                + "\n"
+                + "# Bad,ten,5\n"
+                + "* 2,Submitted,S. Gillespie,Abstract,false,,\n"
+                + "# Empty,10,5\n"
+                + "* 3,Unknown,S. Gillespie,Abstract,false,,\n";
+        Path path = Files.createTempFile("diagnostics_", ".txt");
+        Files.write(path, content.getBytes(StandardCharsets.UTF_8));
+
+        ParseDiagnostics diagnostics = new ParseDiagnostics();
+        ArrayList<PaperTrack> tracks = PaperTrackReader.readPaperTrackFile(path.toString(), diagnostics);
+        assertEquals(1, tracks.size());
+        assertEquals("Good", tracks.get(0).getTrackName());
+        assertEquals(1, tracks.get(0).getPapers().size());
+
+        List<ParseDiagnostics.Entry> entries = diagnostics.getEntries();
+        assertEquals(7, entries.size());
+        assertEquals(3, entries.get(0).getLineNumber());
+        assertEquals("Good", entries.get(0).getTrackName());
+        assertEquals(ParseDiagnostics.Reason.INVALID_PAPER, entries.get(0).getReason());
+        assertEquals("* x,Submitted,M. Hill,Abstract,false,,", entries.get(0).getRawText());
+        assertEquals(ParseDiagnostics.Reason.DUPLICATE_ID, entries.get(1).getReason());
+        assertEquals(4, entries.get(1).getLineNumber());
+        assertEquals(ParseDiagnostics.Reason.NOT_A_PAPER, entries.get(2).getReason());
+        assertEquals(ParseDiagnostics.Reason.INVALID_HEADER, entries.get(3).getReason());
+        assertEquals(7, entries.get(3).getLineNumber());
+        assertNull(entries.get(3).getTrackName());
+        assertEquals(ParseDiagnostics.Reason.NO_TRACK, entries.get(4).getReason());
+        assertEquals(ParseDiagnostics.Reason.INVALID_PAPER, entries.get(5).getReason());
+        assertEquals("Empty", entries.get(5).getTrackName());
+        assertEquals(ParseDiagnostics.Reason.EMPTY_TRACK, entries.get(6).getReason());
+        assertEquals(9, entries.get(6).getLineNumber());
+        assertEquals(7, diagnostics.getTotal());
+        assertFalse(diagnostics.isTruncated());
+    }
+
+    /**
+     * Tests that a file that does not start with a header loads nothing and reports the first line
+     * @throws Exception if temporary file creation or reading fails
+     */
+    @Test
+    public void testDiagnosticsMissingHeader() throws Exception {
+        Path path = Files.createTempFile("no_header_", ".txt");
+        Files.write(path, "\n* 1,Submitted,S. Carol,Abstract,false,,\n# Good,10,5\n"
+                .getBytes(StandardCharsets.UTF_8));
+
+        ParseDiagnostics diagnostics = new ParseDiagnostics();
+        assertTrue(PaperTrackReader.readPaperTrackFile(path.toString(), diagnostics).isEmpty());
+        assertEquals(1, diagnostics.getTotal());
+        assertEquals(2, diagnostics.getEntries().get(0).getLineNumber());
+        assertEquals(ParseDiagnostics.Reason.MISSING_HEADER, diagnostics.getEntries().get(0).getReason());
+    }
+
+    /**
+     * Tests that a file written with checksums reads back the same as one written without
+     * them, and that a checksum line is not reported as a rejected line
+     * @throws Exception if a temporary file fails
+     */
+    @Test
+    public void testChecksummedRoundTrip() throws Exception {
+        ArrayList<PaperTrack> tracks = PaperTrackReader.readPaperTrackFile("test-files/paperTrack2.txt");
+        Path plain = Files.createTempFile("plain", ".txt");
+        Path summed = Files.createTempFile("summed", ".txt");
+        PaperTrackWriter.writePaperTracksToFile(plain.toString(), tracks);
+        PaperTrackWriter.writePaperTracksToFile(summed.toString(), tracks, Compression.NONE, true);
+        assertEquals(4, Files.readAllLines(summed).stream().filter(l -> l.startsWith("! ")).count());
+        assertEquals(0, Files.readAllLines(plain).stream().filter(l -> l.startsWith("! ")).count());
+
+        ParseDiagnostics diagnostics = new ParseDiagnostics();
+        ArrayList<PaperTrack> read = PaperTrackReader.readPaperTrackFile(summed.toString(), diagnostics);
+        assertTrue(diagnostics.isEmpty());
+        Path again = Files.createTempFile("again", ".txt");
+        PaperTrackWriter.writePaperTracksToFile(again.toString(), read);
+        assertEquals(Files.readString(plain), Files.readString(again));
+        for (int i = 0; i < tracks.size(); i++) {
+            for (int k = 0; k < tracks.get(i).getPapers().size(); k++) {
+                assertEquals(tracks.get(i).getPapers().get(k).getSavedAuthorNames(),
+                        read.get(i).getPapers().get(k).getSavedAuthorNames());
+            }
+        }
+    }
+
+    /**
+     * Tests that a paper in a section whose checksum matches is built without being checked,
+     * and that the papers of the same section with a wrong or missing checksum are fully checked
+     * once the section ends, with a rejected paper reported at its own line
+     * @throws Exception if a temporary file fails
+     */
+    @Test
+    public void testChecksumTrust() throws Exception {
+        String header = "# Trusted Track,10,5";
+        String valid = "* 1,Submitted,S. Carol,Abstract,false,,";
+        String unchecked = "* 2,Reviewing,S. Carol,Abstract,true,,";
+        SectionChecksum checksum = new SectionChecksum();
+        checksum.update(header);
+        checksum.update(valid);
+        checksum.update(unchecked);
+
+        Path trusted = Files.createTempFile("trusted", ".txt");
+        Files.writeString(trusted, header + "\n" + valid + "\n" + unchecked + "\n" + checksum.toLine() + "\n");
+        assertEquals(2, PaperTrackReader.readPaperTrackFile(trusted.toString()).get(0).getPapers().size());
+
+        Path tampered = Files.createTempFile("tampered", ".txt");
+        Files.writeString(tampered, header + "\n" + valid + "\n" + unchecked + "\n! 00000000\n");
+        ParseDiagnostics diagnostics = new ParseDiagnostics();
+        assertEquals(1, PaperTrackReader.readPaperTrackFile(tampered.toString(), diagnostics).get(0).getPapers().size());
+        assertEquals(1, diagnostics.getCount(ParseDiagnostics.Reason.INVALID_PAPER));
+        assertEquals(3, diagnostics.getEntries().get(0).getLineNumber());
+        assertEquals(unchecked, diagnostics.getEntries().get(0).getRawText());
+
+        Path missing = Files.createTempFile("missing", ".txt");
+        Files.writeString(missing, header + "\n" + valid + "\n" + unchecked + "\n");
+        assertEquals(1, PaperTrackReader.readPaperTrackFile(missing.toString()).get(0).getPapers().size());
+    }
+
+    /**
+     * Tests that a rejected paper line is reported with its text as it is in the file, both
+     * in a track held until its checksum line and in a later track read line by line once a
+     * track ended without a matching checksum, and that a checked track after that still
+     * rejects papers the full constructor rejects
+     */
+    @Test
+    public void testRejectedRawText() throws Exception {
+        String header = "# First Track,10,5";
+        String valid = "* 1,Submitted,S. Carol,Abstract,false,,";
+        String duplicate = "*1,Submitted, S. Carol ,Abstract,false,,";
+        SectionChecksum checksum = new SectionChecksum();
+        checksum.update(header);
+        checksum.update(valid);
+        checksum.update(duplicate);
+        String second = "# Second Track,10,5";
+        String unchecked = "* 2,Reviewing,S. Carol,Abstract,true,,";
+        String third = "# Third Track,10,5";
+        SectionChecksum thirdChecksum = new SectionChecksum();
+        thirdChecksum.update(third);
+        thirdChecksum.update(unchecked);
+        thirdChecksum.update(valid);
+
+        Path path = Files.createTempFile("rawText", ".txt");
+        Files.writeString(path, header + "\n" + valid + "\n" + duplicate + "\n" + checksum.toLine() + "\n"
+                + second + "\n" + valid + "\n" + unchecked + "\n"
+                + third + "\n" + unchecked + "\n" + valid + "\n" + thirdChecksum.toLine() + "\n");
+        ParseDiagnostics diagnostics = new ParseDiagnostics();
+        ArrayList<PaperTrack> tracks = PaperTrackReader.readPaperTrackFile(path.toString(), diagnostics);
+
+        assertEquals(3, tracks.size());
+        assertEquals(1, tracks.get(0).getPapers().size());
+        assertEquals(1, tracks.get(1).getPapers().size());
+        assertEquals(1, tracks.get(2).getPapers().size());
+        assertEquals(3, diagnostics.getEntries().size());
+        assertEquals(ParseDiagnostics.Reason.DUPLICATE_ID, diagnostics.getEntries().get(0).getReason());
+        assertEquals(3, diagnostics.getEntries().get(0).getLineNumber());
+        assertEquals(duplicate, diagnostics.getEntries().get(0).getRawText());
+        assertEquals(ParseDiagnostics.Reason.INVALID_PAPER, diagnostics.getEntries().get(1).getReason());
+        assertEquals(7, diagnostics.getEntries().get(1).getLineNumber());
+        assertEquals(unchecked, diagnostics.getEntries().get(1).getRawText());
+        assertEquals(ParseDiagnostics.Reason.INVALID_PAPER, diagnostics.getEntries().get(2).getReason());
+        assertEquals(9, diagnostics.getEntries().get(2).getLineNumber());
+        assertEquals(unchecked, diagnostics.getEntries().get(2).getRawText());
+    }
 }
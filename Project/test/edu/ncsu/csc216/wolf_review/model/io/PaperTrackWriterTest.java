@@ -7,9 +7,15 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Scanner;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import edu.ncsu.csc216.wolf_review.model.manager.PaperTrack;
 
@@ -66,6 +72,62 @@ public class PaperTrackWriterTest {
         assertEquals("Unable to save file.", e.getMessage());
     }
     
+    /**
+     * Tests that a save replaces the file only once it is fully written, so a save that
+     * fails leaves the previous file as it was and no temporary file behind
+     * @param dir a temporary directory
+     * @throws Exception if the files cannot be read
+     */
+    @Test
+    public void testWriteReplacesFile(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("tracks.txt");
+        ArrayList<PaperTrack> tracks = PaperTrackReader.readPaperTrackFile("test-files/paperTrack1.txt");
+        Files.writeString(file, "previous");
+        PaperTrackWriter.writePaperTracksToFile(file.toString(), tracks);
+        checkFiles("test-files/paperTrack1.txt", file.toString());
+        assertNoTempFiles(dir);
+
+        Path blocked = dir.resolve("blocked.txt");
+        Files.createDirectories(blocked.resolve("previous"));
+        assertThrows(IllegalArgumentException.class, () -> PaperTrackWriter.writePaperTracksToFile(blocked.toString(), tracks));
+        assertTrue(Files.isDirectory(blocked.resolve("previous")));
+        assertNoTempFiles(dir);
+    }
+
+    /**
+     * Tests that saves of the same file running at once each write their own temporary
+     * file, so every save leaves a whole file behind
+     * @param dir a temporary directory
+     * @throws Exception if a save fails
+     */
+    @Test
+    public void testConcurrentSaves(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("tracks.txt");
+        ArrayList<PaperTrack> tracks = PaperTrackReader.readPaperTrackFile("test-files/paperTrack1.txt");
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        List<Future<?>> saves = new ArrayList<Future<?>>();
+        for (int i = 0; i < 20; i++) {
+            saves.add(pool.submit(() -> PaperTrackWriter.writePaperTracksToFile(file.toString(), tracks)));
+        }
+        for (Future<?> save : saves) {
+            save.get();
+        }
+        pool.shutdown();
+        checkFiles("test-files/paperTrack1.txt", file.toString());
+        assertNoTempFiles(dir);
+    }
+
+    /**
+     * Checks that no temporary file of a save was left in a directory
+     * @param dir the directory
+     * @throws IOException if the directory cannot be listed
+     */
+    private static void assertNoTempFiles(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            assertTrue(files.noneMatch(f -> f.getFileName().toString().endsWith(".tmp")));
+        }
+    }
+
     /**
 	 * Helper method to compare two files for the same contents
 	 * @param expFile expected output
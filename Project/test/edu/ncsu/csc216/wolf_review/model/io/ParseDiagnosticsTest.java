@@ -0,0 +1,57 @@
+package edu.ncsu.csc216.wolf_review.model.io;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.wolf_review.model.io.ParseDiagnostics.Reason;
+
+/**
+ * Tests the ParseDiagnostics class in the WolfReview system.
+ * Each test makes sure that rejected lines are kept up to the cap
+ * and counted by reason
+ * @author Steven Saleeb
+ */
+public class ParseDiagnosticsTest {
+
+    /**
+     * Tests that entries are kept in order with their details
+     */
+    @Test
+    public void testEntries() {
+        ParseDiagnostics diagnostics = new ParseDiagnostics();
+        assertTrue(diagnostics.isEmpty());
+        diagnostics.reject(3, "Track", Reason.INVALID_PAPER, "Invalid information.", "* bad");
+        diagnostics.reject(5, null, Reason.INVALID_HEADER, null, "# bad");
+
+        assertFalse(diagnostics.isEmpty());
+        assertEquals(2, diagnostics.getEntries().size());
+        ParseDiagnostics.Entry entry = diagnostics.getEntries().get(0);
+        assertEquals(3, entry.getLineNumber());
+        assertEquals("Track", entry.getTrackName());
+        assertEquals(Reason.INVALID_PAPER, entry.getReason());
+        assertEquals("Invalid information.", entry.getMessage());
+        assertEquals("* bad", entry.getRawText());
+        assertEquals("line 3 [Track]: INVALID_PAPER Invalid information.: * bad", entry.toString());
+        assertEquals("", diagnostics.getEntries().get(1).getMessage());
+        assertEquals("line 5: INVALID_HEADER: # bad", diagnostics.getEntries().get(1).toString());
+    }
+
+    /**
+     * Tests that counts keep growing after the cap is reached
+     */
+    @Test
+    public void testCap() {
+        ParseDiagnostics diagnostics = new ParseDiagnostics(2);
+        for (int i = 1; i <= 5; i++) {
+            diagnostics.reject(i, "Track", i % 2 == 0 ? Reason.DUPLICATE_ID : Reason.INVALID_PAPER, null, "* " + i);
+        }
+        assertEquals(2, diagnostics.getEntries().size());
+        assertEquals(5, diagnostics.getTotal());
+        assertEquals(3, diagnostics.getCount(Reason.INVALID_PAPER));
+        assertEquals(2, diagnostics.getCount(Reason.DUPLICATE_ID));
+        assertEquals(0, diagnostics.getCount(Reason.EMPTY_TRACK));
+        assertTrue(diagnostics.isTruncated());
+        assertThrows(IllegalArgumentException.class, () -> new ParseDiagnostics(-1));
+    }
+}
@@ -0,0 +1,172 @@
+package edu.ncsu.csc216.wolf_review.model.io;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import edu.ncsu.csc216.wolf_review.model.command.Command;
+import edu.ncsu.csc216.wolf_review.model.command.Command.CommandValue;
+import edu.ncsu.csc216.wolf_review.model.manager.PaperTrack;
+import edu.ncsu.csc216.wolf_review.model.paper.Paper;
+
+/**
+ * Tests the RecordStore class
+ * @author Steven Saleeb
+ */
+public class RecordStoreTest {
+
+	/** Directory for the files written by the tests */
+	@TempDir
+	Path dir;
+
+	/**
+	 * Tests that a stored track is read back with the same papers and settings
+	 * @throws IOException if the store cannot be closed
+	 */
+	@Test
+	public void testRoundTrip() throws IOException {
+		Path file = dir.resolve("track.slots");
+		for (PaperTrack track : PaperTrackReader.readPaperTrackFile("test-files/paperTrack2.txt")) {
+			RecordStore.create(file, track).close();
+			try (RecordStore store = RecordStore.open(file)) {
+				PaperTrack read = store.readTrack();
+				assertEquals(track.toString(), read.toString());
+				assertEquals(track.getSnapshot().getPapers(), read.getSnapshot().getPapers());
+				assertEquals(track.getPapers().size(), store.size());
+			}
+		}
+	}
+
+	/**
+	 * Tests that a command on an attached track rewrites only the slot of its paper and
+	 * adds no strings that are already stored
+	 * @throws IOException if a file cannot be read
+	 */
+	@Test
+	public void testCommandUpdatesSlotInPlace() throws IOException {
+		Path file = dir.resolve("track.slots");
+		PaperTrack track = PaperTrackReader.readPaperTrackFile("test-files/paperTrack2.txt").get(1);
+		RecordStore store = RecordStore.create(file, track);
+		store.attach(track);
+		store.force();
+		byte[] before = Files.readAllBytes(file);
+		long strings = store.getStringBytes();
+
+		track.executeCommand(2, new Command(CommandValue.ASSIGN, "reviewer4"));
+		store.force();
+		byte[] after = Files.readAllBytes(file);
+		assertEquals(before.length, after.length);
+		int first = -1;
+		int last = -1;
+		for (int i = 0; i < before.length; i++) {
+			if (before[i] != after[i]) {
+				first = first < 0 ? i : first;
+				last = i;
+			}
+		}
+		assertTrue(first >= 0);
+		assertTrue(last - first < RecordStore.SLOT_SIZE);
+		assertEquals(strings, store.getStringBytes());
+		store.close();
+
+		try (RecordStore reopened = RecordStore.open(file)) {
+			assertEquals(track.getSnapshot().getPapers().toString(),
+					reopened.readTrack().getSnapshot().getPapers().toString());
+		}
+	}
+
+	/**
+	 * Tests that added and deleted papers are stored, slots are reused and the file grows
+	 * when it is full
+	 * @throws IOException if the store cannot be closed
+	 */
+	@Test
+	public void testAddAndDelete() throws IOException {
+		Path file = dir.resolve("grow.slots");
+		PaperTrack track = new PaperTrack("Growing", 10, 5);
+		RecordStore store = RecordStore.create(file, track);
+		store.attach(track);
+		for (int id = 1; id <= 150; id++) {
+			track.addPaper(new Paper(id, Paper.SUBMITTED_NAME, "Author " + (id % 7), Paper.P_ABSTRACT, false, "", ""));
+		}
+		track.deletePaperById(3);
+		track.deletePaperById(77);
+		track.addPaper(new Paper(200, Paper.REVIEWING_NAME, Paper.ANONYMOUS, Paper.P_FULLPAPER, false, "reviewer1", ""));
+		assertEquals(149, store.size());
+		store.detach(track);
+		track.deletePaperById(200);
+		assertEquals(149, store.size());
+		store.close();
+
+		try (RecordStore reopened = RecordStore.open(file)) {
+			List<Paper> papers = reopened.readPapers();
+			assertEquals(149, papers.size());
+			assertEquals(200, reopened.readTrack().getPaperById(200).getId());
+			assertNull(reopened.readTrack().getPaperById(77));
+			assertEquals("Growing", reopened.getTrackName());
+		}
+	}
+
+	/**
+	 * Tests that archiving papers or unloading the track does not remove them from the store
+	 * @throws IOException if the store cannot be closed
+	 */
+	@Test
+	public void testArchiveAndUnloadKeepPapers() throws IOException {
+		Path file = dir.resolve("kept.slots");
+		PaperTrack track = PaperTrackReader.readPaperTrackFile("test-files/paperTrack2.txt").get(1);
+		try (RecordStore store = RecordStore.create(file, track)) {
+			store.attach(track);
+			track.archiveClosed();
+			assertEquals(6, store.size());
+			track.markSaved(track.getSnapshot().getVersion());
+			assertTrue(track.unload(() -> store.readPapers()));
+			assertEquals(6, store.size());
+		}
+	}
+
+	/**
+	 * Tests that a file that is not a store cannot be opened
+	 * @throws IOException if the file cannot be written
+	 */
+	@Test
+	public void testInvalidFile() throws IOException {
+		Path file = dir.resolve("bad.slots");
+		Files.writeString(file, "not a store");
+		assertThrows(IllegalArgumentException.class, () -> RecordStore.open(file));
+		Files.write(file, new byte[64]);
+		assertThrows(IllegalArgumentException.class, () -> RecordStore.open(file));
+	}
+
+	/**
+	 * Tests that a slot with a state or note code that was never written is reported as a
+	 * file that cannot be loaded
+	 * @throws IOException if a file cannot be written
+	 */
+	@Test
+	public void testInvalidCodes() throws IOException {
+		Path file = dir.resolve("track.slots");
+		PaperTrack track = PaperTrackReader.readPaperTrackFile("test-files/paperTrack2.txt").get(1);
+		RecordStore.create(file, track).close();
+		byte[] valid = Files.readAllBytes(file);
+		byte[] bytes = valid.clone();
+		bytes[RecordStore.HEADER_SIZE + RecordStore.STATE] = 42;
+		Files.write(file, bytes);
+		try (RecordStore store = RecordStore.open(file)) {
+			Exception e = assertThrows(IllegalArgumentException.class, () -> store.readTrack());
+			assertEquals("Unable to load file.", e.getMessage());
+		}
+		bytes = valid.clone();
+		bytes[RecordStore.HEADER_SIZE + RecordStore.NOTE_CODE] = 100;
+		Files.write(file, bytes);
+		try (RecordStore store = RecordStore.open(file)) {
+			assertThrows(IllegalArgumentException.class, () -> store.readPapers());
+		}
+	}
+}
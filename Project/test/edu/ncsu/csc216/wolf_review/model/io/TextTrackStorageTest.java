@@ -0,0 +1,55 @@
+package edu.ncsu.csc216.wolf_review.model.io;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.wolf_review.model.command.Command;
+import edu.ncsu.csc216.wolf_review.model.command.Command.CommandValue;
+import edu.ncsu.csc216.wolf_review.model.manager.PaperTrack;
+
+/**
+ * Tests the TextTrackStorage class
+ * @author Steven Saleeb
+ */
+public class TextTrackStorageTest extends TrackStorageConformanceTest {
+
+	/**
+	 * Makes a storage for a file in the directory
+	 * @param directory the directory of the file
+	 * @return the storage
+	 */
+	@Override
+	protected TrackStorage newStorage(Path directory) {
+		return new TextTrackStorage(directory.resolve("tracks.txt").toString());
+	}
+
+	/**
+	 * Tests that appended changes go to the journal and saving the file empties it
+	 */
+	@Test
+	public void testJournalEmptiedBySave() {
+		String fileName = dir.resolve("tracks.txt").toString();
+		TrackStorage storage = new TextTrackStorage(fileName);
+		storage.saveAll(PaperTrackReader.readPaperTrackFile("test-files/paperTrack2.txt"));
+		PaperTrack track = storage.loadTrack("Position paper");
+		track.addListener(storage::append);
+		track.executeCommand(2, new Command(CommandValue.ASSIGN, "reviewer4"));
+		assertTrue(Files.exists(TextTrackStorage.journalFile(fileName)));
+
+		storage.saveAll(storage.loadAll());
+		assertFalse(Files.exists(TextTrackStorage.journalFile(fileName)));
+		assertEquals("reviewer4", storage.loadTrack("Position paper").getPaperById(2).getReviewer());
+	}
+
+	/**
+	 * Tests that loading a missing file fails
+	 */
+	@Test
+	public void testMissingFile() {
+		assertThrows(IllegalArgumentException.class, () -> newStorage(dir.resolve("missing")).loadAll());
+	}
+}
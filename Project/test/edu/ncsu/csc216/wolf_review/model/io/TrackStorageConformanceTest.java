@@ -0,0 +1,151 @@
+package edu.ncsu.csc216.wolf_review.model.io;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import edu.ncsu.csc216.wolf_review.model.command.Command;
+import edu.ncsu.csc216.wolf_review.model.command.Command.CommandValue;
+import edu.ncsu.csc216.wolf_review.model.manager.PaperTrack;
+import edu.ncsu.csc216.wolf_review.model.manager.PaperTrackListener;
+
+/**
+ * Tests that a TrackStorage keeps the TrackStorage contract. Each storage has a subclass
+ * that makes the storage to test
+ * @author Steven Saleeb
+ */
+public abstract class TrackStorageConformanceTest {
+
+	/** Directory for the files written by the tests */
+	@TempDir
+	Path dir;
+
+	/**
+	 * Makes an empty storage to test
+	 * @param directory a directory the storage may write files in
+	 * @return the storage
+	 */
+	protected abstract TrackStorage newStorage(Path directory);
+
+	/**
+	 * Reads the tracks of the second test file
+	 * @return the tracks
+	 */
+	private static ArrayList<PaperTrack> readTracks() {
+		return PaperTrackReader.readPaperTrackFile("test-files/paperTrack2.txt");
+	}
+
+	/**
+	 * Tests that saved tracks are loaded back with the same settings and papers
+	 */
+	@Test
+	public void testSaveAllAndLoadAll() {
+		TrackStorage storage = newStorage(dir);
+		List<PaperTrack> tracks = readTracks();
+		storage.saveAll(tracks);
+		List<PaperTrack> loaded = storage.loadAll();
+		assertEquals(tracks.size(), loaded.size());
+		for (int i = 0; i < tracks.size(); i++) {
+			assertEquals(tracks.get(i).toString(), loaded.get(i).toString());
+			assertEquals(tracks.get(i).getSnapshot().getPapers().toString(),
+					loaded.get(i).getSnapshot().getPapers().toString());
+		}
+	}
+
+	/**
+	 * Tests that one track is loaded by name and a missing name loads nothing
+	 */
+	@Test
+	public void testLoadTrack() {
+		TrackStorage storage = newStorage(dir);
+		storage.saveAll(readTracks());
+		PaperTrack track = storage.loadTrack("Position paper");
+		assertEquals("Position paper", track.getTrackName());
+		assertEquals(6, track.getPapers().size());
+		assertNull(storage.loadTrack("No such track"));
+	}
+
+	/**
+	 * Tests that saveDirty only counts tracks that are new or changed since they were loaded
+	 */
+	@Test
+	public void testSaveDirty() {
+		TrackStorage storage = newStorage(dir);
+		storage.saveAll(readTracks());
+		List<PaperTrack> loaded = storage.loadAll();
+		assertEquals(0, storage.saveDirty(loaded));
+
+		loaded.get(1).executeCommand(2, new Command(CommandValue.ASSIGN, "reviewer4"));
+		assertEquals(1, storage.saveDirty(loaded));
+		assertEquals(0, storage.saveDirty(loaded));
+		assertEquals("reviewer4", storage.loadTrack("Position paper").getPaperById(2).getReviewer());
+
+		PaperTrack added = new PaperTrack("Added Track", 10, 5);
+		added.addPaper("A. Author");
+		loaded.add(added);
+		assertEquals(1, storage.saveDirty(loaded));
+		assertEquals(1, storage.loadTrack("Added Track").getPapers().size());
+	}
+
+	/**
+	 * Tests that appended additions, changes and deletions are seen by the next load, and
+	 * that papers removed by archiving are still stored
+	 */
+	@Test
+	public void testAppend() {
+		TrackStorage storage = newStorage(dir);
+		storage.saveAll(readTracks());
+		PaperTrack track = storage.loadTrack("Position paper");
+		PaperTrackListener appender = storage::append;
+		track.addListener(appender);
+		track.executeCommand(2, new Command(CommandValue.ASSIGN, "reviewer4"));
+		track.deletePaperById(11);
+		track.addPaper("N. Newcomer");
+		int newId = track.getPapers().get(track.getPapers().size() - 1).getId();
+		track.archiveClosed();
+		track.removeListener(appender);
+
+		PaperTrack loaded = storage.loadTrack("Position paper");
+		assertEquals("reviewer4", loaded.getPaperById(2).getReviewer());
+		assertNull(loaded.getPaperById(11));
+		assertEquals("N. Newcomer", loaded.getPaperById(newId).getAuthorNames());
+		assertNotNull(loaded.getPaperById(3));
+		assertEquals(6, loaded.getPapers().size());
+	}
+
+	/**
+	 * Tests that saveAll replaces everything that was stored
+	 */
+	@Test
+	public void testSaveAllReplaces() {
+		TrackStorage storage = newStorage(dir);
+		storage.saveAll(readTracks());
+		PaperTrack only = new PaperTrack("Only Track", 10, 5);
+		only.addPaper("A. Author");
+		List<PaperTrack> tracks = new ArrayList<PaperTrack>();
+		tracks.add(only);
+		storage.saveAll(tracks);
+		List<PaperTrack> loaded = storage.loadAll();
+		assertEquals(1, loaded.size());
+		assertEquals("Only Track", loaded.get(0).getTrackName());
+		assertNull(storage.loadTrack("Position paper"));
+	}
+
+	/**
+	 * Tests that the benchmark runs against the storage and times every change
+	 */
+	@Test
+	public void testBenchmark() {
+		StorageBenchmark.Result result = StorageBenchmark.run(newStorage(dir), 2, 50, 20);
+		assertEquals(20, result.getAppendCount());
+		assertTrue(result.getAppendPercentileNanos(50) <= result.getAppendPercentileNanos(99));
+		assertTrue(result.getAppendPercentileNanos(99) <= result.getAppendPercentileNanos(100));
+		assertTrue(result.getPapersLoadedPerSecond() > 0);
+		assertThrows(IllegalArgumentException.class, () -> StorageBenchmark.run(newStorage(dir), 1, 5, 6));
+	}
+}
@@ -0,0 +1,133 @@
+package edu.ncsu.csc216.wolf_review.model.io;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import edu.ncsu.csc216.wolf_review.model.command.Command;
+import edu.ncsu.csc216.wolf_review.model.command.Command.CommandValue;
+import edu.ncsu.csc216.wolf_review.model.manager.PaperTrack;
+import edu.ncsu.csc216.wolf_review.model.paper.Paper;
+
+/**
+ * Tests the TrackStore class in the WolfReview system.
+ * Each test makes sure that tracks are stored one file per track,
+ * read lazily and only rewritten when they change
+ * @author Steven Saleeb
+ */
+public class TrackStoreTest {
+
+    /**
+     * The directory of the store
+     */
+    @TempDir
+    Path dir;
+
+    /**
+     * Creates a track with two papers
+     * @param name the name of the track
+     * @param firstId the id of the first paper
+     * @return the track
+     */
+    private static PaperTrack track(String name, int firstId) {
+        PaperTrack track = new PaperTrack(name, 10, 5);
+        track.addPaper(new Paper(firstId, "Submitted", "S. Carol", "Abstract", false, "", ""));
+        track.addPaper(new Paper(firstId + 1, "Reviewing", "anonymous", "FullPaper", false, "reviewer1", ""));
+        return track;
+    }
+
+    /**
+     * Tests saving tracks and opening them again without reading their papers
+     * @throws Exception if the files cannot be read
+     */
+    @Test
+    public void testSaveAndOpen() throws Exception {
+        TrackStore store = new TrackStore(dir);
+        List<PaperTrack> tracks = List.of(track("Research Track", 1), track("Position Paper", 10));
+        assertEquals(2, store.save(tracks));
+        assertFalse(tracks.get(0).isDirty());
+        assertEquals(dir.resolve("research-track.txt"), store.getTrackFile("Research Track"));
+        assertEquals("research-track.txt,Research Track,10,5\nposition-paper.txt,Position Paper,10,5\n",
+                Files.readString(dir.resolve(TrackStore.MANIFEST_NAME)));
+        assertTrue(Files.readString(dir.resolve("position-paper.txt")).startsWith("# Position Paper,10,5\n* 10,"));
+        assertTrue(Files.readString(dir.resolve("position-paper.txt")).matches("(?s).*\\n! [0-9a-f]{8}\\n"));
+        assertEquals(0, store.save(tracks));
+
+        ArrayList<PaperTrack> opened = new TrackStore(dir).open();
+        assertEquals(2, opened.size());
+        PaperTrack research = opened.get(0);
+        assertEquals("Research Track", research.getTrackName());
+        assertFalse(research.isLoaded());
+        assertFalse(research.isDirty());
+        assertEquals(2, research.getSnapshot().size());
+        assertTrue(research.isLoaded());
+        assertFalse(research.isDirty());
+        assertFalse(opened.get(1).isLoaded());
+    }
+
+    /**
+     * Tests that only changed tracks are rewritten and removed tracks are deleted
+     * @throws Exception if the files cannot be read
+     */
+    @Test
+    public void testDirtyTracks() throws Exception {
+        TrackStore store = new TrackStore(dir);
+        store.save(List.of(track("Research Track", 1), track("Position Paper", 10)));
+        ArrayList<PaperTrack> opened = store.open();
+        PaperTrack research = opened.get(0);
+
+        research.executeCommand(1, new Command(CommandValue.ASSIGN, "reviewer2"));
+        assertTrue(research.isDirty());
+        assertFalse(opened.get(1).isDirty());
+        assertEquals(1, store.save(opened));
+        assertFalse(opened.get(1).isLoaded());
+        assertTrue(Files.readString(dir.resolve("research-track.txt")).contains("reviewer2"));
+
+        assertEquals(0, store.save(List.of(research)));
+        assertFalse(Files.exists(dir.resolve("position-paper.txt")));
+        assertEquals("research-track.txt,Research Track,10,5\n", Files.readString(dir.resolve(TrackStore.MANIFEST_NAME)));
+    }
+
+    /**
+     * Tests an empty store, file name collisions and tracks without papers
+     */
+    @Test
+    public void testEmptyAndCollisions() {
+        TrackStore store = new TrackStore(dir.resolve("new"));
+        assertTrue(store.open().isEmpty());
+        assertEquals(2, store.save(List.of(track("A B", 1), new PaperTrack("A-B", 10, 5))));
+        assertEquals(store.getDirectory().resolve("a-b.txt"), store.getTrackFile("A B"));
+        assertEquals(store.getDirectory().resolve("a-b-2.txt"), store.getTrackFile("A-B"));
+        assertNull(store.getTrackFile("Missing"));
+
+        ArrayList<PaperTrack> opened = new TrackStore(store.getDirectory()).open();
+        assertEquals(2, opened.size());
+        assertEquals(0, opened.get(1).getSnapshot().size());
+    }
+
+    /**
+     * Tests that evicting a track writes it back if needed and reads it again when used
+     * @throws Exception if the files cannot be read
+     */
+    @Test
+    public void testEvict() throws Exception {
+        TrackStore store = new TrackStore(dir);
+        PaperTrack research = track("Research Track", 1);
+        assertTrue(store.evict(research));
+        assertFalse(research.isLoaded());
+        assertEquals("research-track.txt,Research Track,10,5\n", Files.readString(dir.resolve(TrackStore.MANIFEST_NAME)));
+
+        research.executeCommand(1, new Command(CommandValue.ASSIGN, "reviewer2"));
+        assertTrue(research.isLoaded());
+        assertTrue(store.evict(research));
+        assertTrue(Files.readString(dir.resolve("research-track.txt")).contains("reviewer2"));
+        assertEquals("reviewer2", research.getPaperById(1).getReviewer());
+        assertEquals(0, store.save(List.of(research)));
+    }
+}
@@ -0,0 +1,163 @@
+package edu.ncsu.csc216.wolf_review.model.io;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.wolf_review.model.command.Command;
+import edu.ncsu.csc216.wolf_review.model.command.Command.CommandValue;
+import edu.ncsu.csc216.wolf_review.model.manager.PaperTrack;
+
+/**
+ * Tests the WriteBehindPersister class
+ * @author Steven Saleeb
+ */
+public class WriteBehindPersisterTest {
+
+	/**
+	 * Tests that changes made during one window are saved together by the writer thread
+	 * @throws InterruptedException if interrupted while waiting
+	 */
+	@Test
+	public void testChangesSavedTogether() throws InterruptedException {
+		MemoryTrackStorage storage = new MemoryTrackStorage();
+		List<PaperTrack> tracks = PaperTrackReader.readPaperTrackFile("test-files/paperTrack2.txt");
+		storage.saveAll(tracks);
+		tracks = storage.loadAll();
+		List<PaperTrack> current = tracks;
+		WriteBehindPersister persister = new WriteBehindPersister(storage, () -> current, 200);
+		for (PaperTrack track : tracks) {
+			track.addListener(persister);
+		}
+		persister.start();
+		assertTrue(persister.isRunning());
+
+		PaperTrack track = tracks.get(1);
+		track.executeCommand(2, new Command(CommandValue.ASSIGN, "reviewer4"));
+		track.addPaper("A. Author");
+		track.addPaper("B. Author");
+		assertEquals(3, persister.getUnsavedCount());
+		assertNotEquals("reviewer4", storage.loadTrack("Position paper").getPaperById(2).getReviewer());
+
+		waitFor(() -> persister.getUnsavedCount() == 0 && persister.getSaveCount() == 1);
+		assertEquals(1, persister.getTracksWritten());
+		assertEquals(3, persister.getChangeCount());
+		PaperTrack saved = storage.loadTrack("Position paper");
+		assertEquals("reviewer4", saved.getPaperById(2).getReviewer());
+		assertEquals(track.getPapers().size(), saved.getPapers().size());
+
+		track.deletePaperById(11);
+		persister.close();
+		assertFalse(persister.isRunning());
+		assertEquals(0, persister.getUnsavedCount());
+		assertNull(storage.loadTrack("Position paper").getPaperById(11));
+		assertNull(persister.getLastFailure());
+	}
+
+	/**
+	 * Tests that a change to the list of tracks replaces everything stored
+	 */
+	@Test
+	public void testTracksChanged() {
+		MemoryTrackStorage storage = new MemoryTrackStorage();
+		List<PaperTrack> tracks = new ArrayList<PaperTrack>(PaperTrackReader.readPaperTrackFile("test-files/paperTrack2.txt"));
+		storage.saveAll(tracks);
+		WriteBehindPersister persister = new WriteBehindPersister(storage, () -> tracks, 0);
+		tracks.remove(0);
+		persister.tracksChanged();
+		assertEquals(tracks.size(), persister.flush());
+		assertEquals(0, persister.flush());
+		assertNull(storage.loadTrack("Research Track"));
+		assertEquals(tracks.size(), storage.loadAll().size());
+	}
+
+	/**
+	 * Tests that a failed save keeps the changes unsaved and is reported
+	 */
+	@Test
+	public void testFailedSaveKept() {
+		TrackStorage failing = new MemoryTrackStorage() {
+			@Override
+			public synchronized void saveAll(List<PaperTrack> tracks) {
+				throw new IllegalArgumentException("Unable to save file.");
+			}
+		};
+		WriteBehindPersister persister = new WriteBehindPersister(failing, () -> new ArrayList<PaperTrack>(), 0);
+		persister.tracksChanged();
+		assertThrows(IllegalArgumentException.class, () -> persister.flush());
+		assertEquals(1, persister.getUnsavedCount());
+		assertEquals("Unable to save file.", persister.getLastFailure().getMessage());
+		assertThrows(IllegalArgumentException.class, () -> persister.close());
+	}
+
+	/**
+	 * Tests that a storage failing with an exception other than IllegalArgumentException
+	 * keeps the changes unsaved and the writer thread running, so they are saved once the
+	 * storage works again
+	 * @throws InterruptedException if interrupted while waiting
+	 */
+	@Test
+	public void testUnexpectedFailure() throws InterruptedException {
+		AtomicBoolean broken = new AtomicBoolean(true);
+		MemoryTrackStorage storage = new MemoryTrackStorage() {
+			@Override
+			public synchronized int saveDirty(List<PaperTrack> tracks) {
+				if (broken.get()) {
+					throw new IllegalStateException("disk gone");
+				}
+				return super.saveDirty(tracks);
+			}
+		};
+		List<PaperTrack> tracks = PaperTrackReader.readPaperTrackFile("test-files/paperTrack2.txt");
+		storage.saveAll(tracks);
+		WriteBehindPersister persister = new WriteBehindPersister(storage, () -> tracks, 10);
+		for (PaperTrack track : tracks) {
+			track.addListener(persister);
+		}
+		persister.start();
+		tracks.get(1).executeCommand(2, new Command(CommandValue.ASSIGN, "reviewer4"));
+		waitFor(() -> persister.getLastFailure() != null);
+		assertEquals("Unable to save file.", persister.getLastFailure().getMessage());
+		assertTrue(persister.getLastFailure().getCause() instanceof IllegalStateException);
+		assertTrue(persister.isRunning());
+		assertEquals(1, persister.getUnsavedCount());
+
+		broken.set(false);
+		waitFor(() -> persister.getUnsavedCount() == 0 && persister.getSaveCount() == 1);
+		assertNull(persister.getLastFailure());
+		assertEquals("reviewer4", storage.loadTrack("Position paper").getPaperById(2).getReviewer());
+		persister.close();
+	}
+
+	/**
+	 * Tests invalid arguments and starting twice
+	 */
+	@Test
+	public void testInvalid() {
+		assertThrows(IllegalArgumentException.class, () -> new WriteBehindPersister(null, () -> null));
+		assertThrows(IllegalArgumentException.class,
+				() -> new WriteBehindPersister(new MemoryTrackStorage(), () -> null, -1));
+		WriteBehindPersister persister = new WriteBehindPersister(new MemoryTrackStorage(), () -> null);
+		persister.start();
+		assertThrows(IllegalStateException.class, () -> persister.start());
+		persister.close();
+	}
+
+	/**
+	 * Waits up to five seconds for a condition to become true
+	 * @param condition the condition to wait for
+	 * @throws InterruptedException if interrupted while waiting
+	 */
+	private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5000;
+		while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		assertTrue(condition.getAsBoolean());
+	}
+}
@@ -0,0 +1,113 @@
+package edu.ncsu.csc216.wolf_review.model.manager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.wolf_review.model.command.Command;
+import edu.ncsu.csc216.wolf_review.model.command.Command.CommandValue;
+import edu.ncsu.csc216.wolf_review.model.io.PaperTrackReader;
+import edu.ncsu.csc216.wolf_review.model.paper.Paper;
+
+/**
+ * Tests the AuthorIndex class in the WolfReview system.
+ * Each test makes sure that author names can be found by prefix and that
+ * the names of anonymous papers are only found by the hidden search
+ * @author Steven Saleeb
+ */
+class AuthorIndexTest {
+
+	/**
+	 * The index under test
+	 */
+    private AuthorIndex index;
+
+    /**
+     * A track watched by the index
+     */
+    private PaperTrack track;
+
+    /**
+     * Id of a full paper in the track
+     */
+    private int id;
+
+    /**
+     * Creates a track with papers and an index that watches it
+     */
+    @BeforeEach
+    void setUp() {
+        Paper.setCounter(1);
+        track = new PaperTrack("Research", 10, 5);
+        id = track.addPaper("S. Carol; M. Hill");
+        track.addPaper("T. Hillary");
+        index = new AuthorIndex();
+        index.addTrack(track);
+    }
+
+    /**
+     * Tests splitting author names into tokens
+     */
+    @Test
+    void testTokenize() {
+        assertEquals(Set.of("s", "carol", "m", "hill"), AuthorIndex.tokenize("S. Carol; M. Hill"));
+        assertTrue(AuthorIndex.tokenize(null).isEmpty());
+    }
+
+    /**
+     * Tests prefix search on visible names
+     */
+    @Test
+    void testPrefixSearch() {
+        assertEquals(Map.of("Research", List.of(1, 2)), index.search("hill"));
+        assertEquals(Map.of("Research", List.of(1)), index.search("Carol"));
+        assertTrue(index.search("x").isEmpty());
+        assertTrue(index.search("  ").isEmpty());
+    }
+
+    /**
+     * Tests that assigning a paper hides its authors from the visible search
+     * and that closing it restores them
+     */
+    @Test
+    void testAnonymity() {
+        track.executeCommand(id, new Command(CommandValue.ASSIGN, "reviewer1"));
+        assertTrue(index.search("carol").isEmpty());
+        assertEquals(Map.of("Research", List.of(1)), index.searchIncludingHidden("carol"));
+        assertTrue(index.search("anon").isEmpty());
+
+        track.executeCommand(id, new Command(CommandValue.CLOSE, Paper.WITHDRAW_CLOSED));
+        assertEquals(Map.of("Research", List.of(1)), index.search("carol"));
+    }
+
+    /**
+     * Tests that papers read from a file while anonymous do not index the placeholder names
+     * they are given in place of their real authors
+     */
+    @Test
+    void testPlaceholderNames() {
+        PaperTrack loaded = PaperTrackReader.readPaperTrackFile("test-files/expected_paperTracks.txt").get(0);
+        index.addTrack(loaded);
+        assertTrue(index.searchIncludingHidden("ross").isEmpty());
+        assertTrue(index.searchIncludingHidden("mendez").isEmpty());
+
+        track.executeCommand(id, new Command(CommandValue.ASSIGN, "reviewer1"));
+        assertEquals(Map.of("Research", List.of(1)), index.searchIncludingHidden("carol"));
+    }
+
+    /**
+     * Tests that deleting a paper and removing a track remove their names
+     */
+    @Test
+    void testDeleteAndRemoveTrack() {
+        track.deletePaperById(id);
+        assertEquals(Map.of("Research", List.of(2)), index.search("hill"));
+        index.removeTrack(track);
+        assertTrue(index.searchIncludingHidden("hill").isEmpty());
+    }
+}
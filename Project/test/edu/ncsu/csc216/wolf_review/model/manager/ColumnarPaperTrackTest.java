@@ -0,0 +1,187 @@
+package edu.ncsu.csc216.wolf_review.model.manager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.wolf_review.model.io.PaperTrackReader;
+import edu.ncsu.csc216.wolf_review.model.manager.PaperQuery.SortKey;
+import edu.ncsu.csc216.wolf_review.model.paper.Paper;
+import edu.ncsu.csc216.wolf_review.model.paper.PaperView;
+
+/**
+ * Tests the ColumnarPaperTrack class in the WolfReview system.
+ * Each test makes sure the columnar copy of a track reads, finds and filters
+ * the same papers as the snapshot it was made from
+ * @author Steven Saleeb
+ */
+class ColumnarPaperTrackTest {
+
+	/**
+	 * The tracks from paperTrack2.txt
+	 */
+    private ArrayList<PaperTrack> tracks;
+
+    /**
+     * Loads the test tracks before each test
+     */
+    @BeforeEach
+    void setUp() {
+        tracks = PaperTrackReader.readPaperTrackFile("test-files/paperTrack2.txt");
+    }
+
+    /**
+     * Tests that every paper view reads the same values as the snapshot
+     */
+    @Test
+    void testRowsMatchSnapshot() {
+        for (PaperTrack track : tracks) {
+            TrackSnapshot snapshot = track.getSnapshot();
+            ColumnarPaperTrack columnar = ColumnarPaperTrack.of(snapshot);
+            assertEquals(snapshot.getTrackName(), columnar.getTrackName());
+            assertEquals(snapshot.getPageLimit(), columnar.getPageLimit());
+            assertEquals(snapshot.getPayRateExtraPages(), columnar.getPayRateExtraPages());
+            assertEquals(snapshot.size(), columnar.size());
+            for (int i = 0; i < snapshot.size(); i++) {
+                assertSameValues(snapshot.getPapers().get(i), columnar.getPapers().get(i));
+            }
+        }
+        assertThrows(IllegalArgumentException.class, () -> ColumnarPaperTrack.of(null));
+    }
+
+    /**
+     * Tests finding papers by id
+     */
+    @Test
+    void testGetPaperById() {
+        ColumnarPaperTrack columnar = ColumnarPaperTrack.of(tracks.get(1).getSnapshot());
+        assertEquals("4,Submitted,anonymous,Abstract,true,reviewer1,WeakAcceptRecommendation",
+                columnar.getPaperById(4).toString());
+        assertEquals(11, columnar.getPaperById(11).getId());
+        assertNull(columnar.getPaperById(1));
+        assertNull(columnar.getPaperById(5));
+        assertNull(columnar.getPaperById(12));
+        assertEquals(-1, columnar.indexOf(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> columnar.getPapers().get(6));
+    }
+
+    /**
+     * Tests that each distinct author name is stored once
+     */
+    @Test
+    void testAuthorPool() {
+        PaperTrack track = new PaperTrack("Pooled", 10, 5);
+        for (int id = 1; id <= 200; id++) {
+            boolean processed = id % 3 == 0;
+            track.addPaper(new Paper(id, Paper.SUBMITTED_NAME, processed ? "anonymous" : "S. Carol" + (id % 2),
+                    Paper.P_FULLPAPER, processed, processed ? "reviewer" + (id % 4) : "",
+                    processed ? Paper.RECOMMEND_WEAK_ACCEPT : ""));
+        }
+        ColumnarPaperTrack columnar = track.getColumnar();
+        assertEquals(200, columnar.size());
+        assertTrue(columnar.getAuthorPoolSize() <= 4);
+        for (PaperView paper : track.getSnapshot().getPapers()) {
+            assertSameValues(paper, columnar.getPaperById(paper.getId()));
+        }
+    }
+
+    /**
+     * Tests the state and reviewer filters against the snapshot indexes
+     */
+    @Test
+    void testPositions() {
+        for (PaperTrack track : tracks) {
+            TrackSnapshot snapshot = track.getSnapshot();
+            ColumnarPaperTrack columnar = track.getColumnar();
+            for (String state : new String[] {Paper.SUBMITTED_NAME, Paper.REVIEWING_NAME, Paper.REVISING_NAME,
+                Paper.REGISTERING_NAME, Paper.CLOSED_NAME, "Unknown"}) {
+                assertArrayEquals(snapshot.positionsInState(state), columnar.positionsInState(state));
+                assertEquals(snapshot.getStatistics().getStateCount(state), columnar.countInState(state));
+            }
+            for (String reviewer : new String[] {"reviewer1", "reviewer2", "reviewer4", "nobody", ""}) {
+                assertArrayEquals(snapshot.positionsOfReviewer(reviewer), columnar.positionsOfReviewer(reviewer));
+            }
+        }
+    }
+
+    /**
+     * Tests that queries on the columnar copy return the same papers as queries on the snapshot
+     */
+    @Test
+    void testQueriesMatchSnapshot() {
+        List<PaperQuery> queries = new ArrayList<PaperQuery>();
+        queries.add(new PaperQuery());
+        queries.add(new PaperQuery().id(4));
+        queries.add(new PaperQuery().id(4).state(Paper.CLOSED_NAME));
+        queries.add(new PaperQuery().state(Paper.SUBMITTED_NAME).paperType("abstract"));
+        queries.add(new PaperQuery().processed(true).sortBy(SortKey.AUTHORS, true));
+        queries.add(new PaperQuery().reviewer("reviewer1").note(Paper.RECOMMEND_WEAK_ACCEPT));
+        queries.add(new PaperQuery().reviewer("nobody"));
+        queries.add(new PaperQuery().note(Paper.WITHDRAW_CLOSED));
+        queries.add(new PaperQuery().authorContains("HILL").sortBy(SortKey.STATE, false));
+        queries.add(new PaperQuery().sortBy(SortKey.REVIEWER, false).page(1, 2));
+        for (PaperTrack track : tracks) {
+            for (PaperQuery query : queries) {
+                List<PaperView> expected = query.execute(track.getSnapshot());
+                List<ColumnarPaperTrack.PaperRow> actual = query.execute(track.getColumnar());
+                assertEquals(expected.size(), actual.size());
+                for (int i = 0; i < expected.size(); i++) {
+                    assertSameValues(expected.get(i), actual.get(i));
+                }
+            }
+        }
+    }
+
+    /**
+     * Tests that papers made from the columns equal the original papers
+     */
+    @Test
+    void testToPapers() {
+        for (PaperTrack track : tracks) {
+            List<Paper> papers = track.getColumnar().toPapers();
+            assertEquals(track.getPapers().size(), papers.size());
+            for (int i = 0; i < papers.size(); i++) {
+                Paper original = track.getPapers().get(i);
+                assertEquals(original.toString(), papers.get(i).toString());
+                assertEquals(original.getSavedAuthorNames(), papers.get(i).getSavedAuthorNames());
+            }
+        }
+    }
+
+    /**
+     * Tests that the track reuses its columnar copy until it changes
+     */
+    @Test
+    void testColumnarCachedPerSnapshot() {
+        PaperTrack track = tracks.get(1);
+        ColumnarPaperTrack first = track.getColumnar();
+        assertSame(first, track.getColumnar());
+        track.addPaper("M. Hill");
+        ColumnarPaperTrack second = track.getColumnar();
+        assertNotSame(first, second);
+        assertEquals(6, first.size());
+        assertEquals(7, second.size());
+        assertEquals(track.getSnapshot().getVersion(), second.getVersion());
+    }
+
+    /**
+     * Checks that a columnar view has the same values as a paper view
+     * @param expected the paper view
+     * @param actual the columnar view
+     */
+    private static void assertSameValues(PaperView expected, ColumnarPaperTrack.PaperRow actual) {
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getState(), actual.getState());
+        assertEquals(expected.getAuthorNames(), actual.getAuthorNames());
+        assertEquals(expected.getSavedAuthorNames(), actual.getSavedAuthorNames());
+        assertEquals(expected.getPaperType(), actual.getPaperType());
+        assertEquals(expected.isProcessed(), actual.isProcessed());
+        assertEquals(expected.getReviewer(), actual.getReviewer());
+        assertEquals(expected.getNote(), actual.getNote());
+        assertEquals(expected.toString(), actual.toString());
+    }
+}
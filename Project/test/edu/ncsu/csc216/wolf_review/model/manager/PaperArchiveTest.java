@@ -0,0 +1,213 @@
+package edu.ncsu.csc216.wolf_review.model.manager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import edu.ncsu.csc216.wolf_review.model.command.Command;
+import edu.ncsu.csc216.wolf_review.model.command.Command.CommandValue;
+import edu.ncsu.csc216.wolf_review.model.command.CommandResult;
+import edu.ncsu.csc216.wolf_review.model.io.PaperTrackReader;
+import edu.ncsu.csc216.wolf_review.model.io.PaperTrackWriter;
+import edu.ncsu.csc216.wolf_review.model.paper.Paper;
+import edu.ncsu.csc216.wolf_review.model.paper.PaperView;
+
+/**
+ * Tests the PaperArchive class in the WolfReview system.
+ * Each test makes sure archived Closed papers are stored, found, counted
+ * and written out the same as papers that were never archived
+ * @author Steven Saleeb
+ */
+class PaperArchiveTest {
+
+	/**
+	 * The tracks from paperTrack2.txt
+	 */
+    private ArrayList<PaperTrack> tracks;
+
+    /**
+     * A temporary directory for written files
+     */
+    @TempDir
+    Path dir;
+
+    /**
+     * Loads the test tracks before each test
+     */
+    @BeforeEach
+    void setUp() {
+        tracks = PaperTrackReader.readPaperTrackFile("test-files/paperTrack2.txt");
+    }
+
+    /**
+     * Tests that papers made from their records equal the papers that were archived
+     */
+    @Test
+    void testWithRoundTrip() {
+        PaperTrack track = tracks.get(1);
+        List<PaperView> closed = new ArrayList<PaperView>();
+        for (PaperView paper : track.getSnapshot().getPapers()) {
+            if (Paper.CLOSED_NAME.equals(paper.getState())) {
+                closed.add(paper);
+            }
+        }
+        PaperArchive archive = PaperArchive.EMPTY.with(closed);
+        assertEquals(2, archive.size());
+        assertTrue(archive.getRecordBytes() > 0);
+        assertEquals(closed, archive.getPapers());
+        assertEquals(TrackStatistics.of(closed.toArray(new PaperView[0])), archive.getStatistics());
+        assertEquals("7,Closed,D. Sanders; T. McDonald,Abstract,true,,Rejected", archive.getPaperById(7).toString());
+        assertNull(archive.getPaperById(4));
+        assertEquals(7, archive.getMaxId());
+        assertEquals(0, PaperArchive.EMPTY.getMaxId());
+
+        assertThrows(IllegalArgumentException.class, () -> archive.with(closed));
+        List<PaperView> open = new ArrayList<PaperView>(track.getSnapshot().getPapers().subList(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> archive.with(open));
+    }
+
+    /**
+     * Tests adding papers to and removing papers from an archive in any order
+     */
+    @Test
+    void testWithAndWithout() {
+        List<PaperView> papers = new ArrayList<PaperView>();
+        for (int id = 40; id >= 1; id--) {
+            papers.add(new PaperView(new Paper(id, Paper.CLOSED_NAME, "Author " + id, Paper.P_FULLPAPER, id % 2 == 0,
+                    "", id % 2 == 0 ? Paper.REJECT_CLOSED : Paper.WITHDRAW_CLOSED)));
+        }
+        PaperArchive archive = PaperArchive.EMPTY.with(papers.subList(0, 20)).with(papers.subList(20, 40));
+        assertEquals(40, archive.size());
+        List<PaperView> archived = archive.getPapers();
+        for (int i = 0; i < 40; i++) {
+            assertEquals(i + 1, archived.get(i).getId());
+            assertEquals(papers.get(39 - i), archived.get(i));
+        }
+
+        PaperArchive smaller = archive.without(1).without(20).without(40).without(99);
+        assertEquals(37, smaller.size());
+        assertEquals(40, archive.size());
+        assertFalse(smaller.contains(20));
+        assertEquals(papers.get(19), smaller.getPapers().get(18));
+        assertEquals(papers.get(21), smaller.getPapers().get(17));
+        assertEquals(archive.getStatistics().getTotal() - 3, smaller.getStatistics().getTotal());
+        assertTrue(smaller.getRecordBytes() < archive.getRecordBytes());
+        assertSame(smaller, smaller.without(99));
+    }
+
+    /**
+     * Tests that an archived track still finds, counts and writes its Closed papers
+     * @throws Exception if a written file cannot be read
+     */
+    @Test
+    void testArchiveClosed() throws Exception {
+        Path before = dir.resolve("before.txt");
+        PaperTrackWriter.writePaperTracksToFile(before.toString(), tracks);
+        List<TrackStatistics> statistics = new ArrayList<TrackStatistics>();
+        for (PaperTrack track : tracks) {
+            statistics.add(track.getStatistics());
+        }
+
+        PaperTrack track = tracks.get(1);
+        assertEquals(2, track.archiveClosed());
+        assertEquals(0, track.archiveClosed());
+        assertEquals(4, track.getSnapshot().size());
+        assertEquals(6, track.getSnapshot().getAllPapers().size());
+        assertEquals(4, track.getPapers().size());
+        assertEquals("3,Closed,B. Kathleen; N. Gillespie,FullPaper,true,,Accepted", track.getPaperById(3).toString());
+        for (PaperTrack t : tracks) {
+            t.archiveClosed();
+        }
+
+        Path after = dir.resolve("after.txt");
+        PaperTrackWriter.writePaperTracksToFile(after.toString(), tracks);
+        assertEquals(Files.readString(before), Files.readString(after));
+        for (int i = 0; i < tracks.size(); i++) {
+            assertEquals(statistics.get(i), tracks.get(i).getStatistics());
+        }
+    }
+
+    /**
+     * Tests adding, deleting and running commands on archived papers
+     */
+    @Test
+    void testChangesToArchivedPapers() {
+        PaperTrack track = tracks.get(1);
+        track.archiveClosed();
+        long version = track.getSnapshot().getVersion();
+        assertThrows(IllegalArgumentException.class,
+                () -> track.addPaper(new Paper(7, Paper.SUBMITTED_NAME, "M. Hill", Paper.P_ABSTRACT, false, "", "")));
+        assertThrows(UnsupportedOperationException.class,
+                () -> track.executeCommand(3, new Command(CommandValue.ASSIGN, "reviewer1")));
+        assertEquals(CommandResult.INVALID_FOR_STATE, track.tryExecuteCommand(3, CommandValue.ASSIGN, "reviewer1"));
+        assertEquals(CommandResult.NOT_FOUND, track.tryExecuteCommand(99, CommandValue.ASSIGN, "reviewer1"));
+        assertEquals(version, track.getSnapshot().getVersion());
+
+        track.setPaperId();
+        assertEquals(12, track.addPaper("M. Hill"));
+
+        track.deletePaperById(3);
+        assertNull(track.getPaperById(3));
+        assertFalse(track.getSnapshot().getArchive().contains(3));
+        assertEquals(6, track.getSnapshot().getAllPapers().size());
+        assertEquals(1, track.getStatistics().getStateCount(Paper.CLOSED_NAME));
+    }
+
+    /**
+     * Tests that merging a track read again from its file counts archived papers as unchanged
+     */
+    @Test
+    void testMergeArchivedTrack() {
+        PaperTrack track = tracks.get(1);
+        track.archiveClosed();
+        ReloadSummary summary = new ReloadSummary();
+        track.mergeFrom(PaperTrackReader.readPaperTrackFile("test-files/paperTrack2.txt").get(1), summary);
+        assertEquals(6, summary.getPapersUnchanged());
+        assertEquals(0, summary.getPapersAdded());
+        assertEquals(0, track.getSnapshot().getArchive().size());
+        assertEquals(6, track.getSnapshot().size());
+    }
+
+    /**
+     * Tests that finding archived papers by their fields gives the same papers as checking
+     * every paper made from its record
+     */
+    @Test
+    void testFind() {
+        List<PaperView> closed = new ArrayList<PaperView>();
+        String[] notes = {Paper.ACCEPT_CLOSED, Paper.REJECT_CLOSED, "Moved to another venue", ""};
+        String[] reviewers = {"", "jdoe", "jdoé", "asmith"};
+        for (int id = 1; id <= 40; id++) {
+            closed.add(new PaperView(Paper.restore(id, Paper.CLOSED_NAME, "A. Author", id % 2 == 0 ? Paper.P_FULLPAPER
+                    : Paper.P_ABSTRACT, id % 3 == 0, reviewers[id % 4], notes[id % 5 % 4])));
+        }
+        PaperArchive archive = PaperArchive.EMPTY.with(closed);
+        assertEquals(closed, archive.find(null, null, null, null));
+        assertEquals(0, archive.find("Poster", null, null, null).size());
+        for (String type : new String[] {null, "fullpaper", Paper.P_ABSTRACT}) {
+            for (Boolean processed : new Boolean[] {null, true, false}) {
+                for (String reviewer : new String[] {null, "jdoe", "jdoé", "nobody"}) {
+                    for (String note : new String[] {null, Paper.REJECT_CLOSED, "Moved to another venue", "Other"}) {
+                        List<PaperView> expected = new ArrayList<PaperView>();
+                        for (PaperView paper : closed) {
+                            if ((type == null || type.equalsIgnoreCase(paper.getPaperType()))
+                                    && (processed == null || processed == paper.isProcessed())
+                                    && (reviewer == null || reviewer.equals(paper.getReviewer()))
+                                    && (note == null || note.equals(paper.getNote()))) {
+                                expected.add(paper);
+                            }
+                        }
+                        assertEquals(expected, archive.find(type, processed, reviewer, note));
+                    }
+                }
+            }
+        }
+    }
+}
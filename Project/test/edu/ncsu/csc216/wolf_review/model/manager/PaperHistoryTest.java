@@ -0,0 +1,117 @@
+package edu.ncsu.csc216.wolf_review.model.manager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.wolf_review.model.command.Command;
+import edu.ncsu.csc216.wolf_review.model.command.Command.CommandValue;
+import edu.ncsu.csc216.wolf_review.model.io.PaperTrackReader;
+import edu.ncsu.csc216.wolf_review.model.paper.PaperView;
+
+/**
+ * Tests the PaperHistory class
+ * @author Steven Saleeb
+ */
+public class PaperHistoryTest {
+
+	/** The time returned by the test clock */
+	private long now = 1000;
+
+	/**
+	 * Reads the Position paper track of the second test file
+	 * @return the track
+	 */
+	private static PaperTrack readTrack() {
+		return PaperTrackReader.readPaperTrackFile("test-files/paperTrack2.txt").get(1);
+	}
+
+	/**
+	 * Tests that commands, additions and deletions are logged for each paper with their
+	 * time and command
+	 */
+	@Test
+	public void testEvents() {
+		PaperTrack track = readTrack();
+		PaperHistory history = new PaperHistory(track, 4, () -> now);
+		now = 2000;
+		track.executeCommand(2, new Command(CommandValue.ASSIGN, "reviewer4"));
+		now = 3000;
+		track.deletePaperById(11);
+		int added = track.addPaper("A. Author");
+		assertThrows(UnsupportedOperationException.class,
+				() -> track.executeCommand(3, new Command(CommandValue.ASSIGN, "reviewer4")));
+		assertEquals(3, history.getEventCount());
+
+		List<PaperHistory.Event> events = history.getEvents(2);
+		assertEquals(1, events.size());
+		assertEquals(2000, events.get(0).getTime());
+		assertEquals(CommandValue.ASSIGN, events.get(0).getCommand());
+		assertEquals("reviewer4", events.get(0).getPaper().getReviewer());
+		assertNull(history.getEvents(11).get(0).getPaper());
+		assertNull(history.getEvents(11).get(0).getCommand());
+		assertEquals(added, history.getEvents(added).get(0).getPaperId());
+		assertTrue(history.getEvents(3).isEmpty());
+		assertEquals(2, history.getEventsSince(2000).size());
+	}
+
+	/**
+	 * Tests that the track as of a time matches the track as it was at that time, across
+	 * several checkpoints
+	 */
+	@Test
+	public void testAsOf() {
+		PaperTrack track = readTrack();
+		List<PaperView> start = track.getSnapshot().getPapers();
+		PaperHistory history = new PaperHistory(track, 3, () -> now);
+		assertTrue(history.asOf(999).isEmpty());
+		assertEquals(start, history.asOf(1000));
+
+		List<PaperView> afterTen = null;
+		for (int i = 0; i < 20; i++) {
+			now = 2000 + i * 100;
+			track.addPaper("Author " + i);
+			if (i == 9) {
+				afterTen = track.getSnapshot().getPapers();
+			}
+		}
+		now = 5000;
+		track.executeCommand(2, new Command(CommandValue.ASSIGN, "reviewer4"));
+		track.archiveClosed();
+
+		assertEquals(21, history.getEventCount());
+		assertEquals(8, history.getCheckpointCount());
+		assertEquals(afterTen, history.asOf(2900));
+		assertEquals(afterTen, history.asOf(2950));
+		assertEquals(start, history.asOf(1999));
+		assertEquals(track.getSnapshot().getAllPapers(), history.asOf(5000));
+
+		assertEquals("", history.paperAsOf(2, 4999).getReviewer());
+		assertEquals("reviewer4", history.paperAsOf(2, 5000).getReviewer());
+		assertNull(history.paperAsOf(2, 999));
+		assertNotNull(history.paperAsOf(3, 1000));
+		assertNull(history.paperAsOf(999, 5000));
+	}
+
+	/**
+	 * Tests that unloading and reloading the track and archiving papers are not logged, and
+	 * a detached history stops logging
+	 */
+	@Test
+	public void testUnloadAndDetach() {
+		PaperTrack track = readTrack();
+		PaperHistory history = new PaperHistory(track, 3, () -> now);
+		track.archiveClosed();
+		track.unload(() -> readTrack().getPapers());
+		track.getSnapshot();
+		assertEquals(0, history.getEventCount());
+		history.detach();
+		track.addPaper("A. Author");
+		assertEquals(0, history.getEventCount());
+		assertSame(track, history.getTrack());
+		assertEquals(1000, history.getStartTime());
+		assertThrows(IllegalArgumentException.class, () -> new PaperHistory(track, 0, () -> now));
+	}
+}
@@ -0,0 +1,117 @@
+package edu.ncsu.csc216.wolf_review.model.manager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.wolf_review.model.io.PaperTrackReader;
+import edu.ncsu.csc216.wolf_review.model.manager.PaperQuery.Plan;
+import edu.ncsu.csc216.wolf_review.model.manager.PaperQuery.SortKey;
+import edu.ncsu.csc216.wolf_review.model.paper.Paper;
+import edu.ncsu.csc216.wolf_review.model.paper.PaperView;
+
+/**
+ * Tests the PaperQuery class in the WolfReview system.
+ * Each test makes sure that filters, sorting and paging return the right
+ * papers and that the query picks the most selective plan
+ * @author Steven Saleeb
+ */
+class PaperQueryTest {
+
+	/**
+	 * The "Position paper" track from paperTrack2.txt
+	 */
+    private PaperTrack track;
+
+    /**
+     * Loads the test track before each test
+     */
+    @BeforeEach
+    void setUp() {
+        ArrayList<PaperTrack> tracks = PaperTrackReader.readPaperTrackFile("test-files/paperTrack2.txt");
+        track = tracks.get(1);
+    }
+
+    /**
+     * Tests that an empty query returns every paper in id order
+     */
+    @Test
+    void testEmptyQuery() {
+        PaperQuery query = new PaperQuery();
+        assertEquals(Plan.FULL_SCAN, query.plan(track.getSnapshot()));
+        assertEquals(6, track.query(query).size());
+        assertEquals(2, track.query(query).get(0).getId());
+    }
+
+    /**
+     * Tests combining several filters
+     */
+    @Test
+    void testCombinedFilters() {
+        PaperQuery query = new PaperQuery().state(Paper.SUBMITTED_NAME).paperType(Paper.P_ABSTRACT)
+                .reviewer("reviewer1").note(Paper.RECOMMEND_WEAK_ACCEPT).processed(true);
+        List<PaperView> result = track.query(query);
+        assertEquals(1, result.size());
+        assertEquals(4, result.get(0).getId());
+
+        query.note(Paper.RECOMMEND_WEAK_REJECT);
+        assertTrue(track.query(query).isEmpty());
+    }
+
+    /**
+     * Tests the author filter ignores case
+     */
+    @Test
+    void testAuthorContains() {
+        List<PaperView> result = track.query(new PaperQuery().authorContains("gillespie"));
+        assertEquals(1, result.size());
+        assertEquals(3, result.get(0).getId());
+    }
+
+    /**
+     * Tests that the query picks the index with the fewest candidates
+     */
+    @Test
+    void testPlan() {
+        TrackSnapshot snapshot = track.getSnapshot();
+        assertEquals(Plan.ID_LOOKUP, new PaperQuery().id(3).plan(snapshot));
+        assertEquals(Plan.STATE_INDEX, new PaperQuery().state(Paper.REVISING_NAME).plan(snapshot));
+        assertEquals(Plan.REVIEWER_INDEX,
+                new PaperQuery().state(Paper.SUBMITTED_NAME).reviewer("reviewer1").plan(snapshot));
+        assertEquals(Plan.FULL_SCAN, new PaperQuery().state("All").plan(snapshot));
+        assertEquals(8, track.query(new PaperQuery().reviewer("reviewer4")).get(0).getId());
+        assertTrue(track.query(new PaperQuery().id(99)).isEmpty());
+    }
+
+    /**
+     * Tests sorting and paging the results
+     */
+    @Test
+    void testSortAndPage() {
+        PaperQuery query = new PaperQuery().sortBy(SortKey.ID, true).page(1, 2);
+        List<PaperView> result = track.query(query);
+        assertEquals(2, result.size());
+        assertEquals(8, result.get(0).getId());
+        assertEquals(7, result.get(1).getId());
+
+        result = track.query(new PaperQuery().state(Paper.CLOSED_NAME).sortBy(SortKey.AUTHORS, false));
+        assertEquals(3, result.get(0).getId());
+        assertEquals(7, result.get(1).getId());
+        assertTrue(track.query(new PaperQuery().page(10, 0)).isEmpty());
+    }
+
+    /**
+     * Tests invalid query values
+     */
+    @Test
+    void testInvalid() {
+        assertThrows(IllegalArgumentException.class, () -> new PaperQuery().id(-1));
+        assertThrows(IllegalArgumentException.class, () -> new PaperQuery().page(-1, 0));
+        assertThrows(IllegalArgumentException.class, () -> new PaperQuery().sortBy(null, false));
+        assertThrows(IllegalArgumentException.class, () -> track.query(null));
+    }
+}
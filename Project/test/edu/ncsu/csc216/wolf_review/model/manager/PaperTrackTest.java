@@ -2,10 +2,24 @@ package edu.ncsu.csc216.wolf_review.model.manager;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import edu.ncsu.csc216.wolf_review.model.command.Command;
+import edu.ncsu.csc216.wolf_review.model.command.Command.CommandValue;
+import edu.ncsu.csc216.wolf_review.model.command.CommandResult;
 import edu.ncsu.csc216.wolf_review.model.paper.Paper;
+import edu.ncsu.csc216.wolf_review.model.paper.PaperView;
 
 /**
  * Tests the PaperTrack class in the WolfReview system.
@@ -51,26 +65,33 @@ class PaperTrackTest {
     }
 
     /**
-     * Tests adding a paper using a Paper object
+     * Tests adding a paper using a Paper object, the track gives back copies of the paper
      */
     @Test
     void testAddPaperByPaper() {
         Paper p = new Paper("Mario");
         int id = track.addPaper(p);
         assertEquals(1, track.getPapers().size());
-        assertEquals(p, track.getPapers().get(0));
+        assertEquals(p.toString(), track.getPapers().get(0).toString());
+        assertNotSame(p, track.getPapers().get(0));
         assertEquals(id, p.getId());
     }
 
     /**
-     * Tests retrieving a paper by its Id
+     * Tests retrieving a paper by its Id, and that the paper is a copy that does not change
+     * when a command later changes the paper in the track
      */
     @Test
     void testGetPaperById() {
         Paper p = new Paper("Malak");
         track.addPaper(p);
-        assertEquals(p, track.getPaperById(p.getId()));
+        Paper copy = track.getPaperById(p.getId());
+        assertEquals(p.toString(), copy.toString());
         assertNull(track.getPaperById(999));
+        track.executeCommand(p.getId(), new Command(CommandValue.ASSIGN, "reviewer1"));
+        assertEquals("Submitted", copy.getState());
+        assertEquals("Reviewing", track.getPaperById(p.getId()).getState());
+        assertEquals("", track.getPapers().get(0).getNote());
     }
 
     /**
@@ -115,6 +136,456 @@ class PaperTrackTest {
         assertThrows(IllegalArgumentException.class, () -> track.addPaper(""));
         assertThrows(IllegalArgumentException.class, () -> track.addPaper((String) null));
     }
-    
-   
+
+    /**
+     * Tests that the list returned by getPapers is read only and does not change
+     * when papers are added later
+     */
+    @Test
+    void testGetPapersIsStable() {
+        track.addPaper("Steven");
+        List<Paper> papers = track.getPapers();
+        track.addPaper("Mario");
+        assertEquals(1, papers.size());
+        assertEquals(2, track.getPapers().size());
+        assertThrows(UnsupportedOperationException.class, () -> papers.remove(0));
+    }
+
+    /**
+     * Tests that papers are kept in id order in the list and the snapshot
+     */
+    @Test
+    void testPapersSortedById() {
+        track.addPaper(new Paper(9, "Submitted", "A", "Abstract", false, null, null));
+        track.addPaper(new Paper(4, "Submitted", "B", "Abstract", false, null, null));
+        assertEquals(4, track.getPapers().get(0).getId());
+        assertEquals(9, track.getSnapshot().getPapers().get(1).getId());
+        assertThrows(IllegalArgumentException.class,
+                () -> track.addPaper(new Paper(4, "Submitted", "C", "Abstract", false, null, null)));
+    }
+
+    /**
+     * Tests that merging another track applies only the differences and sends one event per change
+     */
+    @Test
+    void testMergeFrom() {
+        track.addPaper(new Paper(1, "Submitted", "S. Carol", "Abstract", false, "", ""));
+        track.addPaper(new Paper(2, "Submitted", "M. Hill", "Abstract", false, "", ""));
+        track.addPaper(new Paper(3, "Submitted", "P. Kathleen", "Abstract", false, "", ""));
+        PaperView kept = track.getSnapshot().getPaperById(1);
+
+        PaperTrack source = new PaperTrack("Research Track", 12, 5);
+        source.addPaper(new Paper(1, "Submitted", "S. Carol", "Abstract", false, "", ""));
+        source.addPaper(new Paper(3, "Reviewing", "anonymous", "Abstract", false, "reviewer1", ""));
+        source.addPaper(new Paper(4, "Submitted", "S. Gillespie", "Abstract", false, "", ""));
+
+        List<String> events = new ArrayList<String>();
+        track.addListener((t, before, after) -> events.add((before == null ? "-" : before.getId() + before.getState())
+                + ">" + (after == null ? "-" : after.getId() + after.getState())));
+        long version = track.getSnapshot().getVersion();
+        ReloadSummary summary = new ReloadSummary();
+        track.mergeFrom(source, summary);
+
+        assertEquals(List.of("2Submitted>-", "3Submitted>3Reviewing", "->4Submitted"), events);
+        assertEquals(version + 1, track.getSnapshot().getVersion());
+        assertEquals(12, track.getPageLimit());
+        assertEquals(12, track.getSnapshot().getPageLimit());
+        assertSame(kept, track.getSnapshot().getPaperById(1));
+        assertNull(track.getPaperById(2));
+        assertEquals("Reviewing", track.getPaperById(3).getState());
+        assertEquals(3, track.getSnapshot().size());
+        assertEquals(1, summary.getPapersAdded());
+        assertEquals(1, summary.getPapersRemoved());
+        assertEquals(1, summary.getPapersChanged());
+        assertEquals(1, summary.getPapersUnchanged());
+        assertEquals(List.of("Research Track"), summary.getUpdatedTracks());
+
+        events.clear();
+        track.mergeFrom(source, new ReloadSummary());
+        assertTrue(events.isEmpty());
+        assertEquals(version + 1, track.getSnapshot().getVersion());
+    }
+
+    /**
+     * Tests that a track with a loader reads its papers once when they are first needed
+     * and tells its listeners about them
+     */
+    @Test
+    void testLazyLoading() {
+        int[] loads = new int[1];
+        PaperTrack lazy = new PaperTrack("Lazy", 10, 5, () -> {
+            loads[0]++;
+            return List.of(new Paper(3, "Submitted", "S. Carol", "Abstract", false, "", ""),
+                    new Paper(1, "Submitted", "M. Hill", "Abstract", false, "", ""));
+        });
+        List<Integer> added = new ArrayList<Integer>();
+        lazy.addListener((t, before, after) -> {
+            if (before == null) {
+                added.add(after.getId());
+            }
+        });
+        assertFalse(lazy.isLoaded());
+        assertFalse(lazy.isDirty());
+        assertEquals("Lazy,10,5", lazy.toString());
+        assertEquals(0, loads[0]);
+
+        assertEquals(1, lazy.getSnapshot().getPapers().get(0).getId());
+        assertTrue(lazy.isLoaded());
+        assertFalse(lazy.isDirty());
+        assertEquals(List.of(1, 3), added);
+        assertNotNull(lazy.getPaperById(3));
+        assertEquals(1, loads[0]);
+
+        lazy.deletePaperById(3);
+        assertTrue(lazy.isDirty());
+        lazy.markSaved(lazy.getSnapshot().getVersion());
+        assertFalse(lazy.isDirty());
+        assertThrows(IllegalArgumentException.class, () -> new PaperTrack("Lazy", 10, 5, null));
+    }
+
+    /**
+     * Tests that a new track is dirty until it is saved
+     */
+    @Test
+    void testDirty() {
+        assertTrue(track.isLoaded());
+        assertTrue(track.isDirty());
+        track.markSaved(track.getSnapshot().getVersion());
+        assertFalse(track.isDirty());
+        track.addPaper("S. Carol");
+        assertTrue(track.isDirty());
+    }
+
+    /**
+     * Tests that a saved track can drop its papers and read them again, and that a
+     * changed track is not unloaded
+     */
+    @Test
+    void testUnload() {
+        track.addPaper(new Paper(1, "Submitted", "S. Carol", "Abstract", false, "", ""));
+        List<Integer> removed = new ArrayList<Integer>();
+        track.addListener((t, before, after) -> {
+            if (after == null) {
+                removed.add(before.getId());
+            }
+        });
+        assertFalse(track.unload(() -> List.of()));
+        assertTrue(track.isLoaded());
+
+        track.markSaved(track.getSnapshot().getVersion());
+        List<Paper> saved = track.getPapers();
+        assertTrue(track.unload(() -> saved));
+        assertFalse(track.isLoaded());
+        assertEquals(List.of(1), removed);
+        assertTrue(track.unload(() -> saved));
+        assertEquals(1, track.getSnapshot().size());
+        assertTrue(track.isLoaded());
+        assertThrows(IllegalArgumentException.class, () -> track.unload(null));
+    }
+
+    /**
+     * Tests that a result coded command reports each outcome and only changes the track
+     * when it is applied
+     */
+    @Test
+    void testTryExecuteCommand() {
+        track.addPaper(new Paper(1, "Submitted", "S. Carol", "Abstract", false, "", ""));
+        long version = track.getSnapshot().getVersion();
+
+        assertEquals(CommandResult.NOT_FOUND, track.tryExecuteCommand(9, CommandValue.ASSIGN, "reviewer1"));
+        assertEquals(CommandResult.INVALID_INFO, track.tryExecuteCommand(1, CommandValue.ASSIGN, null));
+        assertEquals(CommandResult.INVALID_FOR_STATE, track.tryExecuteCommand(1, CommandValue.ACCEPT, null));
+        assertEquals(version, track.getSnapshot().getVersion());
+
+        assertEquals(CommandResult.APPLIED, track.tryExecuteCommand(1, CommandValue.ASSIGN, "reviewer1"));
+        assertEquals(version + 1, track.getSnapshot().getVersion());
+        assertEquals(Paper.REVIEWING_NAME, track.getSnapshot().getPaperById(1).getState());
+        assertEquals("reviewer1", track.getPaperById(1).getReviewer());
+    }
+
+    /**
+     * Tests that a versioned command only runs on the version it expects, and that many
+     * callers racing on one paper at the same version apply exactly one command
+     * @throws Exception if a caller fails
+     */
+    @Test
+    void testVersionedCommand() throws Exception {
+        track.addPaper(new Paper(1, "Submitted", "S. Carol", "Abstract", false, "", ""));
+        assertEquals(0, track.getSnapshot().getPaperById(1).getVersion());
+        assertEquals(CommandResult.NOT_FOUND, track.tryExecuteCommand(9, 0, CommandValue.ASSIGN, "reviewer1"));
+
+        List<Future<CommandResult>> results = new ArrayList<Future<CommandResult>>();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 16; i++) {
+            String reviewer = "reviewer" + i;
+            results.add(pool.submit(() -> track.tryExecuteCommand(1, 0, CommandValue.ASSIGN, reviewer)));
+        }
+        int applied = 0;
+        for (Future<CommandResult> result : results) {
+            CommandResult r = result.get();
+            assertTrue(r == CommandResult.APPLIED || r == CommandResult.CONFLICT);
+            applied += r == CommandResult.APPLIED ? 1 : 0;
+        }
+        pool.shutdown();
+        assertEquals(1, applied);
+        assertEquals(1, track.getSnapshot().getPaperById(1).getVersion());
+
+        long version = track.getSnapshot().getVersion();
+        assertEquals(CommandResult.CONFLICT,
+                track.tryExecuteCommand(1, 0, CommandValue.RECOMMEND, Paper.RECOMMEND_STRONG_ACCEPT));
+        assertEquals(version, track.getSnapshot().getVersion());
+        assertEquals(CommandResult.INVALID_FOR_STATE, track.tryExecuteCommand(1, 1, CommandValue.ACCEPT, null));
+        assertEquals(CommandResult.APPLIED,
+                track.tryExecuteCommand(1, 1, CommandValue.RECOMMEND, Paper.RECOMMEND_STRONG_ACCEPT));
+        assertEquals(2, track.getPaperById(1).getVersion());
+    }
+
+    /**
+     * Tests that a command applied without changing any field of the paper still publishes
+     * its new version, so the next versioned command at that version runs
+     */
+    @Test
+    void testVersionOfUnchangedPaper() {
+        track.addPaper(new Paper(1, "Submitted", "S. Carol", "FullPaper", false, "", ""));
+        long version = track.getSnapshot().getVersion();
+        assertEquals(CommandResult.APPLIED, track.tryExecuteCommand(1, 0, CommandValue.SUBMIT, null));
+        assertEquals(1, track.getSnapshot().getPaperById(1).getVersion());
+        assertEquals(CommandResult.APPLIED, track.tryExecuteCommand(1, 1, CommandValue.SUBMIT, null));
+        assertEquals(2, track.getSnapshot().getPaperById(1).getVersion());
+        assertEquals(CommandResult.APPLIED, track.tryExecuteCommand(1, 2, CommandValue.SUBMIT, null));
+        assertEquals(version + 3, track.getSnapshot().getVersion());
+        assertEquals(Paper.SUBMITTED_NAME, track.getSnapshot().getPaperById(1).getState());
+    }
+
+    /**
+     * Tests that many papers are added in id order as one snapshot, and that nothing is
+     * added if any id is already used
+     */
+    @Test
+    void testAddPapers() {
+        track.addPaper(new Paper(2, "Submitted", "S. Carol", "Abstract", false, "", ""));
+        List<Integer> added = new ArrayList<Integer>();
+        track.addListener((changed, before, after) -> added.add(after.getId()));
+        long version = track.getSnapshot().getVersion();
+        track.addPapers(List.of(new Paper(5, "Submitted", "M. Hill", "Abstract", false, "", ""),
+                new Paper(1, "Submitted", "P. Kathleen", "Abstract", false, "", ""),
+                new Paper(3, "Submitted", "S. Gillespie", "Abstract", false, "", "")));
+        assertEquals(version + 1, track.getSnapshot().getVersion());
+        assertEquals(List.of(1, 3, 5), added);
+        assertEquals(4, track.getSnapshot().size());
+        assertEquals("P. Kathleen", track.getSnapshot().getPapers().get(0).getAuthorNames());
+        assertEquals(List.of(1, 2, 3, 5), track.getPapers().stream().map(Paper::getId).toList());
+
+        assertThrows(IllegalArgumentException.class, () -> track.addPapers(List.of(
+                new Paper(7, "Submitted", "A. One", "Abstract", false, "", ""),
+                new Paper(2, "Submitted", "A. Two", "Abstract", false, "", ""))));
+        assertThrows(IllegalArgumentException.class, () -> track.addPapers(List.of(
+                new Paper(8, "Submitted", "A. One", "Abstract", false, "", ""),
+                new Paper(8, "Submitted", "A. Two", "Abstract", false, "", ""))));
+        assertEquals(4, track.getSnapshot().size());
+        track.addPapers(List.of());
+        assertEquals(version + 1, track.getSnapshot().getVersion());
+    }
+
+    /**
+     * Tests that many papers are replaced, added and deleted as one snapshot
+     */
+    @Test
+    void testReplacePapers() {
+        track.addPapers(List.of(new Paper(1, "Submitted", "S. Carol", "Abstract", false, "", ""),
+                new Paper(2, "Submitted", "M. Hill", "Abstract", false, "", "")));
+        long version = track.getSnapshot().getVersion();
+        TreeMap<Integer, Paper> changes = new TreeMap<Integer, Paper>();
+        changes.put(1, null);
+        changes.put(2, new Paper(2, "Submitted", "M. Hill; T. Potter", "Abstract", false, "", ""));
+        changes.put(4, new Paper(4, "Submitted", "P. Nehru", "Abstract", false, "", ""));
+        changes.put(9, null);
+        track.replacePapers(changes);
+        assertEquals(version + 1, track.getSnapshot().getVersion());
+        assertNull(track.getPaperById(1));
+        assertEquals("M. Hill; T. Potter", track.getPaperById(2).getAuthorNames());
+        assertEquals(1, track.getPaperById(2).getVersion());
+        assertEquals(0, track.getPaperById(4).getVersion());
+        assertEquals(2, track.getSnapshot().size());
+    }
+
+    /**
+     * Tests that versions carry on when a track is unloaded and read again, or its papers are
+     * archived, so a caller holding a version read before cannot apply a stale command
+     */
+    @Test
+    void testVersionAfterUnload() {
+        track.addPaper(new Paper(1, "Submitted", "S. Carol", "Abstract", false, "", ""));
+        track.addPaper(new Paper(2, "Submitted", "D. Ferdinand", "Abstract", false, "", ""));
+        assertEquals(CommandResult.APPLIED, track.tryExecuteCommand(1, 0, CommandValue.ASSIGN, "reviewer1"));
+        assertEquals(CommandResult.APPLIED, track.tryExecuteCommand(2, CommandValue.CLOSE, Paper.WITHDRAW_CLOSED));
+        assertEquals(1, track.getSnapshot().getPaperById(2).getVersion());
+        track.archiveClosed();
+        assertEquals(1, track.getSnapshot().getPaperById(2).getVersion());
+
+        track.markSaved(track.getSnapshot().getVersion());
+        assertTrue(track.unload(() -> List.of(
+                Paper.restore(1, "Reviewing", "anonymous", "Abstract", false, "reviewer1", ""),
+                Paper.restore(2, "Closed", "D. Ferdinand", "Abstract", false, "", "Withdrawn"))));
+        assertEquals(1, track.getPaperById(1).getVersion());
+        assertEquals(1, track.getSnapshot().getPaperById(2).getVersion());
+        assertEquals(CommandResult.CONFLICT, track.tryExecuteCommand(1, 0, CommandValue.RECOMMEND,
+                Paper.RECOMMEND_STRONG_ACCEPT));
+        assertEquals(CommandResult.APPLIED, track.tryExecuteCommand(1, 1, CommandValue.RECOMMEND,
+                Paper.RECOMMEND_STRONG_ACCEPT));
+        assertEquals(2, track.getSnapshot().getPaperById(1).getVersion());
+    }
+
+    /**
+     * Tests that a paper replaced by a reload keeps counting its version up
+     */
+    @Test
+    void testVersionAfterMerge() {
+        track.addPaper(new Paper(1, "Submitted", "S. Carol", "Abstract", false, "", ""));
+        track.tryExecuteCommand(1, CommandValue.ASSIGN, "reviewer1");
+        PaperTrack source = new PaperTrack("Research Track", 10, 5);
+        source.addPaper(new Paper(1, "Reviewing", "anonymous", "Abstract", false, "reviewer2", ""));
+        track.mergeFrom(source, new ReloadSummary());
+        assertEquals(2, track.getSnapshot().getPaperById(1).getVersion());
+        source = new PaperTrack("Research Track", 10, 5);
+        source.addPaper(new Paper(1, "Reviewing", "anonymous", "Abstract", false, "reviewer2", ""));
+        track.mergeFrom(source, new ReloadSummary());
+        assertEquals(2, track.getSnapshot().getPaperById(1).getVersion());
+    }
+
+    /**
+     * Tests that a change fills in the paper before and after it as it was published, and
+     * that a command that did not change the paper fills in nothing
+     */
+    @Test
+    void testChangeViews() {
+        PaperView[] change = new PaperView[2];
+        int id = track.addPaper("S. Carol", change);
+        assertNull(change[0]);
+        assertSame(track.getSnapshot().getPaperById(id), change[1]);
+
+        PaperView added = change[1];
+        change = new PaperView[2];
+        assertEquals(CommandResult.APPLIED, track.tryExecuteCommand(id, 0, CommandValue.ASSIGN, "reviewer1", change));
+        assertSame(added, change[0]);
+        assertSame(track.getSnapshot().getPaperById(id), change[1]);
+        assertEquals("reviewer1", change[1].getReviewer());
+
+        change = new PaperView[2];
+        assertEquals(CommandResult.CONFLICT, track.tryExecuteCommand(id, 0, CommandValue.ASSIGN, "reviewer2", change));
+        assertEquals(CommandResult.INVALID_FOR_STATE, track.tryExecuteCommand(id, CommandValue.ASSIGN, "reviewer2", change));
+        assertNull(change[0]);
+        assertNull(change[1]);
+
+        PaperView reviewing = track.getSnapshot().getPaperById(id);
+        track.deletePaperById(id, change);
+        assertSame(reviewing, change[0]);
+        assertNull(change[1]);
+    }
+
+    /**
+     * Tests that versioned commands racing on one paper are published with compareAndSet,
+     * so exactly one is applied and the others get CONFLICT, and the listeners are told once
+     * @throws Exception if a thread fails
+     */
+    @Test
+    void testVersionedRace() throws Exception {
+        track.addPaper(new Paper(1, "Submitted", "S. Carol", "Abstract", false, "", ""));
+        List<PaperView> changed = new ArrayList<PaperView>();
+        track.addListener((t, before, after) -> changed.add(after));
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<CommandResult>> results = new ArrayList<Future<CommandResult>>();
+        for (int n = 0; n < 8; n++) {
+            String reviewer = "reviewer" + n;
+            results.add(pool.submit(() -> {
+                start.await();
+                return track.tryExecuteCommand(1, 0, CommandValue.ASSIGN, reviewer);
+            }));
+        }
+        start.countDown();
+        int applied = 0;
+        for (Future<CommandResult> result : results) {
+            CommandResult r = result.get(5, TimeUnit.SECONDS);
+            assertTrue(r == CommandResult.APPLIED || r == CommandResult.CONFLICT);
+            applied += r == CommandResult.APPLIED ? 1 : 0;
+        }
+        pool.shutdown();
+        assertEquals(1, applied);
+        assertEquals(1, changed.size());
+        assertSame(track.getSnapshot().getPaperById(1), changed.get(0));
+        assertEquals(1, changed.get(0).getVersion());
+    }
+
+    /**
+     * Tests that a command on one paper is published while another change holds the lock of
+     * the track, and that the listeners are still told about the changes in the order they
+     * were published
+     * @throws Exception if a thread fails
+     */
+    @Test
+    void testCommandWithoutLock() throws Exception {
+        track.addPaper(new Paper(1, "Submitted", "S. Carol", "Abstract", false, "", ""));
+        track.setPaperId();
+        CountDownLatch adding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Integer> told = new ArrayList<Integer>();
+        track.addListener((t, before, after) -> {
+            told.add(after.getId());
+            if (after.getId() == 2) {
+                adding.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        });
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        Future<Integer> add = pool.submit(() -> track.addPaper("T. Smith"));
+        assertTrue(adding.await(5, TimeUnit.SECONDS));
+        Future<CommandResult> command = pool.submit(() -> track.tryExecuteCommand(1, 0, CommandValue.ASSIGN, "reviewer1"));
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!"reviewer1".equals(track.getSnapshot().getPaperById(1).getReviewer())
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals("reviewer1", track.getSnapshot().getPaperById(1).getReviewer());
+        release.countDown();
+        assertEquals(2, add.get(5, TimeUnit.SECONDS));
+        assertEquals(CommandResult.APPLIED, command.get(5, TimeUnit.SECONDS));
+        assertEquals(List.of(2, 1), told);
+        pool.shutdown();
+    }
+
+    /**
+     * Tests that the papers of an unloaded track are read without holding the lock of the
+     * track, so a caller that needs only the lock does not wait for the file
+     * @throws Exception if the other threads fail
+     */
+    @Test
+    void testLoadOutsideLock() throws Exception {
+        track.addPaper(new Paper(1, "Submitted", "S. Carol", "Abstract", false, "", ""));
+        List<Paper> saved = List.of(new Paper(1, "Submitted", "S. Carol", "Abstract", false, "", ""));
+        track.markSaved(track.getSnapshot().getVersion());
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        assertTrue(track.unload(() -> {
+            reading.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            return saved;
+        }));
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        Future<Integer> load = pool.submit(() -> track.getSnapshot().getPapers().size());
+        assertTrue(reading.await(5, TimeUnit.SECONDS));
+        assertTrue(pool.submit(() -> track.unload(() -> saved)).get(5, TimeUnit.SECONDS));
+        release.countDown();
+        assertEquals(1, load.get(5, TimeUnit.SECONDS));
+        assertTrue(track.isLoaded());
+        pool.shutdown();
+    }
 }
@@ -0,0 +1,128 @@
+package edu.ncsu.csc216.wolf_review.model.manager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.wolf_review.model.paper.Paper;
+import edu.ncsu.csc216.wolf_review.model.paper.PaperView;
+
+/**
+ * Tests the PaperViewList class in the WolfReview system.
+ * Each test makes sure that the chunked list gives the same answers as a plain sorted
+ * list while chunks are split and dropped, and that older lists never change
+ * @author Steven Saleeb
+ */
+class PaperViewListTest {
+
+    /**
+     * Makes a view of a new paper with the given id
+     * @param id the paper id
+     * @param reviewer the reviewer, or an empty string for a Submitted paper
+     * @return the view
+     */
+    private static PaperView view(int id, String reviewer) {
+        return new PaperView(reviewer.isEmpty()
+                ? Paper.restore(id, Paper.SUBMITTED_NAME, "A. Author", Paper.P_ABSTRACT, false, "", "")
+                : Paper.restore(id, Paper.REVIEWING_NAME, "anonymous", Paper.P_ABSTRACT, false, reviewer, ""));
+    }
+
+    /**
+     * Checks that a chunked list holds the same views as a plain list and finds every id
+     * @param expected the plain list sorted by id
+     * @param list the chunked list
+     */
+    private static void assertSameViews(List<PaperView> expected, PaperViewList list) {
+        assertEquals(expected.size(), list.size());
+        assertEquals(expected, list);
+        assertArrayEquals(expected.toArray(), list.toArray());
+        for (int i = 0; i < expected.size(); i++) {
+            assertSame(expected.get(i), list.get(i));
+            assertEquals(i, list.positionOf(expected.get(i).getId()));
+        }
+    }
+
+    /**
+     * Tests building a list of several chunks and finding ids that are and are not in it
+     */
+    @Test
+    void testOf() {
+        PaperView[] views = new PaperView[200];
+        for (int i = 0; i < views.length; i++) {
+            views[i] = view(2 * i + 2, "");
+        }
+        PaperViewList list = PaperViewList.of(views);
+        assertSameViews(List.of(views), list);
+        assertEquals(-1, list.positionOf(1));
+        assertEquals(-(PaperViewList.CHUNK_SIZE + 1), list.positionOf(2 * PaperViewList.CHUNK_SIZE + 1));
+        assertEquals(-201, list.positionOf(1000));
+        assertEquals(-1, PaperViewList.EMPTY.positionOf(5));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.get(200));
+        assertThrows(UnsupportedOperationException.class, () -> list.add(views[0]));
+    }
+
+    /**
+     * Tests many random inserts, removes and replaces against a plain list, and that each
+     * list made along the way keeps its views
+     */
+    @Test
+    void testChanges() {
+        Random random = new Random(7);
+        List<PaperView> expected = new ArrayList<PaperView>();
+        PaperViewList list = PaperViewList.EMPTY;
+        List<List<PaperView>> olderExpected = new ArrayList<List<PaperView>>();
+        List<PaperViewList> older = new ArrayList<PaperViewList>();
+        for (int step = 0; step < 3000; step++) {
+            int id = random.nextInt(1000) + 1;
+            int found = list.positionOf(id);
+            assertEquals(Collections.binarySearch(expected, view(id, ""), (a, b) -> a.getId() - b.getId()) >= 0,
+                    found >= 0);
+            if (found < 0 && random.nextInt(3) != 0) {
+                PaperView added = view(id, "");
+                expected.add(-(found + 1), added);
+                list = list.withInserted(-(found + 1), added);
+            } else if (found >= 0 && random.nextBoolean()) {
+                expected.remove(found);
+                list = list.withRemoved(found);
+            } else if (found >= 0) {
+                PaperView replaced = view(id, "reviewer" + step);
+                expected.set(found, replaced);
+                list = list.withReplaced(found, replaced);
+            }
+            if (step % 500 == 0) {
+                olderExpected.add(new ArrayList<PaperView>(expected));
+                older.add(list);
+            }
+        }
+        assertSameViews(expected, list);
+        for (int i = 0; i < older.size(); i++) {
+            assertSameViews(olderExpected.get(i), older.get(i));
+        }
+    }
+
+    /**
+     * Tests adding views in id order at the end, as new papers are added to a track
+     */
+    @Test
+    void testAppend() {
+        List<PaperView> expected = new ArrayList<PaperView>();
+        PaperViewList list = PaperViewList.EMPTY;
+        for (int id = 1; id <= 500; id++) {
+            PaperView added = view(id, "");
+            expected.add(added);
+            list = list.withInserted(list.size(), added);
+        }
+        assertSameViews(expected, list);
+        while (!expected.isEmpty()) {
+            expected.remove(0);
+            list = list.withRemoved(0);
+        }
+        assertEquals(0, list.size());
+        assertEquals(-1, list.positionOf(3));
+    }
+}
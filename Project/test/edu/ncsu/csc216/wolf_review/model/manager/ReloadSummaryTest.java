@@ -0,0 +1,44 @@
+package edu.ncsu.csc216.wolf_review.model.manager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the ReloadSummary class in the WolfReview system.
+ * Each test makes sure that the changes of a reload are counted
+ * @author Steven Saleeb
+ */
+class ReloadSummaryTest {
+
+    /**
+     * Tests counting track and paper changes
+     */
+    @Test
+    void testCounts() {
+        ReloadSummary summary = new ReloadSummary();
+        assertTrue(summary.isEmpty());
+        summary.paperUnchanged();
+        assertTrue(summary.isEmpty());
+
+        summary.trackAdded("New");
+        summary.trackRemoved("Old");
+        summary.trackUpdated("Kept");
+        summary.paperAdded();
+        summary.paperAdded();
+        summary.paperRemoved();
+        summary.paperChanged();
+        assertFalse(summary.isEmpty());
+        assertEquals(List.of("New"), summary.getAddedTracks());
+        assertEquals(List.of("Old"), summary.getRemovedTracks());
+        assertEquals(List.of("Kept"), summary.getUpdatedTracks());
+        assertEquals(2, summary.getPapersAdded());
+        assertEquals(1, summary.getPapersRemoved());
+        assertEquals(1, summary.getPapersChanged());
+        assertEquals(1, summary.getPapersUnchanged());
+        assertEquals("1 tracks added, 1 removed, 1 updated; 2 papers added, 1 removed, 1 changed, 1 unchanged",
+                summary.toString());
+    }
+}
@@ -0,0 +1,143 @@
+package edu.ncsu.csc216.wolf_review.model.manager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.wolf_review.model.command.Command;
+import edu.ncsu.csc216.wolf_review.model.command.Command.CommandValue;
+import edu.ncsu.csc216.wolf_review.model.paper.Paper;
+
+/**
+ * Tests the ReviewerIndex class in the WolfReview system.
+ * Each test makes sure that the index follows the commands that assign
+ * and clear reviewers in every track it watches
+ * @author Steven Saleeb
+ */
+class ReviewerIndexTest {
+
+	/**
+	 * The index under test
+	 */
+    private ReviewerIndex index;
+
+    /**
+     * A track watched by the index
+     */
+    private PaperTrack research;
+
+    /**
+     * A second track watched by the index
+     */
+    private PaperTrack position;
+
+    /**
+     * Id of the submitted paper in the research track
+     */
+    private int first;
+
+    /**
+     * Id of the submitted paper in the position track
+     */
+    private int second;
+
+    /**
+     * Creates two tracks with papers and an index that watches both
+     */
+    @BeforeEach
+    void setUp() {
+        Paper.setCounter(1);
+        research = new PaperTrack("Research", 10, 5);
+        position = new PaperTrack("Position", 10, 5);
+        research.addPaper(new Paper(4, Paper.REVIEWING_NAME, Paper.ANONYMOUS, Paper.P_FULLPAPER, false, "reviewer1", null));
+        first = research.addPaper("A. One");
+        second = position.addPaper("B. Two");
+        index = new ReviewerIndex();
+        index.addTrack(research);
+        index.addTrack(position);
+    }
+
+    /**
+     * Tests that papers already in a track are indexed
+     */
+    @Test
+    void testExistingPapers() {
+        assertEquals(1, index.getWorkload("reviewer1"));
+        assertEquals(List.of(4), index.getPaperIds("reviewer1", "Research"));
+        assertEquals(0, index.getWorkload("reviewer2"));
+        assertTrue(index.getPaperIds("reviewer2", "Research").isEmpty());
+    }
+
+    /**
+     * Tests that assigning papers in two tracks adds them to the index
+     */
+    @Test
+    void testAssignAcrossTracks() {
+        research.executeCommand(first, new Command(CommandValue.ASSIGN, "reviewer1"));
+        position.executeCommand(second, new Command(CommandValue.ASSIGN, "reviewer1"));
+
+        assertEquals(3, index.getWorkload("reviewer1"));
+        Map<String, List<Integer>> assignments = index.getAssignments("reviewer1");
+        assertEquals(List.of(4, first), assignments.get("Research"));
+        assertEquals(List.of(second), assignments.get("Position"));
+    }
+
+    /**
+     * Tests that recommending, proposing, closing and deleting clear the reviewer
+     */
+    @Test
+    void testClearReviewer() {
+        research.executeCommand(first, new Command(CommandValue.ASSIGN, "reviewer2"));
+        assertEquals(1, index.getWorkload("reviewer2"));
+
+        research.executeCommand(4, new Command(CommandValue.PROPOSE, null));
+        assertEquals(0, index.getWorkload("reviewer1"));
+        assertFalse(index.getReviewers().contains("reviewer1"));
+
+        research.executeCommand(first, new Command(CommandValue.CLOSE, Paper.WITHDRAW_CLOSED));
+        assertEquals(0, index.getWorkload("reviewer2"));
+        assertTrue(index.getReviewers().isEmpty());
+    }
+
+    /**
+     * Tests that a recommendation keeps the reviewer and deleting the paper removes it
+     */
+    @Test
+    void testRecommendAndDelete() {
+        research.executeCommand(4, new Command(CommandValue.RECOMMEND, Paper.RECOMMEND_WEAK_ACCEPT));
+        assertEquals(List.of(4), index.getPaperIds("reviewer1", "Research"));
+        research.deletePaperById(4);
+        assertEquals(0, index.getWorkload("reviewer1"));
+    }
+
+    /**
+     * Tests that removing a track removes its papers and stops watching it
+     */
+    @Test
+    void testRemoveTrack() {
+        index.removeTrack(research);
+        assertEquals(0, index.getWorkload("reviewer1"));
+        research.executeCommand(first, new Command(CommandValue.ASSIGN, "reviewer3"));
+        assertEquals(0, index.getWorkload("reviewer3"));
+    }
+
+    /**
+     * Tests that unloading a track keeps its papers in the index, and that removing the
+     * unloaded track still removes them
+     */
+    @Test
+    void testUnloadedTrack() {
+        List<Paper> stored = research.getPapers();
+        research.markSaved(research.getSnapshot().getVersion());
+        assertTrue(research.unload(() -> stored));
+        assertEquals(1, index.getWorkload("reviewer1"));
+        assertEquals(Map.of("Research", List.of(4)), index.getAssignments("reviewer1"));
+        index.removeTrack(research);
+        assertEquals(0, index.getWorkload("reviewer1"));
+        assertTrue(index.getReviewers().isEmpty());
+    }
+}
@@ -0,0 +1,121 @@
+package edu.ncsu.csc216.wolf_review.model.manager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.wolf_review.model.paper.Paper;
+
+/**
+ * Tests the TrackCache class in the WolfReview system.
+ * Each test makes sure that the weight of the tracks in memory is counted
+ * from their events and that the least recently used tracks are chosen
+ * @author Steven Saleeb
+ */
+class TrackCacheTest {
+
+	/**
+	 * The cache under test
+	 */
+    private TrackCache cache;
+
+    /**
+     * A track with one paper
+     */
+    private PaperTrack one;
+
+    /**
+     * A track with two papers
+     */
+    private PaperTrack two;
+
+    /**
+     * A track with three papers
+     */
+    private PaperTrack three;
+
+    /**
+     * Creates a cache with room for four papers and three tracks before each test
+     */
+    @BeforeEach
+    void setUp() {
+        cache = new TrackCache(4);
+        one = track("One", 1);
+        two = track("Two", 2);
+        three = track("Three", 3);
+    }
+
+    /**
+     * Creates a track with the given number of papers
+     * @param name the name of the track
+     * @param papers the number of papers
+     * @return the track
+     */
+    private static PaperTrack track(String name, int papers) {
+        PaperTrack track = new PaperTrack(name, 10, 5);
+        for (int i = 0; i < papers; i++) {
+            track.addPaper("S. Carol");
+        }
+        return track;
+    }
+
+    /**
+     * Tests that weights follow the papers added to and deleted from watched tracks
+     */
+    @Test
+    void testWeight() {
+        cache.addTrack(one);
+        cache.addTrack(two);
+        assertEquals(3, cache.getWeight());
+        assertEquals(4, cache.getMaxWeight());
+        two.addPaper("M. Hill");
+        assertEquals(4, cache.getWeight());
+        two.deletePaperById(two.getSnapshot().getPapers().get(0).getId());
+        assertEquals(3, cache.getWeight());
+        cache.removeTrack(two);
+        assertEquals(1, cache.getWeight());
+        two.addPaper("M. Hill");
+        assertEquals(1, cache.getWeight());
+        assertThrows(IllegalArgumentException.class, () -> new TrackCache(0));
+    }
+
+    /**
+     * Tests that the least recently used tracks are chosen and kept tracks are skipped
+     */
+    @Test
+    void testVictims() {
+        cache.addTrack(one);
+        cache.addTrack(two);
+        cache.addTrack(three);
+        assertEquals(6, cache.getWeight());
+        assertEquals(List.of(one, two), cache.victims());
+
+        cache.touch(one);
+        assertEquals(List.of("Two", "Three", "One"), cache.getResidentTracks());
+        assertEquals(List.of(two), cache.victims());
+        assertEquals(List.of(three), cache.victims(two));
+
+        cache.evicted(two);
+        assertEquals(4, cache.getWeight());
+        assertTrue(cache.victims().isEmpty());
+    }
+
+    /**
+     * Tests that unloading and loading a track are counted from its events
+     */
+    @Test
+    void testUnloadAndLoad() {
+        cache.addTrack(three);
+        three.markSaved(three.getSnapshot().getVersion());
+        List<Paper> papers = three.getPapers();
+        assertTrue(three.unload(() -> papers));
+        assertEquals(0, cache.getWeight());
+        assertTrue(cache.getResidentTracks().isEmpty());
+        assertEquals(3, three.getSnapshot().size());
+        assertEquals(3, cache.getWeight());
+        assertEquals(List.of("Three"), cache.getResidentTracks());
+    }
+}
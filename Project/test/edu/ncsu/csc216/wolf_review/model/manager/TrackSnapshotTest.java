@@ -0,0 +1,92 @@
+package edu.ncsu.csc216.wolf_review.model.manager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.wolf_review.model.command.Command;
+import edu.ncsu.csc216.wolf_review.model.command.Command.CommandValue;
+import edu.ncsu.csc216.wolf_review.model.paper.Paper;
+
+/**
+ * Tests the TrackSnapshot class in the WolfReview system.
+ * Each test makes sure that snapshots published by a PaperTrack are
+ * versioned, never change, and share the views that did not change
+ * @author Steven Saleeb
+ */
+class TrackSnapshotTest {
+
+	/**
+	 * A Paper Track object used in tests to publish snapshots
+	 */
+    private PaperTrack track;
+
+    /**
+     * Sets up a new Paper Track with three papers before each test
+     */
+    @BeforeEach
+    void setUp() {
+        Paper.setCounter(1);
+        track = new PaperTrack("Research Track", 10, 5);
+        track.addPaper("A. One");
+        track.addPaper("B. Two");
+        track.addPaper("C. Three");
+    }
+
+    /**
+     * Tests the track information and papers of a snapshot
+     */
+    @Test
+    void testSnapshotContents() {
+        TrackSnapshot snapshot = track.getSnapshot();
+        assertEquals(3, snapshot.getVersion());
+        assertEquals("Research Track", snapshot.getTrackName());
+        assertEquals(10, snapshot.getPageLimit());
+        assertEquals(5, snapshot.getPayRateExtraPages());
+        assertEquals(3, snapshot.size());
+        assertEquals("B. Two", snapshot.getPaperById(2).getAuthorNames());
+        assertNull(snapshot.getPaperById(7));
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.getPapers().remove(0));
+    }
+
+    /**
+     * Tests that an old snapshot is not changed by later commands and that unchanged views are shared
+     */
+    @Test
+    void testOldSnapshotUnchanged() {
+        TrackSnapshot before = track.getSnapshot();
+        track.executeCommand(2, new Command(CommandValue.ASSIGN, "reviewer1"));
+        TrackSnapshot after = track.getSnapshot();
+
+        assertEquals(before.getVersion() + 1, after.getVersion());
+        assertEquals(Paper.SUBMITTED_NAME, before.getPaperById(2).getState());
+        assertEquals(Paper.REVIEWING_NAME, after.getPaperById(2).getState());
+        assertSame(before.getPaperById(1), after.getPaperById(1));
+        assertSame(before.getPaperById(3), after.getPaperById(3));
+    }
+
+    /**
+     * Tests that a rejected command does not publish a new version
+     */
+    @Test
+    void testRejectedCommandKeepsVersion() {
+        TrackSnapshot before = track.getSnapshot();
+        assertThrows(UnsupportedOperationException.class,
+                () -> track.executeCommand(1, new Command(CommandValue.PROPOSE, null)));
+        assertSame(before, track.getSnapshot());
+    }
+
+    /**
+     * Tests that deleting a paper publishes a snapshot without it
+     */
+    @Test
+    void testDelete() {
+        TrackSnapshot before = track.getSnapshot();
+        track.deletePaperById(2);
+        assertEquals(3, before.size());
+        assertEquals(2, track.getSnapshot().size());
+        assertNull(track.getSnapshot().getPaperById(2));
+        assertEquals(3, track.getSnapshot().getPapers().get(1).getId());
+    }
+}
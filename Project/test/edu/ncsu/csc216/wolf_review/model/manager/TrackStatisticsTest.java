@@ -0,0 +1,144 @@
+package edu.ncsu.csc216.wolf_review.model.manager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.wolf_review.model.command.Command;
+import edu.ncsu.csc216.wolf_review.model.command.Command.CommandValue;
+import edu.ncsu.csc216.wolf_review.model.paper.Paper;
+import edu.ncsu.csc216.wolf_review.model.paper.PaperView;
+
+/**
+ * Tests the TrackStatistics class in the WolfReview system.
+ * Each test makes sure that the counts kept by a PaperTrack match
+ * a count of its papers after every kind of change
+ * @author Steven Saleeb
+ */
+class TrackStatisticsTest {
+
+	/**
+	 * A Paper Track object used in tests
+	 */
+    private PaperTrack track;
+
+    /**
+     * Sets up a new Paper Track with papers in several states before each test
+     */
+    @BeforeEach
+    void setUp() {
+        track = new PaperTrack("Statistics Track", 10, 5);
+        track.addPaper(new Paper(1, "Submitted", "S. Carol", "Abstract", false, "", ""));
+        track.addPaper(new Paper(2, "Reviewing", "anonymous", "FullPaper", false, "reviewer1", ""));
+        track.addPaper(new Paper(3, "Closed", "P. Kathleen", "FullPaper", true, "", Paper.REJECT_CLOSED));
+        track.addPaper(new Paper(4, "Submitted", "anonymous", "FullPaper", true, "reviewer2",
+                Paper.RECOMMEND_WEAK_ACCEPT));
+    }
+
+    /**
+     * Tests the counts of the papers added to the track
+     */
+    @Test
+    void testCounts() {
+        TrackStatistics statistics = track.getStatistics();
+        assertEquals(4, statistics.getTotal());
+        assertEquals(2, statistics.getStateCount(Paper.SUBMITTED_NAME));
+        assertEquals(1, statistics.getStateCount(Paper.REVIEWING_NAME));
+        assertEquals(1, statistics.getStateCount(Paper.CLOSED_NAME));
+        assertEquals(0, statistics.getStateCount("Unknown"));
+        assertEquals(1, statistics.getCloseReasonCount(Paper.REJECT_CLOSED));
+        assertEquals(0, statistics.getCloseReasonCount(Paper.ACCEPT_CLOSED));
+        assertEquals(1, statistics.getPaperTypeCount(Paper.P_ABSTRACT));
+        assertEquals(3, statistics.getPaperTypeCount(Paper.P_FULLPAPER));
+        assertEquals(1, statistics.getRecommendationCount(Paper.RECOMMEND_WEAK_ACCEPT));
+        assertEquals(List.of(Paper.SUBMITTED_NAME, Paper.REVIEWING_NAME, Paper.REVISING_NAME,
+                Paper.REGISTERING_NAME, Paper.CLOSED_NAME), List.copyOf(statistics.getStateCounts().keySet()));
+        assertEquals(4, statistics.getCloseReasonCounts().size());
+        assertEquals(2, statistics.getPaperTypeCounts().size());
+        assertEquals(4, statistics.getRecommendationCounts().size());
+        assertTrue(statistics.toString().startsWith("total=4 "));
+        assertEquals(0, TrackStatistics.EMPTY.getTotal());
+    }
+
+    /**
+     * Tests that commands and deletes update the counts the same as counting again
+     */
+    @Test
+    void testIncrementalUpdates() {
+        track.executeCommand(1, new Command(CommandValue.ASSIGN, "reviewer3"));
+        track.executeCommand(2, new Command(CommandValue.RECOMMEND, Paper.RECOMMEND_STRONG_REJECT));
+        track.executeCommand(1, new Command(CommandValue.CLOSE, Paper.WITHDRAW_CLOSED));
+        assertThrows(UnsupportedOperationException.class,
+                () -> track.executeCommand(3, new Command(CommandValue.ASSIGN, "reviewer3")));
+        track.deletePaperById(4);
+        track.addPaper("M. Hill");
+
+        TrackStatistics statistics = track.getStatistics();
+        assertEquals(recount(), statistics);
+        assertEquals(statistics.hashCode(), recount().hashCode());
+        assertEquals(4, statistics.getTotal());
+        assertEquals(1, statistics.getCloseReasonCount(Paper.WITHDRAW_CLOSED));
+        assertEquals(2, statistics.getStateCount(Paper.CLOSED_NAME));
+        assertEquals(0, statistics.getRecommendationCount(Paper.RECOMMEND_WEAK_ACCEPT));
+        assertEquals(track.getSnapshot().getStatistics(), statistics);
+    }
+
+    /**
+     * Tests that merging a track and reading it again recount its papers
+     */
+    @Test
+    void testMergeAndReload() {
+        PaperTrack source = new PaperTrack("Statistics Track", 10, 5);
+        source.addPaper(new Paper(1, "Closed", "S. Carol", "FullPaper", true, "", Paper.ACCEPT_CLOSED));
+        track.mergeFrom(source, new ReloadSummary());
+        assertEquals(1, track.getStatistics().getTotal());
+        assertEquals(1, track.getStatistics().getCloseReasonCount(Paper.ACCEPT_CLOSED));
+
+        PaperTrack lazy = new PaperTrack("Lazy Track", 10, 5, () -> List.of(
+                new Paper(5, "Submitted", "A. One", "Abstract", false, "", "")));
+        assertNull(lazy.peekStatistics());
+        assertEquals(1, lazy.getStatistics().getStateCount(Paper.SUBMITTED_NAME));
+    }
+
+    /**
+     * Tests that an unloaded track keeps its counts without reading its papers again
+     */
+    @Test
+    void testUnloadedTrackKeepsCounts() {
+        TrackStatistics before = track.getStatistics();
+        track.markSaved(track.getSnapshot().getVersion());
+        List<Paper> saved = track.getPapers();
+        int[] reads = new int[1];
+        assertTrue(track.unload(() -> {
+            reads[0]++;
+            return saved;
+        }));
+        assertEquals(before, track.getStatistics());
+        assertEquals(before, track.peekStatistics());
+        assertEquals(0, reads[0]);
+        assertFalse(track.isLoaded());
+    }
+
+    /**
+     * Tests that statistics of two tracks add up
+     */
+    @Test
+    void testPlus() {
+        TrackStatistics twice = track.getStatistics().plus(track.getStatistics());
+        assertEquals(8, twice.getTotal());
+        assertEquals(4, twice.getStateCount(Paper.SUBMITTED_NAME));
+        assertEquals(track.getStatistics(), TrackStatistics.EMPTY.plus(track.getStatistics()));
+        assertNotEquals(track.getStatistics(), twice);
+    }
+
+    /**
+     * Counts the papers of the track from scratch
+     * @return the statistics of the current papers
+     */
+    private TrackStatistics recount() {
+        return TrackStatistics.of(track.getSnapshot().getPapers().toArray(new PaperView[0]));
+    }
+}
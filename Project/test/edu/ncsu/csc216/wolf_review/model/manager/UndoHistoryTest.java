@@ -0,0 +1,129 @@
+package edu.ncsu.csc216.wolf_review.model.manager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.wolf_review.model.command.Command;
+import edu.ncsu.csc216.wolf_review.model.command.Command.CommandValue;
+import edu.ncsu.csc216.wolf_review.model.io.PaperTrackReader;
+import edu.ncsu.csc216.wolf_review.model.paper.PaperView;
+
+/**
+ * Tests the UndoHistory class
+ * @author Steven Saleeb
+ */
+public class UndoHistoryTest {
+
+	/**
+	 * Reads the Position paper track of the second test file
+	 * @return the track
+	 */
+	private static PaperTrack readTrack() {
+		return PaperTrackReader.readPaperTrackFile("test-files/paperTrack2.txt").get(1);
+	}
+
+	/**
+	 * Runs a command on a track and records it in a history
+	 * @param history the history
+	 * @param track the track
+	 * @param id the id of the paper
+	 * @param command the command
+	 */
+	private static void run(UndoHistory history, PaperTrack track, int id, Command command) {
+		PaperView before = track.getSnapshot().getPaperById(id);
+		track.executeCommand(id, command);
+		history.record(track, before, track.getSnapshot().getPaperById(id));
+	}
+
+	/**
+	 * Tests that a command, an added paper and a deleted paper are undone and redone
+	 */
+	@Test
+	public void testUndoRedo() {
+		UndoHistory history = new UndoHistory();
+		PaperTrack track = readTrack();
+		String start = track.getSnapshot().getPapers().toString();
+		run(history, track, 2, new Command(CommandValue.ASSIGN, "reviewer4"));
+		String assigned = track.getSnapshot().getPapers().toString();
+		int added = track.addPaper("A. Author");
+		history.record(track, null, track.getSnapshot().getPaperById(added));
+		PaperView deleted = track.getSnapshot().getPaperById(11);
+		track.deletePaperById(11);
+		history.record(track, deleted, null);
+		String end = track.getSnapshot().getPapers().toString();
+		assertEquals(3, history.getUndoCount());
+
+		assertEquals(11, history.undo());
+		assertEquals(deleted.toString(), track.getSnapshot().getPaperById(11).toString());
+		assertEquals(added, history.undo());
+		assertNull(track.getSnapshot().getPaperById(added));
+		assertEquals(assigned, track.getSnapshot().getPapers().toString());
+		assertEquals(2, history.undo());
+		assertEquals(start, track.getSnapshot().getPapers().toString());
+		assertEquals(2, track.getSnapshot().getPaperById(2).getVersion());
+		assertFalse(history.canUndo());
+		assertThrows(IllegalArgumentException.class, () -> history.undo());
+
+		assertEquals(3, history.getRedoCount());
+		history.redo();
+		assertEquals(assigned, track.getSnapshot().getPapers().toString());
+		history.redo();
+		history.redo();
+		assertEquals(end, track.getSnapshot().getPapers().toString());
+		assertFalse(history.canRedo());
+		assertThrows(IllegalArgumentException.class, () -> history.redo());
+
+		history.undo();
+		assertTrue(history.canRedo());
+		int next = track.addPaper("B. Author");
+		history.record(track, null, track.getSnapshot().getPaperById(next));
+		assertFalse(history.canRedo());
+	}
+
+	/**
+	 * Tests that a paper changed since the command is not overwritten by undo
+	 */
+	@Test
+	public void testConflict() {
+		UndoHistory history = new UndoHistory();
+		PaperTrack track = readTrack();
+		run(history, track, 2, new Command(CommandValue.ASSIGN, "reviewer4"));
+		track.deletePaperById(2);
+		assertThrows(IllegalArgumentException.class, () -> history.undo());
+		assertFalse(history.canUndo());
+		assertNull(track.getSnapshot().getPaperById(2));
+	}
+
+	/**
+	 * Tests that old entries are joined when they change the same paper and forgotten
+	 * otherwise, and that a removed track is forgotten
+	 */
+	@Test
+	public void testCapacity() {
+		UndoHistory history = new UndoHistory(2);
+		PaperTrack track = readTrack();
+		String start = track.getSnapshot().getPapers().toString();
+		int id = track.addPaper("A. Author");
+		history.record(track, null, track.getSnapshot().getPaperById(id));
+		run(history, track, id, new Command(CommandValue.ASSIGN, "reviewer4"));
+		run(history, track, 2, new Command(CommandValue.ASSIGN, "reviewer3"));
+		assertEquals(2, history.getUndoCount());
+		history.undo();
+		history.undo();
+		assertEquals(start, track.getSnapshot().getPapers().toString());
+
+		run(history, track, 2, new Command(CommandValue.ASSIGN, "reviewer3"));
+		track.addPaper("B. Author");
+		history.record(track, null, track.getSnapshot().getPaperById(id + 1));
+		history.setCapacity(1);
+		assertEquals(1, history.getUndoCount());
+		assertEquals(id + 1, history.undo());
+
+		history.removeTrack(track);
+		assertFalse(history.canRedo());
+		assertThrows(IllegalArgumentException.class, () -> history.setCapacity(0));
+		assertThrows(IllegalArgumentException.class, () -> new UndoHistory(0));
+		assertEquals(UndoHistory.DEFAULT_CAPACITY, new UndoHistory().getCapacity());
+	}
+}
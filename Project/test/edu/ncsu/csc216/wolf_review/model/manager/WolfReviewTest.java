@@ -2,11 +2,21 @@ package edu.ncsu.csc216.wolf_review.model.manager;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import edu.ncsu.csc216.wolf_review.model.command.Command;
+import edu.ncsu.csc216.wolf_review.model.io.TextTrackStorage;
+import edu.ncsu.csc216.wolf_review.model.io.WriteBehindPersister;
 import edu.ncsu.csc216.wolf_review.model.paper.Paper;
+import edu.ncsu.csc216.wolf_review.model.paper.PaperView;
 
 /**
  * Tests the WolfReview class in the WolfReview system.
@@ -21,6 +31,12 @@ class WolfReviewTest {
 	 */
     private WolfReview review;
 
+    /**
+     * A temporary directory for stores and saved files
+     */
+    @TempDir
+    Path dir;
+
     /**
      * Sets up a WolfReview instance before each test
      */
@@ -71,6 +87,8 @@ class WolfReviewTest {
         Paper paper = review.getActivePaperTrack().getPapers().get(0);        
         Command command = new Command(Command.CommandValue.ASSIGN, "Reviewer");
         review.executeCommand(paper.getId(), command);
+        assertEquals("Submitted", paper.getState());
+        paper = review.getPaperById(paper.getId());
         assertEquals("Reviewing", paper.getState());
         assertEquals("anonymous", paper.getAuthorNames());
     }
@@ -175,5 +193,347 @@ class WolfReviewTest {
         assertTrue(review.getPaperTrackList().length > 0);
         assertNotNull(review.getActivePaperTrack());
     }
-  
+
+    /**
+     * Tests querying the papers of the active track
+     */
+    @Test
+    void testQueryPapers() {
+        assertNull(review.queryPapers(new PaperQuery()));
+        review.loadTracksFromFile("test-files/paperTrack1.txt");
+        assertEquals(2, review.queryPapers(new PaperQuery().state(Paper.SUBMITTED_NAME)).size());
+        assertEquals(4, review.queryPapers(new PaperQuery().reviewer("reviewer1")).get(0).getId());
+    }
+
+    /**
+     * Tests that the reviewer index follows commands executed on the active track
+     */
+    @Test
+    void testReviewerIndex() {
+        review.loadTracksFromFile("test-files/paperTrack2.txt");
+        assertEquals(2, review.getReviewerIndex().getWorkload("reviewer1"));
+        review.executeCommand(1, new Command(Command.CommandValue.CLOSE, Paper.WITHDRAW_CLOSED));
+        assertEquals(1, review.getReviewerIndex().getWorkload("reviewer1"));
+        review.addNewPaperTrack("Workshop", 10, 5);
+        review.addPaperToPaperTrack("Steve");
+        int id = review.getActivePaperTrack().getPapers().get(0).getId();
+        review.executeCommand(id, new Command(Command.CommandValue.ASSIGN, "reviewer1"));
+        assertEquals(List.of(id), review.getReviewerIndex().getPaperIds("reviewer1", "Workshop"));
+        assertEquals(2, review.getReviewerIndex().getWorkload("reviewer1"));
+    }
+
+    /**
+     * Tests finding a track by name without changing the active track
+     */
+    @Test
+    void testGetPaperTrack() {
+        review.addNewPaperTrack("First", 10, 5);
+        review.addNewPaperTrack("Second", 10, 5);
+        assertEquals("First", review.getPaperTrack("First").getTrackName());
+        assertEquals("Second", review.getActivePaperTrackName());
+        assertNull(review.getPaperTrack("Third"));
+    }
+
+
+    /**
+     * Tests that reloading a refreshed file applies only the differences and does not duplicate tracks
+     * @throws Exception if the temporary files cannot be written
+     */
+    @Test
+    void testReloadTracksFromFile() throws Exception {
+        Path file = Files.createTempFile("reload", ".txt");
+        Files.writeString(file, "# Kept,10,5\n"
+                + "* 1,Submitted,S. Carol,Abstract,false,,\n"
+                + "* 2,Reviewing,anonymous,Abstract,false,reviewer1,\n"
+                + "# Dropped,10,5\n"
+                + "* 3,Submitted,M. Hill,Abstract,false,,\n");
+        review.loadTracksFromFile(file.toString());
+        review.loadTrack("Dropped");
+        assertEquals(1, review.getReviewerIndex().getWorkload("reviewer1"));
+
+        Files.writeString(file, "# Kept,10,5\n"
+                + "* 1,Reviewing,anonymous,Abstract,false,reviewer2,\n"
+                + "* 4,Submitted,P. Kathleen,Abstract,false,,\n"
+                + "# Added,8,5\n"
+                + "* 5,Submitted,S. Gillespie,Abstract,false,,\n");
+        ReloadSummary summary = review.reloadTracksFromFile(file.toString());
+
+        assertEquals(List.of("Dropped"), summary.getRemovedTracks());
+        assertEquals(List.of("Added"), summary.getAddedTracks());
+        assertEquals(1, summary.getPapersAdded());
+        assertEquals(1, summary.getPapersRemoved());
+        assertEquals(1, summary.getPapersChanged());
+        assertArrayEquals(new String[] {"Kept", "Added"}, review.getPaperTrackList());
+        assertEquals("Kept", review.getActivePaperTrackName());
+        assertEquals("Reviewing", review.getPaperById(1).getState());
+        assertNull(review.getPaperById(2));
+        assertEquals(0, review.getReviewerIndex().getWorkload("reviewer1"));
+        assertEquals(1, review.getReviewerIndex().getWorkload("reviewer2"));
+        assertTrue(review.getAuthorIndex().search("hill").isEmpty());
+        assertEquals(List.of(5), review.getAuthorIndex().search("gillespie").get("Added"));
+
+        assertTrue(review.reloadTracksFromFile(file.toString()).isEmpty());
+        assertEquals(2, review.getPaperTrackList().length);
+
+        Files.writeString(file, "no tracks\n");
+        assertThrows(IllegalArgumentException.class, () -> review.reloadTracksFromFile(file.toString()));
+        assertEquals(2, review.getPaperTrackList().length);
+    }
+
+    /**
+     * Tests that merging tracks adds and updates tracks but keeps tracks that were not given
+     */
+    @Test
+    void testMergeTracks() {
+        review.addNewPaperTrack("Kept", 10, 5);
+        review.addNewPaperTrack("Merged", 10, 5);
+        PaperTrack merged = review.getPaperTrack("Merged");
+
+        PaperTrack update = new PaperTrack("Merged", 10, 5);
+        update.addPaper(new Paper(7, "Submitted", "S. Carol", "Abstract", false, "", ""));
+        PaperTrack added = new PaperTrack("Added", 10, 5);
+        added.addPaper(new Paper(8, "Submitted", "M. Hill", "Abstract", false, "", ""));
+        ReloadSummary summary = review.mergeTracks(List.of(update, added));
+
+        assertArrayEquals(new String[] {"Kept", "Merged", "Added"}, review.getPaperTrackList());
+        assertTrue(summary.getRemovedTracks().isEmpty());
+        assertEquals(List.of("Added"), summary.getAddedTracks());
+        assertEquals(1, summary.getPapersAdded());
+        assertSame(merged, review.getPaperTrack("Merged"));
+        assertEquals(1, merged.getSnapshot().size());
+        assertEquals("Merged", review.getActivePaperTrackName());
+    }
+
+    /**
+     * Tests that opening a store reads no papers until a track is made active, and that
+     * saving to the store only rewrites the tracks that changed
+     */
+    @Test
+    void testOpenAndSaveStore() {
+        review.loadTracksFromFile("test-files/paperTrack2.txt");
+        assertThrows(IllegalArgumentException.class, () -> review.saveToStore());
+        review.openStore(dir.toString());
+        assertEquals(4, review.saveToStore());
+        assertEquals(0, review.saveToStore());
+
+        review.resetManager();
+        review = WolfReview.getInstance();
+        review.openStore(dir.toString());
+        assertEquals(4, review.getPaperTrackList().length);
+        assertNull(review.getActivePaperTrack());
+        for (String name : review.getPaperTrackList()) {
+            assertFalse(review.getPaperTrack(name).isLoaded());
+        }
+
+        review.loadTrack("Position paper");
+        assertTrue(review.getPaperTrack("Position paper").isLoaded());
+        assertFalse(review.getPaperTrack("Research Track").isLoaded());
+        assertEquals(6, review.getPapersAsArray("All").length);
+        review.addPaperToPaperTrack("S. Carol");
+        assertEquals(1, review.saveToStore());
+        assertFalse(review.getPaperTrack("Research Track").isLoaded());
+    }
+
+    /**
+     * Tests that inactive tracks are evicted to the store by paper count, written back if
+     * they changed, and read again when they are made active
+     * @throws Exception if the saved track cannot be read
+     */
+    @Test
+    void testTrackCacheLimit() throws Exception {
+        assertThrows(IllegalArgumentException.class, () -> review.setTrackCacheLimit(8));
+        review.loadTracksFromFile("test-files/paperTrack2.txt");
+        review.openStore(dir.toString());
+        review.setTrackCacheLimit(8);
+        assertEquals(7, review.getTrackCache().getWeight());
+        assertEquals(List.of("Research Track"), review.getTrackCache().getResidentTracks());
+        assertFalse(review.getPaperTrack("Experience report").isLoaded());
+        assertEquals(4, review.getPaperTrackList().length);
+
+        review.loadTrack("Position paper");
+        assertFalse(review.getPaperTrack("Research Track").isLoaded());
+        assertEquals(6, review.getTrackCache().getWeight());
+        review.executeCommand(2, new Command(Command.CommandValue.ASSIGN, "cached"));
+
+        review.loadTrack("Experience report");
+        assertFalse(review.getPaperTrack("Position paper").isLoaded());
+        assertTrue(Files.readString(dir.resolve("position-paper.txt")).contains("cached"));
+
+        review.loadTrack("Position paper");
+        assertEquals("cached", review.getPaperById(2).getReviewer());
+        assertTrue(review.getTrackCache().getWeight() <= 8);
+    }
+
+    /**
+     * Tests that the reviewer and author indexes keep the papers of a track that is evicted
+     * to the store, and do not count them twice when the track is read again
+     */
+    @Test
+    void testIndexesAfterEviction() {
+        review.loadTracksFromFile("test-files/paperTrack2.txt");
+        review.openStore(dir.toString());
+        review.loadTrack("Position paper");
+        review.executeCommand(2, new Command(Command.CommandValue.ASSIGN, "rev"));
+        review.loadTrack("Research Track");
+        review.setTrackCacheLimit(1);
+        assertFalse(review.getPaperTrack("Position paper").isLoaded());
+        assertEquals(Map.of("Position paper", List.of(2)), review.getReviewerIndex().getAssignments("rev"));
+        assertEquals(1, review.getReviewerIndex().getWorkload("rev"));
+        assertEquals(List.of(3), review.getAuthorIndex().search("gillespie").get("Position paper"));
+
+        review.loadTrack("Position paper");
+        assertEquals(1, review.getReviewerIndex().getWorkload("rev"));
+        assertEquals(List.of(3), review.getAuthorIndex().search("gillespie").get("Position paper"));
+    }
+
+    /**
+     * Tests that statistics are read per track and across all tracks, and that evicted
+     * tracks keep their counts
+     */
+    @Test
+    void testStatistics() {
+        review.loadTracksFromFile("test-files/paperTrack2.txt");
+        assertNull(review.getTrackStatistics("Missing"));
+        int total = 0;
+        for (String name : review.getPaperTrackList()) {
+            TrackStatistics statistics = review.getTrackStatistics(name);
+            assertEquals(review.getPaperTrack(name).getSnapshot().size(), statistics.getTotal());
+            assertEquals(statistics, review.getStatisticsByTrack().get(name));
+            total += statistics.getTotal();
+        }
+        assertEquals(total, review.getStatistics().getTotal());
+
+        int submitted = review.getStatistics().getStateCount(Paper.SUBMITTED_NAME);
+        review.addPaperToPaperTrack("New Author");
+        assertEquals(submitted + 1, review.getStatistics().getStateCount(Paper.SUBMITTED_NAME));
+
+        review.openStore(dir.toString());
+        review.saveToStore();
+        review.setTrackCacheLimit(1);
+        assertFalse(review.getTrackCache().getResidentTracks().contains("Experience report"));
+        assertEquals(total + 1, review.getStatistics().getTotal());
+    }
+
+    /**
+     * Tests that archived Closed papers are still listed, found, queried, indexed and counted
+     */
+    @Test
+    void testArchiveClosedPapers() {
+        review.loadTracksFromFile("test-files/paperTrack2.txt");
+        String[][] all = review.getPapersAsArray("All");
+        String[][] closed = review.getPapersAsArray(Paper.CLOSED_NAME);
+        String[][] submitted = review.getPapersAsArray(Paper.SUBMITTED_NAME);
+        TrackStatistics statistics = review.getStatistics();
+        Map<String, List<Integer>> ferdinand = review.getAuthorIndex().search("ferdinand");
+        TrackSnapshot research = review.getPaperTrack("Research Track").getSnapshot();
+        List<PaperView> queried = new PaperQuery().state(Paper.CLOSED_NAME).execute(research);
+        assertEquals(2, queried.size());
+        assertTrue(review.archiveClosedPapers() > 0);
+        assertEquals(ferdinand, review.getAuthorIndex().search("ferdinand"));
+        research = review.getPaperTrack("Research Track").getSnapshot();
+        assertTrue(research.getPapers().stream().noneMatch(p -> p.getId() == 4));
+        assertEquals(queried, new PaperQuery().state(Paper.CLOSED_NAME).execute(research));
+        assertEquals(queried.subList(1, 2), new PaperQuery().id(4).execute(research));
+        assertEquals(queried.subList(1, 2), new PaperQuery().authorContains("ferdinand").execute(research));
+        assertEquals("D. Ferdinand;T. Acevedo", research.getPaperById(4).getAuthorNames());
+        assertTrue(new PaperQuery().state(Paper.SUBMITTED_NAME).execute(research).stream()
+                .noneMatch(p -> Paper.CLOSED_NAME.equals(p.getState())));
+        assertEquals(0, review.archiveClosedPapers());
+        assertArrayEquals(all, review.getPapersAsArray("All"));
+        assertArrayEquals(closed, review.getPapersAsArray(Paper.CLOSED_NAME));
+        assertArrayEquals(submitted, review.getPapersAsArray(Paper.SUBMITTED_NAME));
+        assertEquals(statistics, review.getStatistics());
+        assertEquals(Paper.CLOSED_NAME, review.getPaperById(Integer.parseInt(closed[0][0])).getState());
+    }
+
+    /**
+     * Tests that changes are saved to the file in the background and the rest are saved
+     * when the background saver stops
+     * @throws Exception if interrupted while waiting for the save
+     */
+    @Test
+    void testWriteBehind() throws Exception {
+        review.loadTracksFromFile("test-files/paperTrack2.txt");
+        String fileName = dir.resolve("writebehind.txt").toString();
+        WriteBehindPersister persister = review.startWriteBehind(new TextTrackStorage(fileName), 50);
+        assertSame(persister, review.getWriteBehind());
+        review.loadTrack("Position paper");
+        review.executeCommand(2, new Command(Command.CommandValue.ASSIGN, "reviewer4"));
+        long deadline = System.currentTimeMillis() + 5000;
+        while (persister.getSaveCount() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, persister.getSaveCount());
+        assertEquals("reviewer4", new TextTrackStorage(fileName).loadTrack("Position paper").getPaperById(2).getReviewer());
+        String copyName = dir.resolve("copy.txt").toString();
+        review.savePaperTracksToFile(copyName);
+        review.savePaperTracksToFile(fileName);
+        assertEquals("reviewer4", new TextTrackStorage(copyName).loadTrack("Position paper").getPaperById(2).getReviewer());
+        assertSame(persister, review.getWriteBehind());
+
+        review.addNewPaperTrack("Write Behind Track", 10, 5);
+        review.addPaperToPaperTrack("A. Author");
+        review.stopWriteBehind();
+        assertNull(review.getWriteBehind());
+        assertFalse(persister.isRunning());
+        assertEquals(1, new TextTrackStorage(fileName).loadTrack("Write Behind Track").getPapers().size());
+        try (Stream<Path> files = Files.list(dir)) {
+            assertTrue(files.noneMatch(f -> f.getFileName().toString().endsWith(".tmp")));
+        }
+        review.stopWriteBehind();
+    }
+
+    /**
+     * Tests that the papers of every track can be seen as they were before a command
+     * @throws Exception if interrupted while waiting for the clock
+     */
+    @Test
+    void testHistory() throws Exception {
+        review.loadTracksFromFile("test-files/paperTrack2.txt");
+        assertNull(review.getHistory("Position paper"));
+        assertTrue(review.getPapersAsOf(System.currentTimeMillis()).isEmpty());
+        review.recordHistory(10);
+        review.addNewPaperTrack("History Track", 10, 5);
+        Thread.sleep(5);
+        long before = System.currentTimeMillis();
+        Thread.sleep(5);
+        review.loadTrack("Position paper");
+        review.executeCommand(2, new Command(Command.CommandValue.ASSIGN, "reviewer4"));
+
+        assertEquals(1, review.getHistory("Position paper").getEventCount());
+        assertEquals("", review.getHistory("Position paper").paperAsOf(2, before).getReviewer());
+        Map<String, List<PaperView>> asOf = review.getPapersAsOf(before);
+        assertEquals(review.getPaperTrackList().length, asOf.size());
+        assertTrue(asOf.get("History Track").isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> review.recordHistory(0));
+    }
+
+    /**
+     * Tests that commands, added papers and deleted papers made through WolfReview are undone
+     * and redone, even after another track is made active
+     */
+    @Test
+    void testUndoRedo() {
+        review.loadTracksFromFile("test-files/paperTrack2.txt");
+        review.loadTrack("Position paper");
+        PaperTrack track = review.getActivePaperTrack();
+        String start = track.getSnapshot().getPapers().toString();
+        review.executeCommand(2, new Command(Command.CommandValue.ASSIGN, "reviewer4"));
+        review.addPaperToPaperTrack("A. Author");
+        review.deletePaperById(11);
+        review.deletePaperById(999);
+        assertThrows(UnsupportedOperationException.class,
+                () -> review.executeCommand(3, new Command(Command.CommandValue.ASSIGN, "reviewer4")));
+        assertEquals(3, review.getUndoHistory().getUndoCount());
+
+        review.loadTrack("Research Track");
+        assertEquals(11, review.undo());
+        review.undo();
+        assertEquals(2, review.undo());
+        assertEquals(start, track.getSnapshot().getPapers().toString());
+        assertThrows(IllegalArgumentException.class, () -> review.undo());
+
+        assertEquals(2, review.redo());
+        assertEquals("reviewer4", track.getPaperById(2).getReviewer());
+    }
 }
@@ -0,0 +1,114 @@
+package edu.ncsu.csc216.wolf_review.model.metrics;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import edu.ncsu.csc216.wolf_review.model.command.Command;
+import edu.ncsu.csc216.wolf_review.model.command.Command.CommandValue;
+import edu.ncsu.csc216.wolf_review.model.manager.PaperTrack;
+import edu.ncsu.csc216.wolf_review.model.manager.WolfReview;
+import edu.ncsu.csc216.wolf_review.model.paper.Paper;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Tests the CommandEvent and LoadTrackEvent classes in the WolfReview system.
+ * Each test records commands or track loads with Flight Recorder and checks
+ * the fields of the events that were committed
+ * @author Steven Saleeb
+ */
+class CommandEventTest {
+
+	/**
+	 * Directory for recordings
+	 */
+	@TempDir
+	Path dir;
+
+	/**
+	 * Tests that applied, rejected and missing paper commands are recorded with their states
+	 * @throws IOException if the recording cannot be read
+	 */
+	@Test
+	void testCommands() throws IOException {
+		PaperTrack track = new PaperTrack("Command Event", 10, 5);
+		int id = track.addPaper("S. Carol");
+
+		List<RecordedEvent> events = record("edu.ncsu.csc216.wolf_review.Command", () -> {
+			track.executeCommand(id, new Command(CommandValue.ASSIGN, "reviewer1"));
+			assertThrows(UnsupportedOperationException.class,
+					() -> track.executeCommand(id, new Command(CommandValue.ASSIGN, "reviewer2")));
+			track.executeCommand(id + 100, new Command(CommandValue.ASSIGN, "reviewer1"));
+		});
+		assertEquals(3, events.size());
+
+		RecordedEvent applied = events.get(0);
+		assertEquals("Command Event", applied.getString("track"));
+		assertEquals(id, applied.getInt("paperId"));
+		assertEquals("ASSIGN", applied.getString("command"));
+		assertEquals(Paper.SUBMITTED_NAME, applied.getString("oldState"));
+		assertEquals(Paper.REVIEWING_NAME, applied.getString("newState"));
+		assertEquals(CommandEvent.APPLIED, applied.getString("outcome"));
+
+		RecordedEvent rejected = events.get(1);
+		assertEquals(Paper.REVIEWING_NAME, rejected.getString("oldState"));
+		assertEquals(Paper.REVIEWING_NAME, rejected.getString("newState"));
+		assertEquals(CommandEvent.REJECTED, rejected.getString("outcome"));
+
+		RecordedEvent missing = events.get(2);
+		assertEquals(id + 100, missing.getInt("paperId"));
+		assertNull(missing.getString("oldState"));
+		assertEquals(CommandEvent.NOT_FOUND, missing.getString("outcome"));
+	}
+
+	/**
+	 * Tests that making a track active is recorded, including a track that is not found
+	 * @throws IOException if the recording cannot be read
+	 */
+	@Test
+	void testLoadTrack() throws IOException {
+		WolfReview model = WolfReview.getInstance();
+		model.addNewPaperTrack("Load Track Event", 10, 5);
+		model.addPaperToPaperTrack("S. Carol");
+
+		List<RecordedEvent> events = record("edu.ncsu.csc216.wolf_review.LoadTrack", () -> {
+			model.loadTrack("Load Track Event");
+			assertThrows(IllegalArgumentException.class, () -> model.loadTrack("No Such Event Track"));
+		});
+		assertEquals(2, events.size());
+		assertEquals("Load Track Event", events.get(0).getString("track"));
+		assertTrue(events.get(0).getBoolean("found"));
+		assertEquals(1, events.get(0).getInt("papers"));
+		assertEquals("No Such Event Track", events.get(1).getString("track"));
+		assertFalse(events.get(1).getBoolean("found"));
+	}
+
+	/**
+	 * Runs an action while recording one event type
+	 * @param eventName the name of the event to record
+	 * @param action the action to run
+	 * @return the events recorded, in the order they were committed
+	 * @throws IOException if the recording cannot be written or read
+	 */
+	private List<RecordedEvent> record(String eventName, Runnable action) throws IOException {
+		Path file = dir.resolve("events.jfr");
+		try (Recording recording = new Recording()) {
+			recording.enable(eventName).withoutThreshold();
+			recording.start();
+			action.run();
+			recording.stop();
+			recording.dump(file);
+		}
+		List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+		events.sort((a, b) -> a.getStartTime().compareTo(b.getStartTime()));
+		return events;
+	}
+}
@@ -0,0 +1,43 @@
+package edu.ncsu.csc216.wolf_review.model.metrics;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the Histogram class in the WolfReview system.
+ * Each test makes sure that values land in the right bucket and
+ * that the count and sum are kept
+ * @author Steven Saleeb
+ */
+class HistogramTest {
+
+    /**
+     * Tests recording values into buckets
+     */
+    @Test
+    void testRecord() {
+        Histogram histogram = new Histogram(10, 100);
+        histogram.record(5);
+        histogram.record(10);
+        histogram.record(50);
+        histogram.record(1000);
+
+        assertEquals(3, histogram.getBucketCount());
+        assertEquals(2, histogram.getBucket(0));
+        assertEquals(1, histogram.getBucket(1));
+        assertEquals(1, histogram.getBucket(2));
+        assertEquals(100, histogram.getBound(1));
+        assertEquals(Long.MAX_VALUE, histogram.getBound(2));
+        assertEquals(4, histogram.getCount());
+        assertEquals(1065, histogram.getSum());
+    }
+
+    /**
+     * Tests that bounds must increase
+     */
+    @Test
+    void testInvalidBounds() {
+        assertThrows(IllegalArgumentException.class, () -> new Histogram(10, 10));
+    }
+}
@@ -0,0 +1,92 @@
+package edu.ncsu.csc216.wolf_review.model.metrics;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import edu.ncsu.csc216.wolf_review.model.io.PaperTrackReader;
+import edu.ncsu.csc216.wolf_review.model.io.PaperTrackWriter;
+import edu.ncsu.csc216.wolf_review.model.manager.PaperTrack;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Tests the LoadEvent and SaveEvent classes in the WolfReview system.
+ * Each test records a load or save with Flight Recorder and checks the
+ * fields of the event that was committed
+ * @author Steven Saleeb
+ */
+class LoadEventTest {
+
+	/**
+	 * Directory for recordings and saved files
+	 */
+	@TempDir
+	Path dir;
+
+	/**
+	 * Tests that loading a file records its tracks, papers and rejected lines
+	 * @throws IOException if the recording cannot be read
+	 */
+	@Test
+	void testLoad() throws IOException {
+		List<RecordedEvent> events = record("edu.ncsu.csc216.wolf_review.Load",
+				() -> PaperTrackReader.readPaperTrackFile("test-files/badPaper.txt"));
+		assertEquals(1, events.size());
+		RecordedEvent event = events.get(0);
+		assertEquals("test-files/badPaper.txt", event.getString("file"));
+		assertTrue(event.getLong("bytes") > 0);
+		assertEquals(0, event.getInt("tracks"));
+		assertEquals(0, event.getInt("papers"));
+		assertEquals(1, event.getInt("rejectedLines"));
+	}
+
+	/**
+	 * Tests that saving a file records its tracks and papers
+	 * @throws IOException if the recording cannot be read
+	 */
+	@Test
+	void testSave() throws IOException {
+		PaperTrack track = new PaperTrack("Save Event", 10, 5);
+		track.addPaper("S. Carol");
+		track.addPaper("M. Hill");
+		ArrayList<PaperTrack> tracks = new ArrayList<PaperTrack>();
+		tracks.add(track);
+		tracks.add(new PaperTrack("Empty Event", 10, 5));
+		String file = dir.resolve("save.txt").toString();
+
+		List<RecordedEvent> events = record("edu.ncsu.csc216.wolf_review.Save",
+				() -> PaperTrackWriter.writePaperTracksToFile(file, tracks));
+		assertEquals(1, events.size());
+		assertEquals(file, events.get(0).getString("file"));
+		assertEquals(1, events.get(0).getInt("tracks"));
+		assertEquals(2, events.get(0).getInt("papers"));
+	}
+
+	/**
+	 * Runs an action while recording one event type
+	 * @param eventName the name of the event to record
+	 * @param action the action to run
+	 * @return the events recorded
+	 * @throws IOException if the recording cannot be written or read
+	 */
+	private List<RecordedEvent> record(String eventName, Runnable action) throws IOException {
+		Path file = dir.resolve("events.jfr");
+		try (Recording recording = new Recording()) {
+			recording.enable(eventName).withoutThreshold();
+			recording.start();
+			action.run();
+			recording.stop();
+			recording.dump(file);
+		}
+		return RecordingFile.readAllEvents(file);
+	}
+}
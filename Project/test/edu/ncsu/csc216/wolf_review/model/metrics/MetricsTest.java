@@ -0,0 +1,78 @@
+package edu.ncsu.csc216.wolf_review.model.metrics;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.wolf_review.model.command.Command;
+import edu.ncsu.csc216.wolf_review.model.command.Command.CommandValue;
+import edu.ncsu.csc216.wolf_review.model.io.ParseDiagnostics.Reason;
+import edu.ncsu.csc216.wolf_review.model.io.PaperTrackReader;
+import edu.ncsu.csc216.wolf_review.model.io.PaperTrackWriter;
+import edu.ncsu.csc216.wolf_review.model.manager.PaperTrack;
+import edu.ncsu.csc216.wolf_review.model.paper.Paper;
+
+/**
+ * Tests the Metrics class in the WolfReview system.
+ * Each test makes sure that the model and file classes record their
+ * commands, rejected transitions, latencies and parse errors
+ * @author Steven Saleeb
+ */
+class MetricsTest {
+
+	/**
+	 * The registry under test
+	 */
+    private final Metrics metrics = Metrics.getInstance();
+
+    /**
+     * Tests that applied and rejected commands are counted
+     */
+    @Test
+    void testCommands() {
+        long assigns = metrics.getCommandCount(CommandValue.ASSIGN);
+        long rejected = metrics.getRejectedCount(Paper.REVIEWING_NAME);
+        PaperTrack track = new PaperTrack("Metrics", 10, 5);
+        int id = track.addPaper("S. Carol");
+        track.executeCommand(id, new Command(CommandValue.ASSIGN, "reviewer1"));
+        assertThrows(UnsupportedOperationException.class,
+                () -> track.executeCommand(id, new Command(CommandValue.ASSIGN, "reviewer1")));
+
+        assertEquals(assigns + 1, metrics.getCommandCount(CommandValue.ASSIGN));
+        assertEquals(rejected + 1, metrics.getRejectedCount(Paper.REVIEWING_NAME));
+        assertEquals(0, metrics.getRejectedCount("Unknown"));
+    }
+
+    /**
+     * Tests that loading and saving record latency and parse errors
+     * @throws Exception if the temporary file cannot be created
+     */
+    @Test
+    void testLoadAndSave() throws Exception {
+        long loads = metrics.getLoadLatency().getCount();
+        long saves = metrics.getSaveLatency().getCount();
+        long errors = metrics.getParseErrorCount(Reason.INVALID_PAPER);
+
+        ArrayList<PaperTrack> tracks = PaperTrackReader.readPaperTrackFile("test-files/paperTrack10.txt");
+        PaperTrackWriter.writePaperTracksToFile(Files.createTempFile("metrics", ".txt").toString(), tracks);
+
+        assertEquals(loads + 1, metrics.getLoadLatency().getCount());
+        assertEquals(saves + 1, metrics.getSaveLatency().getCount());
+        assertTrue(metrics.getParseErrorCount(Reason.INVALID_PAPER) > errors);
+    }
+
+    /**
+     * Tests gauges that are read on export
+     */
+    @Test
+    void testGauge() {
+        metrics.registerGauge("test_gauge", "kind", () -> Map.of("a", 3L));
+        assertEquals(3L, metrics.getGaugeValues().get("test_gauge").get("a"));
+        assertEquals("kind", metrics.getGaugeLabel("test_gauge"));
+        assertNull(metrics.getGaugeLabel("missing"));
+    }
+}
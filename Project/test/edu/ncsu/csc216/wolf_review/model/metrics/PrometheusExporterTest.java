@@ -0,0 +1,42 @@
+package edu.ncsu.csc216.wolf_review.model.metrics;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.wolf_review.model.io.ParseDiagnostics.Reason;
+import edu.ncsu.csc216.wolf_review.model.manager.WolfReview;
+
+/**
+ * Tests the PrometheusExporter class in the WolfReview system.
+ * Each test makes sure that the exported text follows the Prometheus format
+ * @author Steven Saleeb
+ */
+class PrometheusExporterTest {
+
+    /**
+     * Tests exporting the registry to a file
+     * @throws Exception if the file cannot be written
+     */
+    @Test
+    void testExport() throws Exception {
+        WolfReview.getInstance().loadTracksFromFile("test-files/paperTrack1.txt");
+        Metrics.getInstance().recordParseError(Reason.DUPLICATE_ID);
+        Path file = Files.createTempFile("metrics", ".prom");
+        Metrics.getInstance().exportTo(new PrometheusExporter(file));
+
+        String text = Files.readString(file);
+        assertTrue(text.contains("# TYPE wolfreview_commands_total counter\nwolfreview_commands_total{command=\"ACCEPT\"} "));
+        assertTrue(text.contains("wolfreview_rejected_transitions_total{state=\"Closed\"} "));
+        assertTrue(text.contains("# TYPE wolfreview_load_seconds histogram\nwolfreview_load_seconds_bucket{le=\"0.001\"} "));
+        assertTrue(text.contains("wolfreview_load_seconds_bucket{le=\"+Inf\"} "));
+        assertTrue(text.contains("wolfreview_save_seconds_count "));
+        assertTrue(text.contains("# TYPE wolfreview_parse_errors_total counter\nwolfreview_parse_errors_total{reason=\"MISSING_HEADER\"} "));
+        assertTrue(text.contains("wolfreview_parse_errors_total{reason=\"DUPLICATE_ID\"} "));
+        assertFalse(text.contains("file=\""));
+        assertTrue(text.contains("# TYPE wolfreview_papers gauge\nwolfreview_papers{state=\"Submitted\"} "));
+    }
+}
@@ -7,6 +7,7 @@ import org.junit.jupiter.api.Test;
 
 import edu.ncsu.csc216.wolf_review.model.command.Command;
 import edu.ncsu.csc216.wolf_review.model.command.Command.CommandValue;
+import edu.ncsu.csc216.wolf_review.model.command.CommandResult;
 import edu.ncsu.csc216.wolf_review.model.paper.Paper.PaperType;
 
 /**
@@ -312,4 +313,129 @@ class PaperTest {
     }
     
 
+
+    /**
+     * Tests that canExecute and execute agree with update for every command and
+     * information in every state, and that execute changes the paper the same way
+     */
+    @Test
+    void testExecuteMatchesUpdate() {
+        String[] infos = {null, "", "reviewer9", Paper.ACCEPT_CLOSED, Paper.REJECT_CLOSED,
+            Paper.WITHDRAW_CLOSED, Paper.DUPLICATE_CLOSED, Paper.RECOMMEND_STRONG_ACCEPT,
+            Paper.RECOMMEND_WEAK_ACCEPT, Paper.RECOMMEND_WEAK_REJECT, Paper.RECOMMEND_STRONG_REJECT};
+        String[] papers = {
+            "10,Submitted,S. Carol,Abstract,false,,",
+            "1,Submitted,S. Carol,FullPaper,false,,",
+            "2,Submitted,anonymous,FullPaper,true,reviewer1,WeakAcceptRecommendation",
+            "3,Submitted,anonymous,FullPaper,true,reviewer1,StrongRejectRecommendation",
+            "4,Submitted,anonymous,Abstract,true,reviewer1,WeakAcceptRecommendation",
+            "5,Reviewing,anonymous,FullPaper,false,reviewer1,",
+            "6,Reviewing,anonymous,Abstract,false,reviewer1,",
+            "7,Revising,anonymous,FullPaper,false,,",
+            "8,Registering,S. Carol,FullPaper,true,,",
+            "9,Closed,S. Carol,FullPaper,true,,Rejected"
+        };
+        int applied = 0;
+        for (String line : papers) {
+            for (CommandValue value : CommandValue.values()) {
+                for (String info : infos) {
+                    Paper expected = fromLine(line);
+                    Paper actual = fromLine(line);
+                    Command command = null;
+                    String result;
+                    try {
+                        command = new Command(value, info);
+                        expected.update(command);
+                        result = "APPLIED";
+                    } catch (UnsupportedOperationException e) {
+                        result = "INVALID_FOR_STATE";
+                    } catch (IllegalArgumentException e) {
+                        if (command != null) {
+                            continue;
+                        }
+                        result = "INVALID_INFO";
+                    }
+                    String message = line + " " + value + " " + info;
+                    assertEquals("APPLIED".equals(result), fromLine(line).canExecute(value, info), message);
+                    if (command != null) {
+                        assertEquals("APPLIED".equals(result), fromLine(line).canExecute(command), message);
+                    }
+                    assertEquals(result, actual.execute(value, info).name(), message);
+                    assertEquals(expected.toString(), actual.toString(), message);
+                    assertEquals(expected.getSavedAuthorNames(), actual.getSavedAuthorNames(), message);
+                    if ("APPLIED".equals(result)) {
+                        applied++;
+                    }
+                }
+            }
+        }
+        assertTrue(applied > 10);
+        assertFalse(paper.canExecute(null));
+        assertFalse(paper.canExecute(null, null));
+    }
+
+    /**
+     * Tests that restore builds the same paper as the full constructor for valid values
+     * in every state, including how it reacts to later commands
+     */
+    @Test
+    void testRestoreMatchesConstructor() {
+        String[] papers = {
+            "10,Submitted,S. Carol,Abstract,false,,",
+            "2,Submitted,anonymous,FullPaper,true,reviewer1,WeakAcceptRecommendation",
+            "5,Reviewing,anonymous,FullPaper,false,reviewer1,",
+            "7,Revising,anonymous,FullPaper,false,,",
+            "8,Registering,S. Carol,FullPaper,true,,",
+            "11,Registering,S. Carol,FullPaper,false,,",
+            "9,Closed,S. Carol,FullPaper,true,,Rejected",
+            "12,Closed,S. Carol,Abstract,false,,Withdrawn"
+        };
+        for (String line : papers) {
+            String[] f = line.split(",", -1);
+            Paper expected = fromLine(line);
+            Paper restored = Paper.restore(Integer.parseInt(f[0]), f[1], f[2], f[3], Boolean.parseBoolean(f[4]),
+                    f[5], f[6]);
+            assertEquals(expected.toString(), restored.toString(), line);
+            assertEquals(expected.getSavedAuthorNames(), restored.getSavedAuthorNames(), line);
+            for (CommandValue value : CommandValue.values()) {
+                assertEquals(expected.canExecute(value, Paper.WITHDRAW_CLOSED), restored.canExecute(value, Paper.WITHDRAW_CLOSED));
+            }
+        }
+        Paper.setCounter(0);
+        Paper.restore(40, Paper.SUBMITTED_NAME, "A. B", Paper.P_ABSTRACT, false, "", "");
+        assertEquals(41, new Paper("C. D").getId());
+        assertThrows(IllegalArgumentException.class,
+                () -> Paper.restore(1, "Unknown", "A. B", Paper.P_ABSTRACT, false, "", ""));
+    }
+
+    /**
+     * Tests that the version goes up once for each command that changes the paper and not
+     * for a command that is rejected
+     */
+    @Test
+    void testVersion() {
+        Paper paper = new Paper(1, "Submitted", "S. Carol", "Abstract", false, "", "");
+        assertEquals(0, paper.getVersion());
+        paper.update(new Command(CommandValue.ASSIGN, "reviewer1"));
+        assertEquals(1, paper.getVersion());
+        assertThrows(UnsupportedOperationException.class, () -> paper.update(new Command(CommandValue.ACCEPT, null)));
+        assertEquals(CommandResult.INVALID_FOR_STATE, paper.execute(CommandValue.ACCEPT, null));
+        assertEquals(1, paper.getVersion());
+        assertEquals(CommandResult.APPLIED, paper.execute(CommandValue.RECOMMEND, Paper.RECOMMEND_WEAK_ACCEPT));
+        assertEquals(2, paper.getVersion());
+        assertEquals(2, new PaperView(paper).getVersion());
+        paper.setVersion(7);
+        assertEquals(7, paper.getVersion());
+        assertThrows(IllegalArgumentException.class, () -> paper.setVersion(-1));
+    }
+
+    /**
+     * Creates a paper from a line of a paper track file
+     * @param line the paper fields separated by commas
+     * @return the paper
+     */
+    private static Paper fromLine(String line) {
+        String[] f = line.split(",", -1);
+        return new Paper(Integer.parseInt(f[0]), f[1], f[2], f[3], Boolean.parseBoolean(f[4]), f[5], f[6]);
+    }
 }
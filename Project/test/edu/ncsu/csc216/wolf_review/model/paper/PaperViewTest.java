@@ -0,0 +1,73 @@
+package edu.ncsu.csc216.wolf_review.model.paper;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.wolf_review.model.command.Command;
+import edu.ncsu.csc216.wolf_review.model.command.Command.CommandValue;
+
+/**
+ * Tests the PaperView class in the WolfReview system.
+ * Each test makes sure that a view copies the paper correctly and
+ * does not change when the paper changes
+ * @author Steven Saleeb
+ */
+class PaperViewTest {
+
+	/**
+	 * A Paper instance used for testing
+	 */
+    private Paper paper;
+
+    /**
+     * Sets up a new Paper instance before each test and resets the Id counter
+     */
+    @BeforeEach
+    void setUp() {
+        Paper.setCounter(1);
+        paper = new Paper("Steven Saleeb");
+    }
+
+    /**
+     * Tests that the view copies every field of the paper
+     */
+    @Test
+    void testCopiesPaper() {
+        PaperView view = new PaperView(paper);
+        assertEquals(1, view.getId());
+        assertEquals(Paper.SUBMITTED_NAME, view.getState());
+        assertEquals("Steven Saleeb", view.getAuthorNames());
+        assertEquals(Paper.P_ABSTRACT, view.getPaperType());
+        assertFalse(view.isProcessed());
+        assertEquals("", view.getReviewer());
+        assertEquals("", view.getNote());
+        assertEquals(paper.toString(), view.toString());
+    }
+
+    /**
+     * Tests that the view keeps the old information after the paper is updated
+     */
+    @Test
+    void testViewDoesNotChange() {
+        PaperView before = new PaperView(paper);
+        paper.update(new Command(CommandValue.ASSIGN, "reviewer1"));
+        PaperView after = new PaperView(paper);
+
+        assertEquals(Paper.SUBMITTED_NAME, before.getState());
+        assertEquals(Paper.REVIEWING_NAME, after.getState());
+        assertEquals(Paper.ANONYMOUS, after.getAuthorNames());
+        assertEquals("Steven Saleeb", after.getSavedAuthorNames());
+        assertNotEquals(before, after);
+        assertEquals(after, new PaperView(paper));
+    }
+
+    /**
+     * Tests that a view cannot be made from a null paper
+     */
+    @Test
+    void testNullPaper() {
+        assertThrows(IllegalArgumentException.class, () -> new PaperView(null));
+    }
+}
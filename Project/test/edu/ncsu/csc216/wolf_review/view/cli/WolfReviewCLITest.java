@@ -0,0 +1,152 @@
+package edu.ncsu.csc216.wolf_review.view.cli;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.wolf_review.model.manager.WolfReview;
+import edu.ncsu.csc216.wolf_review.model.paper.Paper;
+
+/**
+ * Tests the WolfReviewCLI class in the WolfReview system.
+ * Each test runs a script against the model and checks the output,
+ * the error messages and the exit code
+ * @author Steven Saleeb
+ */
+class WolfReviewCLITest {
+
+	/**
+	 * Captures normal output
+	 */
+    private ByteArrayOutputStream out;
+
+    /**
+     * Captures error output
+     */
+    private ByteArrayOutputStream err;
+
+    /**
+     * The front end under test
+     */
+    private WolfReviewCLI cli;
+
+    /**
+     * Creates the front end with captured streams before each test
+     */
+    @BeforeEach
+    void setUp() {
+        out = new ByteArrayOutputStream();
+        err = new ByteArrayOutputStream();
+        cli = new WolfReviewCLI(WolfReview.getInstance(), new PrintStream(out, true), new PrintStream(err, true));
+    }
+
+    /**
+     * Runs the front end with a script given on standard input
+     * @param script the script text
+     * @param args the command line options
+     * @return the exit code
+     */
+    private int run(String script, String... args) {
+        return cli.run(args, new ByteArrayInputStream(script.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Tests a script that creates a track, adds a paper and moves it through commands
+     */
+    @Test
+    void testScript() {
+        Paper.setCounter(1);
+        String script = "# build a track\n"
+                + "NEWTRACK CLI Track,10,5\n"
+                + "ADD S. Carol\n"
+                + "\n"
+                + "1 ASSIGN reviewer1\n"
+                + "1 RECOMMEND WeakAcceptRecommendation\n"
+                + "PRINT Submitted\n";
+        assertEquals(0, run(script, "-script", "-"));
+        assertEquals("1,Submitted,anonymous,Abstract\n5 applied, 0 rejected\n",
+                out.toString(StandardCharsets.UTF_8).replace("\r", ""));
+        assertEquals("", err.toString(StandardCharsets.UTF_8));
+        assertEquals("CLI Track", WolfReview.getInstance().getActivePaperTrackName());
+    }
+
+    /**
+     * Tests that bad lines are reported with their line number and the script carries on
+     */
+    @Test
+    void testRejectedLines() {
+        Paper.setCounter(1);
+        String script = "NEWTRACK CLI Rejects,10,5\n"
+                + "ADD M. Hill\n"
+                + "1 PROPOSE\n"
+                + "1 FLY away\n"
+                + "99 ASSIGN reviewer1\n"
+                + "1 ASSIGN reviewer2\n";
+        assertEquals(1, run(script, "-script", "-"));
+        String errors = err.toString(StandardCharsets.UTF_8);
+        assertTrue(errors.contains("line 3: Invalid command."));
+        assertTrue(errors.contains("line 4: Invalid command."));
+        assertTrue(errors.contains("line 5: Paper 99 not available."));
+        assertTrue(out.toString(StandardCharsets.UTF_8).contains("3 applied, 3 rejected"));
+        assertEquals(Paper.REVIEWING_NAME, WolfReview.getInstance().getPaperById(1).getState());
+    }
+
+    /**
+     * Tests loading a file, running a script file and saving the result
+     * @throws Exception if the temporary files cannot be used
+     */
+    @Test
+    void testLoadScriptFileAndSave() throws Exception {
+        Path script = Files.createTempFile("cli_script", ".txt");
+        Files.writeString(script, "NEWTRACK CLI Saved,10,5\nADD P. Nehru\n");
+        Path saved = Files.createTempFile("cli_saved", ".txt");
+
+        assertEquals(0, run("", "-load", "test-files/paperTrack1.txt", "-script", script.toString(),
+                "-save", saved.toString()));
+        String text = Files.readString(saved);
+        assertTrue(text.contains("# CLI Saved,10,5"));
+        assertTrue(text.contains("P. Nehru"));
+    }
+
+    /**
+     * Tests invalid options
+     */
+    @Test
+    void testInvalidOptions() {
+        assertEquals(2, run("", "-load"));
+        assertEquals(2, run("", "-bogus", "x"));
+        assertEquals(2, run("", "-load", "test-files/missing.txt"));
+        assertTrue(err.toString(StandardCharsets.UTF_8).contains("Unable to load file."));
+    }
+
+    /**
+     * Tests that lines of a loaded file that cannot be loaded are reported
+     */
+    @Test
+    void testLoadReportsRejectedLines() {
+        assertEquals(0, run("", "-load", "test-files/badPaper.txt"));
+        String errors = err.toString(StandardCharsets.UTF_8);
+        assertTrue(errors.contains("test-files/badPaper.txt: line 2 [Track2]: INVALID_PAPER"));
+        assertTrue(errors.contains("EMPTY_TRACK"));
+    }
+
+    /**
+     * Tests that reloading a file prints the changes that were applied
+     */
+    @Test
+    void testReload() {
+        assertEquals(0, run("RELOAD test-files/paperTrack1.txt\nRELOAD test-files/paperTrack1.txt\n",
+                "-script", "-"));
+        String output = out.toString(StandardCharsets.UTF_8);
+        assertTrue(output.contains("0 tracks added, 0 removed, 0 updated; 0 papers added, 0 removed, 0 changed"));
+        assertNotNull(WolfReview.getInstance().getPaperTrack("Research Track"));
+    }
+}
@@ -0,0 +1,243 @@
+package edu.ncsu.csc216.wolf_review.view.http;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.wolf_review.model.manager.PaperTrack;
+import edu.ncsu.csc216.wolf_review.model.manager.WolfReview;
+import edu.ncsu.csc216.wolf_review.model.paper.Paper;
+
+/**
+ * Tests the WolfReviewServer class in the WolfReview system.
+ * Each test sends real HTTP requests to a server on localhost and
+ * checks the JSON responses and status codes
+ * @author Steven Saleeb
+ */
+class WolfReviewServerTest {
+
+	/**
+	 * The server under test
+	 */
+    private WolfReviewServer server;
+
+    /**
+     * Client used to send requests
+     */
+    private HttpClient client;
+
+    /**
+     * Name of the track created for each test
+     */
+    private String trackName;
+
+    /**
+     * Creates a track with papers and starts a server on a free port
+     * @throws Exception if the server cannot start
+     */
+    @BeforeEach
+    void setUp() throws Exception {
+        WolfReview model = WolfReview.getInstance();
+        trackName = "Http Track " + System.nanoTime();
+        model.addNewPaperTrack(trackName, 10, 5);
+        PaperTrack track = model.getPaperTrack(trackName);
+        Paper.setCounter(1);
+        for (int i = 0; i < 20; i++) {
+            track.addPaper("Author " + i);
+        }
+        server = new WolfReviewServer(model, 0);
+        server.start();
+        client = HttpClient.newHttpClient();
+    }
+
+    /**
+     * Stops the server after each test
+     */
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    /**
+     * Sends a request to the server
+     * @param method the HTTP method
+     * @param path the path, already encoded
+     * @param body the request body or null
+     * @return the response
+     * @throws Exception if the request fails
+     */
+    private HttpResponse<String> send(String method, String path, String body) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + path));
+        request.method(method, body == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(body));
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    /**
+     * Returns the encoded path of the test track
+     * @return the path
+     */
+    private String trackPath() {
+        return "/tracks/" + trackName.replace(" ", "%20");
+    }
+
+    /**
+     * Tests listing tracks and papers
+     * @throws Exception if a request fails
+     */
+    @Test
+    void testListings() throws Exception {
+        HttpResponse<String> response = send("GET", "/tracks", null);
+        assertEquals(200, response.statusCode());
+        assertTrue(response.body().contains("{\"name\":\"" + trackName + "\",\"pageLimit\":10,\"payRateExtraPages\":5,\"papers\":20"));
+
+        response = send("GET", trackPath() + "/papers?limit=2&sort=id&desc=true", null);
+        assertEquals(200, response.statusCode());
+        assertEquals("[{\"id\":20,\"state\":\"Submitted\",\"authorNames\":\"Author 19\",\"paperType\":\"Abstract\","
+                + "\"processed\":false,\"reviewer\":\"\",\"note\":\"\",\"version\":0},"
+                + "{\"id\":19,\"state\":\"Submitted\",\"authorNames\":\"Author 18\",\"paperType\":\"Abstract\","
+                + "\"processed\":false,\"reviewer\":\"\",\"note\":\"\",\"version\":0}]", response.body());
+
+        response = send("GET", trackPath() + "/papers/3", null);
+        assertEquals(200, response.statusCode());
+        assertTrue(response.body().contains("\"authorNames\":\"Author 2\""));
+        assertEquals(404, send("GET", trackPath() + "/papers/99", null).statusCode());
+        assertEquals(404, send("GET", "/tracks/missing/papers", null).statusCode());
+        assertEquals(400, send("GET", trackPath() + "/papers/abc", null).statusCode());
+    }
+
+    /**
+     * Tests that listing tracks does not read the papers of tracks that are not loaded, and
+     * still gives the counts of a track that was unloaded
+     * @throws Exception if a request fails
+     */
+    @Test
+    void testListingDoesNotLoad() throws Exception {
+        WolfReview model = WolfReview.getInstance();
+        AtomicInteger reads = new AtomicInteger();
+        String lazyName = "Lazy " + trackName;
+        PaperTrack lazy = new PaperTrack(lazyName, 10, 5, () -> {
+            reads.incrementAndGet();
+            return new ArrayList<Paper>();
+        });
+        model.mergeTracks(List.of(lazy));
+        PaperTrack track = model.getPaperTrack(trackName);
+        track.markSaved(track.getSnapshot().getVersion());
+        List<Paper> stored = track.getPapers();
+        assertTrue(track.unload(() -> {
+            reads.incrementAndGet();
+            return stored;
+        }));
+
+        HttpResponse<String> response = send("GET", "/tracks", null);
+        assertEquals(200, response.statusCode());
+        assertTrue(response.body().contains("{\"name\":\"" + lazyName + "\",\"pageLimit\":10,\"payRateExtraPages\":5,\"papers\":null"));
+        assertTrue(response.body().contains("{\"name\":\"" + trackName + "\",\"pageLimit\":10,\"payRateExtraPages\":5,\"papers\":20"));
+        assertEquals(0, reads.get());
+        assertFalse(lazy.isLoaded());
+        assertFalse(track.isLoaded());
+    }
+
+    /**
+     * Tests running commands and the status codes of rejected commands
+     * @throws Exception if a request fails
+     */
+    @Test
+    void testCommands() throws Exception {
+        String path = trackPath() + "/papers/1/commands";
+        HttpResponse<String> response = send("POST", path, "{\"command\": \"ASSIGN\", \"information\": \"reviewer1\"}");
+        assertEquals(200, response.statusCode());
+        assertTrue(response.body().contains("\"state\":\"Reviewing\""));
+        assertTrue(response.body().contains("\"reviewer\":\"reviewer1\""));
+
+        response = send("GET", trackPath() + "/papers?state=Reviewing&reviewer=reviewer1", null);
+        assertTrue(response.body().startsWith("[{\"id\":1,"));
+
+        assertEquals(409, send("POST", path, "{\"command\": \"SUBMIT\"}").statusCode());
+        assertEquals(400, send("POST", path, "{\"command\": \"RECOMMEND\", \"information\": \"Maybe\"}").statusCode());
+        assertEquals(400, send("POST", path, "{\"command\": \"FLY\"}").statusCode());
+        assertEquals(400, send("POST", path, "not json").statusCode());
+        assertEquals(404, send("POST", trackPath() + "/papers/99/commands", "{\"command\": \"ASSIGN\", \"information\": \"r\"}").statusCode());
+    }
+
+    /**
+     * Tests that a command with a version only runs if the paper is still at that version
+     * @throws Exception if a request fails
+     */
+    @Test
+    void testVersionedCommands() throws Exception {
+        String path = trackPath() + "/papers/2/commands";
+        assertTrue(send("GET", trackPath() + "/papers/2", null).body().contains("\"version\":0"));
+        HttpResponse<String> response = send("POST", path,
+                "{\"command\": \"ASSIGN\", \"information\": \"reviewer1\", \"version\": 0}");
+        assertEquals(200, response.statusCode());
+        assertTrue(response.body().contains("\"version\":1"));
+        assertEquals(412, send("POST", path, "{\"command\": \"RECOMMEND\", "
+                + "\"information\": \"StrongAcceptRecommendation\", \"version\": 0}").statusCode());
+        assertEquals(400, send("POST", path, "{\"command\": \"ASSIGN\", \"information\": \"r\", \"version\": \"x\"}").statusCode());
+        assertEquals(200, send("POST", path, "{\"command\": \"RECOMMEND\", "
+                + "\"information\": \"StrongAcceptRecommendation\", \"version\": 1}").statusCode());
+    }
+
+    /**
+     * Tests that archived papers can still be read and get the status of their state for commands
+     * @throws Exception if a request fails
+     */
+    @Test
+    void testArchivedPapers() throws Exception {
+        PaperTrack track = WolfReview.getInstance().getPaperTrack(trackName);
+        track.addPaper(new Paper(21, Paper.CLOSED_NAME, "D. Ferdinand", Paper.P_FULLPAPER, false, "", "Withdrawn"));
+        assertEquals(1, track.archiveClosed());
+        HttpResponse<String> response = send("GET", trackPath() + "/papers/21", null);
+        assertEquals(200, response.statusCode());
+        assertTrue(response.body().contains("\"state\":\"Closed\""));
+        assertTrue(send("GET", trackPath() + "/papers?state=Closed", null).body().startsWith("[{\"id\":21,"));
+        assertEquals(409, send("POST", trackPath() + "/papers/21/commands", "{\"command\": \"SUBMIT\"}").statusCode());
+    }
+
+    /**
+     * Tests many concurrent requests that each run a command on a different paper
+     * @throws Exception if a request fails
+     */
+    @Test
+    void testConcurrentCommands() throws Exception {
+        ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor();
+        List<Future<Integer>> results = new ArrayList<Future<Integer>>();
+        for (int id = 1; id <= 20; id++) {
+            String path = trackPath() + "/papers/" + id + "/commands";
+            results.add(pool.submit(() -> send("POST", path, "{\"command\": \"ASSIGN\", \"information\": \"r\"}").statusCode()));
+            results.add(pool.submit(() -> send("GET", trackPath() + "/papers", null).statusCode()));
+        }
+        for (Future<Integer> result : results) {
+            assertEquals(200, (int) result.get());
+        }
+        pool.shutdown();
+        assertEquals(20, WolfReview.getInstance().getReviewerIndex().getPaperIds("r", trackName).size());
+    }
+
+    /**
+     * Tests reading flat JSON objects
+     */
+    @Test
+    void testParseObject() {
+        assertEquals(Map.of("a", "x\"y", "b", "12", "c", "true"), Json.parseObject(" {\"a\":\"x\\\"y\", \"b\": 12, \"c\":true} "));
+        assertNull(Json.parseObject("{\"a\": null}").get("a"));
+        assertTrue(Json.parseObject("{}").isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> Json.parseObject("{\"a\": [1]}"));
+        assertThrows(IllegalArgumentException.class, () -> Json.parseObject("{\"a\": 1"));
+        assertEquals("\"a\\nb\"", Json.quote("a\nb"));
+    }
+}